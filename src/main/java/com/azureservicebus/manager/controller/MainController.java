@@ -1,15 +1,46 @@
 package com.azureservicebus.manager.controller;
 
+import com.azureservicebus.manager.decoder.BodyDecoder;
+import com.azureservicebus.manager.decoder.BodyDecoderRegistry;
+import com.azureservicebus.manager.decoder.DecodedBody;
+import com.azureservicebus.manager.decoder.SchemaStore;
 import com.azureservicebus.manager.model.CreateQueueResult;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
 import com.azureservicebus.manager.model.QueueInfo;
+import com.azureservicebus.manager.model.ResubmitOptions;
+import com.azureservicebus.manager.model.MessageBody;
 import com.azureservicebus.manager.model.MessageInfo;
+import com.azureservicebus.manager.model.NamespaceEntityInfo;
+import com.azureservicebus.manager.model.NamespaceSnapshot;
 import com.azureservicebus.manager.model.TopicInfo;
+import com.azureservicebus.manager.model.TransferOptions;
 import com.azureservicebus.manager.model.SubscriptionInfo;
+import com.azureservicebus.manager.search.MessageQuery;
+import com.azureservicebus.manager.search.MessageSearchIndex;
+import com.azureservicebus.manager.service.BulkSendEngine;
+import com.azureservicebus.manager.service.LiveTailSession;
+import com.azureservicebus.manager.service.LockedBrowseSession;
+import com.azureservicebus.manager.service.MessageSources;
+import com.azureservicebus.manager.service.NamespaceSnapshotStore;
+import com.azureservicebus.manager.service.RuntimeMetricsPoller;
 import com.azureservicebus.manager.service.ServiceBusService;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.MessagePageWindow;
+import com.azureservicebus.manager.util.RuntimeMetricsSeries;
+import com.azureservicebus.manager.util.SortedListDiff;
 import com.azureservicebus.manager.util.TableViewCopyUtil;
+import com.azureservicebus.manager.util.TableViewScrollUtil;
+import com.azureservicebus.manager.util.TaskScope;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -18,20 +49,33 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.Callback;
+import javafx.util.Duration;
 import javafx.geometry.Pos;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Controller principal da aplicação
@@ -41,10 +85,16 @@ public class MainController implements Initializable {
     
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter ENQUEUED_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    
+    // Corpo mostrado nos detalhes ao selecionar uma mensagem; o resto só com "Corpo completo"
+    private static final int DETAILS_BODY_LIMIT_BYTES = 64 * 1024;
+    private static final int DETAILS_DECODED_LIMIT_CHARS = 64 * 1024;
     
     // Componentes da interface - Conexão
     @FXML private Button disconnectButton;
     @FXML private Label connectionStatusLabel;
+    @FXML private Label activeOperationsLabel;
     @FXML private Label namespaceLabel;
     @FXML private HBox headerBox; // Container do header
     @FXML private HBox namespaceBox; // Container da área do namespace
@@ -61,6 +111,7 @@ public class MainController implements Initializable {
     // Aba de Filas
     @FXML private Button loadQueuesButton;
     @FXML private TextField queueFilterField;
+    @FXML private Label queueListLabel;
     @FXML private ListView<String> queueListView;
     @FXML private TableView<QueueInfo> queueDetailsTable;
     @FXML private TableColumn<QueueInfo, String> queueNameColumn;
@@ -69,6 +120,7 @@ public class MainController implements Initializable {
     @FXML private TableColumn<QueueInfo, Long> activeMessagesColumn;
     @FXML private TableColumn<QueueInfo, Long> deadLetterMessagesColumn;
     @FXML private TableColumn<QueueInfo, Double> sizeColumn;
+    @FXML private TableColumn<QueueInfo, String> queueTrendColumn;
     @FXML private TableColumn<QueueInfo, Void> actionsColumn;
     
     @FXML private TextField newQueueNameField;
@@ -78,6 +130,7 @@ public class MainController implements Initializable {
     // Aba de Tópicos
     @FXML private Button loadTopicsButton;
     @FXML private TextField topicFilterField;
+    @FXML private Label topicListLabel;
     @FXML private ListView<String> topicListView;
     @FXML private TableView<TopicInfo> topicDetailsTable;
     @FXML private TableColumn<TopicInfo, String> topicNameColumn;
@@ -93,12 +146,14 @@ public class MainController implements Initializable {
     @FXML private Label selectedTopicLabel;
     @FXML private TextField subscriptionFilterField;
     @FXML private Button loadSubscriptionsButton;
+    @FXML private Button simulateRoutingButton;
     @FXML private TableView<SubscriptionInfo> subscriptionsTable;
     @FXML private TableColumn<SubscriptionInfo, String> subscriptionNameColumn;
     @FXML private TableColumn<SubscriptionInfo, String> subscriptionStatusColumn;
     @FXML private TableColumn<SubscriptionInfo, Long> subscriptionTotalMessagesColumn;
     @FXML private TableColumn<SubscriptionInfo, Long> subscriptionActiveMessagesColumn;
     @FXML private TableColumn<SubscriptionInfo, Long> subscriptionDeadLetterMessagesColumn;
+    @FXML private TableColumn<SubscriptionInfo, String> subscriptionTrendColumn;
     @FXML private TableColumn<SubscriptionInfo, Void> subscriptionActionsColumn;
     
     @FXML private TextField newSubscriptionNameField;
@@ -113,8 +168,27 @@ public class MainController implements Initializable {
     @FXML private TableColumn<MessageInfo, String> messageIdColumn;
     @FXML private TableColumn<MessageInfo, String> messageBodyColumn;
     @FXML private TableColumn<MessageInfo, String> enqueuedTimeColumn;
+    @FXML private TableColumn<MessageInfo, String> lockedUntilColumn;
     @FXML private TableColumn<MessageInfo, Void> messageActionsColumn;
     @FXML private TextArea messageDetailsTextArea;
+    @FXML private Button loadFullBodyButton;
+    @FXML private Button importSchemasButton;
+    @FXML private CheckBox lockedBrowseCheckBox;
+    @FXML private TextField jumpToSequenceField;
+    @FXML private Button jumpToSequenceButton;
+    @FXML private Label messagesWindowLabel;
+    @FXML private TextField messageSearchField;
+    @FXML private Label messageSearchLabel;
+    @FXML private Button exportMessagesButton;
+    @FXML private Button transferMessagesButton;
+    @FXML private ToggleButton liveTailToggle;
+    @FXML private VBox lockedActionsBox;
+    @FXML private Button completeLockedButton;
+    @FXML private Button abandonLockedButton;
+    @FXML private Button deadLetterLockedButton;
+    @FXML private Button deferLockedButton;
+    @FXML private Button releaseLocksButton;
+    @FXML private Label lockedStatusLabel;
     
     // Aba de Envio de Mensagens (Filas)
     @FXML private ComboBox<String> sendQueueComboBox;
@@ -124,11 +198,23 @@ public class MainController implements Initializable {
     @FXML private TextField property2KeyField;
     @FXML private TextField property2ValueField;
     @FXML private Button sendMessageButton;
+    @FXML private TextField bulkSendCountField;
+    @FXML private TextField bulkSendConcurrencyField;
+    @FXML private Button bulkSendButton;
+    @FXML private Button bulkSendFileButton;
+    @FXML private TextField replayRateField;
+    @FXML private Button replayButton;
     
     // Aba de Ver Mensagens de Tópicos/Subscriptions
     @FXML private ComboBox<String> viewTopicComboBox;
     @FXML private ComboBox<String> viewSubscriptionComboBox;
     @FXML private Button loadTopicMessagesButton;
+    @FXML private Button exportTopicMessagesButton;
+    @FXML private Button transferTopicMessagesButton;
+    @FXML private ToggleButton topicLiveTailToggle;
+    @FXML private Label topicLiveTailLabel;
+    @FXML private TextField topicMessageSearchField;
+    @FXML private Label topicMessageSearchLabel;
     @FXML private TableView<MessageInfo> topicMessagesTable;
     @FXML private TableColumn<MessageInfo, Long> topicSequenceNumberColumn;
     @FXML private TableColumn<MessageInfo, String> topicMessageIdColumn;
@@ -136,6 +222,8 @@ public class MainController implements Initializable {
     @FXML private TableColumn<MessageInfo, String> topicEnqueuedTimeColumn;
     @FXML private TableColumn<MessageInfo, Void> topicMessageActionsColumn;
     @FXML private TextArea topicMessageDetailsTextArea;
+    @FXML private Button topicLoadFullBodyButton;
+    @FXML private Button topicImportSchemasButton;
     
     // Aba de Envio de Mensagens para Tópicos
     @FXML private ComboBox<String> sendTopicComboBox;
@@ -145,6 +233,31 @@ public class MainController implements Initializable {
     @FXML private TextField sendTopicProperty2KeyField;
     @FXML private TextField sendTopicProperty2ValueField;
     @FXML private Button sendToTopicButton;
+    @FXML private TextField sendTopicBulkCountField;
+    @FXML private TextField sendTopicBulkConcurrencyField;
+    @FXML private Button sendTopicBulkButton;
+    @FXML private Button sendTopicBulkFileButton;
+    @FXML private TextField sendTopicReplayRateField;
+    @FXML private Button sendTopicReplayButton;
+    
+    // Aba de Inventário do Namespace
+    @FXML private Button inventorySweepButton;
+    @FXML private Button inventoryCancelButton;
+    @FXML private TextField inventoryConcurrencyField;
+    @FXML private TextField inventoryFilterField;
+    @FXML private ProgressBar inventoryProgressBar;
+    @FXML private Label inventoryStatusLabel;
+    @FXML private TableView<NamespaceEntityInfo> inventoryTable;
+    @FXML private TableColumn<NamespaceEntityInfo, String> inventoryTypeColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, String> inventoryNameColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, String> inventoryStatusColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, Long> inventoryActiveColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, Long> inventoryDeadLetterColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, Long> inventoryScheduledColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, Integer> inventorySubscriptionsColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, Double> inventorySizeColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, String> inventoryUpdatedAtColumn;
+    @FXML private TableColumn<NamespaceEntityInfo, String> inventoryLoadStateColumn;
     
     // Log
     @FXML private TextArea logTextArea;
@@ -159,6 +272,30 @@ public class MainController implements Initializable {
     private ObservableList<QueueInfo> queueDetails = FXCollections.observableArrayList();
     private ObservableList<MessageInfo> messages = FXCollections.observableArrayList();
     
+    // Tarefas em segundo plano (virtual threads): as do perfil atual são canceladas ao trocar de perfil
+    private final TaskScope windowScope = TaskScope.application().child("janela");
+    private TaskScope profileScope = windowScope.child("perfil");
+    private final AtomicBoolean activeOperationsUpdateScheduled = new AtomicBoolean(false);
+    
+    // Navegação paginada na aba de mensagens de filas (janela limitada de páginas; apenas FX thread)
+    private static final long END_PROBE_INTERVAL_NANOS = 2_000_000_000L;
+    private final MessagePageWindow messageWindow = new MessagePageWindow();
+    private EntityPath browsedEntity;
+    private int messagePageGeneration;
+    private boolean messagePageLoading;
+    private long lastEndProbeNanos;
+    
+    // Navegação com lock na aba de mensagens de filas (acedida apenas na FX thread)
+    private LockedBrowseSession lockedBrowseSession;
+    
+    // Acompanhamento ao vivo (um de cada vez; a sessão só notifica, a FX thread retira as mensagens)
+    private LiveTailSession liveTailSession;
+    private TableView<MessageInfo> liveTailTable;
+    private ObservableList<MessageInfo> liveTailItems;
+    private Label liveTailStatusLabel;
+    private ToggleButton liveTailActiveToggle;
+    private final AtomicBoolean liveTailDrainScheduled = new AtomicBoolean(false);
+    
     // Dados de tópicos e subscriptions
     private ObservableList<String> topicNames = FXCollections.observableArrayList();
     private ObservableList<TopicInfo> topicDetails = FXCollections.observableArrayList();
@@ -166,9 +303,41 @@ public class MainController implements Initializable {
     private ObservableList<String> subscriptionNames = FXCollections.observableArrayList();
     private String selectedTopicName = null;
     
+    // Carregamento de detalhes de subscriptions (cancelado ao trocar de tópico)
+    private static final int SUBSCRIPTION_DETAILS_CONCURRENCY = 16;
+    private CancellationToken subscriptionLoadToken;
+    
     // Mensagens de tópicos
     private ObservableList<MessageInfo> topicMessages = FXCollections.observableArrayList();
     
+    // Pesquisa nas mensagens carregadas (índice atualizado em segundo plano a cada página)
+    private static final Duration MESSAGE_SEARCH_DEBOUNCE = Duration.millis(200);
+    private MessageSearch messageSearch;
+    private MessageSearch topicMessageSearch;
+    
+    // Inventário do namespace (atualizações chegam de várias threads e são aplicadas em blocos)
+    private static final int MAX_INVENTORY_CONCURRENCY = 64;
+    private ObservableList<NamespaceEntityInfo> inventoryEntries = FXCollections.observableArrayList();
+    private final Map<String, NamespaceEntityInfo> inventoryByKey = new HashMap<>();
+    private final ConcurrentLinkedQueue<NamespaceEntityInfo> pendingInventoryUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean inventoryDrainScheduled = new AtomicBoolean(false);
+    private final Set<String> inventorySeenKeys = new HashSet<>();
+    private volatile CancellationToken inventorySweepToken;
+    
+    // Último estado conhecido do namespace por perfil, mostrado como cache até a listagem real chegar
+    private static final DateTimeFormatter SNAPSHOT_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    private final NamespaceSnapshotStore namespaceSnapshotStore = new NamespaceSnapshotStore(
+        com.azureservicebus.manager.service.ProfileService.getConfigDirectory());
+    private String namespaceSnapshotProfile;
+    private boolean namespaceSnapshotPendingReconcile;
+    
+    // Decodificadores de corpo (gzip, Avro, Protobuf...) e schemas importados pelo usuário
+    private final BodyDecoderRegistry bodyDecoders = new BodyDecoderRegistry(new SchemaStore(
+        com.azureservicebus.manager.service.ProfileService.getConfigDirectory().resolve("schemas")));
+    
+    // Métricas de runtime amostradas em segundo plano (um ciclo agenda no máximo uma atualização)
+    private final AtomicBoolean runtimeMetricsDrainScheduled = new AtomicBoolean(false);
+    
     // Flags para prevenir loops infinitos nas ComboBoxes
     private boolean updatingViewQueueComboBox = false;
     private boolean updatingSendQueueComboBox = false;
@@ -204,6 +373,44 @@ public class MainController implements Initializable {
         serviceBusService.setOnLogMessage(message -> {
             Platform.runLater(() -> addLogMessage(message));
         });
+        
+        serviceBusService.setOnRuntimeMetricsSampled(entities -> {
+            if (runtimeMetricsDrainScheduled.compareAndSet(false, true)) {
+                Platform.runLater(this::applyRuntimeMetrics);
+            }
+        });
+        
+        TaskScope.application().addInFlightListener(() -> {
+            if (activeOperationsUpdateScheduled.compareAndSet(false, true)) {
+                Platform.runLater(this::updateActiveOperations);
+            }
+        });
+    }
+    
+    /**
+     * Mostra o número de operações em curso (tarefas da interface) e, no tooltip, o total de tarefas
+     * em segundo plano incluindo as do serviço e o estado do controlo de throttling
+     */
+    private void updateActiveOperations() {
+        activeOperationsUpdateScheduled.set(false);
+        int operations = windowScope.getInFlightCount();
+        activeOperationsLabel.setVisible(operations > 0);
+        activeOperationsLabel.setManaged(operations > 0);
+        activeOperationsLabel.setText(operations == 1 ? "⏳ 1 operação em curso" : String.format("⏳ %d operações em curso", operations));
+        String tooltip = String.format("%d tarefas em segundo plano", TaskScope.application().getInFlightCount());
+        String throttleSummary = serviceBusService.getThrottleSummary();
+        if (throttleSummary != null) {
+            tooltip += "\n" + throttleSummary;
+        }
+        activeOperationsLabel.setTooltip(new Tooltip(tooltip));
+    }
+    
+    /**
+     * Cancela as operações do perfil anterior e abre um escopo novo para o perfil indicado
+     */
+    private void resetProfileScope(String profileName) {
+        profileScope.cancel();
+        profileScope = windowScope.child(profileName != null ? "perfil:" + profileName : "perfil");
     }
     
     private void setupInitialUI() {
@@ -213,7 +420,11 @@ public class MainController implements Initializable {
         // Configurar listas de filas
         queueListView.setItems(queueNames);
         queueDetailsTable.setItems(queueDetails);
-        messagesTable.setItems(messages);
+        messageSearch = new MessageSearch("queue", messages, messagesTable, messageSearchField, messageSearchLabel);
+        
+        // Mensagens que deixam as tabelas libertam os corpos guardados em disco
+        messages.addListener(this::releaseRemovedMessages);
+        topicMessages.addListener(this::releaseRemovedMessages);
         
         // Configurar listas de tópicos
         topicListView.setItems(topicNames);
@@ -230,7 +441,9 @@ public class MainController implements Initializable {
         sendTopicComboBox.setItems(topicNames);
         
         // Configurar tabelas de mensagens de tópicos
-        topicMessagesTable.setItems(topicMessages);
+        topicMessageSearch = new MessageSearch("subscription", topicMessages, topicMessagesTable, 
+            topicMessageSearchField, topicMessageSearchLabel);
+        topicMessagesTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         // Placeholder para mensagem
         messageBodyTextArea.setPromptText(
@@ -252,6 +465,7 @@ public class MainController implements Initializable {
         activeMessagesColumn.setCellValueFactory(new PropertyValueFactory<>("activeMessages"));
         deadLetterMessagesColumn.setCellValueFactory(new PropertyValueFactory<>("deadLetterMessages"));
         sizeColumn.setCellValueFactory(new PropertyValueFactory<>("sizeInKB"));
+        queueTrendColumn.setCellValueFactory(new PropertyValueFactory<>("trend"));
         
         // Configurar coluna de ações
         setupActionsColumn();
@@ -259,16 +473,14 @@ public class MainController implements Initializable {
         // Colunas da tabela de mensagens
         sequenceNumberColumn.setCellValueFactory(new PropertyValueFactory<>("sequenceNumber"));
         messageIdColumn.setCellValueFactory(new PropertyValueFactory<>("messageId"));
-        messageBodyColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().messageBodyProperty().map(body -> 
-                body != null && body.length() > 50 ? body.substring(0, 50) + "..." : body
-            )
-        );
-        enqueuedTimeColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().enqueuedTimeProperty().map(time -> 
-                time != null ? time.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) : "N/A"
-            )
-        );
+        messageBodyColumn.setCellValueFactory(cellData -> bodyPreviewCell(cellData.getValue()));
+        enqueuedTimeColumn.setCellValueFactory(cellData -> enqueuedTimeCell(cellData.getValue()));
+        
+        lockedUntilColumn.setCellValueFactory(cellData -> {
+            LocalDateTime lockedUntil = cellData.getValue().getLockedUntil();
+            return new ReadOnlyStringWrapper(lockedUntil != null ? lockedUntil.format(TIME_FORMATTER) : null);
+        });
+        messagesTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         
         // Configurar coluna de ações para mensagens
         setupMessageActionsColumn();
@@ -285,6 +497,7 @@ public class MainController implements Initializable {
         subscriptionTotalMessagesColumn.setCellValueFactory(new PropertyValueFactory<>("totalMessages"));
         subscriptionActiveMessagesColumn.setCellValueFactory(new PropertyValueFactory<>("activeMessages"));
         subscriptionDeadLetterMessagesColumn.setCellValueFactory(new PropertyValueFactory<>("deadLetterMessages"));
+        subscriptionTrendColumn.setCellValueFactory(new PropertyValueFactory<>("trend"));
         
         // Configurar coluna de ações para subscriptions
         setupSubscriptionActionsColumn();
@@ -292,19 +505,65 @@ public class MainController implements Initializable {
         // Colunas da tabela de mensagens de tópicos
         topicSequenceNumberColumn.setCellValueFactory(new PropertyValueFactory<>("sequenceNumber"));
         topicMessageIdColumn.setCellValueFactory(new PropertyValueFactory<>("messageId"));
-        topicMessageBodyColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().messageBodyProperty().map(body -> 
-                body != null && body.length() > 50 ? body.substring(0, 50) + "..." : body
+        topicMessageBodyColumn.setCellValueFactory(cellData -> bodyPreviewCell(cellData.getValue()));
+        topicEnqueuedTimeColumn.setCellValueFactory(cellData -> enqueuedTimeCell(cellData.getValue()));
+        
+        // Configurar coluna de ações para mensagens de tópicos
+        setupTopicMessageActionsColumn();
+        
+        // Colunas da tabela de inventário do namespace
+        inventoryTypeColumn.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getTypeText()));
+        inventoryNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        inventoryStatusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        inventoryActiveColumn.setCellValueFactory(new PropertyValueFactory<>("activeMessages"));
+        inventoryDeadLetterColumn.setCellValueFactory(new PropertyValueFactory<>("deadLetterMessages"));
+        inventoryScheduledColumn.setCellValueFactory(new PropertyValueFactory<>("scheduledMessages"));
+        inventorySubscriptionsColumn.setCellValueFactory(new PropertyValueFactory<>("subscriptionCount"));
+        inventorySizeColumn.setCellValueFactory(new PropertyValueFactory<>("sizeInKB"));
+        inventoryUpdatedAtColumn.setCellValueFactory(cellData -> 
+            cellData.getValue().updatedAtProperty().map(time -> 
+                time.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"))
             )
         );
-        topicEnqueuedTimeColumn.setCellValueFactory(cellData -> 
-            cellData.getValue().enqueuedTimeProperty().map(time -> 
-                time != null ? time.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) : "N/A"
-            )
+        inventoryLoadStateColumn.setCellValueFactory(cellData -> 
+            cellData.getValue().loadStateProperty().map(NamespaceEntityInfo.LoadState::getDisplayName)
         );
         
-        // Configurar coluna de ações para mensagens de tópicos
-        setupTopicMessageActionsColumn();
+        // Filtro e ordenação do inventário sobre a mesma lista que recebe as atualizações
+        FilteredList<NamespaceEntityInfo> filteredInventory = new FilteredList<>(inventoryEntries);
+        inventoryFilterField.textProperty().addListener((obs, oldVal, newVal) -> {
+            String filter = newVal == null ? "" : newVal.trim().toLowerCase();
+            filteredInventory.setPredicate(filter.isEmpty() ? null : 
+                entry -> entry.getName().toLowerCase().contains(filter));
+        });
+        SortedList<NamespaceEntityInfo> sortedInventory = new SortedList<>(filteredInventory);
+        sortedInventory.comparatorProperty().bind(inventoryTable.comparatorProperty());
+        inventoryTable.setItems(sortedInventory);
+        inventoryTable.getSortOrder().add(inventoryNameColumn);
+    }
+    
+    /**
+     * Pré-visualização do corpo para a tabela; mensagens do Service Bus decodificam só os primeiros bytes.
+     * Corpos num formato binário conhecido mostram o formato e o tamanho em vez de bytes ilegíveis.
+     */
+    private ObservableValue<String> bodyPreviewCell(MessageInfo message) {
+        BodyDecoder decoder = bodyDecoders.detect(message.getBody(), message.getContentType());
+        if (decoder != null) {
+            return new ReadOnlyStringWrapper(String.format("[%s • %s]", decoder.getName(), message.getFormattedSize()));
+        }
+        
+        String preview = message.getBody() != null ? message.getBody().getPreview() : message.getMessageBody();
+        return new ReadOnlyStringWrapper(preview != null && preview.length() > 50 
+            ? preview.substring(0, 50) + "..." : preview);
+    }
+    
+    /**
+     * Data de entrada formatada; as mensagens não têm properties, por isso o valor é calculado por célula
+     */
+    private static ObservableValue<String> enqueuedTimeCell(MessageInfo message) {
+        LocalDateTime time = message.getEnqueuedTime();
+        return new ReadOnlyStringWrapper(time != null ? time.format(ENQUEUED_TIME_FORMATTER) : "N/A");
     }
     
     private void setupActionsColumn() {
@@ -316,6 +575,7 @@ public class MainController implements Initializable {
                     private final Button deleteButton = new Button("✖");
                     private final Button clearButton = new Button("⚠");
                     private final Button refreshButton = new Button("↻");
+                    private final Button resubmitButton = new Button("♻");
                     private final HBox actionBox = new HBox(5);
                     
                     {
@@ -359,9 +619,19 @@ public class MainController implements Initializable {
                         );
                         refreshButton.setTooltip(new Tooltip("Atualizar dados da fila"));
                         
+                        // Configurar botão de reenvio da dead letter
+                        resubmitButton.setStyle(
+                            "-fx-background-color: #28a745; " +
+                            "-fx-text-fill: white; " +
+                            "-fx-font-size: 12px; " +
+                            "-fx-padding: 3 6 3 6; " +
+                            "-fx-cursor: hand;"
+                        );
+                        resubmitButton.setTooltip(new Tooltip("Reenviar mensagens da dead letter"));
+                        
                         // Configurar container
                         actionBox.setAlignment(Pos.CENTER);
-                        actionBox.getChildren().addAll(infoButton, refreshButton, deleteButton, clearButton);
+                        actionBox.getChildren().addAll(infoButton, refreshButton, resubmitButton, deleteButton, clearButton);
                         
                         // Event handlers
                         infoButton.setOnAction(event -> {
@@ -383,6 +653,12 @@ public class MainController implements Initializable {
                             QueueInfo queueInfo = getTableView().getItems().get(getIndex());
                             handleRefreshQueueFromTable(queueInfo.getName());
                         });
+                        
+                        resubmitButton.setOnAction(event -> {
+                            QueueInfo queueInfo = getTableView().getItems().get(getIndex());
+                            handleResubmitDeadLetters(EntityPath.queue(queueInfo.getName()), 
+                                queueInfo.getDeadLetterMessages(), () -> handleRefreshQueueFromTable(queueInfo.getName()));
+                        });
                     }
                     
                     @Override
@@ -450,6 +726,7 @@ public class MainController implements Initializable {
                 return new TableCell<SubscriptionInfo, Void>() {
                     private final Button infoButton = new Button("ℹ️");
                     private final Button rulesButton = new Button("📜");
+                    private final Button resubmitButton = new Button("♻");
                     private final Button deleteButton = new Button("✖");
                     private final Button clearButton = new Button("⚠");
                     private final HBox actionBox = new HBox(5);
@@ -473,6 +750,15 @@ public class MainController implements Initializable {
                         );
                         rulesButton.setTooltip(new Tooltip("Gerenciar Rules"));
                         
+                        resubmitButton.setStyle(
+                            "-fx-background-color: #28a745; " +
+                            "-fx-text-fill: white; " +
+                            "-fx-font-size: 12px; " +
+                            "-fx-padding: 3 6 3 6; " +
+                            "-fx-cursor: hand;"
+                        );
+                        resubmitButton.setTooltip(new Tooltip("Reenviar mensagens da dead letter"));
+                        
                         deleteButton.setStyle(
                             "-fx-background-color: #dc3545; " +
                             "-fx-text-fill: white; " +
@@ -492,7 +778,7 @@ public class MainController implements Initializable {
                         clearButton.setTooltip(new Tooltip("Limpar mensagens"));
                         
                         actionBox.setAlignment(Pos.CENTER);
-                        actionBox.getChildren().addAll(infoButton, rulesButton, deleteButton, clearButton);
+                        actionBox.getChildren().addAll(infoButton, rulesButton, resubmitButton, deleteButton, clearButton);
                         
                         infoButton.setOnAction(event -> {
                             SubscriptionInfo subInfo = getTableView().getItems().get(getIndex());
@@ -504,6 +790,12 @@ public class MainController implements Initializable {
                             handleManageRules(subInfo);
                         });
                         
+                        resubmitButton.setOnAction(event -> {
+                            SubscriptionInfo subInfo = getTableView().getItems().get(getIndex());
+                            handleResubmitDeadLetters(EntityPath.subscription(subInfo.getTopicName(), subInfo.getName()), 
+                                subInfo.getDeadLetterMessages(), () -> handleLoadSubscriptions());
+                        });
+                        
                         deleteButton.setOnAction(event -> {
                             SubscriptionInfo subInfo = getTableView().getItems().get(getIndex());
                             handleDeleteSubscription(subInfo);
@@ -607,7 +899,7 @@ public class MainController implements Initializable {
                 }
             };
             
-            new Thread(deleteTask).start();
+            profileScope.execute(deleteTask);
         }
     }
     
@@ -619,90 +911,171 @@ public class MainController implements Initializable {
         );
         
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            Task<Integer> clearTask = new Task<Integer>() {
-                @Override
-                protected Integer call() throws Exception {
-                    return serviceBusService.clearQueueMessagesAsync(queueName).get();
-                }
-                
-                @Override
-                protected void succeeded() {
-                    Platform.runLater(() -> {
-                        addLogMessage(String.format("Limpeza da fila '%s' concluída: %d mensagens removidas", queueName, getValue()));
-                        // Atualizar detalhes da fila se ela estiver selecionada
-                        String selectedQueue = queueListView.getSelectionModel().getSelectedItem();
-                        if (queueName.equals(selectedQueue)) {
-                            handleQueueSelection(selectedQueue);
-                        }
-                    });
-                }
-                
-                @Override
-                protected void failed() {
-                    Platform.runLater(() -> {
-                        showAlert("Erro", "Erro ao limpar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
-                    });
+            startPurge(EntityPath.queue(queueName), () -> {
+                // Atualizar detalhes da fila se ela estiver selecionada
+                String selectedQueue = queueListView.getSelectionModel().getSelectedItem();
+                if (queueName.equals(selectedQueue)) {
+                    handleQueueSelection(selectedQueue);
                 }
-            };
+            });
+        }
+    }
+    
+    /**
+     * Limpa as mensagens ativas e a dead letter da entidade com o diálogo de progresso
+     * (taxa, ETA e cancelamento); {@code onFinished} corre na FX thread no fim, mesmo se cancelado
+     */
+    private void startPurge(EntityPath entity, Runnable onFinished) {
+        String description = String.format("Removendo todas as mensagens de '%s' (ativas e dead letter)", entity);
+        
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, "Limpeza de Mensagens", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+        addLogMessage(description);
+        
+        Task<OperationProgress> purgeTask = new Task<OperationProgress>() {
+            @Override
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.purgeMessagesAsync(entity, true, true, 
+                    cancellationToken, progressDialog::update).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s de '%s': %,d mensagens removidas", 
+                        progress.isCancelled() ? "Limpeza cancelada" : "Limpeza concluída", entity, progress.getProcessed());
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
+                    onFinished.run();
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    progressDialog.fail("Erro ao limpar mensagens: " + getException().getMessage());
+                    addLogMessage("Erro ao limpar mensagens de '" + entity + "': " + getException().getMessage());
+                    onFinished.run();
+                });
+            }
+        };
+        
+        profileScope.execute(purgeTask);
+    }
+    
+    /**
+     * Abre o diálogo de opções e reenvia a dead letter da fila ou subscription para a entidade
+     * de origem, com o diálogo de progresso; {@code onFinished} corre na FX thread no fim
+     */
+    private void handleResubmitDeadLetters(EntityPath entity, long deadLetterCount, Runnable onFinished) {
+        ResubmitOptions options;
+        try {
+            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("/fxml/resubmit-dialog.fxml"));
+            DialogPane dialogPane = loader.load();
+            ResubmitDialogController dialogController = loader.getController();
+            dialogController.setEntity(entity, deadLetterCount);
+            
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+            dialog.setDialogPane(dialogPane);
+            dialog.setTitle("Reenviar Dead Letter - " + entity.getDisplayName());
+            
+            Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
+            if (okButton != null) {
+                okButton.setText("♻ Reenviar");
+            }
             
-            new Thread(clearTask).start();
+            dialogController.setDialogPane(dialogPane);
+            
+            Optional<ButtonType> result = dialog.showAndWait();
+            if (result.isEmpty() || result.get() != ButtonType.OK) {
+                return;
+            }
+            options = dialogController.getOptions();
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de reenvio", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
         }
+        
+        String target = entity.isSubscription() ? "o tópico '" + entity.getName() + "'" : "a fila '" + entity.getName() + "'";
+        String description = String.format("Reenviando a dead letter de '%s' para %s (%s)", entity, target, options.getSummary());
+        
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, "Reenvio da Dead Letter", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+        addLogMessage(description);
+        
+        Task<OperationProgress> resubmitTask = new Task<OperationProgress>() {
+            @Override
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.resubmitDeadLettersAsync(entity, options, 
+                    cancellationToken, progressDialog::update).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s de '%s': %,d mensagens reenviadas", 
+                        progress.isCancelled() ? "Reenvio cancelado" 
+                            : progress.isIncomplete() ? "Reenvio interrompido" : "Reenvio concluído", 
+                        entity, progress.getProcessed());
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
+                    onFinished.run();
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    progressDialog.fail("Erro ao reenviar mensagens: " + getException().getMessage());
+                    addLogMessage("Erro ao reenviar a dead letter de '" + entity + "': " + getException().getMessage());
+                    onFinished.run();
+                });
+            }
+        };
+        
+        profileScope.execute(resubmitTask);
     }
     
     private void handleDeleteMessageFromTable(MessageInfo messageInfo) {
-        String queueName = viewQueueComboBox.getValue();
-        
-        if (queueName == null) {
-            showAlert("Erro", "Não foi possível determinar a fila da mensagem", Alert.AlertType.ERROR);
+        // Mensagem retida com lock: remoção direta pelo lock token, sem varrer a fila
+        if (lockedBrowseSession != null && messageInfo.getLockToken() != null) {
+            messagesTable.getSelectionModel().clearSelection();
+            messagesTable.getSelectionModel().select(messageInfo);
+            handleSettleSelectedMessages(LockedBrowseSession.Settlement.COMPLETE);
             return;
         }
         
-        // Diálogo de confirmação para remoção da mensagem
+        // Mensagem apenas espiada: não há forma de a receber pelo sequence number sem bloquear e
+        // devolver as que estão à frente, por isso a remoção passa pelo modo com lock
         Optional<ButtonType> result = showConfirmation(
-            "Confirmar Remoção da Mensagem",
-            String.format("Tem certeza que deseja remover a mensagem com sequence number %d?\n\nEsta operação é irreversível!", 
+            "Remover Mensagem",
+            String.format("A mensagem %d foi apenas espiada e não tem lock.\n\n" +
+                "Para a remover, ative o modo com lock, carregue a página que a contém e use 'Concluir' " +
+                "(ou o botão de remover na linha). Ativar o modo com lock agora?", 
                 messageInfo.getSequenceNumber())
         );
         
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            Task<Boolean> deleteTask = new Task<Boolean>() {
-                @Override
-                protected Boolean call() throws Exception {
-                    return serviceBusService.deleteMessageAsync(queueName, messageInfo.getSequenceNumber()).get();
-                }
-                
-                @Override
-                protected void succeeded() {
-                    Platform.runLater(() -> {
-                        if (getValue()) {
-                            addLogMessage(String.format("Mensagem %d removida com sucesso da fila '%s'!", 
-                                messageInfo.getSequenceNumber(), queueName));
-                            
-                            // Recarregar mensagens para atualizar a lista
-                            handleLoadMessages();
-                            
-                            // Mostrar diálogo de sucesso
-                            showAlert("Sucesso", 
-                                String.format("Mensagem removida com sucesso da fila '%s'!", queueName), 
-                                Alert.AlertType.INFORMATION);
-                        } else {
-                            showAlert("Aviso", 
-                                String.format("Mensagem %d não foi encontrada na fila '%s'. Pode já ter sido processada.", 
-                                    messageInfo.getSequenceNumber(), queueName), 
-                                Alert.AlertType.WARNING);
-                        }
-                    });
-                }
-                
-                @Override
-                protected void failed() {
-                    Platform.runLater(() -> {
-                        showAlert("Erro", "Erro ao remover mensagem: " + getException().getMessage(), Alert.AlertType.ERROR);
-                    });
-                }
-            };
-            
-            new Thread(deleteTask).start();
+            lockedBrowseCheckBox.setSelected(true);
+            handleLoadMessages();
         }
     }
     
@@ -747,7 +1120,7 @@ public class MainController implements Initializable {
             }
         };
         
-        new Thread(refreshTask).start();
+        profileScope.execute(refreshTask);
     }
     
     private void setupEventHandlers() {
@@ -773,12 +1146,83 @@ public class MainController implements Initializable {
         messagesTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldVal, newVal) -> handleMessageSelection(newVal)
         );
+        loadFullBodyButton.setOnAction(e -> 
+            handleLoadFullBody(messagesTable, messageDetailsTextArea, loadFullBodyButton));
+        importSchemasButton.setOnAction(e -> handleImportSchemas());
+        
+        // Navegação paginada: carregar páginas ao chegar às extremidades do scroll
+        TableViewScrollUtil.addScrollEdgeListener(messagesTable, () -> loadMessagePage(false), () -> loadMessagePage(true));
+        jumpToSequenceButton.setOnAction(e -> handleJumpToSequence());
+        jumpToSequenceField.setOnAction(e -> handleJumpToSequence());
+        exportMessagesButton.setOnAction(e -> {
+            String queueName = resolveViewQueueName();
+            if (queueName != null) {
+                handleExportMessages(EntityPath.queue(queueName));
+            }
+        });
+        transferMessagesButton.setOnAction(e -> {
+            String queueName = resolveViewQueueName();
+            if (queueName != null) {
+                handleTransferMessages(EntityPath.queue(queueName), messagesTable, this::handleLoadMessages);
+            }
+        });
+        
+        // Acompanhamento ao vivo
+        liveTailToggle.setOnAction(e -> {
+            if (!liveTailToggle.isSelected()) {
+                stopLiveTail();
+                return;
+            }
+            String queueName = resolveViewQueueName();
+            if (queueName == null || lockedBrowseCheckBox.isSelected()) {
+                if (queueName != null) {
+                    showAlert("Aviso", "O acompanhamento ao vivo só está disponível na visualização sem lock", Alert.AlertType.WARNING);
+                }
+                liveTailToggle.setSelected(false);
+                return;
+            }
+            
+            // Continua a partir da última mensagem mostrada quando a tabela já tem mensagens desta fila
+            EntityPath entity = EntityPath.queue(queueName);
+            boolean resume = entity.equals(browsedEntity) && !messages.isEmpty();
+            long fromSequenceNumber = resume ? messageWindow.getNextSequenceNumber() : 0;
+            messagePageGeneration++;
+            messagePageLoading = false;
+            browsedEntity = null;
+            if (!resume) {
+                messages.clear();
+            }
+            startLiveTail(entity, fromSequenceNumber, messagesTable, messagesWindowLabel, liveTailToggle);
+        });
+        
+        // Navegação com lock
+        lockedBrowseCheckBox.selectedProperty().addListener(
+            (obs, oldVal, newVal) -> handleLockedBrowseToggle(newVal)
+        );
+        viewQueueComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (liveTailSession != null && liveTailActiveToggle == liveTailToggle 
+                && !liveTailSession.getEntity().getName().equals(newVal)) {
+                stopLiveTail();
+            }
+            // As mensagens retidas pertencem à fila anterior: devolvê-las ao trocar de fila
+            if (lockedBrowseSession != null && !lockedBrowseSession.getEntity().getName().equals(newVal)) {
+                closeLockedBrowseSession();
+            }
+        });
+        completeLockedButton.setOnAction(e -> handleSettleSelectedMessages(LockedBrowseSession.Settlement.COMPLETE));
+        abandonLockedButton.setOnAction(e -> handleSettleSelectedMessages(LockedBrowseSession.Settlement.ABANDON));
+        deadLetterLockedButton.setOnAction(e -> handleSettleSelectedMessages(LockedBrowseSession.Settlement.DEAD_LETTER));
+        deferLockedButton.setOnAction(e -> handleSettleSelectedMessages(LockedBrowseSession.Settlement.DEFER));
+        releaseLocksButton.setOnAction(e -> closeLockedBrowseSession());
         
         // Configurar filtro na ComboBox de visualização de mensagens
         setupViewQueueComboBoxFilter();
         
         // Envio de mensagens
         sendMessageButton.setOnAction(e -> handleSendMessage());
+        bulkSendButton.setOnAction(e -> handleBulkSendToQueue(false));
+        bulkSendFileButton.setOnAction(e -> handleBulkSendToQueue(true));
+        replayButton.setOnAction(e -> handleReplayToQueue());
         
         // Configurar filtro na ComboBox de envio de mensagens
         setupSendQueueComboBoxFilter();
@@ -793,6 +1237,7 @@ public class MainController implements Initializable {
         
         // Subscriptions
         loadSubscriptionsButton.setOnAction(e -> handleLoadSubscriptions());
+        simulateRoutingButton.setOnAction(e -> handleSimulateRouting());
         subscriptionFilterField.textProperty().addListener((obs, oldVal, newVal) -> filterSubscriptions(newVal));
         createSubscriptionButton.setOnAction(e -> handleCreateSubscription());
         
@@ -803,12 +1248,53 @@ public class MainController implements Initializable {
         
         // Ver Mensagens de Tópicos
         loadTopicMessagesButton.setOnAction(e -> handleLoadTopicMessages());
+        exportTopicMessagesButton.setOnAction(e -> {
+            String topicName = viewTopicComboBox.getValue();
+            String subscriptionName = viewSubscriptionComboBox.getValue();
+            if (topicName == null || topicName.isEmpty() || subscriptionName == null || subscriptionName.isEmpty()) {
+                showAlert("Erro", "Selecione um tópico e uma subscription", Alert.AlertType.ERROR);
+                return;
+            }
+            handleExportMessages(EntityPath.subscription(topicName, subscriptionName));
+        });
+        transferTopicMessagesButton.setOnAction(e -> {
+            String topicName = viewTopicComboBox.getValue();
+            String subscriptionName = viewSubscriptionComboBox.getValue();
+            if (topicName == null || topicName.isEmpty() || subscriptionName == null || subscriptionName.isEmpty()) {
+                showAlert("Erro", "Selecione um tópico e uma subscription", Alert.AlertType.ERROR);
+                return;
+            }
+            handleTransferMessages(EntityPath.subscription(topicName, subscriptionName), 
+                topicMessagesTable, this::handleLoadTopicMessages);
+        });
         topicMessagesTable.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldVal, newVal) -> handleTopicMessageSelection(newVal)
         );
+        topicLoadFullBodyButton.setOnAction(e -> 
+            handleLoadFullBody(topicMessagesTable, topicMessageDetailsTextArea, topicLoadFullBodyButton));
+        topicImportSchemasButton.setOnAction(e -> handleImportSchemas());
+        topicLiveTailToggle.setOnAction(e -> {
+            if (!topicLiveTailToggle.isSelected()) {
+                stopLiveTail();
+                return;
+            }
+            String topicName = viewTopicComboBox.getValue();
+            String subscriptionName = viewSubscriptionComboBox.getValue();
+            if (topicName == null || topicName.isEmpty() || subscriptionName == null || subscriptionName.isEmpty()) {
+                showAlert("Erro", "Selecione um tópico e uma subscription", Alert.AlertType.ERROR);
+                topicLiveTailToggle.setSelected(false);
+                return;
+            }
+            topicMessages.clear();
+            startLiveTail(EntityPath.subscription(topicName, subscriptionName), 0, 
+                topicMessagesTable, topicLiveTailLabel, topicLiveTailToggle);
+        });
         
         // Envio de mensagens para tópicos
         sendToTopicButton.setOnAction(e -> handleSendMessageToTopic());
+        sendTopicBulkButton.setOnAction(e -> handleBulkSendToTopic(false));
+        sendTopicBulkFileButton.setOnAction(e -> handleBulkSendToTopic(true));
+        sendTopicReplayButton.setOnAction(e -> handleReplayToTopic());
         
         // Carregar subscriptions quando um tópico for selecionado no viewTopicComboBox
         viewTopicComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
@@ -817,6 +1303,17 @@ public class MainController implements Initializable {
             }
         });
         
+        // Inventário do namespace
+        inventorySweepButton.setOnAction(e -> handleInventorySweep());
+        inventoryCancelButton.setOnAction(e -> {
+            CancellationToken token = inventorySweepToken;
+            if (token != null) {
+                token.cancel();
+                inventoryCancelButton.setDisable(true);
+                inventoryStatusLabel.setText("Cancelando varredura...");
+            }
+        });
+        
         // Log
         clearLogButton.setOnAction(e -> logTextArea.clear());
     }
@@ -828,6 +1325,9 @@ public class MainController implements Initializable {
         // Tabela de filas
         TableViewCopyUtil.addCopyToClipboardSupport(queueDetailsTable);
         
+        // Tabela de inventário do namespace
+        TableViewCopyUtil.addCopyToClipboardSupport(inventoryTable);
+        
         // Tabela de mensagens de filas
         TableViewCopyUtil.addCopyToClipboardSupport(messagesTable);
         
@@ -894,6 +1394,7 @@ public class MainController implements Initializable {
                 applyProfileColor(profile.getColor());
                 
                 // Desconectar da conexão anterior se estiver conectado
+                resetProfileScope(profileName);
                 if (serviceBusService.isConnected()) {
                     serviceBusService.disconnect();
                     addLogMessage("Desconectado do perfil anterior");
@@ -902,6 +1403,9 @@ public class MainController implements Initializable {
                 // Definir como perfil ativo
                 profileService.setActiveProfile(profileName);
                 
+                // Mostrar o último estado conhecido enquanto a conexão e a listagem não terminam
+                showNamespaceSnapshot(profileName);
+                
                 // Conectar automaticamente com a nova connection string
                 String connectionString = profile.getConnectionString();
                 addLogMessage(String.format("Conectando ao perfil '%s'...", profileName));
@@ -917,6 +1421,7 @@ public class MainController implements Initializable {
                         Platform.runLater(() -> {
                             if (getValue()) {
                                 addLogMessage(String.format("Conectado ao perfil '%s' com sucesso!", profileName));
+                                reconcileNamespaceSnapshot();
                             } else {
                                 showAlert("Erro", "Falha ao conectar ao perfil. Verifique a connection string.", Alert.AlertType.ERROR);
                             }
@@ -931,7 +1436,7 @@ public class MainController implements Initializable {
                     }
                 };
                 
-                new Thread(connectTask).start();
+                profileScope.execute(connectTask);
                 
             } else {
                 showAlert("Erro", "Perfil não encontrado: " + profileName, Alert.AlertType.ERROR);
@@ -1065,6 +1570,12 @@ public class MainController implements Initializable {
                 queueNames.setAll(FXCollections.observableArrayList());
                 queueDetails.setAll(FXCollections.observableArrayList());
                 messages.setAll(FXCollections.observableArrayList());
+                // As sessões com lock são encerradas pelo serviço ao desconectar
+                lockedBrowseSession = null;
+                updateLockedStatus();
+                browsedEntity = null;
+                messagePageGeneration++;
+                updateMessagesWindowLabel();
             } catch (Exception e) {
                 logger.warn("Erro ao limpar listas: " + e.getMessage());
             }
@@ -1072,6 +1583,8 @@ public class MainController implements Initializable {
     }
     
     private void handleDisconnect() {
+        stopLiveTail();
+        resetProfileScope(null);
         serviceBusService.disconnect();
         addLogMessage("Desconectado do Azure Service Bus");
     }
@@ -1085,19 +1598,26 @@ public class MainController implements Initializable {
         loadQueuesButton.setDisable(true);
         loadQueuesButton.setText("Carregando...");
         
-        Task<ObservableList<String>> loadTask = new Task<ObservableList<String>>() {
+        // A diferença é calculada na thread de trabalho contra a lista atual
+        List<String> currentNames = List.copyOf(queueNames);
+        
+        Task<SortedListDiff<String>> loadTask = new Task<SortedListDiff<String>>() {
             @Override
-            protected ObservableList<String> call() throws Exception {
-                return serviceBusService.listQueueNamesAsync().get();
+            protected SortedListDiff<String> call() throws Exception {
+                return SortedListDiff.compute(currentNames, serviceBusService.listQueueNamesAsync().get(), 
+                    String::compareToIgnoreCase);
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    queueNames.setAll(getValue());
+                    SortedListDiff<String> diff = getValue();
+                    diff.applyTo(queueNames);
+                    queueListLabel.setText("Filas Disponíveis");
                     loadQueuesButton.setDisable(false);
                     loadQueuesButton.setText("Carregar Filas");
-                    addLogMessage(String.format("Carregadas %d filas", getValue().size()));
+                    addLogMessage(String.format("Carregadas %d filas (%s)", diff.getUpdatedSize(), diff.getSummary()));
+                    saveNamespaceSnapshot();
                 });
             }
             
@@ -1111,7 +1631,7 @@ public class MainController implements Initializable {
             }
         };
         
-        new Thread(loadTask).start();
+        profileScope.execute(loadTask);
     }
     
     private void filterQueues(String filter) {
@@ -1141,6 +1661,7 @@ public class MainController implements Initializable {
             protected void succeeded() {
                 Platform.runLater(() -> {
                     queueDetails.setAll(getValue());
+                    updateRuntimeMetricsWatch();
                     addLogMessage(String.format("Detalhes carregados para fila '%s'", selectedQueue));
                 });
             }
@@ -1153,7 +1674,7 @@ public class MainController implements Initializable {
             }
         };
         
-        new Thread(detailsTask).start();
+        profileScope.execute(detailsTask);
     }
     
     private void handleCreateQueue() {
@@ -1214,7 +1735,7 @@ public class MainController implements Initializable {
             }
         };
         
-        new Thread(createTask).start();
+        profileScope.execute(createTask);
     }
     
     /**
@@ -1327,7 +1848,7 @@ public class MainController implements Initializable {
                         }
                     };
                     
-                    new Thread(createTask).start();
+                    profileScope.execute(createTask);
                 }
             }
             
@@ -1339,6 +1860,48 @@ public class MainController implements Initializable {
     
     
     private void handleLoadMessages() {
+        String queueName = resolveViewQueueName();
+        if (queueName == null) {
+            return;
+        }
+        
+        if (lockedBrowseCheckBox.isSelected()) {
+            handleLoadLockedMessages(queueName);
+            return;
+        }
+        
+        stopLiveTail();
+        startMessageBrowse(EntityPath.queue(queueName), 0);
+    }
+    
+    private void handleJumpToSequence() {
+        long sequenceNumber;
+        try {
+            sequenceNumber = Long.parseLong(jumpToSequenceField.getText().trim().replace(".", "").replace(",", ""));
+        } catch (NumberFormatException e) {
+            sequenceNumber = -1;
+        }
+        if (sequenceNumber < 0) {
+            showAlert("Erro", "Digite um sequence number válido", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        if (lockedBrowseCheckBox.isSelected()) {
+            showAlert("Aviso", "'Ir para' só está disponível na visualização sem lock", Alert.AlertType.WARNING);
+            return;
+        }
+        
+        String queueName = resolveViewQueueName();
+        if (queueName != null) {
+            stopLiveTail();
+            startMessageBrowse(EntityPath.queue(queueName), sequenceNumber);
+        }
+    }
+    
+    /**
+     * Fila escolhida na ComboBox de visualização (ou digitada no editor); null após mostrar o erro
+     */
+    private String resolveViewQueueName() {
         String selectedQueue = viewQueueComboBox.getValue();
         
         if (selectedQueue == null || selectedQueue.isEmpty()) {
@@ -1347,32 +1910,106 @@ public class MainController implements Initializable {
                 selectedQueue = editorText.trim();
                 if (!queueNames.contains(selectedQueue)) {
                     showAlert("Erro", String.format("A fila '%s' não existe ou não foi carregada.", selectedQueue), Alert.AlertType.ERROR);
-                    return;
+                    return null;
                 }
             } else {
                 showAlert("Erro", "Selecione uma fila", Alert.AlertType.ERROR);
-                return;
+                return null;
             }
         }
         
-        final String queueName = selectedQueue;
-        
-        loadMessagesButton.setDisable(true);
-        loadMessagesButton.setText("Carregando...");
-        
-        Task<ObservableList<MessageInfo>> loadTask = new Task<ObservableList<MessageInfo>>() {
-            @Override
-            protected ObservableList<MessageInfo> call() throws Exception {
-                return serviceBusService.peekMessagesAsync(queueName, 20).get();
+        return selectedQueue;
+    }
+    
+    // ===========================================================================================
+    // NAVEGAÇÃO PAGINADA (PEEK A PARTIR DE SEQUENCE NUMBER)
+    // ===========================================================================================
+    
+    /**
+     * Recomeça a navegação na entidade a partir do sequence number indicado
+     */
+    private void startMessageBrowse(EntityPath entity, long fromSequenceNumber) {
+        browsedEntity = entity;
+        messagePageGeneration++;
+        messagePageLoading = false;
+        messageWindow.reset(fromSequenceNumber);
+        messages.clear();
+        updateMessagesWindowLabel();
+        
+        loadMessagePage(true);
+    }
+    
+    /**
+     * Carrega a página seguinte (fim da tabela) ou a anterior (topo), mantendo a janela limitada
+     */
+    private void loadMessagePage(boolean forward) {
+        if (browsedEntity == null || messagePageLoading || lockedBrowseCheckBox.isSelected() || liveTailSession != null) {
+            return;
+        }
+        if (!forward && !messageWindow.hasPrevious()) {
+            return;
+        }
+        // No fim da entidade só volta a espiar de tempos a tempos (novas mensagens podem ter chegado)
+        if (forward && messageWindow.isEndReached() && System.nanoTime() - lastEndProbeNanos < END_PROBE_INTERVAL_NANOS) {
+            return;
+        }
+        
+        final EntityPath entity = browsedEntity;
+        final int generation = messagePageGeneration;
+        final boolean initial = messages.isEmpty();
+        final long fromSequenceNumber = forward ? messageWindow.getNextSequenceNumber() : messageWindow.getPreviousSequenceNumber();
+        
+        messagePageLoading = true;
+        loadMessagesButton.setDisable(true);
+        loadMessagesButton.setText("Carregando...");
+        
+        Task<List<MessageInfo>> pageTask = new Task<List<MessageInfo>>() {
+            @Override
+            protected List<MessageInfo> call() throws Exception {
+                return serviceBusService.peekMessagesFromAsync(entity, messageWindow.getPageSize(), fromSequenceNumber).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    messages.setAll(getValue());
                     loadMessagesButton.setDisable(false);
                     loadMessagesButton.setText("Carregar Mensagens");
-                    addLogMessage(String.format("Carregadas %d mensagens da fila '%s'", getValue().size(), queueName));
+                    if (generation != messagePageGeneration) {
+                        getValue().forEach(MessageInfo::release);
+                        return; // Navegação reiniciada enquanto a página carregava
+                    }
+                    messagePageLoading = false;
+                    
+                    List<MessageInfo> page = getValue();
+                    int firstVisible = TableViewScrollUtil.getFirstVisibleIndex(messagesTable);
+                    
+                    if (forward) {
+                        lastEndProbeNanos = System.nanoTime();
+                        int evicted = messageWindow.append(page);
+                        messages.addAll(page);
+                        if (evicted > 0) {
+                            messages.remove(0, evicted);
+                            if (firstVisible >= 0) {
+                                messagesTable.scrollTo(Math.max(0, firstVisible - evicted));
+                            }
+                        }
+                    } else {
+                        MessagePageWindow.PrependResult result = messageWindow.prepend(page);
+                        messages.addAll(0, page.subList(0, result.added()));
+                        page.subList(result.added(), page.size()).forEach(MessageInfo::release);
+                        if (result.evicted() > 0) {
+                            messages.remove(messages.size() - result.evicted(), messages.size());
+                        }
+                        if (firstVisible >= 0) {
+                            messagesTable.scrollTo(firstVisible + result.added());
+                        }
+                    }
+                    updateMessagesWindowLabel();
+                    
+                    if (initial) {
+                        addLogMessage(String.format("Carregadas %d mensagens de '%s' a partir do seq %d", 
+                            page.size(), entity, fromSequenceNumber));
+                    }
                 });
             }
             
@@ -1381,557 +2018,509 @@ public class MainController implements Initializable {
                 Platform.runLater(() -> {
                     loadMessagesButton.setDisable(false);
                     loadMessagesButton.setText("Carregar Mensagens");
-                    showAlert("Erro", "Erro ao carregar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    if (generation != messagePageGeneration) {
+                        return;
+                    }
+                    messagePageLoading = false;
+                    
+                    if (initial) {
+                        showAlert("Erro", "Erro ao carregar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    } else {
+                        addLogMessage("Erro ao carregar página de mensagens: " + getException().getMessage());
+                    }
                 });
             }
         };
         
-        new Thread(loadTask).start();
-    }
-    
-    private void handleMessageSelection(MessageInfo selectedMessage) {
-        if (selectedMessage == null) {
-            messageDetailsTextArea.clear();
-            return;
-        }
-        
-        StringBuilder details = new StringBuilder();
-        details.append("=== DETALHES DA MENSAGEM ===\n\n");
-        details.append("Sequence Number: ").append(selectedMessage.getSequenceNumber()).append("\n");
-        details.append("Message ID: ").append(selectedMessage.getMessageId()).append("\n");
-        details.append("Content Type: ").append(selectedMessage.getContentType()).append("\n");
-        details.append("Enqueued Time: ").append(selectedMessage.getFormattedEnqueuedTime()).append("\n");
-        details.append("Size: ").append(selectedMessage.getFormattedSize()).append("\n");
-        details.append("\n=== CORPO DA MENSAGEM ===\n");
-        
-        // Formatar o corpo da mensagem como JSON se possível
-        String messageBody = selectedMessage.getMessageBody();
-        if (messageBody != null && !messageBody.trim().isEmpty()) {
-            if (isValidJson(messageBody.trim())) {
-                // Se é JSON válido, formatar com indentação
-                details.append(formatJson(messageBody.trim()));
-            } else {
-                // Se não é JSON, mostrar como texto normal
-                details.append(messageBody);
-            }
-        } else {
-            details.append("(Mensagem vazia)");
-        }
-        
-        details.append("\n\n=== PROPRIEDADES ===\n");
-        details.append(selectedMessage.getApplicationPropertiesAsString());
-        
-        messageDetailsTextArea.setText(details.toString());
+        profileScope.execute(pageTask);
     }
     
     /**
-     * Formata uma string JSON com indentação básica
+     * Liberta os corpos das mensagens removidas de uma tabela (descartadas pela janela,
+     * limpas ao trocar de entidade ou substituídas por um novo carregamento)
      */
-    private String formatJson(String jsonString) {
-        if (jsonString == null || jsonString.trim().isEmpty()) {
-            return jsonString;
-        }
-        
-        try {
-            // Formatação básica de JSON com indentação
-            StringBuilder formatted = new StringBuilder();
-            int indentLevel = 0;
-            boolean inString = false;
-            boolean escapeNext = false;
-            
-            for (int i = 0; i < jsonString.length(); i++) {
-                char c = jsonString.charAt(i);
-                
-                if (escapeNext) {
-                    formatted.append(c);
-                    escapeNext = false;
-                    continue;
-                }
-                
-                if (c == '\\') {
-                    formatted.append(c);
-                    escapeNext = true;
-                    continue;
-                }
-                
-                if (c == '"' && !escapeNext) {
-                    inString = !inString;
-                    formatted.append(c);
-                    continue;
-                }
-                
-                if (inString) {
-                    formatted.append(c);
-                    continue;
-                }
-                
-                switch (c) {
-                    case '{':
-                    case '[':
-                        formatted.append(c);
-                        indentLevel++;
-                        formatted.append('\n');
-                        addIndentation(formatted, indentLevel);
-                        break;
-                    case '}':
-                    case ']':
-                        formatted.append('\n');
-                        indentLevel--;
-                        addIndentation(formatted, indentLevel);
-                        formatted.append(c);
-                        break;
-                    case ',':
-                        formatted.append(c);
-                        formatted.append('\n');
-                        addIndentation(formatted, indentLevel);
-                        break;
-                    case ':':
-                        formatted.append(c);
-                        formatted.append(' ');
-                        break;
-                    case ' ':
-                    case '\t':
-                    case '\n':
-                    case '\r':
-                        // Ignorar espaços em branco desnecessários
-                        break;
-                    default:
-                        formatted.append(c);
-                        break;
-                }
+    private void releaseRemovedMessages(ListChangeListener.Change<? extends MessageInfo> change) {
+        while (change.next()) {
+            if (change.wasRemoved()) {
+                change.getRemoved().forEach(MessageInfo::release);
             }
-            
-            return formatted.toString();
-        } catch (Exception e) {
-            // Se houver erro na formatação, retornar o JSON original
-            return jsonString;
         }
     }
     
-    /**
-     * Adiciona indentação ao StringBuilder
-     */
-    private void addIndentation(StringBuilder sb, int level) {
-        for (int i = 0; i < level; i++) {
-            sb.append("  ");
-        }
+    private void updateMessagesWindowLabel() {
+        messagesWindowLabel.setText(browsedEntity == null ? "" : messageWindow.getRangeDescription());
     }
     
-    /**
-     * Escapa caracteres especiais para JSON
-     */
-    private String escapeJsonString(String input) {
-        if (input == null) {
-            return "";
-        }
-        return input.replace("\\", "\\\\")
-                   .replace("\"", "\\\"")
-                   .replace("\n", "\\n")
-                   .replace("\r", "\\r")
-                   .replace("\t", "\\t")
-                   .replace("\b", "\\b")
-                   .replace("\f", "\\f");
-    }
+    // ===========================================================================================
+    // EXPORTAÇÃO NDJSON
+    // ===========================================================================================
     
     /**
-     * Verifica se uma string é um JSON válido
+     * Exporta as mensagens ativas ou a dead letter da entidade para um arquivo NDJSON (gzip opcional)
      */
-    private boolean isValidJson(String jsonString) {
-        if (jsonString == null || jsonString.trim().isEmpty()) {
-            return false;
-        }
-        
-        String trimmed = jsonString.trim();
-        return (trimmed.startsWith("{") && trimmed.endsWith("}")) || 
-               (trimmed.startsWith("[") && trimmed.endsWith("]"));
-    }
-    
-    private void handleSendMessage() {
-        String selectedQueue = sendQueueComboBox.getValue();
-        String messageBody = messageBodyTextArea.getText().trim();
-        
-        if (selectedQueue == null) {
-            showAlert("Erro", "Selecione uma fila", Alert.AlertType.ERROR);
+    private void handleExportMessages(EntityPath entity) {
+        String activeOption = "Mensagens ativas";
+        String deadLetterOption = "Dead letter queue";
+        ChoiceDialog<String> subQueueDialog = new ChoiceDialog<>(activeOption, activeOption, deadLetterOption);
+        subQueueDialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+        subQueueDialog.setTitle("Exportar Mensagens");
+        subQueueDialog.setHeaderText(String.format("Exportar mensagens de '%s'", entity));
+        subQueueDialog.setContentText("Origem:");
+        Optional<String> choice = subQueueDialog.showAndWait();
+        if (choice.isEmpty()) {
             return;
         }
+        EntityPath source = deadLetterOption.equals(choice.get()) ? entity.deadLetter() : entity;
         
-        if (messageBody.isEmpty()) {
-            showAlert("Erro", "Digite o corpo da mensagem", Alert.AlertType.ERROR);
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Salvar exportação NDJSON");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("NDJSON comprimido (gzip)", "*.ndjson.gz"),
+            new FileChooser.ExtensionFilter("NDJSON", "*.ndjson")
+        );
+        fileChooser.setInitialFileName(String.format("%s-%s.ndjson.gz", 
+            source.getDisplayName().replaceAll("[^A-Za-z0-9._-]+", "_"), 
+            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+        File file = fileChooser.showSaveDialog(primaryStage);
+        if (file == null) {
             return;
         }
         
-        // Construir propriedades
-        Map<String, Object> properties = new HashMap<>();
-        if (!property1KeyField.getText().trim().isEmpty() && !property1ValueField.getText().trim().isEmpty()) {
-            properties.put(property1KeyField.getText().trim(), property1ValueField.getText().trim());
-        }
-        if (!property2KeyField.getText().trim().isEmpty() && !property2ValueField.getText().trim().isEmpty()) {
-            properties.put(property2KeyField.getText().trim(), property2ValueField.getText().trim());
-        }
+        String description = String.format("Exportando mensagens de '%s' para '%s'", source, file.getName());
         
-        sendMessageButton.setDisable(true);
-        sendMessageButton.setText("Enviando...");
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, "Exportação de Mensagens", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+        addLogMessage(description);
         
-        Task<Boolean> sendTask = new Task<Boolean>() {
+        Task<OperationProgress> exportTask = new Task<OperationProgress>() {
             @Override
-            protected Boolean call() throws Exception {
-                return serviceBusService.sendMessageAsync(selectedQueue, messageBody, properties).get();
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.exportMessagesAsync(source, file.toPath(), 
+                    cancellationToken, progressDialog::update).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    sendMessageButton.setDisable(false);
-                    sendMessageButton.setText("Enviar Mensagem");
-                    
-                    if (getValue()) {
-                        addLogMessage(String.format("Mensagem enviada para fila '%s'", selectedQueue));
-                        
-                        // Mostrar diálogo de sucesso
-                        showAlert("Sucesso", 
-                            String.format("Mensagem enviada com sucesso para a fila '%s'!", selectedQueue), 
-                            Alert.AlertType.INFORMATION);
-                        
-                        // Limpar apenas os campos de propriedades, mantendo o corpo da mensagem
-                        property1KeyField.clear();
-                        property1ValueField.clear();
-                        property2KeyField.clear();
-                        property2ValueField.clear();
-                    }
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s: %,d mensagens de '%s' gravadas em '%s'", 
+                        progress.isCancelled() ? "Exportação cancelada" : "Exportação concluída", 
+                        progress.getProcessed(), source, file.getName());
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
                 });
             }
             
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    sendMessageButton.setDisable(false);
-                    sendMessageButton.setText("Enviar Mensagem");
-                    showAlert("Erro", "Erro ao enviar mensagem: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    progressDialog.fail("Erro na exportação: " + getException().getMessage());
+                    addLogMessage("Erro ao exportar mensagens de '" + source + "': " + getException().getMessage());
                 });
             }
         };
         
-        new Thread(sendTask).start();
+        profileScope.execute(exportTask);
     }
     
-    // ===========================================================================================
-    // MÉTODOS PARA TÓPICOS
-    // ===========================================================================================
-    
-    private void handleLoadTopics() {
-        if (!serviceBusService.isConnected()) {
-            showAlert("Erro", "Não conectado ao Service Bus", Alert.AlertType.ERROR);
+    /**
+     * Copia ou move mensagens da entidade (selecionadas na tabela, intervalo ou todas) para outra
+     * fila ou tópico, com o diálogo de progresso; {@code onFinished} recarrega a tabela no fim
+     */
+    private void handleTransferMessages(EntityPath entity, TableView<MessageInfo> table, Runnable onFinished) {
+        if (entity.isQueue() && lockedBrowseSession != null) {
+            showAlert("Aviso", "Libere as mensagens retidas (modo com lock) antes de mover ou copiar mensagens da fila.", 
+                Alert.AlertType.WARNING);
             return;
         }
         
-        loadTopicsButton.setDisable(true);
-        loadTopicsButton.setText("Carregando...");
-        
-        Task<ObservableList<String>> loadTask = new Task<ObservableList<String>>() {
-            @Override
-            protected ObservableList<String> call() throws Exception {
-                return serviceBusService.listTopicNamesAsync().get();
+        EntityPath source;
+        TransferOptions options;
+        try {
+            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("/fxml/transfer-dialog.fxml"));
+            DialogPane dialogPane = loader.load();
+            TransferDialogController dialogController = loader.getController();
+            dialogController.setSource(entity, table.getSelectionModel().getSelectedItems().stream()
+                .map(MessageInfo::getSequenceNumber)
+                .toList());
+            dialogController.setTargetNames(new ArrayList<>(queueNames), new ArrayList<>(topicNames));
+            
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+            dialog.setDialogPane(dialogPane);
+            dialog.setTitle("Mover / Copiar Mensagens - " + entity.getDisplayName());
+            
+            Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
+            if (okButton != null) {
+                okButton.setText("⇄ Executar");
             }
             
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    topicNames.setAll(getValue());
-                    loadTopicsButton.setDisable(false);
-                    loadTopicsButton.setText("Carregar Tópicos");
-                    addLogMessage(String.format("Carregados %d tópicos", getValue().size()));
-                });
-            }
+            dialogController.setDialogPane(dialogPane);
             
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    loadTopicsButton.setDisable(false);
-                    loadTopicsButton.setText("Carregar Tópicos");
-                    showAlert("Erro", "Erro ao carregar tópicos: " + getException().getMessage(), Alert.AlertType.ERROR);
-                });
+            Optional<ButtonType> result = dialog.showAndWait();
+            if (result.isEmpty() || result.get() != ButtonType.OK) {
+                return;
             }
-        };
-        
-        new Thread(loadTask).start();
-    }
-    
-    private void filterTopics(String filter) {
-        if (filter == null || filter.trim().isEmpty()) {
-            topicListView.setItems(topicNames);
+            source = dialogController.getSource();
+            options = dialogController.getOptions();
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de transferência", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
             return;
         }
         
-        ObservableList<String> filteredTopics = topicNames.filtered(
-            topicName -> topicName.toLowerCase().contains(filter.toLowerCase())
-        );
-        topicListView.setItems(filteredTopics);
-    }
-    
-    private void filterSubscriptions(String filter) {
-        if (filter == null || filter.trim().isEmpty()) {
-            subscriptionsTable.setItems(subscriptionDetails);
-            return;
-        }
+        String description = String.format("%s de '%s'", options.getSummary(), source);
         
-        ObservableList<SubscriptionInfo> filteredSubscriptions = subscriptionDetails.filtered(
-            sub -> sub.getName().toLowerCase().contains(filter.toLowerCase())
-        );
-        subscriptionsTable.setItems(filteredSubscriptions);
-    }
-    
-    private void handleTopicSelection(String selectedTopic) {
-        if (selectedTopic == null || !serviceBusService.isConnected()) {
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, 
+                options.getMode().getDisplayName() + " Mensagens", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
             return;
         }
+        addLogMessage(description);
         
-        selectedTopicName = selectedTopic;
-        selectedTopicLabel.setText("Tópico selecionado: " + selectedTopic);
-        
-        // Habilitar botões de subscription
-        loadSubscriptionsButton.setDisable(false);
-        newSubscriptionNameField.setDisable(false);
-        createSubscriptionButton.setDisable(false);
-        if (createAdvancedSubscriptionButton != null) {
-            createAdvancedSubscriptionButton.setDisable(false);
-        }
-        
-        // Carregar detalhes do tópico
-        Task<TopicInfo> detailsTask = new Task<TopicInfo>() {
+        Task<OperationProgress> transferTask = new Task<OperationProgress>() {
             @Override
-            protected TopicInfo call() throws Exception {
-                return serviceBusService.getTopicDetailsAsync(selectedTopic).get();
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.transferMessagesAsync(source, options, 
+                    cancellationToken, progressDialog::update).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    topicDetails.setAll(getValue());
-                    addLogMessage(String.format("Detalhes carregados para tópico '%s'", selectedTopic));
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s: %,d mensagens %s de '%s' para '%s'", 
+                        progress.isCancelled() ? "Transferência cancelada" 
+                            : progress.isIncomplete() ? "Transferência interrompida" : "Transferência concluída", 
+                        progress.getProcessed(), options.isMove() ? "movidas" : "copiadas", source, options.getTarget());
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
+                    if (options.isMove()) {
+                        onFinished.run();
+                    }
                 });
             }
             
             @Override
             protected void failed() {
-                Platform.runLater(() -> showAlert("Erro", "Erro ao carregar detalhes: " + getException().getMessage(), Alert.AlertType.ERROR));
+                Platform.runLater(() -> {
+                    progressDialog.fail("Erro na transferência: " + getException().getMessage());
+                    addLogMessage("Erro ao transferir mensagens de '" + source + "': " + getException().getMessage());
+                    if (options.isMove()) {
+                        onFinished.run();
+                    }
+                });
             }
         };
         
-        new Thread(detailsTask).start();
-        
-        // Carregar subscriptions automaticamente
-        handleLoadSubscriptions();
+        profileScope.execute(transferTask);
     }
     
-    private void handleCreateTopic() {
-        String topicName = newTopicNameField.getText().trim();
-        
-        if (topicName.isEmpty()) {
-            showAlert("Erro", "Digite um nome para o tópico", Alert.AlertType.ERROR);
-            return;
-        }
-        
-        createTopicButton.setDisable(true);
-        
-        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+    // ===========================================================================================
+    // ACOMPANHAMENTO AO VIVO (TAIL)
+    // ===========================================================================================
+    
+    /**
+     * Inicia o acompanhamento ao vivo da entidade na tabela indicada, substituindo o anterior
+     */
+    private void startLiveTail(EntityPath entity, long fromSequenceNumber, TableView<MessageInfo> table, 
+                               Label statusLabel, ToggleButton toggle) {
+        stopLiveTail();
+        
+        liveTailTable = table;
+        liveTailItems = table == messagesTable ? messages : topicMessages;
+        liveTailStatusLabel = statusLabel;
+        liveTailActiveToggle = toggle;
+        toggle.setSelected(true);
+        statusLabel.setText(String.format("📡 Conectando ao vivo em '%s'...", entity));
+        
+        Task<LiveTailSession> openTask = new Task<LiveTailSession>() {
             @Override
-            protected CreateQueueResult call() throws Exception {
-                return serviceBusService.createTopicAsync(topicName).get();
+            protected LiveTailSession call() throws Exception {
+                return serviceBusService.openLiveTailAsync(entity, fromSequenceNumber, createLiveTailListener()).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    createTopicButton.setDisable(false);
-                    newTopicNameField.clear();
-                    
-                    CreateQueueResult result = getValue();
-                    switch (result) {
-                        case CREATED:
-                            addLogMessage(String.format("Tópico '%s' criado com sucesso!", topicName));
-                            showAlert("Sucesso", 
-                                String.format("Tópico '%s' foi criado com sucesso!", topicName), 
-                                Alert.AlertType.INFORMATION);
-                            handleLoadTopics();
-                            break;
-                            
-                        case ALREADY_EXISTS:
-                            addLogMessage(String.format("Tópico '%s' já existe no namespace", topicName));
-                            showAlert("Informação", 
-                                String.format("O tópico '%s' já existe no namespace.\nVocê pode utilizá-lo normalmente.", topicName), 
-                                Alert.AlertType.WARNING);
-                            handleLoadTopics();
-                            break;
-                            
-                        case ERROR:
-                            showAlert("Erro", 
-                                String.format("Erro ao criar tópico '%s'. Verifique os logs para mais detalhes.", topicName), 
-                                Alert.AlertType.ERROR);
-                            break;
+                    // Parado ou substituído enquanto a sessão abria
+                    if (liveTailActiveToggle != toggle || !toggle.isSelected() || liveTailSession != null) {
+                        serviceBusService.closeLiveTailAsync(getValue());
+                        return;
                     }
+                    liveTailSession = getValue();
+                    addLogMessage(String.format("Acompanhamento ao vivo de '%s' iniciado", entity));
                 });
             }
             
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    createTopicButton.setDisable(false);
-                    showAlert("Erro", "Erro ao criar tópico: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    if (liveTailActiveToggle == toggle) {
+                        toggle.setSelected(false);
+                        statusLabel.setText("");
+                        liveTailActiveToggle = null;
+                    }
+                    showAlert("Erro", "Erro ao iniciar acompanhamento ao vivo: " + getException().getMessage(), Alert.AlertType.ERROR);
                 });
             }
         };
         
-        new Thread(createTask).start();
+        profileScope.execute(openTask);
     }
     
-    private void handleLoadSubscriptions() {
-        if (selectedTopicName == null) {
-            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+    private void stopLiveTail() {
+        LiveTailSession session = liveTailSession;
+        ToggleButton toggle = liveTailActiveToggle;
+        
+        liveTailSession = null;
+        liveTailActiveToggle = null;
+        if (session != null) {
+            serviceBusService.closeLiveTailAsync(session);
+        }
+        if (toggle != null) {
+            toggle.setSelected(false);
+            if (toggle == liveTailToggle) {
+                updateMessagesWindowLabel();
+            } else {
+                liveTailStatusLabel.setText("");
+            }
+        }
+    }
+    
+    /**
+     * A sessão apenas avisa que há mensagens; no máximo uma retirada fica agendada na FX thread,
+     * por isso uma fila com milhares de mensagens por segundo não inunda o Platform.runLater
+     */
+    private LiveTailSession.Listener createLiveTailListener() {
+        return new LiveTailSession.Listener() {
+            @Override
+            public void onArrivals() {
+                if (liveTailDrainScheduled.compareAndSet(false, true)) {
+                    Platform.runLater(MainController.this::drainLiveTail);
+                }
+            }
+            
+            @Override
+            public void onError(String message) {
+                Platform.runLater(() -> {
+                    if (liveTailStatusLabel != null && liveTailSession != null) {
+                        liveTailStatusLabel.setText("📡 Ao vivo - erro na última espiada: " + message);
+                    }
+                });
+            }
+        };
+    }
+    
+    /**
+     * Acrescenta as mensagens novas à tabela, descartando as mais antigas acima da capacidade
+     */
+    private void drainLiveTail() {
+        liveTailDrainScheduled.set(false);
+        
+        LiveTailSession session = liveTailSession;
+        if (session == null) {
             return;
         }
         
-        loadSubscriptionsButton.setDisable(true);
-        loadSubscriptionsButton.setText("Carregando...");
+        LiveTailSession.Drain drain = session.drain();
+        List<MessageInfo> incoming = drain.messages();
+        ObservableList<MessageInfo> items = liveTailItems;
+        int capacity = LiveTailSession.DEFAULT_CAPACITY;
+        
+        if (incoming.size() >= capacity) {
+            incoming.subList(0, incoming.size() - capacity).forEach(MessageInfo::release);
+            items.setAll(incoming.subList(incoming.size() - capacity, incoming.size()));
+        } else if (!incoming.isEmpty()) {
+            int overflow = items.size() + incoming.size() - capacity;
+            if (overflow > 0) {
+                items.remove(0, overflow);
+            }
+            items.addAll(incoming);
+        }
         
-        Task<ObservableList<String>> loadTask = new Task<ObservableList<String>>() {
+        // Seguir as chegadas enquanto o utilizador não estiver a inspecionar uma mensagem
+        if (!incoming.isEmpty() && liveTailTable.getSelectionModel().isEmpty()) {
+            liveTailTable.scrollTo(liveTailTable.getItems().size() - 1);
+        }
+        
+        liveTailStatusLabel.setText(String.format("📡 Ao vivo em '%s': %,d recebidas • %.0f msg/s • espiada a cada %d ms%s", 
+            session.getEntity(), drain.totalReceived(), drain.ratePerSecond(), drain.intervalMillis(),
+            drain.dropped() > 0 ? String.format(" • %,d não exibidas (chegada mais rápida que a tela)", drain.dropped()) : ""));
+    }
+    
+    // ===========================================================================================
+    // NAVEGAÇÃO COM LOCK
+    // ===========================================================================================
+    
+    private void handleLockedBrowseToggle(boolean enabled) {
+        if (liveTailActiveToggle == liveTailToggle) {
+            stopLiveTail();
+        }
+        lockedActionsBox.setVisible(enabled);
+        lockedActionsBox.setManaged(enabled);
+        
+        // Mensagens espiadas e mensagens com lock não se misturam na tabela
+        closeLockedBrowseSession();
+        browsedEntity = null;
+        messagePageGeneration++;
+        messagePageLoading = false;
+        messages.clear();
+        updateMessagesWindowLabel();
+        addLogMessage(enabled 
+            ? "Modo com lock ativado: 'Carregar Mensagens' recebe a próxima página em PEEK_LOCK" 
+            : "Modo com lock desativado");
+    }
+    
+    /**
+     * Recebe a próxima página com lock; abre a sessão na primeira chamada para a fila
+     */
+    private void handleLoadLockedMessages(String queueName) {
+        EntityPath entity = EntityPath.queue(queueName);
+        LockedBrowseSession current = lockedBrowseSession != null && lockedBrowseSession.getEntity().equals(entity)
+            ? lockedBrowseSession 
+            : null;
+            
+        loadMessagesButton.setDisable(true);
+        loadMessagesButton.setText("Recebendo...");
+        
+        Task<ObservableList<MessageInfo>> loadTask = new Task<ObservableList<MessageInfo>>() {
+            private LockedBrowseSession session = current;
+            
             @Override
-            protected ObservableList<String> call() throws Exception {
-                return serviceBusService.listSubscriptionNamesAsync(selectedTopicName).get();
+            protected ObservableList<MessageInfo> call() throws Exception {
+                if (session == null) {
+                    session = serviceBusService.openLockedBrowseSessionAsync(entity, createLockListener(entity)).get();
+                }
+                return serviceBusService.receiveLockedPageAsync(session, LockedBrowseSession.DEFAULT_PAGE_SIZE).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    ObservableList<String> subscriptionNames = getValue();
-                    
-                    // Carregar detalhes de cada subscription
-                    subscriptionDetails.clear();
+                    loadMessagesButton.setDisable(false);
+                    loadMessagesButton.setText("Carregar Mensagens");
                     
-                    if (subscriptionNames.isEmpty()) {
-                        loadSubscriptionsButton.setDisable(false);
-                        loadSubscriptionsButton.setText("Carregar Subscriptions");
-                        addLogMessage(String.format("Nenhuma subscription encontrada no tópico '%s'", selectedTopicName));
+                    // Modo desligado ou fila trocada durante a receção: devolver as mensagens
+                    if (!lockedBrowseCheckBox.isSelected() || !entity.getName().equals(viewQueueComboBox.getValue())) {
+                        serviceBusService.closeLockedBrowseSessionAsync(session);
                         return;
                     }
                     
-                    // Carregar detalhes de todas as subscriptions
-                    Task<Void> detailsTask = new Task<Void>() {
-                        @Override
-                        protected Void call() throws Exception {
-                            List<SubscriptionInfo> details = new ArrayList<>();
-                            for (String subName : subscriptionNames) {
-                                SubscriptionInfo subInfo = serviceBusService.getSubscriptionDetailsAsync(
-                                    selectedTopicName, subName).get();
-                                details.add(subInfo);
-                            }
-                            
-                            Platform.runLater(() -> subscriptionDetails.setAll(details));
-                            
-                            return null;
-                        }
-                        
-                        @Override
-                        protected void succeeded() {
-                            Platform.runLater(() -> {
-                                loadSubscriptionsButton.setDisable(false);
-                                loadSubscriptionsButton.setText("Carregar Subscriptions");
-                                addLogMessage(String.format("Carregadas %d subscriptions do tópico '%s'", 
-                                    subscriptionNames.size(), selectedTopicName));
-                            });
-                        }
-                        
-                        @Override
-                        protected void failed() {
-                            Platform.runLater(() -> {
-                                loadSubscriptionsButton.setDisable(false);
-                                loadSubscriptionsButton.setText("Carregar Subscriptions");
-                                showAlert("Erro", "Erro ao carregar detalhes das subscriptions: " + 
-                                    getException().getMessage(), Alert.AlertType.ERROR);
-                            });
-                        }
-                    };
+                    if (lockedBrowseSession != session) {
+                        closeLockedBrowseSession();
+                        lockedBrowseSession = session;
+                        messages.clear();
+                    }
+                    messages.addAll(getValue());
+                    updateLockedStatus();
                     
-                    new Thread(detailsTask).start();
+                    addLogMessage(getValue().isEmpty()
+                        ? String.format("Nenhuma mensagem disponível para lock na fila '%s'", queueName)
+                        : String.format("Recebidas %d mensagens com lock da fila '%s'", getValue().size(), queueName));
                 });
             }
             
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    loadSubscriptionsButton.setDisable(false);
-                    loadSubscriptionsButton.setText("Carregar Subscriptions");
-                    showAlert("Erro", "Erro ao carregar subscriptions: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    loadMessagesButton.setDisable(false);
+                    loadMessagesButton.setText("Carregar Mensagens");
+                    showAlert("Erro", "Erro ao receber mensagens com lock: " + getException().getMessage(), Alert.AlertType.ERROR);
                 });
             }
         };
         
-        new Thread(loadTask).start();
+        profileScope.execute(loadTask);
     }
     
-    private void handleCreateSubscription() {
-        if (selectedTopicName == null) {
-            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+    /**
+     * Aplica a ação às mensagens selecionadas, diretamente pelo lock token de cada uma
+     */
+    private void handleSettleSelectedMessages(LockedBrowseSession.Settlement action) {
+        LockedBrowseSession session = lockedBrowseSession;
+        if (session == null) {
+            showAlert("Aviso", "Nenhuma mensagem retida. Carregue mensagens no modo com lock.", Alert.AlertType.WARNING);
             return;
         }
         
-        String subscriptionName = newSubscriptionNameField.getText().trim();
-        
-        if (subscriptionName.isEmpty()) {
-            showAlert("Erro", "Digite um nome para a subscription", Alert.AlertType.ERROR);
+        List<Long> sequenceNumbers = messagesTable.getSelectionModel().getSelectedItems().stream()
+            .filter(message -> message.getLockToken() != null)
+            .map(MessageInfo::getSequenceNumber)
+            .toList();
+        if (sequenceNumbers.isEmpty()) {
+            showAlert("Aviso", "Selecione uma ou mais mensagens", Alert.AlertType.WARNING);
             return;
         }
         
-        // Validar limite de 50 caracteres do Azure
-        if (subscriptionName.length() > 50) {
-            showAlert("Erro", 
-                "O nome da subscription não pode ter mais de 50 caracteres.\n" +
-                "O Azure Service Bus limita o nome a 50 caracteres.\n" +
-                "Tamanho atual: " + subscriptionName.length() + " caracteres", 
-                Alert.AlertType.ERROR);
-            return;
+        String deadLetterReason = null;
+        if (action == LockedBrowseSession.Settlement.COMPLETE) {
+            Optional<ButtonType> result = showConfirmation(
+                "Confirmar Remoção de Mensagens",
+                String.format("Tem certeza que deseja remover %d mensagem(ns) da fila '%s'?\n\nEsta operação é irreversível!", 
+                    sequenceNumbers.size(), session.getEntity())
+            );
+            if (result.isEmpty() || result.get() != ButtonType.OK) {
+                return;
+            }
+        } else if (action == LockedBrowseSession.Settlement.DEAD_LETTER) {
+            TextInputDialog reasonDialog = new TextInputDialog("Movida manualmente");
+            reasonDialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+            reasonDialog.setTitle("Enviar para Dead Letter");
+            reasonDialog.setHeaderText(String.format("%d mensagem(ns) serão enviadas para a dead letter queue", sequenceNumbers.size()));
+            reasonDialog.setContentText("Motivo:");
+            Optional<String> reason = reasonDialog.showAndWait();
+            if (reason.isEmpty()) {
+                return;
+            }
+            deadLetterReason = reason.get().trim();
         }
         
-        createSubscriptionButton.setDisable(true);
+        final String reason = deadLetterReason;
+        setLockedActionsDisabled(true);
         
-        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+        Task<LockedBrowseSession.SettlementResult> settleTask = new Task<LockedBrowseSession.SettlementResult>() {
             @Override
-            protected CreateQueueResult call() throws Exception {
-                return serviceBusService.createSubscriptionAsync(selectedTopicName, subscriptionName).get();
+            protected LockedBrowseSession.SettlementResult call() throws Exception {
+                return serviceBusService.settleLockedMessagesAsync(session, sequenceNumbers, action, reason, null).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    createSubscriptionButton.setDisable(false);
-                    newSubscriptionNameField.clear();
+                    setLockedActionsDisabled(false);
+                    LockedBrowseSession.SettlementResult result = getValue();
                     
-                    CreateQueueResult result = getValue();
-                    switch (result) {
-                        case CREATED:
-                            addLogMessage(String.format("Subscription '%s' criada com sucesso no tópico '%s'!", 
-                                subscriptionName, selectedTopicName));
-                            showAlert("Sucesso", 
-                                String.format("Subscription '%s' foi criada com sucesso!", subscriptionName), 
-                                Alert.AlertType.INFORMATION);
-                            handleLoadSubscriptions();
-                            break;
-                            
-                        case ALREADY_EXISTS:
-                            addLogMessage(String.format("Subscription '%s' já existe no tópico '%s'", 
-                                subscriptionName, selectedTopicName));
-                            showAlert("Informação", 
-                                String.format("A subscription '%s' já existe no tópico '%s'.\nVocê pode utilizá-la normalmente.", 
-                                    subscriptionName, selectedTopicName), 
-                                Alert.AlertType.WARNING);
-                            handleLoadSubscriptions();
-                            break;
-                            
-                        case ERROR:
-                            showAlert("Erro", 
-                                String.format("Erro ao criar subscription '%s'. Verifique os logs para mais detalhes.", 
-                                    subscriptionName), 
-                                Alert.AlertType.ERROR);
-                            break;
+                    // Liquidadas ou com lock perdido: deixam de estar retidas nesta sessão
+                    Set<Long> released = new HashSet<>(result.settled());
+                    released.addAll(result.failed().keySet());
+                    messages.removeIf(message -> released.contains(message.getSequenceNumber()));
+                    updateLockedStatus();
+                    
+                    addLogMessage(String.format("%s: %d mensagens de '%s'", 
+                        action.getDisplayName(), result.settled().size(), session.getEntity()));
+                        
+                    if (!result.failed().isEmpty()) {
+                        StringBuilder failures = new StringBuilder();
+                        result.failed().entrySet().stream().limit(5).forEach(entry -> 
+                            failures.append(String.format("\n• %d: %s", entry.getKey(), entry.getValue())));
+                        if (result.failed().size() > 5) {
+                            failures.append(String.format("\n... e mais %d", result.failed().size() - 5));
+                        }
+                        showAlert("Aviso", String.format("%d mensagem(ns) não puderam ser liquidadas (lock perdido):%s", 
+                            result.failed().size(), failures), Alert.AlertType.WARNING);
                     }
                 });
             }
@@ -1939,330 +2528,1816 @@ public class MainController implements Initializable {
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    createSubscriptionButton.setDisable(false);
-                    showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    setLockedActionsDisabled(false);
+                    showAlert("Erro", "Erro ao liquidar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
                 });
             }
         };
         
-        new Thread(createTask).start();
+        profileScope.execute(settleTask);
     }
     
     /**
-     * Abre diálogo para criação de subscription com configurações avançadas
+     * Devolve as mensagens retidas e encerra a sessão com lock atual (se existir)
      */
-    private void handleCreateAdvancedSubscription() {
-        if (selectedTopicName == null) {
-            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+    private void closeLockedBrowseSession() {
+        LockedBrowseSession session = lockedBrowseSession;
+        if (session == null) {
             return;
         }
         
-        try {
-            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(
-                getClass().getResource("/fxml/create-subscription-dialog.fxml")
-            );
-            
-            DialogPane dialogPane = loader.load();
-            CreateSubscriptionDialogController dialogController = loader.getController();
-            
-            // Pré-preencher com o nome digitado, se houver
-            String initialName = newSubscriptionNameField.getText().trim();
-            if (!initialName.isEmpty()) {
-                dialogController.setInitialSubscriptionName(initialName);
+        lockedBrowseSession = null;
+        messages.removeIf(message -> message.getLockToken() != null);
+        updateLockedStatus();
+        serviceBusService.closeLockedBrowseSessionAsync(session);
+    }
+    
+    /**
+     * Reflete na tabela as renovações e perdas de lock (notificadas na thread do renovador)
+     */
+    private LockedBrowseSession.Listener createLockListener(EntityPath entity) {
+        return new LockedBrowseSession.Listener() {
+            @Override
+            public void onLockRenewed(long sequenceNumber, OffsetDateTime lockedUntil) {
+                Platform.runLater(() -> {
+                    if (isCurrentLockedSession(entity)) {
+                        messages.stream()
+                            .filter(message -> message.getSequenceNumber() == sequenceNumber)
+                            .forEach(message -> message.setLockedUntil(lockedUntil.toInstant()));
+                        messagesTable.refresh();
+                    }
+                });
             }
             
-            // Configurar tópico
-            dialogController.setTopicName(selectedTopicName);
-            
-            // Criar o diálogo
-            Dialog<ButtonType> dialog = new Dialog<>();
-            dialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
-            dialog.setDialogPane(dialogPane);
-            dialog.setTitle("Configurar Nova Subscription - " + selectedTopicName);
-            dialog.setResizable(true);
+            @Override
+            public void onLockLost(long sequenceNumber, String reason) {
+                Platform.runLater(() -> {
+                    if (isCurrentLockedSession(entity)) {
+                        messages.removeIf(message -> message.getSequenceNumber() == sequenceNumber);
+                        updateLockedStatus();
+                        addLogMessage(String.format("Lock da mensagem %d de '%s' perdido: %s", sequenceNumber, entity, reason));
+                    }
+                });
+            }
+        };
+    }
+    
+    private boolean isCurrentLockedSession(EntityPath entity) {
+        return lockedBrowseSession != null && lockedBrowseSession.getEntity().equals(entity);
+    }
+    
+    private void updateLockedStatus() {
+        LockedBrowseSession session = lockedBrowseSession;
+        lockedStatusLabel.setText(session == null 
+            ? "Nenhuma mensagem retida" 
+            : String.format("🔒 %d mensagens retidas em '%s'", session.getHeldCount(), session.getEntity()));
+    }
+    
+    private void setLockedActionsDisabled(boolean disabled) {
+        completeLockedButton.setDisable(disabled);
+        abandonLockedButton.setDisable(disabled);
+        deadLetterLockedButton.setDisable(disabled);
+        deferLockedButton.setDisable(disabled);
+        releaseLocksButton.setDisable(disabled);
+    }
+    
+    private void handleMessageSelection(MessageInfo selectedMessage) {
+        showMessageDetails(selectedMessage, messageDetailsTextArea, loadFullBodyButton);
+    }
+    
+    /**
+     * Mostra os detalhes da mensagem com o corpo limitado a {@link #DETAILS_BODY_LIMIT_BYTES};
+     * corpos maiores ficam disponíveis pelo botão de corpo completo.
+     * Corpos que precisam de decodificador são decodificados numa thread de trabalho,
+     * exceto quando o resultado já está em cache.
+     */
+    private void showMessageDetails(MessageInfo message, TextArea detailsArea, Button fullBodyButton) {
+        // A área guarda a mensagem mostrada, para descartar decodificações que terminam depois de outra seleção
+        detailsArea.setUserData(message);
+        if (message == null) {
+            detailsArea.clear();
+            fullBodyButton.setDisable(true);
+            return;
+        }
+        
+        MessageBody body = message.getBody();
+        BodyDecoder decoder = bodyDecoders.detect(body, message.getContentType());
+        if (decoder == null) {
+            fullBodyButton.setDisable(body == null || !body.exceeds(DETAILS_BODY_LIMIT_BYTES));
+            detailsArea.setText(buildMessageDetails(message, DETAILS_BODY_LIMIT_BYTES, null));
+            return;
+        }
+        
+        DecodedBody cached = bodyDecoders.getCached(message.getSequenceNumber(), body, DETAILS_DECODED_LIMIT_CHARS);
+        if (cached != null) {
+            fullBodyButton.setDisable(!cached.truncated());
+            detailsArea.setText(buildMessageDetails(message, DETAILS_DECODED_LIMIT_CHARS, cached));
+            return;
+        }
+        
+        fullBodyButton.setDisable(true);
+        detailsArea.setText("Decodificando corpo (" + decoder.getName() + ")...");
+        
+        Task<DecodedBody> decodeTask = new Task<DecodedBody>() {
+            @Override
+            protected DecodedBody call() throws Exception {
+                return bodyDecoders.decode(message.getSequenceNumber(), body, message.getContentType(), 
+                    decoder, DETAILS_DECODED_LIMIT_CHARS);
+            }
             
-            // Customizar textos dos botões
-            Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
-            if (okButton != null) {
-                okButton.setText("✅ Criar Subscription");
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    if (detailsArea.getUserData() == message) {
+                        fullBodyButton.setDisable(!getValue().truncated());
+                        detailsArea.setText(buildMessageDetails(message, DETAILS_DECODED_LIMIT_CHARS, getValue()));
+                    }
+                });
             }
             
-            Button cancelButton = (Button) dialogPane.lookupButton(ButtonType.CANCEL);
-            if (cancelButton != null) {
-                cancelButton.setText("❌ Cancelar");
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    if (detailsArea.getUserData() == message) {
+                        fullBodyButton.setDisable(body == null || !body.exceeds(DETAILS_BODY_LIMIT_BYTES));
+                        detailsArea.setText(buildMessageDetails(message, DETAILS_BODY_LIMIT_BYTES, null));
+                    }
+                    logger.error("Erro ao decodificar corpo da mensagem", getException());
+                });
+            }
+        };
+        
+        windowScope.execute(decodeTask);
+    }
+    
+    /**
+     * Decodifica e formata o corpo completo da mensagem selecionada numa thread de trabalho
+     */
+    private void handleLoadFullBody(TableView<MessageInfo> table, TextArea detailsArea, Button fullBodyButton) {
+        MessageInfo message = table.getSelectionModel().getSelectedItem();
+        if (message == null) {
+            return;
+        }
+        
+        fullBodyButton.setDisable(true);
+        detailsArea.setText("Carregando corpo completo...");
+        
+        Task<String> loadTask = new Task<String>() {
+            @Override
+            protected String call() throws Exception {
+                MessageBody body = message.getBody();
+                BodyDecoder decoder = bodyDecoders.detect(body, message.getContentType());
+                DecodedBody decoded = decoder != null
+                    ? bodyDecoders.decode(message.getSequenceNumber(), body, message.getContentType(), decoder, Integer.MAX_VALUE)
+                    : null;
+                return buildMessageDetails(message, Integer.MAX_VALUE, decoded);
             }
             
-            // Configurar o controller com o dialogPane
-            dialogController.setDialogPane(dialogPane);
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    if (table.getSelectionModel().getSelectedItem() == message) {
+                        detailsArea.setText(getValue());
+                    }
+                });
+            }
             
-            // Exibir diálogo e processar resultado
-            Optional<ButtonType> result = dialog.showAndWait();
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    if (table.getSelectionModel().getSelectedItem() == message) {
+                        showMessageDetails(message, detailsArea, fullBodyButton);
+                    }
+                    showAlert("Erro", "Erro ao carregar corpo completo: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(loadTask);
+    }
+    
+    /**
+     * Importa schemas Avro (.avsc) ou descritores Protobuf (.desc/.pb) para a pasta de schemas
+     * e volta a decodificar as mensagens selecionadas
+     */
+    private void handleImportSchemas() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importar schemas para decodificação de corpos");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Schemas Avro / descritores Protobuf", "*.avsc", "*.desc", "*.pb", "*.protoset"),
+            new FileChooser.ExtensionFilter("Todos os arquivos", "*.*")
+        );
+        List<File> files = fileChooser.showOpenMultipleDialog(primaryStage);
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        
+        SchemaStore schemas = bodyDecoders.getSchemas();
+        Task<String> importTask = new Task<String>() {
+            @Override
+            protected String call() throws Exception {
+                schemas.importFiles(files.stream().map(File::toPath).toList());
+                return schemas.getSummary();
+            }
             
-            if (result.isPresent() && result.get() == ButtonType.OK) {
-                // Obter configuração completa do diálogo
-                com.azureservicebus.manager.model.SubscriptionConfiguration config = dialogController.getConfiguration();
-                
-                if (config != null && config.isValid()) {
-                    // Criar subscription com configurações customizadas
-                    createAdvancedSubscriptionButton.setDisable(true);
-                    
-                    Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
-                        @Override
-                        protected CreateQueueResult call() throws Exception {
-                            return serviceBusService.createSubscriptionAsync(config).get();
-                        }
-                        
-                        @Override
-                        protected void succeeded() {
-                            Platform.runLater(() -> {
-                                createAdvancedSubscriptionButton.setDisable(false);
-                                newSubscriptionNameField.clear();
-                                
-                                CreateQueueResult createResult = getValue();
-                                switch (createResult) {
-                                    case CREATED:
-                                        StringBuilder msg = new StringBuilder();
-                                        msg.append(String.format("Subscription '%s' criada com sucesso!\n\n", config.getName()));
-                                        msg.append("Configurações aplicadas:\n");
-                                        msg.append(String.format("• Max Delivery Count: %d\n", config.getMaxDeliveryCount()));
-                                        msg.append(String.format("• Lock Duration: %d minuto(s)\n", config.getLockDurationMinutes()));
-                                        msg.append(String.format("• Message TTL: %d dia(s)\n", config.getDefaultMessageTimeToLiveDays()));
-                                        
-                                        if (config.isFilterEnabled()) {
-                                            msg.append(String.format("• Filtro: %s\n", config.getFilterType()));
-                                        }
-                                        
-                                        addLogMessage(String.format("Subscription '%s' criada com configurações customizadas no tópico '%s'!", 
-                                            config.getName(), selectedTopicName));
-                                        showAlert("Sucesso", msg.toString(), Alert.AlertType.INFORMATION);
-                                        handleLoadSubscriptions();
-                                        break;
-                                        
-                                    case ALREADY_EXISTS:
-                                        addLogMessage(String.format("Subscription '%s' já existe no tópico '%s'", 
-                                            config.getName(), selectedTopicName));
-                                        showAlert("Informação", 
-                                            String.format("A subscription '%s' já existe no tópico '%s'.\nVocê pode utilizá-la normalmente.", 
-                                                config.getName(), selectedTopicName), 
-                                            Alert.AlertType.WARNING);
-                                        handleLoadSubscriptions();
-                                        break;
-                                        
-                                    case ERROR:
-                                        showAlert("Erro", 
-                                            String.format("Erro ao criar subscription '%s'. Verifique os logs para mais detalhes.", 
-                                                config.getName()), 
-                                            Alert.AlertType.ERROR);
-                                        break;
-                                }
-                            });
-                        }
-                        
-                        @Override
-                        protected void failed() {
-                            Platform.runLater(() -> {
-                                createAdvancedSubscriptionButton.setDisable(false);
-                                showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
-                            });
-                        }
-                    };
-                    
-                    new Thread(createTask).start();
-                }
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    bodyDecoders.clearCache();
+                    messagesTable.refresh();
+                    topicMessagesTable.refresh();
+                    handleMessageSelection(messagesTable.getSelectionModel().getSelectedItem());
+                    handleTopicMessageSelection(topicMessagesTable.getSelectionModel().getSelectedItem());
+                    addLogMessage(String.format("Schemas importados (%d arquivos): %s", files.size(), getValue()));
+                    showAlert("Sucesso", String.format("%d arquivos importados para '%s'.%n%s", 
+                        files.size(), schemas.getDirectory(), getValue()), Alert.AlertType.INFORMATION);
+                });
             }
             
-        } catch (Exception e) {
-            logger.error("Erro ao abrir diálogo de criação avançada de subscription", e);
-            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> 
+                    showAlert("Erro", "Erro ao importar schemas: " + getException().getMessage(), Alert.AlertType.ERROR));
+            }
+        };
+        
+        windowScope.execute(importTask);
+    }
+    
+    /**
+     * Texto dos detalhes da mensagem; com {@code decoded}, o corpo é o resultado do decodificador
+     * e o limite é em caracteres decodificados
+     */
+    private String buildMessageDetails(MessageInfo selectedMessage, int bodyLimit, DecodedBody decoded) {
+        StringBuilder details = new StringBuilder();
+        details.append("=== DETALHES DA MENSAGEM ===\n\n");
+        details.append("Sequence Number: ").append(selectedMessage.getSequenceNumber()).append("\n");
+        details.append("Message ID: ").append(selectedMessage.getMessageId()).append("\n");
+        details.append("Content Type: ").append(selectedMessage.getContentType()).append("\n");
+        details.append("Enqueued Time: ").append(selectedMessage.getFormattedEnqueuedTime()).append("\n");
+        details.append("Size: ").append(selectedMessage.getFormattedSize()).append("\n");
+        details.append("\n=== CORPO DA MENSAGEM ===\n");
+        
+        MessageBody body = selectedMessage.getBody();
+        boolean truncated;
+        String messageBody;
+        if (decoded != null) {
+            details.append("(decodificado: ").append(decoded.decoderName()).append(")\n");
+            truncated = decoded.truncated();
+            messageBody = decoded.text();
+        } else {
+            truncated = body != null && body.exceeds(bodyLimit);
+            messageBody = body != null ? body.decode(bodyLimit) : selectedMessage.getMessageBody();
+        }
+        
+        // Formatar o corpo da mensagem como JSON se possível
+        // (a saída dos decodificadores de formatos binários já vem indentada)
+        if (messageBody != null && !messageBody.trim().isEmpty()) {
+            boolean alreadyFormatted = decoded != null && messageBody.indexOf('\n') >= 0;
+            if (!truncated && !alreadyFormatted && isValidJson(messageBody.trim())) {
+                // Se é JSON válido, formatar com indentação
+                details.append(formatJson(messageBody.trim()));
+            } else {
+                // Se não é JSON (ou está truncado), mostrar como texto normal
+                details.append(messageBody);
+            }
+        } else {
+            details.append("(Mensagem vazia)");
+        }
+        
+        if (truncated && decoded != null) {
+            details.append(String.format("\n\n[... corpo decodificado truncado em %,d caracteres - use '📄 Corpo completo']", 
+                bodyLimit));
+        } else if (truncated) {
+            details.append(String.format("\n\n[... corpo truncado: mostrando %,d de %,d bytes - use '📄 Corpo completo']", 
+                bodyLimit, body.getSize()));
         }
+        
+        details.append("\n\n=== PROPRIEDADES ===\n");
+        details.append(selectedMessage.getApplicationPropertiesAsString());
+        
+        return details.toString();
     }
     
-    private void createSimpleSubscription(String subscriptionName) {
-        createAdvancedSubscriptionButton.setDisable(true);
+    /**
+     * Formata uma string JSON com indentação básica
+     */
+    private String formatJson(String jsonString) {
+        if (jsonString == null || jsonString.trim().isEmpty()) {
+            return jsonString;
+        }
+        
+        try {
+            // Formatação básica de JSON com indentação
+            StringBuilder formatted = new StringBuilder();
+            int indentLevel = 0;
+            boolean inString = false;
+            boolean escapeNext = false;
+            
+            for (int i = 0; i < jsonString.length(); i++) {
+                char c = jsonString.charAt(i);
+                
+                if (escapeNext) {
+                    formatted.append(c);
+                    escapeNext = false;
+                    continue;
+                }
+                
+                if (c == '\\') {
+                    formatted.append(c);
+                    escapeNext = true;
+                    continue;
+                }
+                
+                if (c == '"' && !escapeNext) {
+                    inString = !inString;
+                    formatted.append(c);
+                    continue;
+                }
+                
+                if (inString) {
+                    formatted.append(c);
+                    continue;
+                }
+                
+                switch (c) {
+                    case '{':
+                    case '[':
+                        formatted.append(c);
+                        indentLevel++;
+                        formatted.append('\n');
+                        addIndentation(formatted, indentLevel);
+                        break;
+                    case '}':
+                    case ']':
+                        formatted.append('\n');
+                        indentLevel--;
+                        addIndentation(formatted, indentLevel);
+                        formatted.append(c);
+                        break;
+                    case ',':
+                        formatted.append(c);
+                        formatted.append('\n');
+                        addIndentation(formatted, indentLevel);
+                        break;
+                    case ':':
+                        formatted.append(c);
+                        formatted.append(' ');
+                        break;
+                    case ' ':
+                    case '\t':
+                    case '\n':
+                    case '\r':
+                        // Ignorar espaços em branco desnecessários
+                        break;
+                    default:
+                        formatted.append(c);
+                        break;
+                }
+            }
+            
+            return formatted.toString();
+        } catch (Exception e) {
+            // Se houver erro na formatação, retornar o JSON original
+            return jsonString;
+        }
+    }
+    
+    /**
+     * Adiciona indentação ao StringBuilder
+     */
+    private void addIndentation(StringBuilder sb, int level) {
+        for (int i = 0; i < level; i++) {
+            sb.append("  ");
+        }
+    }
+    
+    /**
+     * Escapa caracteres especiais para JSON
+     */
+    private String escapeJsonString(String input) {
+        if (input == null) {
+            return "";
+        }
+        return input.replace("\\", "\\\\")
+                   .replace("\"", "\\\"")
+                   .replace("\n", "\\n")
+                   .replace("\r", "\\r")
+                   .replace("\t", "\\t")
+                   .replace("\b", "\\b")
+                   .replace("\f", "\\f");
+    }
+    
+    /**
+     * Verifica se uma string é um JSON válido
+     */
+    private boolean isValidJson(String jsonString) {
+        if (jsonString == null || jsonString.trim().isEmpty()) {
+            return false;
+        }
+        
+        String trimmed = jsonString.trim();
+        return (trimmed.startsWith("{") && trimmed.endsWith("}")) || 
+               (trimmed.startsWith("[") && trimmed.endsWith("]"));
+    }
+    
+    private void handleSendMessage() {
+        String selectedQueue = sendQueueComboBox.getValue();
+        String messageBody = messageBodyTextArea.getText().trim();
+        
+        if (selectedQueue == null) {
+            showAlert("Erro", "Selecione uma fila", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        if (messageBody.isEmpty()) {
+            showAlert("Erro", "Digite o corpo da mensagem", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        // Construir propriedades
+        Map<String, Object> properties = new HashMap<>();
+        if (!property1KeyField.getText().trim().isEmpty() && !property1ValueField.getText().trim().isEmpty()) {
+            properties.put(property1KeyField.getText().trim(), property1ValueField.getText().trim());
+        }
+        if (!property2KeyField.getText().trim().isEmpty() && !property2ValueField.getText().trim().isEmpty()) {
+            properties.put(property2KeyField.getText().trim(), property2ValueField.getText().trim());
+        }
+        
+        sendMessageButton.setDisable(true);
+        sendMessageButton.setText("Enviando...");
+        
+        Task<Boolean> sendTask = new Task<Boolean>() {
+            @Override
+            protected Boolean call() throws Exception {
+                return serviceBusService.sendMessageAsync(selectedQueue, messageBody, properties).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    sendMessageButton.setDisable(false);
+                    sendMessageButton.setText("Enviar Mensagem");
+                    
+                    if (getValue()) {
+                        addLogMessage(String.format("Mensagem enviada para fila '%s'", selectedQueue));
+                        
+                        // Mostrar diálogo de sucesso
+                        showAlert("Sucesso", 
+                            String.format("Mensagem enviada com sucesso para a fila '%s'!", selectedQueue), 
+                            Alert.AlertType.INFORMATION);
+                        
+                        // Limpar apenas os campos de propriedades, mantendo o corpo da mensagem
+                        property1KeyField.clear();
+                        property1ValueField.clear();
+                        property2KeyField.clear();
+                        property2ValueField.clear();
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    sendMessageButton.setDisable(false);
+                    sendMessageButton.setText("Enviar Mensagem");
+                    showAlert("Erro", "Erro ao enviar mensagem: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(sendTask);
+    }
+    
+    // ===========================================================================================
+    // MÉTODOS PARA TÓPICOS
+    // ===========================================================================================
+    
+    private void handleLoadTopics() {
+        if (!serviceBusService.isConnected()) {
+            showAlert("Erro", "Não conectado ao Service Bus", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        loadTopicsButton.setDisable(true);
+        loadTopicsButton.setText("Carregando...");
+        
+        List<String> currentNames = List.copyOf(topicNames);
+        
+        Task<SortedListDiff<String>> loadTask = new Task<SortedListDiff<String>>() {
+            @Override
+            protected SortedListDiff<String> call() throws Exception {
+                return SortedListDiff.compute(currentNames, serviceBusService.listTopicNamesAsync().get(), 
+                    String::compareToIgnoreCase);
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    SortedListDiff<String> diff = getValue();
+                    diff.applyTo(topicNames);
+                    topicListLabel.setText("Tópicos Disponíveis");
+                    loadTopicsButton.setDisable(false);
+                    loadTopicsButton.setText("Carregar Tópicos");
+                    addLogMessage(String.format("Carregados %d tópicos (%s)", diff.getUpdatedSize(), diff.getSummary()));
+                    saveNamespaceSnapshot();
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    loadTopicsButton.setDisable(false);
+                    loadTopicsButton.setText("Carregar Tópicos");
+                    showAlert("Erro", "Erro ao carregar tópicos: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(loadTask);
+    }
+    
+    private void filterTopics(String filter) {
+        if (filter == null || filter.trim().isEmpty()) {
+            topicListView.setItems(topicNames);
+            return;
+        }
+        
+        ObservableList<String> filteredTopics = topicNames.filtered(
+            topicName -> topicName.toLowerCase().contains(filter.toLowerCase())
+        );
+        topicListView.setItems(filteredTopics);
+    }
+    
+    private void filterSubscriptions(String filter) {
+        if (filter == null || filter.trim().isEmpty()) {
+            subscriptionsTable.setItems(subscriptionDetails);
+            return;
+        }
+        
+        ObservableList<SubscriptionInfo> filteredSubscriptions = subscriptionDetails.filtered(
+            sub -> sub.getName().toLowerCase().contains(filter.toLowerCase())
+        );
+        subscriptionsTable.setItems(filteredSubscriptions);
+    }
+    
+    private void handleTopicSelection(String selectedTopic) {
+        if (selectedTopic == null || !serviceBusService.isConnected()) {
+            return;
+        }
+        
+        // O carregamento do tópico anterior deixa de acrescentar linhas à tabela
+        if (subscriptionLoadToken != null) {
+            subscriptionLoadToken.cancel();
+            subscriptionLoadToken = null;
+        }
+        if (!selectedTopic.equals(selectedTopicName)) {
+            subscriptionDetails.clear();
+        }
+        
+        selectedTopicName = selectedTopic;
+        selectedTopicLabel.setText("Tópico selecionado: " + selectedTopic);
+        
+        // Habilitar botões de subscription
+        loadSubscriptionsButton.setDisable(false);
+        loadSubscriptionsButton.setText("Carregar Subscriptions");
+        simulateRoutingButton.setDisable(false);
+        newSubscriptionNameField.setDisable(false);
+        createSubscriptionButton.setDisable(false);
+        if (createAdvancedSubscriptionButton != null) {
+            createAdvancedSubscriptionButton.setDisable(false);
+        }
+        
+        // Carregar detalhes do tópico
+        Task<TopicInfo> detailsTask = new Task<TopicInfo>() {
+            @Override
+            protected TopicInfo call() throws Exception {
+                return serviceBusService.getTopicDetailsAsync(selectedTopic).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    topicDetails.setAll(getValue());
+                    addLogMessage(String.format("Detalhes carregados para tópico '%s'", selectedTopic));
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> showAlert("Erro", "Erro ao carregar detalhes: " + getException().getMessage(), Alert.AlertType.ERROR));
+            }
+        };
+        
+        profileScope.execute(detailsTask);
+        
+        // Carregar subscriptions automaticamente
+        handleLoadSubscriptions();
+    }
+    
+    private void handleCreateTopic() {
+        String topicName = newTopicNameField.getText().trim();
+        
+        if (topicName.isEmpty()) {
+            showAlert("Erro", "Digite um nome para o tópico", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        createTopicButton.setDisable(true);
+        
+        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+            @Override
+            protected CreateQueueResult call() throws Exception {
+                return serviceBusService.createTopicAsync(topicName).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    createTopicButton.setDisable(false);
+                    newTopicNameField.clear();
+                    
+                    CreateQueueResult result = getValue();
+                    switch (result) {
+                        case CREATED:
+                            addLogMessage(String.format("Tópico '%s' criado com sucesso!", topicName));
+                            showAlert("Sucesso", 
+                                String.format("Tópico '%s' foi criado com sucesso!", topicName), 
+                                Alert.AlertType.INFORMATION);
+                            handleLoadTopics();
+                            break;
+                            
+                        case ALREADY_EXISTS:
+                            addLogMessage(String.format("Tópico '%s' já existe no namespace", topicName));
+                            showAlert("Informação", 
+                                String.format("O tópico '%s' já existe no namespace.\nVocê pode utilizá-lo normalmente.", topicName), 
+                                Alert.AlertType.WARNING);
+                            handleLoadTopics();
+                            break;
+                            
+                        case ERROR:
+                            showAlert("Erro", 
+                                String.format("Erro ao criar tópico '%s'. Verifique os logs para mais detalhes.", topicName), 
+                                Alert.AlertType.ERROR);
+                            break;
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    createTopicButton.setDisable(false);
+                    showAlert("Erro", "Erro ao criar tópico: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(createTask);
+    }
+    
+    private void handleLoadSubscriptions() {
+        if (selectedTopicName == null) {
+            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        // Cancelar carregamento anterior (ex.: usuário trocou de tópico)
+        if (subscriptionLoadToken != null) {
+            subscriptionLoadToken.cancel();
+        }
+        CancellationToken token = new CancellationToken();
+        subscriptionLoadToken = token;
+        
+        String topicName = selectedTopicName;
+        
+        // Ao recarregar o mesmo tópico as linhas atuais ficam e são substituídas uma a uma;
+        // as que já não existem saem no fim, sem esvaziar a tabela
+        boolean sameTopic = subscriptionDetails.stream().allMatch(sub -> topicName.equals(sub.getTopicName()));
+        if (!sameTopic) {
+            subscriptionDetails.clear();
+        }
+        
+        loadSubscriptionsButton.setDisable(true);
+        loadSubscriptionsButton.setText("Carregando...");
+        
+        Task<ObservableList<String>> loadTask = new Task<ObservableList<String>>() {
+            @Override
+            protected ObservableList<String> call() throws Exception {
+                return serviceBusService.listSubscriptionNamesAsync(topicName).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    if (token.isCancelled()) {
+                        return;
+                    }
+                    
+                    ObservableList<String> subscriptionNames = getValue();
+                    
+                    if (subscriptionNames.isEmpty()) {
+                        subscriptionDetails.clear();
+                        loadSubscriptionsButton.setDisable(false);
+                        loadSubscriptionsButton.setText("Carregar Subscriptions");
+                        addLogMessage(String.format("Nenhuma subscription encontrada no tópico '%s'", topicName));
+                        return;
+                    }
+                    
+                    List<String> names = new ArrayList<>(subscriptionNames);
+                    AtomicInteger received = new AtomicInteger();
+                    
+                    // Carregar detalhes em paralelo; cada subscription aparece na tabela assim que chega
+                    Task<Integer> detailsTask = new Task<Integer>() {
+                        @Override
+                        protected Integer call() throws Exception {
+                            return serviceBusService.loadSubscriptionDetailsAsync(topicName, names,
+                                SUBSCRIPTION_DETAILS_CONCURRENCY, token,
+                                subInfo -> Platform.runLater(() -> {
+                                    if (!token.isCancelled()) {
+                                        insertSubscriptionSorted(subInfo);
+                                        loadSubscriptionsButton.setText(String.format("Carregando... (%d/%d)", 
+                                            received.incrementAndGet(), names.size()));
+                                    }
+                                })
+                            ).get();
+                        }
+                        
+                        @Override
+                        protected void succeeded() {
+                            Platform.runLater(() -> {
+                                if (token.isCancelled()) {
+                                    return;
+                                }
+                                
+                                Set<String> existing = new HashSet<>(names);
+                                subscriptionDetails.removeIf(sub -> !existing.contains(sub.getName()));
+                                loadSubscriptionsButton.setDisable(false);
+                                loadSubscriptionsButton.setText("Carregar Subscriptions");
+                                updateRuntimeMetricsWatch();
+                                addLogMessage(String.format("Carregadas %d de %d subscriptions do tópico '%s'", 
+                                    getValue(), names.size(), topicName));
+                                    
+                                if (getValue() < names.size()) {
+                                    showAlert("Aviso", String.format(
+                                        "%d subscription(s) não puderam ser carregadas. Verifique o log para mais detalhes.", 
+                                        names.size() - getValue()), Alert.AlertType.WARNING);
+                                }
+                            });
+                        }
+                        
+                        @Override
+                        protected void failed() {
+                            Platform.runLater(() -> {
+                                if (token.isCancelled()) {
+                                    return;
+                                }
+                                
+                                loadSubscriptionsButton.setDisable(false);
+                                loadSubscriptionsButton.setText("Carregar Subscriptions");
+                                showAlert("Erro", "Erro ao carregar detalhes das subscriptions: " + 
+                                    getException().getMessage(), Alert.AlertType.ERROR);
+                            });
+                        }
+                    };
+                    
+                    profileScope.execute(detailsTask);
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    if (token.isCancelled()) {
+                        return;
+                    }
+                    
+                    loadSubscriptionsButton.setDisable(false);
+                    loadSubscriptionsButton.setText("Carregar Subscriptions");
+                    showAlert("Erro", "Erro ao carregar subscriptions: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(loadTask);
+    }
+    
+    /**
+     * Observa em segundo plano a fila selecionada e as subscriptions do tópico carregado,
+     * para que as contagens e tendências se atualizem sem novos cliques
+     */
+    private void updateRuntimeMetricsWatch() {
+        List<EntityPath> watched = new ArrayList<>();
+        for (QueueInfo queueInfo : queueDetails) {
+            watched.add(EntityPath.queue(queueInfo.getName()));
+        }
+        for (SubscriptionInfo subInfo : subscriptionDetails) {
+            watched.add(EntityPath.subscription(subInfo.getTopicName(), subInfo.getName()));
+        }
+        serviceBusService.watchRuntimeMetrics(watched);
+    }
+    
+    /**
+     * Copia a última amostra e a tendência de cada entidade observada para as tabelas
+     */
+    private void applyRuntimeMetrics() {
+        runtimeMetricsDrainScheduled.set(false);
+        
+        for (QueueInfo queueInfo : queueDetails) {
+            RuntimeMetricsSeries series = serviceBusService.getRuntimeMetrics(EntityPath.queue(queueInfo.getName()));
+            if (series == null || series.size() == 0) {
+                continue;
+            }
+            queueInfo.setActiveMessages(series.getLatest(RuntimeMetricsSeries.Metric.ACTIVE));
+            queueInfo.setDeadLetterMessages(series.getLatest(RuntimeMetricsSeries.Metric.DEAD_LETTER));
+            queueInfo.setScheduledMessages(series.getLatest(RuntimeMetricsSeries.Metric.SCHEDULED));
+            queueInfo.setSizeInKB(series.getLatest(RuntimeMetricsSeries.Metric.SIZE_BYTES) / 1024.0);
+            queueInfo.setTrend(series.getTrendSummary(RuntimeMetricsPoller.RATE_WINDOW_MILLIS));
+        }
+        
+        boolean subscriptionsChanged = false;
+        for (SubscriptionInfo subInfo : subscriptionDetails) {
+            RuntimeMetricsSeries series = serviceBusService.getRuntimeMetrics(
+                EntityPath.subscription(subInfo.getTopicName(), subInfo.getName()));
+            if (series == null || series.size() == 0) {
+                continue;
+            }
+            subInfo.setActiveMessages(series.getLatest(RuntimeMetricsSeries.Metric.ACTIVE));
+            subInfo.setDeadLetterMessages(series.getLatest(RuntimeMetricsSeries.Metric.DEAD_LETTER));
+            subInfo.setTrend(series.getTrendSummary(RuntimeMetricsPoller.RATE_WINDOW_MILLIS));
+            subscriptionsChanged = true;
+        }
+        // SubscriptionInfo não tem properties observáveis
+        if (subscriptionsChanged) {
+            subscriptionsTable.refresh();
+        }
+    }
+    
+    /**
+     * Insere a subscription mantendo a lista ordenada por nome, ou substitui a linha
+     * existente com o mesmo nome (recarregamento do mesmo tópico)
+     */
+    private void insertSubscriptionSorted(SubscriptionInfo subInfo) {
+        int index = Collections.binarySearch(subscriptionDetails, subInfo,
+            (a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        if (index >= 0) {
+            subscriptionDetails.set(index, subInfo);
+        } else {
+            subscriptionDetails.add(-index - 1, subInfo);
+        }
+    }
+    
+    private void handleCreateSubscription() {
+        if (selectedTopicName == null) {
+            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        String subscriptionName = newSubscriptionNameField.getText().trim();
+        
+        if (subscriptionName.isEmpty()) {
+            showAlert("Erro", "Digite um nome para a subscription", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        // Validar limite de 50 caracteres do Azure
+        if (subscriptionName.length() > 50) {
+            showAlert("Erro", 
+                "O nome da subscription não pode ter mais de 50 caracteres.\n" +
+                "O Azure Service Bus limita o nome a 50 caracteres.\n" +
+                "Tamanho atual: " + subscriptionName.length() + " caracteres", 
+                Alert.AlertType.ERROR);
+            return;
+        }
+        
+        createSubscriptionButton.setDisable(true);
+        
+        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+            @Override
+            protected CreateQueueResult call() throws Exception {
+                return serviceBusService.createSubscriptionAsync(selectedTopicName, subscriptionName).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    createSubscriptionButton.setDisable(false);
+                    newSubscriptionNameField.clear();
+                    
+                    CreateQueueResult result = getValue();
+                    switch (result) {
+                        case CREATED:
+                            addLogMessage(String.format("Subscription '%s' criada com sucesso no tópico '%s'!", 
+                                subscriptionName, selectedTopicName));
+                            showAlert("Sucesso", 
+                                String.format("Subscription '%s' foi criada com sucesso!", subscriptionName), 
+                                Alert.AlertType.INFORMATION);
+                            handleLoadSubscriptions();
+                            break;
+                            
+                        case ALREADY_EXISTS:
+                            addLogMessage(String.format("Subscription '%s' já existe no tópico '%s'", 
+                                subscriptionName, selectedTopicName));
+                            showAlert("Informação", 
+                                String.format("A subscription '%s' já existe no tópico '%s'.\nVocê pode utilizá-la normalmente.", 
+                                    subscriptionName, selectedTopicName), 
+                                Alert.AlertType.WARNING);
+                            handleLoadSubscriptions();
+                            break;
+                            
+                        case ERROR:
+                            showAlert("Erro", 
+                                String.format("Erro ao criar subscription '%s'. Verifique os logs para mais detalhes.", 
+                                    subscriptionName), 
+                                Alert.AlertType.ERROR);
+                            break;
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    createSubscriptionButton.setDisable(false);
+                    showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(createTask);
+    }
+    
+    /**
+     * Abre diálogo para criação de subscription com configurações avançadas
+     */
+    private void handleCreateAdvancedSubscription() {
+        if (selectedTopicName == null) {
+            showAlert("Erro", "Selecione um tópico primeiro", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        try {
+            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(
+                getClass().getResource("/fxml/create-subscription-dialog.fxml")
+            );
+            
+            DialogPane dialogPane = loader.load();
+            CreateSubscriptionDialogController dialogController = loader.getController();
+            
+            // Pré-preencher com o nome digitado, se houver
+            String initialName = newSubscriptionNameField.getText().trim();
+            if (!initialName.isEmpty()) {
+                dialogController.setInitialSubscriptionName(initialName);
+            }
+            
+            // Configurar tópico
+            dialogController.setTopicName(selectedTopicName);
+            
+            // Criar o diálogo
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+            dialog.setDialogPane(dialogPane);
+            dialog.setTitle("Configurar Nova Subscription - " + selectedTopicName);
+            dialog.setResizable(true);
+            
+            // Customizar textos dos botões
+            Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
+            if (okButton != null) {
+                okButton.setText("✅ Criar Subscription");
+            }
+            
+            Button cancelButton = (Button) dialogPane.lookupButton(ButtonType.CANCEL);
+            if (cancelButton != null) {
+                cancelButton.setText("❌ Cancelar");
+            }
+            
+            // Configurar o controller com o dialogPane
+            dialogController.setDialogPane(dialogPane);
+            
+            // Exibir diálogo e processar resultado
+            Optional<ButtonType> result = dialog.showAndWait();
+            
+            if (result.isPresent() && result.get() == ButtonType.OK) {
+                // Obter configuração completa do diálogo
+                com.azureservicebus.manager.model.SubscriptionConfiguration config = dialogController.getConfiguration();
+                
+                if (config != null && config.isValid()) {
+                    // Criar subscription com configurações customizadas
+                    createAdvancedSubscriptionButton.setDisable(true);
+                    
+                    Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+                        @Override
+                        protected CreateQueueResult call() throws Exception {
+                            return serviceBusService.createSubscriptionAsync(config).get();
+                        }
+                        
+                        @Override
+                        protected void succeeded() {
+                            Platform.runLater(() -> {
+                                createAdvancedSubscriptionButton.setDisable(false);
+                                newSubscriptionNameField.clear();
+                                
+                                CreateQueueResult createResult = getValue();
+                                switch (createResult) {
+                                    case CREATED:
+                                        StringBuilder msg = new StringBuilder();
+                                        msg.append(String.format("Subscription '%s' criada com sucesso!\n\n", config.getName()));
+                                        msg.append("Configurações aplicadas:\n");
+                                        msg.append(String.format("• Max Delivery Count: %d\n", config.getMaxDeliveryCount()));
+                                        msg.append(String.format("• Lock Duration: %d minuto(s)\n", config.getLockDurationMinutes()));
+                                        msg.append(String.format("• Message TTL: %d dia(s)\n", config.getDefaultMessageTimeToLiveDays()));
+                                        
+                                        if (config.isFilterEnabled()) {
+                                            msg.append(String.format("• Filtro: %s\n", config.getFilterType()));
+                                        }
+                                        
+                                        addLogMessage(String.format("Subscription '%s' criada com configurações customizadas no tópico '%s'!", 
+                                            config.getName(), selectedTopicName));
+                                        showAlert("Sucesso", msg.toString(), Alert.AlertType.INFORMATION);
+                                        handleLoadSubscriptions();
+                                        break;
+                                        
+                                    case ALREADY_EXISTS:
+                                        addLogMessage(String.format("Subscription '%s' já existe no tópico '%s'", 
+                                            config.getName(), selectedTopicName));
+                                        showAlert("Informação", 
+                                            String.format("A subscription '%s' já existe no tópico '%s'.\nVocê pode utilizá-la normalmente.", 
+                                                config.getName(), selectedTopicName), 
+                                            Alert.AlertType.WARNING);
+                                        handleLoadSubscriptions();
+                                        break;
+                                        
+                                    case ERROR:
+                                        showAlert("Erro", 
+                                            String.format("Erro ao criar subscription '%s'. Verifique os logs para mais detalhes.", 
+                                                config.getName()), 
+                                            Alert.AlertType.ERROR);
+                                        break;
+                                }
+                            });
+                        }
+                        
+                        @Override
+                        protected void failed() {
+                            Platform.runLater(() -> {
+                                createAdvancedSubscriptionButton.setDisable(false);
+                                showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
+                            });
+                        }
+                    };
+                    
+                    profileScope.execute(createTask);
+                }
+            }
+            
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de criação avançada de subscription", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+    
+    private void createSimpleSubscription(String subscriptionName) {
+        createAdvancedSubscriptionButton.setDisable(true);
+        
+        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+            @Override
+            protected CreateQueueResult call() throws Exception {
+                return serviceBusService.createSubscriptionAsync(selectedTopicName, subscriptionName).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    createAdvancedSubscriptionButton.setDisable(false);
+                    newSubscriptionNameField.clear();
+                    
+                    CreateQueueResult result = getValue();
+                    if (result == CreateQueueResult.CREATED) {
+                        addLogMessage(String.format("Subscription '%s' criada com sucesso!", subscriptionName));
+                        showAlert("Sucesso", 
+                            String.format("Subscription '%s' foi criada com sucesso!", subscriptionName), 
+                            Alert.AlertType.INFORMATION);
+                        handleLoadSubscriptions();
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    createAdvancedSubscriptionButton.setDisable(false);
+                    showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(createTask);
+    }
+    
+    // ===========================================================================================
+    // MÉTODOS PARA MENSAGENS DE TÓPICOS
+    // ===========================================================================================
+    
+    private void handleLoadTopicMessages() {
+        String selectedTopic = viewTopicComboBox.getValue();
+        String selectedSubscription = viewSubscriptionComboBox.getValue();
+        
+        if (selectedTopic == null || selectedTopic.isEmpty()) {
+            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        if (selectedSubscription == null || selectedSubscription.isEmpty()) {
+            showAlert("Erro", "Selecione uma subscription", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        if (liveTailActiveToggle == topicLiveTailToggle) {
+            stopLiveTail();
+        }
+        
+        loadTopicMessagesButton.setDisable(true);
+        loadTopicMessagesButton.setText("Carregando...");
+        
+        Task<ObservableList<MessageInfo>> loadTask = new Task<ObservableList<MessageInfo>>() {
+            @Override
+            protected ObservableList<MessageInfo> call() throws Exception {
+                return serviceBusService.peekSubscriptionMessagesAsync(selectedTopic, selectedSubscription, 20).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    topicMessages.setAll(getValue());
+                    loadTopicMessagesButton.setDisable(false);
+                    loadTopicMessagesButton.setText("Carregar Mensagens");
+                    addLogMessage(String.format("Carregadas %d mensagens da subscription '%s' do tópico '%s'", 
+                        getValue().size(), selectedSubscription, selectedTopic));
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    loadTopicMessagesButton.setDisable(false);
+                    loadTopicMessagesButton.setText("Carregar Mensagens");
+                    showAlert("Erro", "Erro ao carregar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(loadTask);
+    }
+    
+    private void handleTopicMessageSelection(MessageInfo selectedMessage) {
+        showMessageDetails(selectedMessage, topicMessageDetailsTextArea, topicLoadFullBodyButton);
+    }
+    
+    private void handleSendMessageToTopic() {
+        String selectedTopic = sendTopicComboBox.getValue();
+        String messageBody = sendTopicMessageBodyTextArea.getText().trim();
+        
+        if (selectedTopic == null) {
+            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        if (messageBody.isEmpty()) {
+            showAlert("Erro", "Digite o corpo da mensagem", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        // Construir propriedades
+        Map<String, Object> properties = new HashMap<>();
+        if (!sendTopicProperty1KeyField.getText().trim().isEmpty() && !sendTopicProperty1ValueField.getText().trim().isEmpty()) {
+            properties.put(sendTopicProperty1KeyField.getText().trim(), sendTopicProperty1ValueField.getText().trim());
+        }
+        if (!sendTopicProperty2KeyField.getText().trim().isEmpty() && !sendTopicProperty2ValueField.getText().trim().isEmpty()) {
+            properties.put(sendTopicProperty2KeyField.getText().trim(), sendTopicProperty2ValueField.getText().trim());
+        }
+        
+        sendToTopicButton.setDisable(true);
+        sendToTopicButton.setText("Enviando...");
+        
+        Task<Boolean> sendTask = new Task<Boolean>() {
+            @Override
+            protected Boolean call() throws Exception {
+                return serviceBusService.sendMessageToTopicAsync(selectedTopic, messageBody, properties).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    sendToTopicButton.setDisable(false);
+                    sendToTopicButton.setText("Publicar no Tópico");
+                    
+                    if (getValue()) {
+                        addLogMessage(String.format("Mensagem publicada no tópico '%s'", selectedTopic));
+                        
+                        showAlert("Sucesso", 
+                            String.format("Mensagem publicada com sucesso no tópico '%s'!\nTodas as subscriptions receberão a mensagem.", selectedTopic), 
+                            Alert.AlertType.INFORMATION);
+                        
+                        // Limpar campos de propriedades
+                        sendTopicProperty1KeyField.clear();
+                        sendTopicProperty1ValueField.clear();
+                        sendTopicProperty2KeyField.clear();
+                        sendTopicProperty2ValueField.clear();
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    sendToTopicButton.setDisable(false);
+                    sendToTopicButton.setText("Publicar no Tópico");
+                    showAlert("Erro", "Erro ao publicar mensagem: " + getException().getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        profileScope.execute(sendTask);
+    }
+    
+    // ===========================================================================================
+    // ENVIO EM MASSA
+    // ===========================================================================================
+    
+    private void handleBulkSendToQueue(boolean fromFile) {
+        String selectedQueue = sendQueueComboBox.getValue();
+        if (selectedQueue == null || selectedQueue.trim().isEmpty()) {
+            showAlert("Erro", "Selecione uma fila", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        startBulkSend(EntityPath.queue(selectedQueue.trim()), fromFile,
+            messageBodyTextArea.getText().trim(),
+            buildProperties(property1KeyField, property1ValueField, property2KeyField, property2ValueField),
+            bulkSendCountField, bulkSendConcurrencyField, bulkSendButton, bulkSendFileButton);
+    }
+    
+    private void handleBulkSendToTopic(boolean fromFile) {
+        String selectedTopic = sendTopicComboBox.getValue();
+        if (selectedTopic == null || selectedTopic.trim().isEmpty()) {
+            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        startBulkSend(EntityPath.topic(selectedTopic.trim()), fromFile,
+            sendTopicMessageBodyTextArea.getText().trim(),
+            buildProperties(sendTopicProperty1KeyField, sendTopicProperty1ValueField, 
+                sendTopicProperty2KeyField, sendTopicProperty2ValueField),
+            sendTopicBulkCountField, sendTopicBulkConcurrencyField, sendTopicBulkButton, sendTopicBulkFileButton);
+    }
+    
+    private void handleReplayToQueue() {
+        String selectedQueue = sendQueueComboBox.getValue();
+        if (selectedQueue == null || selectedQueue.trim().isEmpty()) {
+            showAlert("Erro", "Selecione uma fila", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        startReplay(EntityPath.queue(selectedQueue.trim()), replayRateField, bulkSendConcurrencyField, 
+            replayButton, bulkSendButton, bulkSendFileButton);
+    }
+    
+    private void handleReplayToTopic() {
+        String selectedTopic = sendTopicComboBox.getValue();
+        if (selectedTopic == null || selectedTopic.trim().isEmpty()) {
+            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        startReplay(EntityPath.topic(selectedTopic.trim()), sendTopicReplayRateField, sendTopicBulkConcurrencyField, 
+            sendTopicReplayButton, sendTopicBulkButton, sendTopicBulkFileButton);
+    }
+    
+    /**
+     * Reenvia um arquivo NDJSON exportado (corpo, propriedades de sistema e da aplicação)
+     * em lotes, com taxa alvo e lotes simultâneos configuráveis
+     */
+    private void startReplay(EntityPath target, TextField rateField, TextField concurrencyField, Button... buttons) {
+        if (!serviceBusService.isConnected()) {
+            showAlert("Erro", "Não conectado ao Service Bus", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        int concurrency;
+        try {
+            concurrency = Integer.parseInt(concurrencyField.getText().trim());
+        } catch (NumberFormatException e) {
+            concurrency = -1;
+        }
+        if (concurrency < 1 || concurrency > BulkSendEngine.MAX_CONCURRENCY) {
+            showAlert("Erro", String.format("Lotes simultâneos deve ser um número entre 1 e %d", 
+                BulkSendEngine.MAX_CONCURRENCY), Alert.AlertType.ERROR);
+            return;
+        }
+        
+        double rate;
+        try {
+            rate = Double.parseDouble(rateField.getText().trim().replace(",", "."));
+        } catch (NumberFormatException e) {
+            rate = -1;
+        }
+        if (rate < 0) {
+            showAlert("Erro", "Digite uma taxa alvo válida (0 = sem limite)", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Selecionar arquivo NDJSON para replay");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("NDJSON", "*.ndjson", "*.ndjson.gz", "*.jsonl", "*.gz"),
+            new FileChooser.ExtensionFilter("Todos os arquivos", "*.*")
+        );
+        File file = fileChooser.showOpenDialog(primaryStage);
+        if (file == null) {
+            return;
+        }
+        
+        String description = String.format("Replay de '%s' para '%s'%s", file.getName(), target, 
+            rate > 0 ? String.format(" a %,.0f msg/s", rate) : "");
+            
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, "Replay de Mensagens", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+        
+        for (Button button : buttons) {
+            button.setDisable(true);
+        }
+        addLogMessage(description);
+        
+        final int workers = concurrency;
+        final double targetRate = rate;
+        
+        Task<OperationProgress> replayTask = new Task<OperationProgress>() {
+            @Override
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.replayMessagesAsync(target, file.toPath(), targetRate, workers, 
+                    cancellationToken, progressDialog::update).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    for (Button button : buttons) {
+                        button.setDisable(false);
+                    }
+                    
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s: %,d mensagens reenviadas para '%s'", 
+                        progress.isCancelled() ? "Replay cancelado" : "Replay concluído", progress.getProcessed(), target);
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    for (Button button : buttons) {
+                        button.setDisable(false);
+                    }
+                    progressDialog.fail("Erro no replay: " + getException().getMessage());
+                    addLogMessage("Erro no replay para '" + target + "': " + getException().getMessage());
+                });
+            }
+        };
+        
+        profileScope.execute(replayTask);
+    }
+    
+    /**
+     * Valida os parâmetros do envio em massa e executa-o em segundo plano com diálogo de progresso
+     */
+    private void startBulkSend(EntityPath target, boolean fromFile, String messageBody, Map<String, Object> properties,
+                               TextField countField, TextField concurrencyField, Button... buttons) {
+        if (!serviceBusService.isConnected()) {
+            showAlert("Erro", "Não conectado ao Service Bus", Alert.AlertType.ERROR);
+            return;
+        }
+        
+        int concurrency;
+        try {
+            concurrency = Integer.parseInt(concurrencyField.getText().trim());
+        } catch (NumberFormatException e) {
+            concurrency = -1;
+        }
+        if (concurrency < 1 || concurrency > BulkSendEngine.MAX_CONCURRENCY) {
+            showAlert("Erro", String.format("Lotes simultâneos deve ser um número entre 1 e %d", 
+                BulkSendEngine.MAX_CONCURRENCY), Alert.AlertType.ERROR);
+            return;
+        }
+        
+        long count = 0;
+        File file = null;
+        if (fromFile) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Selecionar arquivo de mensagens (uma mensagem por linha)");
+            fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Texto / JSON Lines", "*.txt", "*.ndjson", "*.jsonl", "*.json"),
+                new FileChooser.ExtensionFilter("Todos os arquivos", "*.*")
+            );
+            file = fileChooser.showOpenDialog(primaryStage);
+            if (file == null) {
+                return;
+            }
+        } else {
+            if (messageBody.isEmpty()) {
+                showAlert("Erro", "Digite o corpo da mensagem", Alert.AlertType.ERROR);
+                return;
+            }
+            try {
+                count = Long.parseLong(countField.getText().trim());
+            } catch (NumberFormatException e) {
+                count = 0;
+            }
+            if (count < 1) {
+                showAlert("Erro", "Digite uma quantidade válida de mensagens", Alert.AlertType.ERROR);
+                return;
+            }
+        }
+        
+        String description = fromFile
+            ? String.format("Enviando mensagens do arquivo '%s' para '%s'", file.getName(), target)
+            : String.format("Enviando %,d mensagens para '%s'", count, target);
+            
+        CancellationToken cancellationToken = new CancellationToken();
+        OperationProgressDialogController progressDialog;
+        try {
+            progressDialog = OperationProgressDialogController.open(primaryStage, "Envio em Massa", description, cancellationToken);
+        } catch (Exception e) {
+            logger.error("Erro ao abrir diálogo de progresso", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+            return;
+        }
+        
+        for (Button button : buttons) {
+            button.setDisable(true);
+        }
+        addLogMessage(description);
+        
+        final File sourceFile = file;
+        final long messageCount = count;
+        final int workers = concurrency;
         
-        Task<CreateQueueResult> createTask = new Task<CreateQueueResult>() {
+        Task<OperationProgress> bulkTask = new Task<OperationProgress>() {
             @Override
-            protected CreateQueueResult call() throws Exception {
-                return serviceBusService.createSubscriptionAsync(selectedTopicName, subscriptionName).get();
+            protected OperationProgress call() throws Exception {
+                if (sourceFile == null) {
+                    return serviceBusService.sendMessagesBulkAsync(target, 
+                        MessageSources.repeated(messageBody, properties, messageCount), 
+                        messageCount, workers, cancellationToken, progressDialog::update).get();
+                }
+                
+                // Contar as linhas primeiro para permitir o cálculo de ETA; o envio lê o arquivo em streaming
+                long total;
+                try (Stream<String> lines = Files.lines(sourceFile.toPath())) {
+                    total = lines.filter(line -> !line.isBlank()).count();
+                }
+                
+                try (BufferedReader reader = Files.newBufferedReader(sourceFile.toPath())) {
+                    return serviceBusService.sendMessagesBulkAsync(target, 
+                        MessageSources.lines(reader, properties), 
+                        total, workers, cancellationToken, progressDialog::update).get();
+                }
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    createAdvancedSubscriptionButton.setDisable(false);
-                    newSubscriptionNameField.clear();
-                    
-                    CreateQueueResult result = getValue();
-                    if (result == CreateQueueResult.CREATED) {
-                        addLogMessage(String.format("Subscription '%s' criada com sucesso!", subscriptionName));
-                        showAlert("Sucesso", 
-                            String.format("Subscription '%s' foi criada com sucesso!", subscriptionName), 
-                            Alert.AlertType.INFORMATION);
-                        handleLoadSubscriptions();
+                    for (Button button : buttons) {
+                        button.setDisable(false);
                     }
+                    
+                    OperationProgress progress = getValue();
+                    String message = String.format("%s: %,d mensagens enviadas para '%s'", 
+                        progress.isCancelled() ? "Envio cancelado" : "Envio concluído", progress.getProcessed(), target);
+                    progressDialog.complete(progress, message);
+                    addLogMessage(message + " - " + progress.getSummary());
                 });
             }
             
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    createAdvancedSubscriptionButton.setDisable(false);
-                    showAlert("Erro", "Erro ao criar subscription: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    for (Button button : buttons) {
+                        button.setDisable(false);
+                    }
+                    progressDialog.fail("Erro no envio em massa: " + getException().getMessage());
+                    addLogMessage("Erro no envio em massa: " + getException().getMessage());
                 });
             }
         };
         
-        new Thread(createTask).start();
+        profileScope.execute(bulkTask);
+    }
+    
+    /**
+     * Constrói o mapa de propriedades customizadas a partir dos pares chave/valor preenchidos
+     */
+    private Map<String, Object> buildProperties(TextField key1, TextField value1, TextField key2, TextField value2) {
+        Map<String, Object> properties = new HashMap<>();
+        if (!key1.getText().trim().isEmpty() && !value1.getText().trim().isEmpty()) {
+            properties.put(key1.getText().trim(), value1.getText().trim());
+        }
+        if (!key2.getText().trim().isEmpty() && !value2.getText().trim().isEmpty()) {
+            properties.put(key2.getText().trim(), value2.getText().trim());
+        }
+        return properties;
     }
     
     // ===========================================================================================
-    // MÉTODOS PARA MENSAGENS DE TÓPICOS
+    // INVENTÁRIO DO NAMESPACE
     // ===========================================================================================
     
-    private void handleLoadTopicMessages() {
-        String selectedTopic = viewTopicComboBox.getValue();
-        String selectedSubscription = viewSubscriptionComboBox.getValue();
-        
-        if (selectedTopic == null || selectedTopic.isEmpty()) {
-            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+    private void handleInventorySweep() {
+        if (!serviceBusService.isConnected()) {
+            showAlert("Erro", "Não conectado ao Service Bus", Alert.AlertType.ERROR);
             return;
         }
         
-        if (selectedSubscription == null || selectedSubscription.isEmpty()) {
-            showAlert("Erro", "Selecione uma subscription", Alert.AlertType.ERROR);
+        int concurrency;
+        try {
+            concurrency = Integer.parseInt(inventoryConcurrencyField.getText().trim());
+        } catch (NumberFormatException e) {
+            concurrency = -1;
+        }
+        if (concurrency < 1 || concurrency > MAX_INVENTORY_CONCURRENCY) {
+            showAlert("Erro", String.format("Pedidos simultâneos deve ser um número entre 1 e %d", 
+                MAX_INVENTORY_CONCURRENCY), Alert.AlertType.ERROR);
             return;
         }
         
-        loadTopicMessagesButton.setDisable(true);
-        loadTopicMessagesButton.setText("Carregando...");
+        // Uma nova varredura substitui a anterior
+        CancellationToken previous = inventorySweepToken;
+        if (previous != null) {
+            previous.cancel();
+        }
         
-        Task<ObservableList<MessageInfo>> loadTask = new Task<ObservableList<MessageInfo>>() {
+        CancellationToken token = new CancellationToken();
+        inventorySweepToken = token;
+        pendingInventoryUpdates.clear();
+        // As linhas atuais ficam visíveis e são atualizadas no lugar; as que a varredura
+        // não voltar a encontrar são removidas no fim
+        inventorySeenKeys.clear();
+        
+        inventorySweepButton.setDisable(true);
+        inventoryCancelButton.setDisable(false);
+        inventoryProgressBar.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        inventoryStatusLabel.setText("Listando entidades do namespace...");
+        
+        final int sweepConcurrency = concurrency;
+        
+        Task<OperationProgress> sweepTask = new Task<OperationProgress>() {
             @Override
-            protected ObservableList<MessageInfo> call() throws Exception {
-                return serviceBusService.peekSubscriptionMessagesAsync(selectedTopic, selectedSubscription, 20).get();
+            protected OperationProgress call() throws Exception {
+                return serviceBusService.sweepNamespaceInventoryAsync(sweepConcurrency, token,
+                    entry -> queueInventoryUpdate(entry, token),
+                    progress -> Platform.runLater(() -> {
+                        if (token == inventorySweepToken) {
+                            showInventoryProgress(progress);
+                        }
+                    })
+                ).get();
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    topicMessages.setAll(getValue());
-                    loadTopicMessagesButton.setDisable(false);
-                    loadTopicMessagesButton.setText("Carregar Mensagens");
-                    addLogMessage(String.format("Carregadas %d mensagens da subscription '%s' do tópico '%s'", 
-                        getValue().size(), selectedSubscription, selectedTopic));
+                    if (token != inventorySweepToken) {
+                        return;
+                    }
+                    
+                    drainInventoryUpdates();
+                    if (!getValue().isCancelled()) {
+                        inventoryEntries.removeIf(entry -> !inventorySeenKeys.contains(entry.getKey()));
+                        inventoryByKey.keySet().retainAll(inventorySeenKeys);
+                    }
+                    inventorySweepButton.setDisable(false);
+                    inventoryCancelButton.setDisable(true);
+                    showInventoryProgress(getValue());
+                    addLogMessage(String.format("Inventário do namespace: %d entidades - %s", 
+                        inventoryEntries.size(), getValue().getSummary("entidades/s")));
+                    saveNamespaceSnapshot();
                 });
             }
             
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    loadTopicMessagesButton.setDisable(false);
-                    loadTopicMessagesButton.setText("Carregar Mensagens");
-                    showAlert("Erro", "Erro ao carregar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
+                    if (token != inventorySweepToken) {
+                        return;
+                    }
+                    
+                    drainInventoryUpdates();
+                    inventorySweepButton.setDisable(false);
+                    inventoryCancelButton.setDisable(true);
+                    inventoryProgressBar.setProgress(0);
+                    inventoryStatusLabel.setText("Erro na varredura: " + getException().getMessage());
+                    showAlert("Erro", "Erro na varredura do namespace: " + getException().getMessage(), Alert.AlertType.ERROR);
                 });
             }
         };
         
-        new Thread(loadTask).start();
+        profileScope.execute(sweepTask);
     }
     
-    private void handleTopicMessageSelection(MessageInfo selectedMessage) {
-        if (selectedMessage == null) {
-            topicMessageDetailsTextArea.clear();
-            return;
+    /**
+     * Enfileira uma atualização vinda do serviço e agenda uma única aplicação na thread da interface
+     */
+    private void queueInventoryUpdate(NamespaceEntityInfo entry, CancellationToken token) {
+        if (token != inventorySweepToken) {
+            return; // Varredura substituída por outra
         }
         
-        StringBuilder details = new StringBuilder();
-        details.append("=== DETALHES DA MENSAGEM ===\n\n");
-        details.append("Sequence Number: ").append(selectedMessage.getSequenceNumber()).append("\n");
-        details.append("Message ID: ").append(selectedMessage.getMessageId()).append("\n");
-        details.append("Content Type: ").append(selectedMessage.getContentType()).append("\n");
-        details.append("Enqueued Time: ").append(selectedMessage.getFormattedEnqueuedTime()).append("\n");
-        details.append("Size: ").append(selectedMessage.getFormattedSize()).append("\n");
-        details.append("\n=== CORPO DA MENSAGEM ===\n");
-        
-        String messageBody = selectedMessage.getMessageBody();
-        if (messageBody != null && !messageBody.trim().isEmpty()) {
-            if (isValidJson(messageBody.trim())) {
-                details.append(formatJson(messageBody.trim()));
+        pendingInventoryUpdates.add(entry);
+        if (inventoryDrainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drainInventoryUpdates);
+        }
+    }
+    
+    /**
+     * Aplica as atualizações pendentes: entidades novas entram num único addAll,
+     * entidades já presentes são atualizadas no lugar
+     */
+    private void drainInventoryUpdates() {
+        inventoryDrainScheduled.set(false);
+        
+        List<NamespaceEntityInfo> newEntries = new ArrayList<>();
+        NamespaceEntityInfo entry;
+        while ((entry = pendingInventoryUpdates.poll()) != null) {
+            inventorySeenKeys.add(entry.getKey());
+            NamespaceEntityInfo existing = inventoryByKey.get(entry.getKey());
+            if (existing == entry) {
+                continue;
+            }
+            if (existing != null) {
+                // Uma linha em cache mantém as contagens antigas até chegarem as novas
+                if (entry.getLoadState() == NamespaceEntityInfo.LoadState.PENDING 
+                        && existing.getLoadState() == NamespaceEntityInfo.LoadState.STALE) {
+                    existing.updateStaticFrom(entry);
+                } else {
+                    existing.updateFrom(entry);
+                }
             } else {
-                details.append(messageBody);
+                inventoryByKey.put(entry.getKey(), entry);
+                newEntries.add(entry);
             }
-        } else {
-            details.append("(Mensagem vazia)");
         }
         
-        details.append("\n\n=== PROPRIEDADES ===\n");
-        details.append(selectedMessage.getApplicationPropertiesAsString());
-        
-        topicMessageDetailsTextArea.setText(details.toString());
+        if (!newEntries.isEmpty()) {
+            inventoryEntries.addAll(newEntries);
+        }
     }
     
-    private void handleSendMessageToTopic() {
-        String selectedTopic = sendTopicComboBox.getValue();
-        String messageBody = sendTopicMessageBodyTextArea.getText().trim();
+    /**
+     * Lê o cache do namespace do perfil em segundo plano e mostra-o nas listas e no inventário,
+     * marcado como desatualizado; sem cache, limpa o que pertencia ao perfil anterior
+     */
+    private void showNamespaceSnapshot(String profileName) {
+        namespaceSnapshotProfile = profileName;
+        namespaceSnapshotPendingReconcile = false;
         
-        if (selectedTopic == null) {
-            showAlert("Erro", "Selecione um tópico", Alert.AlertType.ERROR);
+        Task<Optional<NamespaceSnapshot>> loadTask = new Task<Optional<NamespaceSnapshot>>() {
+            @Override
+            protected Optional<NamespaceSnapshot> call() throws Exception {
+                return namespaceSnapshotStore.load(profileName);
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    if (!profileName.equals(namespaceSnapshotProfile)) {
+                        return; // Usuário já trocou de perfil
+                    }
+                    applyNamespaceSnapshot(getValue().orElse(null));
+                });
+            }
+        };
+        
+        profileScope.execute(loadTask);
+    }
+    
+    private void applyNamespaceSnapshot(NamespaceSnapshot snapshot) {
+        // Uma varredura em curso pertence ao perfil anterior
+        CancellationToken sweep = inventorySweepToken;
+        if (sweep != null) {
+            sweep.cancel();
+            inventorySweepToken = null;
+            inventorySweepButton.setDisable(false);
+            inventoryCancelButton.setDisable(true);
+        }
+        pendingInventoryUpdates.clear();
+        inventoryByKey.clear();
+        inventoryEntries.clear();
+        
+        if (snapshot == null || snapshot.isEmpty()) {
+            topicNames.clear();
+            queueListLabel.setText("Filas Disponíveis");
+            topicListLabel.setText("Tópicos Disponíveis");
+            inventoryStatusLabel.setText("Nenhuma varredura executada");
             return;
         }
         
-        if (messageBody.isEmpty()) {
-            showAlert("Erro", "Digite o corpo da mensagem", Alert.AlertType.ERROR);
+        String savedAt = snapshot.getSavedAt().format(SNAPSHOT_TIME_FORMATTER);
+        SortedListDiff.compute(queueNames, snapshot.getQueueNames(), String::compareToIgnoreCase).applyTo(queueNames);
+        SortedListDiff.compute(topicNames, snapshot.getTopicNames(), String::compareToIgnoreCase).applyTo(topicNames);
+        queueListLabel.setText(String.format("Filas Disponíveis (cache de %s)", savedAt));
+        topicListLabel.setText(String.format("Tópicos Disponíveis (cache de %s)", savedAt));
+        
+        List<NamespaceEntityInfo> entries = new ArrayList<>(snapshot.getEntries().size());
+        for (NamespaceSnapshot.Entry cached : snapshot.getEntries()) {
+            NamespaceEntityInfo entry = cached.toEntityInfo();
+            inventoryByKey.put(entry.getKey(), entry);
+            entries.add(entry);
+        }
+        inventoryEntries.setAll(entries);
+        inventoryProgressBar.setProgress(0);
+        inventoryStatusLabel.setText(entries.isEmpty() 
+            ? "Nenhuma varredura executada" 
+            : String.format("Dados em cache de %s (desatualizados)", savedAt));
+            
+        addLogMessage(String.format("Cache do namespace de %s: %d filas, %d tópicos, %d entidades no inventário", 
+            savedAt, snapshot.getQueueNames().size(), snapshot.getTopicNames().size(), entries.size()));
+            
+        namespaceSnapshotPendingReconcile = true;
+        reconcileNamespaceSnapshot();
+    }
+    
+    /**
+     * Depois de conectar, substitui o cache pelos dados reais: listagens de filas e tópicos e,
+     * se o inventário veio do cache, uma nova varredura que atualiza as linhas no lugar.
+     * Chamado pela conexão e pela leitura do cache; só atua quando ambas terminaram.
+     */
+    private void reconcileNamespaceSnapshot() {
+        if (!namespaceSnapshotPendingReconcile || !serviceBusService.isConnected()) {
             return;
         }
+        namespaceSnapshotPendingReconcile = false;
         
-        // Construir propriedades
-        Map<String, Object> properties = new HashMap<>();
-        if (!sendTopicProperty1KeyField.getText().trim().isEmpty() && !sendTopicProperty1ValueField.getText().trim().isEmpty()) {
-            properties.put(sendTopicProperty1KeyField.getText().trim(), sendTopicProperty1ValueField.getText().trim());
+        handleLoadQueues();
+        handleLoadTopics();
+        if (!inventoryEntries.isEmpty()) {
+            handleInventorySweep();
         }
-        if (!sendTopicProperty2KeyField.getText().trim().isEmpty() && !sendTopicProperty2ValueField.getText().trim().isEmpty()) {
-            properties.put(sendTopicProperty2KeyField.getText().trim(), sendTopicProperty2ValueField.getText().trim());
+    }
+    
+    /**
+     * Grava em segundo plano o estado atual das listas e do inventário como cache do perfil
+     */
+    private void saveNamespaceSnapshot() {
+        String profileName = namespaceSnapshotProfile;
+        if (profileName == null) {
+            return;
         }
         
-        sendToTopicButton.setDisable(true);
-        sendToTopicButton.setText("Enviando...");
-        
-        Task<Boolean> sendTask = new Task<Boolean>() {
-            @Override
-            protected Boolean call() throws Exception {
-                return serviceBusService.sendMessageToTopicAsync(selectedTopic, messageBody, properties).get();
+        // Linhas sem contagens (pendentes ou com erro) não são úteis como cache
+        List<NamespaceSnapshot.Entry> entries = new ArrayList<>();
+        for (NamespaceEntityInfo entry : inventoryEntries) {
+            if (entry.getLoadState() == NamespaceEntityInfo.LoadState.LOADED 
+                    || entry.getLoadState() == NamespaceEntityInfo.LoadState.STALE) {
+                entries.add(NamespaceSnapshot.Entry.from(entry));
             }
+        }
+        NamespaceSnapshot snapshot = new NamespaceSnapshot(System.currentTimeMillis(), 
+            new ArrayList<>(queueNames), new ArrayList<>(topicNames), entries);
             
+        Task<Void> saveTask = new Task<Void>() {
             @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    sendToTopicButton.setDisable(false);
-                    sendToTopicButton.setText("Publicar no Tópico");
-                    
-                    if (getValue()) {
-                        addLogMessage(String.format("Mensagem publicada no tópico '%s'", selectedTopic));
-                        
-                        showAlert("Sucesso", 
-                            String.format("Mensagem publicada com sucesso no tópico '%s'!\nTodas as subscriptions receberão a mensagem.", selectedTopic), 
-                            Alert.AlertType.INFORMATION);
-                        
-                        // Limpar campos de propriedades
-                        sendTopicProperty1KeyField.clear();
-                        sendTopicProperty1ValueField.clear();
-                        sendTopicProperty2KeyField.clear();
-                        sendTopicProperty2ValueField.clear();
-                    }
-                });
+            protected Void call() throws Exception {
+                namespaceSnapshotStore.save(profileName, snapshot);
+                return null;
             }
             
             @Override
             protected void failed() {
-                Platform.runLater(() -> {
-                    sendToTopicButton.setDisable(false);
-                    sendToTopicButton.setText("Publicar no Tópico");
-                    showAlert("Erro", "Erro ao publicar mensagem: " + getException().getMessage(), Alert.AlertType.ERROR);
-                });
+                logger.warn("Erro ao gravar cache do namespace do perfil '{}'", profileName, getException());
             }
         };
         
-        new Thread(sendTask).start();
+        windowScope.execute(saveTask);
+    }
+    
+    private void showInventoryProgress(OperationProgress progress) {
+        double fraction = progress.getFraction();
+        inventoryProgressBar.setProgress(fraction >= 0 ? fraction : ProgressIndicator.INDETERMINATE_PROGRESS);
+        
+        String state;
+        if (!progress.isFinished()) {
+            state = progress.getTotal() < 0 ? "Listando e carregando" : "Carregando contagens";
+        } else {
+            state = progress.isCancelled() ? "Varredura cancelada" : "Varredura concluída";
+        }
+        inventoryStatusLabel.setText(String.format("%s: %s", state, progress.getSummary("entidades/s")));
     }
     
     private void handleShowQueueDetails(QueueInfo queueInfo) {
@@ -2326,6 +4401,8 @@ public class MainController implements Initializable {
             DialogPane dialogPane = loader.load();
             RulesDialogController dialogController = loader.getController();
             
+            TaskScope dialogScope = profileScope.child("rules");
+            dialogController.setTaskScope(dialogScope);
             dialogController.setSubscriptionInfo(subInfo.getTopicName(), subInfo.getName(), serviceBusService);
             dialogController.setDialogPane(dialogPane);
             
@@ -2337,6 +4414,7 @@ public class MainController implements Initializable {
             dialogPane.getButtonTypes().setAll(ButtonType.CLOSE);
             
             dialog.showAndWait();
+            dialogScope.cancel();
             
         } catch (Exception e) {
             logger.error("Erro ao abrir diálogo de rules", e);
@@ -2344,6 +4422,42 @@ public class MainController implements Initializable {
         }
     }
     
+    private void handleSimulateRouting() {
+        if (selectedTopicName == null) {
+            showAlert("Aviso", "Selecione um tópico primeiro", Alert.AlertType.WARNING);
+            return;
+        }
+        
+        try {
+            javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(
+                getClass().getResource("/fxml/routing-simulator-dialog.fxml")
+            );
+            
+            DialogPane dialogPane = loader.load();
+            RoutingSimulatorDialogController dialogController = loader.getController();
+            
+            TaskScope dialogScope = profileScope.child("simulador");
+            dialogController.setTaskScope(dialogScope);
+            dialogController.setDialogPane(dialogPane);
+            dialogController.setTopicInfo(selectedTopicName, serviceBusService, topicMessages, messages);
+            
+            Dialog<ButtonType> dialog = new Dialog<>();
+            dialog.initOwner(primaryStage); // Garantir que dialog abra no mesmo monitor da janela principal
+            dialog.setDialogPane(dialogPane);
+            dialog.setTitle("Simular Roteamento - " + selectedTopicName);
+            dialog.setResizable(true);
+            
+            dialogPane.getButtonTypes().setAll(ButtonType.CLOSE);
+            
+            dialog.showAndWait();
+            dialogScope.cancel();
+            
+        } catch (Exception e) {
+            logger.error("Erro ao abrir simulador de roteamento", e);
+            showAlert("Erro", "Erro ao abrir diálogo: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+    
     private void handleDeleteSubscription(SubscriptionInfo subInfo) {
         Optional<ButtonType> result = showConfirmation(
             "Confirmar Remoção",
@@ -2376,7 +4490,7 @@ public class MainController implements Initializable {
                 }
             };
             
-            new Thread(deleteTask).start();
+            profileScope.execute(deleteTask);
         }
     }
     
@@ -2388,29 +4502,7 @@ public class MainController implements Initializable {
         );
         
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            Task<Integer> clearTask = new Task<Integer>() {
-                @Override
-                protected Integer call() throws Exception {
-                    return serviceBusService.clearSubscriptionMessagesAsync(subInfo.getTopicName(), subInfo.getName()).get();
-                }
-                
-                @Override
-                protected void succeeded() {
-                    Platform.runLater(() -> {
-                        addLogMessage(String.format("%d mensagens removidas da subscription '%s'", getValue(), subInfo.getName()));
-                        handleLoadSubscriptions();
-                    });
-                }
-                
-                @Override
-                protected void failed() {
-                    Platform.runLater(() -> {
-                        showAlert("Erro", "Erro ao limpar mensagens: " + getException().getMessage(), Alert.AlertType.ERROR);
-                    });
-                }
-            };
-            
-            new Thread(clearTask).start();
+            startPurge(EntityPath.subscription(subInfo.getTopicName(), subInfo.getName()), this::handleLoadSubscriptions);
         }
     }
     
@@ -2420,17 +4512,21 @@ public class MainController implements Initializable {
             return;
         }
         
-        Task<ObservableList<String>> loadTask = new Task<ObservableList<String>>() {
+        List<String> currentNames = List.copyOf(subscriptionNames);
+        
+        Task<SortedListDiff<String>> loadTask = new Task<SortedListDiff<String>>() {
             @Override
-            protected ObservableList<String> call() throws Exception {
-                return serviceBusService.listSubscriptionNamesAsync(topicName).get();
+            protected SortedListDiff<String> call() throws Exception {
+                return SortedListDiff.compute(currentNames, 
+                    serviceBusService.listSubscriptionNamesAsync(topicName).get(), String::compareToIgnoreCase);
             }
             
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    subscriptionNames.setAll(getValue());
-                    addLogMessage(String.format("Carregadas %d subscriptions do tópico '%s'", getValue().size(), topicName));
+                    getValue().applyTo(subscriptionNames);
+                    addLogMessage(String.format("Carregadas %d subscriptions do tópico '%s'", 
+                        getValue().getUpdatedSize(), topicName));
                 });
             }
             
@@ -2443,7 +4539,7 @@ public class MainController implements Initializable {
             }
         };
         
-        new Thread(loadTask).start();
+        profileScope.execute(loadTask);
     }
     
     private void addLogMessage(String message) {
@@ -2508,8 +4604,116 @@ public class MainController implements Initializable {
     }
     
     public void shutdown() {
+        windowScope.cancel();
+        if (messageSearch != null) {
+            messageSearch.close();
+        }
+        if (topicMessageSearch != null) {
+            topicMessageSearch.close();
+        }
         if (serviceBusService != null) {
             serviceBusService.shutdown();
         }
     }
+    
+    /**
+     * Pesquisa sobre as mensagens de uma tabela: mantém o índice sincronizado com a lista,
+     * interpreta a consulta após uma pausa na digitação e filtra a tabela com o resultado.
+     * A consulta ativa é reavaliada quando chegam novas páginas.
+     */
+    private final class MessageSearch {
+        
+        private final MessageSearchIndex index;
+        private final FilteredList<MessageInfo> filtered;
+        private final Label statusLabel;
+        private final PauseTransition debounce = new PauseTransition(MESSAGE_SEARCH_DEBOUNCE);
+        private final AtomicBoolean rerunScheduled = new AtomicBoolean(false);
+        private volatile MessageQuery query;
+        private int generation;
+        
+        MessageSearch(String name, ObservableList<MessageInfo> source, TableView<MessageInfo> table, 
+                      TextField searchField, Label statusLabel) {
+            this.index = new MessageSearchIndex(name);
+            this.filtered = new FilteredList<>(source);
+            this.statusLabel = statusLabel;
+            
+            SortedList<MessageInfo> sorted = new SortedList<>(filtered);
+            sorted.comparatorProperty().bind(table.comparatorProperty());
+            table.setItems(sorted);
+            
+            source.addListener((ListChangeListener<MessageInfo>) change -> {
+                List<MessageInfo> added = new ArrayList<>();
+                List<MessageInfo> removed = new ArrayList<>();
+                while (change.next()) {
+                    if (change.wasPermutated() || change.wasUpdated()) {
+                        continue;
+                    }
+                    removed.addAll(change.getRemoved());
+                    added.addAll(change.getAddedSubList());
+                }
+                index.update(added, removed);
+            });
+            index.setOnUpdated(() -> {
+                if (query != null && rerunScheduled.compareAndSet(false, true)) {
+                    Platform.runLater(this::run);
+                }
+            });
+            
+            debounce.setOnFinished(event -> apply(searchField.getText()));
+            searchField.textProperty().addListener((obs, oldVal, newVal) -> debounce.playFromStart());
+        }
+        
+        private void apply(String text) {
+            if (text == null || text.isBlank()) {
+                query = null;
+                generation++;
+                filtered.setPredicate(null);
+                statusLabel.setText("");
+                return;
+            }
+            
+            try {
+                query = MessageQuery.parse(text.trim());
+            } catch (IllegalArgumentException e) {
+                statusLabel.setText("⚠️ " + e.getMessage());
+                return;
+            }
+            run();
+        }
+        
+        private void run() {
+            rerunScheduled.set(false);
+            MessageQuery current = query;
+            if (current == null) {
+                return;
+            }
+            
+            int requestGeneration = ++generation;
+            index.search(current).whenComplete((result, error) -> Platform.runLater(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                if (error != null) {
+                    logger.error("Erro ao pesquisar mensagens: {}", current, error);
+                    statusLabel.setText("⚠️ Erro na pesquisa: " + error.getMessage());
+                    return;
+                }
+                Set<MessageInfo> matches = result.matches();
+                filtered.setPredicate(matches::contains);
+                String status = String.format("🔍 %,d de %,d mensagens • %.1f ms", 
+                    matches.size(), result.indexed(), result.getElapsedMillis());
+                if (result.truncated() > 0) {
+                    // Corpos maiores que o limite só são pesquisados no início: podem faltar resultados
+                    status += String.format(" • ⚠️ %,d com corpo pesquisado só nos primeiros %d KB", 
+                        result.truncated(), MessageSearchIndex.MAX_BODY_BYTES / 1024);
+                }
+                statusLabel.setText(status);
+            }));
+        }
+        
+        void close() {
+            debounce.stop();
+            index.close();
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package com.azureservicebus.manager.controller;
+
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.util.CancellationToken;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.stage.Modality;
+import javafx.stage.Window;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Controller do diálogo de progresso (não modal) usado pelas operações em massa.
+ * Mostra taxa, ETA e latência por lote e permite cancelar a operação.
+ */
+public class OperationProgressDialogController implements Initializable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OperationProgressDialogController.class);
+    
+    @FXML private Label operationLabel;
+    @FXML private ProgressBar progressBar;
+    @FXML private Label summaryLabel;
+    @FXML private Label batchLabel;
+    @FXML private Label statusLabel;
+    
+    private DialogPane dialogPane;
+    private Dialog<ButtonType> dialog;
+    private CancellationToken cancellationToken;
+    private boolean finished = false;
+    
+    // Última atualização ainda não aplicada na interface (coalesce atualizações de várias threads)
+    private final AtomicReference<OperationProgress> pendingProgress = new AtomicReference<>();
+    
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        logger.info("Inicializando OperationProgressDialogController");
+    }
+    
+    /**
+     * Abre o diálogo de progresso sem bloquear a janela principal
+     */
+    public static OperationProgressDialogController open(Window owner, String title, String description,
+                                                         CancellationToken cancellationToken) throws IOException {
+        FXMLLoader loader = new FXMLLoader(
+            OperationProgressDialogController.class.getResource("/fxml/operation-progress-dialog.fxml")
+        );
+        
+        DialogPane dialogPane = loader.load();
+        OperationProgressDialogController controller = loader.getController();
+        
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.initOwner(owner); // Garantir que dialog abra no mesmo monitor da janela principal
+        dialog.initModality(Modality.NONE);
+        dialog.setDialogPane(dialogPane);
+        dialog.setTitle(title);
+        dialog.setResizable(true);
+        
+        controller.dialog = dialog;
+        controller.setOperation(description, cancellationToken);
+        controller.setDialogPane(dialogPane);
+        
+        dialog.show();
+        return controller;
+    }
+    
+    public void setOperation(String description, CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        operationLabel.setText(description);
+    }
+    
+    /**
+     * Configura o botão de cancelar: enquanto a operação corre ele cancela em vez de fechar
+     */
+    public void setDialogPane(DialogPane dialogPane) {
+        this.dialogPane = dialogPane;
+        
+        Button cancelButton = (Button) dialogPane.lookupButton(ButtonType.CANCEL);
+        if (cancelButton != null) {
+            cancelButton.setText("⏹ Cancelar");
+            cancelButton.addEventFilter(ActionEvent.ACTION, event -> {
+                if (!finished) {
+                    event.consume();
+                    requestCancel(cancelButton);
+                }
+            });
+        }
+        
+        if (dialog != null) {
+            dialog.setOnCloseRequest(event -> {
+                if (!finished) {
+                    event.consume();
+                    requestCancel(cancelButton);
+                }
+            });
+        }
+    }
+    
+    private void requestCancel(Button cancelButton) {
+        if (cancellationToken != null && !cancellationToken.isCancelled()) {
+            cancellationToken.cancel();
+            statusLabel.setText("Cancelando... aguardando operações em andamento");
+            if (cancelButton != null) {
+                cancelButton.setDisable(true);
+            }
+        }
+    }
+    
+    /**
+     * Atualiza o progresso; pode ser chamado de qualquer thread
+     */
+    public void update(OperationProgress progress) {
+        if (pendingProgress.getAndSet(progress) == null) {
+            Platform.runLater(() -> {
+                OperationProgress latest = pendingProgress.getAndSet(null);
+                if (latest != null && !finished) {
+                    applyProgress(latest);
+                }
+            });
+        }
+    }
+    
+    private void applyProgress(OperationProgress progress) {
+        progressBar.setProgress(progress.getFraction() >= 0 ? progress.getFraction() : ProgressIndicator.INDETERMINATE_PROGRESS);
+        summaryLabel.setText(progress.getSummary());
+        batchLabel.setText(progress.getBatchSummary());
+    }
+    
+    /**
+     * Marca a operação como terminada (chamar na thread da interface)
+     */
+    public void complete(OperationProgress progress, String message) {
+        if (progress != null) {
+            applyProgress(progress);
+            if (progress.getTotal() < 0) {
+                progressBar.setProgress(1.0);
+            }
+        }
+        boolean partial = progress != null && (progress.isCancelled() || progress.isIncomplete());
+        finish(message, partial ? "#856404" : "#28a745");
+    }
+    
+    /**
+     * Marca a operação como falhada (chamar na thread da interface)
+     */
+    public void fail(String message) {
+        progressBar.setProgress(0);
+        finish(message, "#dc3545");
+    }
+    
+    private void finish(String message, String color) {
+        finished = true;
+        pendingProgress.set(null);
+        statusLabel.setText(message);
+        statusLabel.setStyle("-fx-font-size: 12px; -fx-font-weight: bold; -fx-text-fill: " + color + ";");
+        
+        Button cancelButton = (Button) dialogPane.lookupButton(ButtonType.CANCEL);
+        if (cancelButton != null) {
+            cancelButton.setDisable(false);
+            cancelButton.setText("Fechar");
+        }
+    }
+    
+    public boolean isFinished() {
+        return finished;
+    }
+}
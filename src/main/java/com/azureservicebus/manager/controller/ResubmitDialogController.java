@@ -0,0 +1,115 @@
+package com.azureservicebus.manager.controller;
+
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.ResubmitOptions;
+import com.azureservicebus.manager.service.DeadLetterResubmitEngine;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+
+/**
+ * Controller para o diálogo de opções do reenvio de mensagens da dead letter queue
+ */
+public class ResubmitDialogController implements Initializable {
+    
+    @FXML private Label titleLabel;
+    @FXML private TextField maxCountField;
+    @FXML private TextField reasonFilterField;
+    @FXML private TextField bodyFilterField;
+    @FXML private CheckBox stripHeadersCheckBox;
+    @FXML private Spinner<Integer> concurrencySpinner;
+    @FXML private Label infoLabel;
+    
+    private DialogPane dialogPane;
+    
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        ResubmitOptions defaults = new ResubmitOptions();
+        concurrencySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+            1, DeadLetterResubmitEngine.MAX_CONCURRENCY, defaults.getConcurrency()));
+        stripHeadersCheckBox.setSelected(defaults.isStripDeadLetterHeaders());
+    }
+    
+    /**
+     * Define o DialogPane para configurar validação do botão OK
+     */
+    public void setDialogPane(DialogPane dialogPane) {
+        this.dialogPane = dialogPane;
+        
+        Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
+        if (okButton != null) {
+            okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+                if (!validateInput()) {
+                    event.consume(); // Prevenir fechamento do diálogo
+                }
+            });
+        }
+    }
+    
+    /**
+     * Ajusta título e aviso à entidade de origem; subscriptions reenviam para o tópico
+     */
+    public void setEntity(EntityPath entity, long deadLetterCount) {
+        String count = deadLetterCount >= 0 ? String.format("%,d mensagens na DLQ", deadLetterCount) : "contagem indisponível";
+        titleLabel.setText(String.format("♻ Reenviar Dead Letter de '%s' (%s)", entity.getDisplayName(), count));
+        
+        if (entity.isSubscription()) {
+            infoLabel.setText(String.format(
+                "As mensagens serão reenviadas para o tópico '%s' e entregues a todas as subscriptions " +
+                "cujo filtro corresponda, não apenas a '%s'. As mensagens são removidas da DLQ apenas " +
+                "depois de reenviadas com sucesso.", entity.getName(), entity.getSubscriptionName()));
+        }
+    }
+    
+    private boolean validateInput() {
+        String maxCount = maxCountField.getText().trim();
+        if (!maxCount.isEmpty()) {
+            try {
+                if (Long.parseLong(maxCount) <= 0) {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException e) {
+                showAlert("Erro de Validação", "A quantidade máxima deve ser um número inteiro positivo", Alert.AlertType.ERROR);
+                return false;
+            }
+        }
+        
+        if (concurrencySpinner.getValue() == null) {
+            showAlert("Erro de Validação", "Informe o número de workers em paralelo", Alert.AlertType.ERROR);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Retorna as opções escolhidas no diálogo
+     */
+    public ResubmitOptions getOptions() {
+        ResubmitOptions options = new ResubmitOptions();
+        
+        String maxCount = maxCountField.getText().trim();
+        options.setMaxCount(maxCount.isEmpty() ? 0 : Long.parseLong(maxCount));
+        options.setReasonContains(reasonFilterField.getText().trim());
+        options.setBodyContains(bodyFilterField.getText().trim());
+        options.setStripDeadLetterHeaders(stripHeadersCheckBox.isSelected());
+        options.setConcurrency(concurrencySpinner.getValue());
+        
+        return options;
+    }
+    
+    private void showAlert(String title, String message, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        // Garantir que alert abra no mesmo monitor do dialog pai
+        if (dialogPane != null && dialogPane.getScene() != null && dialogPane.getScene().getWindow() != null) {
+            alert.initOwner(dialogPane.getScene().getWindow());
+        }
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,450 @@
+package com.azureservicebus.manager.controller;
+
+import com.azureservicebus.manager.model.MessageInfo;
+import com.azureservicebus.manager.rules.RoutingReport;
+import com.azureservicebus.manager.rules.SqlAction;
+import com.azureservicebus.manager.rules.SqlFilter;
+import com.azureservicebus.manager.rules.SqlSyntaxException;
+import com.azureservicebus.manager.rules.TopicRoutingTable;
+import com.azureservicebus.manager.service.ServiceBusService;
+import com.azureservicebus.manager.util.TableViewCopyUtil;
+import com.azureservicebus.manager.util.TaskScope;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Controller do simulador de encaminhamento de um tópico: avalia localmente as rules de todas
+ * as subscriptions sobre uma amostra de mensagens e, opcionalmente, compara com uma rule em teste
+ */
+public class RoutingSimulatorDialogController implements Initializable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RoutingSimulatorDialogController.class);
+    
+    private static final String SOURCE_SUBSCRIPTION = "Mensagens carregadas da subscription";
+    private static final String SOURCE_QUEUE = "Mensagens carregadas da fila";
+    private static final String SOURCE_FILE = "Arquivo NDJSON";
+    
+    private static final int RULE_LOAD_CONCURRENCY = 16;
+    private static final int MAX_FILE_MESSAGES = 200_000;
+    
+    @FXML private Label topicNameLabel;
+    @FXML private Label rulesStatusLabel;
+    @FXML private Button reloadRulesButton;
+    
+    // Amostra de mensagens
+    @FXML private ComboBox<String> sourceComboBox;
+    @FXML private TextField sourceFileField;
+    @FXML private Button browseFileButton;
+    
+    // Rule em teste
+    @FXML private ComboBox<String> candidateSubscriptionComboBox;
+    @FXML private TextField candidateRuleNameField;
+    @FXML private TextArea candidateSqlTextArea;
+    @FXML private Label candidateSqlValidationLabel;
+    @FXML private TextArea candidateActionTextArea;
+    @FXML private Label candidateActionValidationLabel;
+    
+    // Resultado
+    @FXML private Button simulateButton;
+    @FXML private Label summaryLabel;
+    @FXML private Label histogramLabel;
+    @FXML private TableView<SubscriptionRow> subscriptionsTable;
+    @FXML private TableColumn<SubscriptionRow, String> subscriptionNameColumn;
+    @FXML private TableColumn<SubscriptionRow, Number> subscriptionRulesColumn;
+    @FXML private TableColumn<SubscriptionRow, Number> subscriptionMessagesColumn;
+    @FXML private TableColumn<SubscriptionRow, Number> subscriptionCopiesColumn;
+    @FXML private TableColumn<SubscriptionRow, String> subscriptionChangeColumn;
+    @FXML private TableView<MessageRow> messagesTable;
+    @FXML private TableColumn<MessageRow, String> messageIdColumn;
+    @FXML private TableColumn<MessageRow, String> messageSubjectColumn;
+    @FXML private TableColumn<MessageRow, Number> messageFanOutColumn;
+    @FXML private TableColumn<MessageRow, String> messageSubscriptionsColumn;
+    @FXML private TableColumn<MessageRow, String> messageChangeColumn;
+    @FXML private TitledPane problemsPane;
+    @FXML private ListView<String> problemsListView;
+    
+    // Dados
+    private String topicName;
+    private ServiceBusService serviceBusService;
+    private List<MessageInfo> subscriptionMessages = List.of();
+    private List<MessageInfo> queueMessages = List.of();
+    private DialogPane dialogPane;
+    private TopicRoutingTable routingTable;
+    private TaskScope taskScope = TaskScope.application();
+    
+    /**
+     * Linha da tabela de subscriptions
+     */
+    private record SubscriptionRow(String name, int rules, long messages, long copies, String change) {
+    }
+    
+    /**
+     * Linha da tabela de mensagens
+     */
+    private record MessageRow(MessageInfo message, int fanOut, String subscriptions, String change) {
+    }
+    
+    /**
+     * Resultado de uma simulação (com a rule em teste, quando indicada)
+     */
+    private record Simulation(RoutingReport current, RoutingReport changed) {
+    }
+    
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        logger.info("Inicializando RoutingSimulatorDialogController");
+        
+        setupTableColumns();
+        
+        sourceComboBox.valueProperty().addListener((obs, oldValue, newValue) -> updateSourceControls());
+        browseFileButton.setOnAction(e -> handleBrowseFile());
+        reloadRulesButton.setOnAction(e -> {
+            routingTable = null;
+            loadRoutingTable(false);
+        });
+        simulateButton.setOnAction(e -> handleSimulate());
+        
+        // Validação local da rule em teste enquanto o usuário digita
+        candidateSqlTextArea.textProperty().addListener((obs, oldValue, newValue) -> 
+            showSqlValidation(candidateSqlValidationLabel, validateSql(newValue, false), newValue));
+        candidateActionTextArea.textProperty().addListener((obs, oldValue, newValue) -> 
+            showSqlValidation(candidateActionValidationLabel, validateSql(newValue, true), newValue));
+        
+        TableViewCopyUtil.addCopyToClipboardSupport(subscriptionsTable);
+        TableViewCopyUtil.addCopyToClipboardSupport(messagesTable);
+        
+        logger.info("RoutingSimulatorDialogController inicializado com sucesso");
+    }
+    
+    /**
+     * Configura o controller com o tópico e as mensagens já carregadas na janela principal
+     */
+    public void setTopicInfo(String topicName, ServiceBusService serviceBusService,
+                             List<MessageInfo> subscriptionMessages, List<MessageInfo> queueMessages) {
+        this.topicName = topicName;
+        this.serviceBusService = serviceBusService;
+        this.subscriptionMessages = List.copyOf(subscriptionMessages);
+        this.queueMessages = List.copyOf(queueMessages);
+        
+        topicNameLabel.setText(topicName);
+        sourceComboBox.getItems().setAll(
+            String.format("%s (%,d)", SOURCE_SUBSCRIPTION, this.subscriptionMessages.size()),
+            String.format("%s (%,d)", SOURCE_QUEUE, this.queueMessages.size()),
+            SOURCE_FILE);
+        sourceComboBox.getSelectionModel().select(this.subscriptionMessages.isEmpty() && !this.queueMessages.isEmpty() ? 1 : 0);
+        
+        loadRoutingTable(false);
+    }
+    
+    /**
+     * Define o escopo das tarefas do diálogo; cancelá-lo interrompe o carregamento de rules em andamento
+     */
+    public void setTaskScope(TaskScope taskScope) {
+        this.taskScope = taskScope;
+    }
+    
+    public void setDialogPane(DialogPane dialogPane) {
+        this.dialogPane = dialogPane;
+    }
+    
+    private void setupTableColumns() {
+        subscriptionNameColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().name()));
+        subscriptionRulesColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().rules()));
+        subscriptionMessagesColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().messages()));
+        subscriptionCopiesColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().copies()));
+        subscriptionChangeColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().change()));
+        
+        messageIdColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().message().getMessageId()));
+        messageSubjectColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().message().getSubject()));
+        messageFanOutColumn.setCellValueFactory(data -> new ReadOnlyObjectWrapper<>(data.getValue().fanOut()));
+        messageSubscriptionsColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().subscriptions()));
+        messageChangeColumn.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().change()));
+    }
+    
+    private void updateSourceControls() {
+        boolean file = SOURCE_FILE.equals(sourceComboBox.getValue());
+        sourceFileField.setDisable(!file);
+        browseFileButton.setDisable(!file);
+    }
+    
+    private void handleBrowseFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Mensagens para simular");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("NDJSON", "*.ndjson", "*.ndjson.gz", "*.jsonl"),
+            new FileChooser.ExtensionFilter("Todos os arquivos", "*.*")
+        );
+        File file = fileChooser.showOpenDialog(dialogPane != null ? dialogPane.getScene().getWindow() : null);
+        if (file != null) {
+            sourceFileField.setText(file.getAbsolutePath());
+        }
+    }
+    
+    /**
+     * Carrega as rules de todas as subscriptions do tópico; opcionalmente simula em seguida
+     */
+    private void loadRoutingTable(boolean simulateAfterLoad) {
+        simulateButton.setDisable(true);
+        reloadRulesButton.setDisable(true);
+        rulesStatusLabel.setText("Carregando rules...");
+        
+        Task<TopicRoutingTable> loadTask = new Task<TopicRoutingTable>() {
+            @Override
+            protected TopicRoutingTable call() throws Exception {
+                return serviceBusService.loadRoutingTableAsync(topicName, RULE_LOAD_CONCURRENCY, 
+                    taskScope.getCancellationToken()).get();
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    routingTable = getValue();
+                    reloadRulesButton.setDisable(false);
+                    simulateButton.setDisable(false);
+                    rulesStatusLabel.setText(String.format("%,d subscriptions • %,d rules", 
+                        routingTable.getSubscriptions().size(), routingTable.getRuleCount()));
+                        
+                    String selected = candidateSubscriptionComboBox.getValue();
+                    candidateSubscriptionComboBox.getItems().setAll(routingTable.getSubscriptions());
+                    if (selected != null && routingTable.getSubscriptions().contains(selected)) {
+                        candidateSubscriptionComboBox.setValue(selected);
+                    }
+                    
+                    problemsListView.getItems().setAll(routingTable.getProblems());
+                    problemsPane.setManaged(!routingTable.getProblems().isEmpty());
+                    problemsPane.setVisible(!routingTable.getProblems().isEmpty());
+                    problemsPane.setText(String.format("⚠️ Rules não avaliadas (%d)", routingTable.getProblems().size()));
+                    
+                    if (simulateAfterLoad) {
+                        handleSimulate();
+                    }
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    reloadRulesButton.setDisable(false);
+                    simulateButton.setDisable(false);
+                    Throwable error = rootCause(getException());
+                    if (error instanceof CancellationException) {
+                        rulesStatusLabel.setText("Carregamento cancelado");
+                        return;
+                    }
+                    rulesStatusLabel.setText("Erro ao carregar rules");
+                    showAlert("Erro", "Erro ao carregar rules do tópico: " + error.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        taskScope.execute(loadTask);
+    }
+    
+    private void handleSimulate() {
+        if (routingTable == null) {
+            loadRoutingTable(true);
+            return;
+        }
+        
+        // Rule em teste: só é usada quando há filtro; a subscription é obrigatória nesse caso
+        String candidateSql = candidateSqlTextArea.getText();
+        boolean withCandidate = candidateSql != null && !candidateSql.isBlank();
+        String candidateSubscription = candidateSubscriptionComboBox.getValue();
+        String candidateName = candidateRuleNameField.getText() != null && !candidateRuleNameField.getText().isBlank()
+            ? candidateRuleNameField.getText().trim() 
+            : "rule-em-teste";
+        String candidateAction = candidateActionTextArea.getText();
+        if (withCandidate) {
+            if (candidateSubscription == null) {
+                showAlert("Aviso", "Selecione a subscription da rule em teste", Alert.AlertType.WARNING);
+                return;
+            }
+            String error = validateSql(candidateSql, false);
+            if (error == null) {
+                error = validateSql(candidateAction, true);
+            }
+            if (error != null) {
+                showAlert("Erro", "Rule em teste inválida:\n" + error, Alert.AlertType.ERROR);
+                return;
+            }
+        }
+        
+        String source = sourceComboBox.getValue();
+        String file = sourceFileField.getText();
+        if (SOURCE_FILE.equals(source) && (file == null || file.isBlank())) {
+            showAlert("Aviso", "Escolha o arquivo NDJSON com as mensagens", Alert.AlertType.WARNING);
+            return;
+        }
+        List<MessageInfo> loaded = source != null && source.startsWith(SOURCE_QUEUE) ? queueMessages : subscriptionMessages;
+        
+        TopicRoutingTable table = routingTable;
+        simulateButton.setDisable(true);
+        summaryLabel.setText("Simulando...");
+        
+        Task<Simulation> simulateTask = new Task<Simulation>() {
+            @Override
+            protected Simulation call() throws Exception {
+                List<MessageInfo> sample = SOURCE_FILE.equals(source)
+                    ? serviceBusService.readNdjsonMessagesAsync(new File(file).toPath(), MAX_FILE_MESSAGES).get()
+                    : loaded;
+                    
+                RoutingReport current = table.route(sample);
+                RoutingReport changed = withCandidate
+                    ? table.withSqlRule(candidateSubscription, candidateName, candidateSql.trim(), 
+                        candidateAction != null && !candidateAction.isBlank() ? candidateAction.trim() : null).route(sample)
+                    : null;
+                return new Simulation(current, changed);
+            }
+            
+            @Override
+            protected void succeeded() {
+                Platform.runLater(() -> {
+                    simulateButton.setDisable(false);
+                    showSimulation(getValue());
+                });
+            }
+            
+            @Override
+            protected void failed() {
+                Platform.runLater(() -> {
+                    simulateButton.setDisable(false);
+                    summaryLabel.setText("");
+                    Throwable error = rootCause(getException());
+                    logger.error("Erro na simulação de encaminhamento", error);
+                    showAlert("Erro", "Erro na simulação: " + error.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        };
+        
+        taskScope.execute(simulateTask);
+    }
+    
+    private void showSimulation(Simulation simulation) {
+        RoutingReport current = simulation.current();
+        RoutingReport changed = simulation.changed();
+        
+        String summary = current.getSummary();
+        if (changed != null) {
+            summary += String.format("\nCom a rule em teste: %,d cópias (%+,d) • %,d sem destino (%+,d)",
+                changed.getTotalCopies(), changed.getTotalCopies() - current.getTotalCopies(),
+                changed.getUnroutedCount(), changed.getUnroutedCount() - current.getUnroutedCount());
+        }
+        summaryLabel.setText(summary);
+        histogramLabel.setText("Fan-out: " + current.getFanOutHistogram().entrySet().stream()
+            .map(entry -> String.format("%d sub. → %,d msgs", entry.getKey(), entry.getValue()))
+            .collect(Collectors.joining(" • ")));
+        
+        TopicRoutingTable table = current.getTable();
+        ObservableList<SubscriptionRow> subscriptionRows = FXCollections.observableArrayList();
+        for (int i = 0; i < table.getSubscriptions().size(); i++) {
+            String change = "";
+            if (changed != null) {
+                long delta = changed.getMessagesForSubscription(i) - current.getMessagesForSubscription(i);
+                change = delta == 0 ? "=" : String.format("%+,d mensagens", delta);
+            }
+            subscriptionRows.add(new SubscriptionRow(table.getSubscriptions().get(i), table.getRuleCount(i),
+                current.getMessagesForSubscription(i), current.getCopiesForSubscription(i), change));
+        }
+        subscriptionsTable.setItems(subscriptionRows);
+        
+        ObservableList<MessageRow> messageRows = FXCollections.observableArrayList();
+        for (int i = 0; i < current.getMessageCount(); i++) {
+            String change = "";
+            if (changed != null && !Arrays.equals(current.getRoute(i), changed.getRoute(i))) {
+                change = describeRouteChange(table, current.getRoute(i), changed.getRoute(i));
+            }
+            messageRows.add(new MessageRow(current.getMessages().get(i), current.getFanOut(i), 
+                current.getRouteNames(i), change));
+        }
+        messagesTable.setItems(messageRows);
+    }
+    
+    /**
+     * Descreve as subscriptions ganhas e perdidas por uma mensagem (ex.: "+ faturas, − auditoria")
+     */
+    private static String describeRouteChange(TopicRoutingTable table, int[] before, int[] after) {
+        List<String> changes = new ArrayList<>();
+        for (int subscription : after) {
+            if (Arrays.binarySearch(before, subscription) < 0) {
+                changes.add("+ " + table.getSubscriptions().get(subscription));
+            }
+        }
+        for (int subscription : before) {
+            if (Arrays.binarySearch(after, subscription) < 0) {
+                changes.add("− " + table.getSubscriptions().get(subscription));
+            }
+        }
+        return String.join(", ", changes);
+    }
+    
+    /**
+     * Valida a expressão com o compilador local; devolve a mensagem de erro ou null se for válida
+     */
+    private String validateSql(String text, boolean action) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            if (action) {
+                SqlAction.compile(text.trim());
+            } else {
+                SqlFilter.compile(text.trim());
+            }
+            return null;
+        } catch (SqlSyntaxException e) {
+            return e.getMessage();
+        }
+    }
+    
+    private void showSqlValidation(Label label, String error, String text) {
+        if (text == null || text.isBlank()) {
+            label.setText("");
+        } else if (error == null) {
+            label.setText("✅ Sintaxe válida");
+            label.setStyle("-fx-text-fill: #28a745;");
+        } else {
+            label.setText("⚠️ " + error);
+            label.setStyle("-fx-text-fill: #dc3545;");
+        }
+    }
+    
+    private static Throwable rootCause(Throwable error) {
+        while ((error instanceof ExecutionException || error instanceof RuntimeException) 
+               && error.getCause() != null && error.getCause() != error) {
+            error = error.getCause();
+        }
+        return error;
+    }
+    
+    private void showAlert(String title, String message, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        // Garantir que alert abra no mesmo monitor do dialog pai
+        if (dialogPane != null && dialogPane.getScene() != null && dialogPane.getScene().getWindow() != null) {
+            alert.initOwner(dialogPane.getScene().getWindow());
+        }
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
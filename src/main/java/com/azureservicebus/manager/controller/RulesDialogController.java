@@ -1,8 +1,12 @@
 package com.azureservicebus.manager.controller;
 
 import com.azureservicebus.manager.model.RuleInfo;
+import com.azureservicebus.manager.rules.SqlAction;
+import com.azureservicebus.manager.rules.SqlFilter;
+import com.azureservicebus.manager.rules.SqlSyntaxException;
 import com.azureservicebus.manager.service.ServiceBusService;
 import com.azureservicebus.manager.util.TableViewCopyUtil;
+import com.azureservicebus.manager.util.TaskScope;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -48,6 +52,9 @@ public class RulesDialogController implements Initializable {
     @FXML private ComboBox<String> filterTypeComboBox;
     @FXML private VBox sqlFilterSection;
     @FXML private TextArea sqlExpressionTextArea;
+    @FXML private Label sqlValidationLabel;
+    @FXML private TextArea sqlActionTextArea;
+    @FXML private Label sqlActionValidationLabel;
     @FXML private VBox correlationFilterSection;
     @FXML private TextField correlationIdField;
     @FXML private TextField messageIdField;
@@ -65,6 +72,7 @@ public class RulesDialogController implements Initializable {
     private ServiceBusService serviceBusService;
     private ObservableList<RuleInfo> rules = FXCollections.observableArrayList();
     private DialogPane dialogPane;
+    private TaskScope taskScope = TaskScope.application();
     
     // Controle de modo de edição
     private boolean isEditMode = false;
@@ -100,6 +108,13 @@ public class RulesDialogController implements Initializable {
         loadRules();
     }
     
+    /**
+     * Define o escopo das tarefas do diálogo (cancelado por quem abre o diálogo ao fechá-lo)
+     */
+    public void setTaskScope(TaskScope taskScope) {
+        this.taskScope = taskScope;
+    }
+    
     /**
      * Define o DialogPane (necessário para configurar botões)
      */
@@ -227,6 +242,12 @@ public class RulesDialogController implements Initializable {
         newRuleButton.setOnAction(e -> switchToCreateMode());
         cancelEditButton.setOnAction(e -> switchToCreateMode());
         
+        // Validação local da gramática SQL a cada alteração, sem ida ao servidor
+        sqlExpressionTextArea.textProperty().addListener((obs, oldVal, newVal) -> 
+            showSqlValidation(sqlValidationLabel, validateSql(newVal, false), newVal));
+        sqlActionTextArea.textProperty().addListener((obs, oldVal, newVal) -> 
+            showSqlValidation(sqlActionValidationLabel, validateSql(newVal, true), newVal));
+        
         // Listener para seleção na tabela - prevenir seleção de $Default
         rulesTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
             if (newSelection != null && newSelection.getIsDefault()) {
@@ -277,7 +298,7 @@ public class RulesDialogController implements Initializable {
             }
         };
         
-        new Thread(loadTask).start();
+        taskScope.execute(loadTask);
     }
     
     private void switchToCreateMode() {
@@ -334,6 +355,7 @@ public class RulesDialogController implements Initializable {
             // SQL Filter
             filterTypeComboBox.setValue("SQL Filter");
             sqlExpressionTextArea.setText(ruleInfo.getFilterExpression());
+            sqlActionTextArea.setText(ruleInfo.getActionExpression() != null ? ruleInfo.getActionExpression() : "");
             
             // Limpar campos de correlation
             correlationIdField.clear();
@@ -357,6 +379,7 @@ public class RulesDialogController implements Initializable {
             
             // Limpar SQL expression
             sqlExpressionTextArea.clear();
+            sqlActionTextArea.clear();
         } else {
             // True/False filter - não editável, voltar para modo criação
             showAlert("Aviso", "Este tipo de filtro não pode ser editado. Crie uma nova rule.", Alert.AlertType.WARNING);
@@ -387,6 +410,11 @@ public class RulesDialogController implements Initializable {
             return;
         }
         
+        // Validar antes de remover a rule existente, para não a perder por um erro de escrita
+        if (filterType.equals("SQL Filter") && !checkSqlExpressions()) {
+            return;
+        }
+        
         // Confirmar atualização
         Optional<ButtonType> result = showConfirmation(
             "Confirmar Atualização",
@@ -415,7 +443,8 @@ public class RulesDialogController implements Initializable {
                     if (sqlExpression.isEmpty()) {
                         throw new IllegalArgumentException("Digite a expressão SQL");
                     }
-                    return serviceBusService.createSqlRuleAsync(topicName, subscriptionName, ruleName, sqlExpression).get();
+                    return serviceBusService.createSqlRuleAsync(topicName, subscriptionName, ruleName, 
+                        sqlExpression, sqlActionTextArea.getText().trim()).get();
                 } else {
                     // Correlation Filter
                     return serviceBusService.createCorrelationRuleAsync(
@@ -463,7 +492,7 @@ public class RulesDialogController implements Initializable {
             }
         };
         
-        new Thread(updateTask).start();
+        taskScope.execute(updateTask);
     }
     
     private void handleCreateRule() {
@@ -491,6 +520,10 @@ public class RulesDialogController implements Initializable {
             return;
         }
         
+        if (filterType.equals("SQL Filter") && !checkSqlExpressions()) {
+            return;
+        }
+        
         createRuleButton.setDisable(true);
         
         Task<Boolean> createTask = new Task<Boolean>() {
@@ -501,7 +534,8 @@ public class RulesDialogController implements Initializable {
                     if (sqlExpression.isEmpty()) {
                         throw new IllegalArgumentException("Digite a expressão SQL");
                     }
-                    return serviceBusService.createSqlRuleAsync(topicName, subscriptionName, ruleName, sqlExpression).get();
+                    return serviceBusService.createSqlRuleAsync(topicName, subscriptionName, ruleName, 
+                        sqlExpression, sqlActionTextArea.getText().trim()).get();
                 } else {
                     // Correlation Filter
                     return serviceBusService.createCorrelationRuleAsync(
@@ -546,7 +580,7 @@ public class RulesDialogController implements Initializable {
             }
         };
         
-        new Thread(createTask).start();
+        taskScope.execute(createTask);
     }
     
     private void handleDeleteRule(RuleInfo ruleInfo) {
@@ -587,7 +621,7 @@ public class RulesDialogController implements Initializable {
                 }
             };
             
-            new Thread(deleteTask).start();
+            taskScope.execute(deleteTask);
         }
     }
     
@@ -595,6 +629,7 @@ public class RulesDialogController implements Initializable {
         newRuleNameField.clear();
         filterTypeComboBox.setValue(null);
         sqlExpressionTextArea.clear();
+        sqlActionTextArea.clear();
         correlationIdField.clear();
         messageIdField.clear();
         sessionIdField.clear();
@@ -603,6 +638,54 @@ public class RulesDialogController implements Initializable {
         contentTypeField.clear();
     }
     
+    /**
+     * Valida a expressão com o compilador local; devolve a mensagem de erro ou null se for válida
+     */
+    private String validateSql(String text, boolean action) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            if (action) {
+                SqlAction.compile(text.trim());
+            } else {
+                SqlFilter.compile(text.trim());
+            }
+            return null;
+        } catch (SqlSyntaxException e) {
+            return e.getMessage();
+        }
+    }
+    
+    private void showSqlValidation(Label label, String error, String text) {
+        if (text == null || text.isBlank()) {
+            label.setText("");
+        } else if (error == null) {
+            label.setText("✅ Sintaxe válida");
+            label.setStyle("-fx-text-fill: #28a745;");
+        } else {
+            label.setText("⚠️ " + error);
+            label.setStyle("-fx-text-fill: #dc3545;");
+        }
+    }
+    
+    /**
+     * Verifica o filtro e a ação SQL antes de os enviar; mostra o erro e devolve false se algum for inválido
+     */
+    private boolean checkSqlExpressions() {
+        String filterError = validateSql(sqlExpressionTextArea.getText(), false);
+        if (filterError != null) {
+            showAlert("Erro", "Expressão SQL inválida:\n" + filterError, Alert.AlertType.ERROR);
+            return false;
+        }
+        String actionError = validateSql(sqlActionTextArea.getText(), true);
+        if (actionError != null) {
+            showAlert("Erro", "Ação SQL inválida:\n" + actionError, Alert.AlertType.ERROR);
+            return false;
+        }
+        return true;
+    }
+    
     private void showAlert(String title, String message, Alert.AlertType type) {
         Alert alert = new Alert(type);
         // Garantir que alert abra no mesmo monitor do dialog pai
@@ -0,0 +1,224 @@
+package com.azureservicebus.manager.controller;
+
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.TransferOptions;
+import com.azureservicebus.manager.service.MessageTransferEngine;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ResourceBundle;
+
+/**
+ * Controller para o diálogo de cópia e movimentação de mensagens entre entidades
+ */
+public class TransferDialogController implements Initializable {
+    
+    private static final String ACTIVE_OPTION = "Mensagens ativas";
+    private static final String DEAD_LETTER_OPTION = "Dead letter queue";
+    private static final String QUEUE_OPTION = "Fila";
+    private static final String TOPIC_OPTION = "Tópico";
+    
+    @FXML private Label titleLabel;
+    @FXML private ComboBox<String> sourceSubQueueComboBox;
+    @FXML private ComboBox<TransferOptions.Mode> modeComboBox;
+    @FXML private ComboBox<String> targetTypeComboBox;
+    @FXML private ComboBox<String> targetNameComboBox;
+    @FXML private RadioButton selectedRadio;
+    @FXML private RadioButton rangeRadio;
+    @FXML private RadioButton allRadio;
+    @FXML private TextField fromSequenceField;
+    @FXML private TextField toSequenceField;
+    @FXML private TextField maxCountField;
+    @FXML private Spinner<Integer> concurrencySpinner;
+    @FXML private Label infoLabel;
+    
+    private DialogPane dialogPane;
+    private EntityPath source;
+    private List<Long> selectedSequenceNumbers = List.of();
+    private List<String> queueNames = List.of();
+    private List<String> topicNames = List.of();
+    
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        TransferOptions defaults = new TransferOptions();
+        
+        sourceSubQueueComboBox.setItems(FXCollections.observableArrayList(ACTIVE_OPTION, DEAD_LETTER_OPTION));
+        sourceSubQueueComboBox.setValue(ACTIVE_OPTION);
+        modeComboBox.setItems(FXCollections.observableArrayList(TransferOptions.Mode.values()));
+        modeComboBox.setValue(defaults.getMode());
+        targetTypeComboBox.setItems(FXCollections.observableArrayList(QUEUE_OPTION, TOPIC_OPTION));
+        targetTypeComboBox.setValue(QUEUE_OPTION);
+        concurrencySpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+            1, MessageTransferEngine.MAX_CONCURRENCY, defaults.getConcurrency()));
+            
+        fromSequenceField.disableProperty().bind(rangeRadio.selectedProperty().not());
+        toSequenceField.disableProperty().bind(rangeRadio.selectedProperty().not());
+        
+        // As mensagens selecionadas na tabela pertencem à sub-fila ativa
+        sourceSubQueueComboBox.valueProperty().addListener((obs, oldVal, newVal) -> updateSelectionAvailability());
+        targetTypeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> updateTargetNames());
+        modeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> updateInfo());
+        updateInfo();
+    }
+    
+    /**
+     * Define o DialogPane para configurar validação do botão OK
+     */
+    public void setDialogPane(DialogPane dialogPane) {
+        this.dialogPane = dialogPane;
+        
+        Button okButton = (Button) dialogPane.lookupButton(ButtonType.OK);
+        if (okButton != null) {
+            okButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+                if (!validateInput()) {
+                    event.consume(); // Prevenir fechamento do diálogo
+                }
+            });
+        }
+    }
+    
+    /**
+     * Define a entidade de origem (fila ou subscription) e as mensagens selecionadas na tabela
+     */
+    public void setSource(EntityPath source, Collection<Long> selectedSequenceNumbers) {
+        this.source = source.parent();
+        this.selectedSequenceNumbers = new ArrayList<>(selectedSequenceNumbers);
+        titleLabel.setText(String.format("⇄ Mover / Copiar Mensagens de '%s'", this.source.getDisplayName()));
+        
+        if (!this.selectedSequenceNumbers.isEmpty()) {
+            selectedRadio.setSelected(true);
+        }
+        updateSelectionAvailability();
+    }
+    
+    /**
+     * Define os nomes sugeridos para o destino
+     */
+    public void setTargetNames(List<String> queueNames, List<String> topicNames) {
+        this.queueNames = queueNames;
+        this.topicNames = topicNames;
+        updateTargetNames();
+    }
+    
+    private void updateSelectionAvailability() {
+        boolean available = !selectedSequenceNumbers.isEmpty() && ACTIVE_OPTION.equals(sourceSubQueueComboBox.getValue());
+        selectedRadio.setText(String.format("Mensagens selecionadas na tabela (%d)", selectedSequenceNumbers.size()));
+        selectedRadio.setDisable(!available);
+        if (!available && selectedRadio.isSelected()) {
+            allRadio.setSelected(true);
+        }
+    }
+    
+    private void updateTargetNames() {
+        String current = targetNameComboBox.getEditor().getText();
+        targetNameComboBox.setItems(FXCollections.observableArrayList(
+            TOPIC_OPTION.equals(targetTypeComboBox.getValue()) ? topicNames : queueNames));
+        targetNameComboBox.getEditor().setText(current);
+    }
+    
+    private void updateInfo() {
+        infoLabel.setText(modeComboBox.getValue() == TransferOptions.Mode.MOVE
+            ? "Mover: cada lote é enviado ao destino e removido da origem na mesma transação. " +
+              "A seleção tem de começar na primeira mensagem da origem e não pode ter intervalos."
+            : "Copiar: as mensagens são lidas sem lock (peek) e a origem não é alterada.");
+    }
+    
+    private boolean validateInput() {
+        if (targetNameComboBox.getEditor().getText().trim().isEmpty()) {
+            showAlert("Erro de Validação", "Informe a fila ou tópico de destino", Alert.AlertType.ERROR);
+            return false;
+        }
+        
+        if (rangeRadio.isSelected()) {
+            Long from = parseSequence(fromSequenceField.getText(), 0L);
+            Long to = parseSequence(toSequenceField.getText(), Long.MAX_VALUE);
+            if (from == null || to == null || from > to) {
+                showAlert("Erro de Validação", "Informe um intervalo de sequence numbers válido", Alert.AlertType.ERROR);
+                return false;
+            }
+        }
+        
+        String maxCount = maxCountField.getText().trim();
+        if (!maxCount.isEmpty()) {
+            Long value = parseSequence(maxCount, 0L);
+            if (value == null || value <= 0) {
+                showAlert("Erro de Validação", "A quantidade máxima deve ser um número inteiro positivo", Alert.AlertType.ERROR);
+                return false;
+            }
+        }
+        
+        if (concurrencySpinner.getValue() == null) {
+            showAlert("Erro de Validação", "Informe o número de workers em paralelo", Alert.AlertType.ERROR);
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Entidade de origem escolhida (ativa ou dead letter queue)
+     */
+    public EntityPath getSource() {
+        return DEAD_LETTER_OPTION.equals(sourceSubQueueComboBox.getValue()) ? source.deadLetter() : source;
+    }
+    
+    /**
+     * Retorna as opções escolhidas no diálogo
+     */
+    public TransferOptions getOptions() {
+        TransferOptions options = new TransferOptions();
+        
+        options.setMode(modeComboBox.getValue());
+        String targetName = targetNameComboBox.getEditor().getText().trim();
+        options.setTarget(TOPIC_OPTION.equals(targetTypeComboBox.getValue()) 
+            ? EntityPath.topic(targetName) 
+            : EntityPath.queue(targetName));
+            
+        if (selectedRadio.isSelected()) {
+            options.setSequenceNumbers(new HashSet<>(selectedSequenceNumbers));
+        } else if (rangeRadio.isSelected()) {
+            options.setFromSequenceNumber(parseSequence(fromSequenceField.getText(), 0L));
+            options.setToSequenceNumber(parseSequence(toSequenceField.getText(), Long.MAX_VALUE));
+        }
+        
+        String maxCount = maxCountField.getText().trim();
+        options.setMaxCount(maxCount.isEmpty() ? 0 : Long.parseLong(maxCount));
+        options.setConcurrency(concurrencySpinner.getValue());
+        
+        return options;
+    }
+    
+    /**
+     * Converte o texto num número não negativo; vazio resulta no valor padrão e inválido em null
+     */
+    private static Long parseSequence(String text, Long defaultValue) {
+        if (text == null || text.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long value = Long.parseLong(text.trim());
+            return value >= 0 ? value : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private void showAlert(String title, String message, Alert.AlertType type) {
+        Alert alert = new Alert(type);
+        // Garantir que alert abra no mesmo monitor do dialog pai
+        if (dialogPane != null && dialogPane.getScene() != null && dialogPane.getScene().getWindow() != null) {
+            alert.initOwner(dialogPane.getScene().getWindow());
+        }
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,366 @@
+package com.azureservicebus.manager.decoder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Corpos em Avro, mostrados como JSON indentado.
+ *
+ * Arquivos contentores ({@code Obj\x01}) trazem o próprio schema e são decodificados registo a
+ * registo (codecs null e deflate). Para Avro binário sem schema embutido, o schema é escolhido
+ * pelo content type ({@code application/avro; schema=com.exemplo.Pedido} ou
+ * {@code avro/binary+com.exemplo.Pedido}) entre os registados no {@link SchemaStore}, ou é o
+ * único registado. Uniões são mostradas pelo valor do ramo, sem o invólucro do JSON do Avro.
+ */
+public class AvroBodyDecoder implements BodyDecoder {
+    
+    private static final byte[] CONTAINER_MAGIC = {'O', 'b', 'j', 1};
+    private static final int SYNC_SIZE = 16;
+    private static final int MAX_DEPTH = 256;
+    
+    @Override
+    public String getName() {
+        return "avro";
+    }
+    
+    @Override
+    public int detect(byte[] data, String contentType) {
+        if (contentType.contains("avro")) {
+            return 100;
+        }
+        return data.length >= CONTAINER_MAGIC.length
+            && Arrays.equals(data, 0, CONTAINER_MAGIC.length, CONTAINER_MAGIC, 0, CONTAINER_MAGIC.length) ? 95 : 0;
+    }
+    
+    @Override
+    public void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(input);
+        in.mark(CONTAINER_MAGIC.length);
+        byte[] header = in.readNBytes(CONTAINER_MAGIC.length);
+        
+        JsonWriter json = new JsonWriter(output);
+        json.setIndent("  ");
+        json.setLenient(true);
+        
+        if (Arrays.equals(header, CONTAINER_MAGIC)) {
+            decodeContainer(in, json);
+        } else {
+            in.reset();
+            // Codificação de objeto único (C3 01 + impressão digital de 8 bytes): o schema vem do registo local
+            if (header.length >= 2 && (header[0] & 0xFF) == 0xC3 && header[1] == 1) {
+                in.skipNBytes(10);
+            }
+            
+            String schemaName = ContentTypes.parameter(contentType, "schema", "type", "messageType");
+            if (schemaName == null) {
+                schemaName = ContentTypes.suffix(contentType);
+            }
+            JsonElement schema = schemas != null ? schemas.findAvroSchema(schemaName) : null;
+            if (schema == null && schemas != null) {
+                schema = schemas.getSingleAvroSchema();
+            }
+            if (schema == null) {
+                throw new IOException(schemaName != null
+                    ? "Schema Avro '" + schemaName + "' não registado"
+                    : "Nenhum schema Avro indicado no content type; importe um .avsc ou use ; schema=<nome>");
+            }
+            
+            Map<String, JsonObject> names = new HashMap<>();
+            collectNames(schema, "", names);
+            writeValue(schema, "", names, in, json, 0);
+        }
+        json.flush();
+    }
+    
+    private void decodeContainer(InputStream in, JsonWriter json) throws IOException {
+        Map<String, byte[]> metadata = new HashMap<>();
+        for (long count = readLong(in); count != 0; count = readLong(in)) {
+            if (count < 0) {
+                count = -count;
+                readLong(in);
+            }
+            for (long i = 0; i < count; i++) {
+                metadata.put(new String(readBytes(in), StandardCharsets.UTF_8), readBytes(in));
+            }
+        }
+        
+        byte[] schemaJson = metadata.get("avro.schema");
+        if (schemaJson == null) {
+            throw new IOException("Arquivo Avro sem schema");
+        }
+        String codec = metadata.containsKey("avro.codec")
+            ? new String(metadata.get("avro.codec"), StandardCharsets.UTF_8) : "null";
+        if (!codec.equals("null") && !codec.equals("deflate")) {
+            throw new IOException("Codec Avro não suportado: " + codec);
+        }
+        
+        JsonElement schema = JsonParser.parseString(new String(schemaJson, StandardCharsets.UTF_8));
+        Map<String, JsonObject> names = new HashMap<>();
+        collectNames(schema, "", names);
+        byte[] sync = readFixed(in, SYNC_SIZE);
+        
+        json.beginArray();
+        while (true) {
+            long count;
+            try {
+                count = readLong(in);
+            } catch (EOFException e) {
+                break;
+            }
+            long size = readLong(in);
+            if (size < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamanho de bloco Avro inválido: " + size);
+            }
+            
+            // Cada bloco é lido e descomprimido à parte, por isso só um bloco está em memória de cada vez
+            byte[] block = readFixed(in, (int) size);
+            Inflater inflater = codec.equals("deflate") ? new Inflater(true) : null;
+            try {
+                InputStream records = inflater != null
+                    ? new InflaterInputStream(new ByteArrayInputStream(block), inflater)
+                    : new ByteArrayInputStream(block);
+                for (long i = 0; i < count; i++) {
+                    writeValue(schema, "", names, records, json, 0);
+                }
+            } finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+            
+            if (!Arrays.equals(readFixed(in, SYNC_SIZE), sync)) {
+                throw new IOException("Marcador de sincronização Avro inválido");
+            }
+        }
+        json.endArray();
+    }
+    
+    private void writeValue(JsonElement schema, String namespace, Map<String, JsonObject> names,
+                            InputStream in, JsonWriter json, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Estrutura Avro demasiado profunda");
+        }
+        
+        if (schema.isJsonArray()) {
+            JsonArray union = schema.getAsJsonArray();
+            long branch = readLong(in);
+            if (branch < 0 || branch >= union.size()) {
+                throw new IOException("Índice de união Avro inválido: " + branch);
+            }
+            writeValue(union.get((int) branch), namespace, names, in, json, depth + 1);
+            return;
+        }
+        
+        JsonObject object = schema.isJsonObject() ? schema.getAsJsonObject() : null;
+        String type = object != null ? typeName(object.get("type")) : schema.getAsString();
+        if (object != null && !object.get("type").isJsonPrimitive()) {
+            // {"type": {...}} ou {"type": [...]}: o tipo real está aninhado
+            writeValue(object.get("type"), namespace, names, in, json, depth + 1);
+            return;
+        }
+        
+        switch (type) {
+            case "null" -> json.nullValue();
+            case "boolean" -> json.value(readByte(in) != 0);
+            case "int", "long" -> json.value(readLong(in));
+            case "float" -> writeDouble(Float.intBitsToFloat(readIntLittleEndian(in)), json);
+            case "double" -> writeDouble(Double.longBitsToDouble(readLongLittleEndian(in)), json);
+            case "string" -> json.value(new String(readBytes(in), StandardCharsets.UTF_8));
+            case "bytes" -> json.value(Base64.getEncoder().encodeToString(readBytes(in)));
+            case "record", "error" -> {
+                String recordNamespace = namespaceOf(fullName(object, namespace));
+                json.beginObject();
+                for (JsonElement field : object.getAsJsonArray("fields")) {
+                    JsonObject fieldObject = field.getAsJsonObject();
+                    json.name(fieldObject.get("name").getAsString());
+                    writeValue(fieldObject.get("type"), recordNamespace, names, in, json, depth + 1);
+                }
+                json.endObject();
+            }
+            case "enum" -> {
+                JsonArray symbols = object.getAsJsonArray("symbols");
+                long index = readLong(in);
+                if (index < 0 || index >= symbols.size()) {
+                    throw new IOException("Índice de enum Avro inválido: " + index);
+                }
+                json.value(symbols.get((int) index).getAsString());
+            }
+            case "array" -> {
+                json.beginArray();
+                for (long count = readBlockCount(in); count != 0; count = readBlockCount(in)) {
+                    for (long i = 0; i < count; i++) {
+                        writeValue(object.get("items"), namespace, names, in, json, depth + 1);
+                    }
+                }
+                json.endArray();
+            }
+            case "map" -> {
+                json.beginObject();
+                for (long count = readBlockCount(in); count != 0; count = readBlockCount(in)) {
+                    for (long i = 0; i < count; i++) {
+                        json.name(new String(readBytes(in), StandardCharsets.UTF_8));
+                        writeValue(object.get("values"), namespace, names, in, json, depth + 1);
+                    }
+                }
+                json.endObject();
+            }
+            case "fixed" -> json.value(Base64.getEncoder().encodeToString(readFixed(in, object.get("size").getAsInt())));
+            default -> {
+                JsonObject named = resolveName(type, namespace, names);
+                if (named == null) {
+                    throw new IOException("Tipo Avro desconhecido: " + type);
+                }
+                writeValue(named, namespaceOf(fullName(named, namespace)), names, in, json, depth + 1);
+            }
+        }
+    }
+    
+    /**
+     * Regista todos os tipos com nome do schema, para resolver referências em qualquer ordem
+     */
+    private static void collectNames(JsonElement schema, String namespace, Map<String, JsonObject> names) {
+        if (schema.isJsonArray()) {
+            for (JsonElement branch : schema.getAsJsonArray()) {
+                collectNames(branch, namespace, names);
+            }
+            return;
+        }
+        if (!schema.isJsonObject()) {
+            return;
+        }
+        
+        JsonObject object = schema.getAsJsonObject();
+        String type = typeName(object.get("type"));
+        if (object.has("name") && (type.equals("record") || type.equals("error") || type.equals("enum") || type.equals("fixed"))) {
+            String fullName = fullName(object, namespace);
+            names.putIfAbsent(fullName, object);
+            namespace = namespaceOf(fullName);
+        }
+        if (object.has("fields")) {
+            for (JsonElement field : object.getAsJsonArray("fields")) {
+                collectNames(field.getAsJsonObject().get("type"), namespace, names);
+            }
+        }
+        for (String child : new String[] {"type", "items", "values"}) {
+            if (object.has(child) && !object.get(child).isJsonPrimitive()) {
+                collectNames(object.get(child), namespace, names);
+            }
+        }
+    }
+    
+    private static JsonObject resolveName(String name, String namespace, Map<String, JsonObject> names) {
+        if (!name.contains(".") && !namespace.isEmpty()) {
+            JsonObject qualified = names.get(namespace + "." + name);
+            if (qualified != null) {
+                return qualified;
+            }
+        }
+        return names.get(name);
+    }
+    
+    /**
+     * Nome completo de um tipo com nome, segundo as regras de namespace do Avro
+     */
+    static String fullName(JsonObject object, String enclosingNamespace) {
+        String name = object.get("name").getAsString();
+        if (name.contains(".")) {
+            return name;
+        }
+        String namespace = object.has("namespace") ? object.get("namespace").getAsString() : enclosingNamespace;
+        return namespace == null || namespace.isEmpty() ? name : namespace + "." + name;
+    }
+    
+    private static String namespaceOf(String fullName) {
+        int dot = fullName.lastIndexOf('.');
+        return dot >= 0 ? fullName.substring(0, dot) : "";
+    }
+    
+    private static String typeName(JsonElement type) {
+        return type != null && type.isJsonPrimitive() ? type.getAsString() : "";
+    }
+    
+    private static void writeDouble(double value, JsonWriter json) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.value(Double.toString(value));
+        } else {
+            json.value(value);
+        }
+    }
+    
+    private static long readBlockCount(InputStream in) throws IOException {
+        long count = readLong(in);
+        if (count < 0) {
+            // Contagem negativa: segue-se o tamanho do bloco em bytes, que não é necessário aqui
+            readLong(in);
+            return -count;
+        }
+        return count;
+    }
+    
+    private static long readLong(InputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (result >>> 1) ^ -(result & 1);
+            }
+        }
+        throw new IOException("Inteiro Avro inválido");
+    }
+    
+    private static int readIntLittleEndian(InputStream in) throws IOException {
+        byte[] bytes = readFixed(in, 4);
+        return (bytes[0] & 0xFF) | (bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF) << 16 | (bytes[3] & 0xFF) << 24;
+    }
+    
+    private static long readLongLittleEndian(InputStream in) throws IOException {
+        byte[] bytes = readFixed(in, 8);
+        long result = 0;
+        for (int i = 7; i >= 0; i--) {
+            result = (result << 8) | (bytes[i] & 0xFF);
+        }
+        return result;
+    }
+    
+    private static byte[] readBytes(InputStream in) throws IOException {
+        long length = readLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Comprimento Avro inválido: " + length);
+        }
+        return readFixed(in, (int) length);
+    }
+    
+    private static byte[] readFixed(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Fim inesperado do corpo Avro");
+        }
+        return bytes;
+    }
+    
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Fim inesperado do corpo Avro");
+        }
+        return b;
+    }
+}
@@ -0,0 +1,38 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+
+/**
+ * Decodificador de corpos de mensagens em formatos binários ou comprimidos.
+ *
+ * As implementações são descobertas com {@link java.util.ServiceLoader}: basta listá-las em
+ * {@code META-INF/services/com.azureservicebus.manager.decoder.BodyDecoder} (inclusive num JAR
+ * extra no classpath). Precisam de um construtor público sem argumentos e de não guardar estado
+ * entre chamadas, porque a mesma instância é usada por várias threads.
+ */
+public interface BodyDecoder {
+    
+    /**
+     * Nome curto mostrado na interface (ex.: "gzip")
+     */
+    String getName();
+    
+    /**
+     * Grau de confiança, de 0 a 100, de que o corpo está neste formato. Deve ser barato:
+     * olhar para o content type e para os primeiros bytes, sem decodificar.
+     *
+     * @param data primeiros bytes do corpo (não devem ser alterados)
+     * @param contentType content type da mensagem, em minúsculas, ou string vazia
+     * @return 0 se o formato não é reconhecido
+     */
+    int detect(byte[] data, String contentType);
+    
+    /**
+     * Decodifica o corpo escrevendo texto legível à medida que lê. O writer pode interromper a
+     * escrita com uma IOException quando o limite de caracteres é atingido; a implementação só
+     * precisa de a deixar propagar.
+     */
+    void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException;
+}
@@ -0,0 +1,151 @@
+package com.azureservicebus.manager.decoder;
+
+import com.azureservicebus.manager.model.MessageBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Decodificadores de corpo disponíveis e cache dos corpos já decodificados.
+ *
+ * A deteção é barata e pode ser feita na thread da interface; a decodificação deve correr em
+ * segundo plano. Os resultados ficam em cache pelo número de sequência da mensagem, para que
+ * voltar a selecionar uma mensagem não a decodifique de novo.
+ */
+public class BodyDecoderRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BodyDecoderRegistry.class);
+    
+    private static final int MAX_CACHED = 64;
+    
+    // Bytes iniciais passados à deteção; corpos em disco não são lidos inteiros para isso
+    private static final int DETECT_BYTES = 64;
+    
+    private final List<BodyDecoder> decoders;
+    private final SchemaStore schemas;
+    
+    private record CacheEntry(MessageBody body, DecodedBody decoded) {
+    }
+    
+    // LinkedHashMap em ordem de acesso: descarta os resultados menos usados
+    private final Map<Long, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    
+    public BodyDecoderRegistry(SchemaStore schemas) {
+        this.schemas = schemas;
+        
+        List<BodyDecoder> loaded = new ArrayList<>();
+        ServiceLoader<BodyDecoder> loader = ServiceLoader.load(BodyDecoder.class, BodyDecoderRegistry.class.getClassLoader());
+        for (var iterator = loader.iterator(); iterator.hasNext(); ) {
+            try {
+                loaded.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                logger.warn("Decodificador de corpo ignorado: {}", e.getMessage());
+            }
+        }
+        this.decoders = Collections.unmodifiableList(loaded);
+        logger.debug("Decodificadores de corpo carregados: {}", decoders.stream().map(BodyDecoder::getName).toList());
+    }
+    
+    public SchemaStore getSchemas() {
+        return schemas;
+    }
+    
+    public List<BodyDecoder> getDecoders() {
+        return decoders;
+    }
+    
+    /**
+     * Decodificador mais adequado para o corpo, ou null se nenhum reconhece o formato
+     */
+    public BodyDecoder detect(MessageBody body, String contentType) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        
+        String normalized = ContentTypes.normalize(contentType);
+        byte[] head = body.head(DETECT_BYTES);
+        BodyDecoder best = null;
+        int bestScore = 0;
+        for (BodyDecoder decoder : decoders) {
+            int score;
+            try {
+                score = decoder.detect(head, normalized);
+            } catch (RuntimeException e) {
+                logger.warn("Erro na deteção do decodificador '{}': {}", decoder.getName(), e.getMessage());
+                continue;
+            }
+            if (score > bestScore) {
+                best = decoder;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Resultado em cache que cobre o limite pedido, ou null
+     */
+    public DecodedBody getCached(long sequenceNumber, MessageBody body, int limitChars) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(sequenceNumber);
+            if (entry == null || entry.body() != body) {
+                return null;
+            }
+            DecodedBody decoded = entry.decoded();
+            return !decoded.truncated() || decoded.limit() >= limitChars ? decoded : null;
+        }
+    }
+    
+    /**
+     * Decodifica o corpo com o decodificador indicado até ao limite de caracteres.
+     * Erros de decodificação não são lançados: o resultado descreve o erro e traz o corpo
+     * como texto UTF-8, para que a mensagem continue visível.
+     */
+    public DecodedBody decode(long sequenceNumber, MessageBody body, String contentType,
+                              BodyDecoder decoder, int limitChars) {
+        DecodedBody cached = getCached(sequenceNumber, body, limitChars);
+        if (cached != null) {
+            return cached;
+        }
+        
+        BoundedWriter writer = new BoundedWriter(limitChars);
+        DecodedBody decoded;
+        try {
+            decoder.decode(body.openStream(), contentType != null ? contentType : "", schemas, writer);
+            decoded = new DecodedBody(writer.toString(), decoder.getName(), false, limitChars);
+        } catch (BoundedWriter.LimitReachedException e) {
+            decoded = new DecodedBody(writer.toString(), decoder.getName(), true, limitChars);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Falha ao decodificar corpo da mensagem {} como {}: {}", 
+                sequenceNumber, decoder.getName(), e.getMessage());
+            String raw = body.decode(limitChars);
+            decoded = new DecodedBody(
+                String.format("[Não foi possível decodificar como %s: %s]%n%n%s", decoder.getName(), e.getMessage(), raw),
+                decoder.getName(), body.exceeds(limitChars), limitChars);
+        }
+        
+        synchronized (cache) {
+            cache.put(sequenceNumber, new CacheEntry(body, decoded));
+        }
+        return decoded;
+    }
+    
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer em memória que interrompe a decodificação ao atingir o limite de caracteres,
+ * para que um corpo enorme não seja decodificado só para mostrar o início
+ */
+final class BoundedWriter extends Writer {
+    
+    /**
+     * Sinaliza que o limite foi atingido; não é um erro de decodificação
+     */
+    static final class LimitReachedException extends IOException {
+        private static final long serialVersionUID = 1L;
+        
+        LimitReachedException() {
+            super("Limite de caracteres atingido", null);
+        }
+    }
+    
+    private final StringBuilder buffer = new StringBuilder();
+    private final int limit;
+    private boolean truncated;
+    
+    BoundedWriter(int limit) {
+        this.limit = limit;
+    }
+    
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int room = limit - buffer.length();
+        if (length > room) {
+            buffer.append(chars, offset, Math.max(0, room));
+            truncated = true;
+            throw new LimitReachedException();
+        }
+        buffer.append(chars, offset, length);
+    }
+    
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        int room = limit - buffer.length();
+        if (length > room) {
+            buffer.append(text, offset, offset + Math.max(0, room));
+            truncated = true;
+            throw new LimitReachedException();
+        }
+        buffer.append(text, offset, offset + length);
+    }
+    
+    @Override
+    public void flush() {
+    }
+    
+    @Override
+    public void close() {
+    }
+    
+    boolean isTruncated() {
+        return truncated;
+    }
+    
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+}
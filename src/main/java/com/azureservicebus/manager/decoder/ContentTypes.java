@@ -0,0 +1,55 @@
+package com.azureservicebus.manager.decoder;
+
+import java.util.Locale;
+
+/**
+ * Leitura de content types no formato {@code tipo/subtipo; parametro=valor}
+ */
+final class ContentTypes {
+    
+    private ContentTypes() {
+    }
+    
+    /**
+     * Valor do primeiro parâmetro encontrado entre os nomes indicados (sem diferenciar maiúsculas
+     * no nome), sem aspas e com o caso original, ou null
+     */
+    static String parameter(String contentType, String... names) {
+        if (contentType == null) {
+            return null;
+        }
+        String[] parts = contentType.split(";");
+        for (String name : names) {
+            for (int i = 1; i < parts.length; i++) {
+                String part = parts[i].trim();
+                int equals = part.indexOf('=');
+                if (equals > 0 && part.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                    String value = part.substring(equals + 1).trim();
+                    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                        value = value.substring(1, value.length() - 1);
+                    }
+                    return value.isEmpty() ? null : value;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Sufixo depois de '+' no subtipo (ex.: "com.exemplo.Pedido" em
+     * {@code application/avro+com.exemplo.Pedido}), com o caso original, ou null
+     */
+    static String suffix(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int end = contentType.indexOf(';');
+        String mediaType = (end >= 0 ? contentType.substring(0, end) : contentType).trim();
+        int plus = mediaType.indexOf('+');
+        return plus >= 0 && plus < mediaType.length() - 1 ? mediaType.substring(plus + 1) : null;
+    }
+    
+    static String normalize(String contentType) {
+        return contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package com.azureservicebus.manager.decoder;
+
+/**
+ * Resultado da decodificação de um corpo
+ *
+ * @param text texto legível (JSON, texto descomprimido, etc.)
+ * @param decoderName nome do decodificador usado
+ * @param truncated verdadeiro se o texto foi cortado no limite pedido
+ * @param limit limite de caracteres usado na decodificação
+ */
+public record DecodedBody(String text, String decoderName, boolean truncated, int limit) {
+}
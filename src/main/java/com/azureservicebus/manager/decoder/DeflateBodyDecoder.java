@@ -0,0 +1,55 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Corpos comprimidos com deflate, com cabeçalho zlib ou em bruto quando o content type o indica
+ */
+public class DeflateBodyDecoder implements BodyDecoder {
+    
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+    
+    @Override
+    public int detect(byte[] data, String contentType) {
+        if (contentType.contains("deflate") || contentType.contains("zlib")) {
+            return 100;
+        }
+        return hasZlibHeader(data) ? 60 : 0;
+    }
+    
+    @Override
+    public void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException {
+        InputStream buffered = input.markSupported() ? input : new BufferedInputStream(input);
+        buffered.mark(2);
+        byte[] header = buffered.readNBytes(2);
+        buffered.reset();
+        
+        // Sem cabeçalho zlib, trata como deflate em bruto (RFC 1951)
+        Inflater inflater = new Inflater(!hasZlibHeader(header));
+        try {
+            StreamingText.copy(new InflaterInputStream(buffered, inflater), output);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    /**
+     * Cabeçalho zlib (RFC 1950): método 8, janela até 32 KB e soma de verificação múltipla de 31
+     */
+    private static boolean hasZlibHeader(byte[] data) {
+        if (data.length < 2) {
+            return false;
+        }
+        int cmf = data[0] & 0xFF;
+        int flg = data[1] & 0xFF;
+        return (cmf & 0x0F) == 8 && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+    }
+}
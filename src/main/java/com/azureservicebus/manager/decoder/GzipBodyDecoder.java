@@ -0,0 +1,30 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Corpos comprimidos com gzip; o conteúdo descomprimido é mostrado como texto UTF-8
+ */
+public class GzipBodyDecoder implements BodyDecoder {
+    
+    @Override
+    public String getName() {
+        return "gzip";
+    }
+    
+    @Override
+    public int detect(byte[] data, String contentType) {
+        if (contentType.contains("gzip")) {
+            return 100;
+        }
+        return data.length >= 2 && (data[0] & 0xFF) == 0x1F && (data[1] & 0xFF) == 0x8B ? 90 : 0;
+    }
+    
+    @Override
+    public void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException {
+        StreamingText.copy(new GZIPInputStream(input), output);
+    }
+}
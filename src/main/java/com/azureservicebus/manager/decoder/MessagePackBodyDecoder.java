@@ -0,0 +1,188 @@
+package com.azureservicebus.manager.decoder;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Corpos em MessagePack, mostrados como JSON indentado.
+ *
+ * Chaves de mapa que não são strings são convertidas para texto, binários aparecem em base64
+ * e tipos de extensão como {@code {"ext": tipo, "data": base64}}.
+ */
+public class MessagePackBodyDecoder implements BodyDecoder {
+    
+    private static final int MAX_DEPTH = 256;
+    
+    @Override
+    public String getName() {
+        return "msgpack";
+    }
+    
+    @Override
+    public int detect(byte[] data, String contentType) {
+        return contentType.contains("msgpack") || contentType.contains("messagepack") ? 100 : 0;
+    }
+    
+    @Override
+    public void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        JsonWriter json = new JsonWriter(output);
+        json.setIndent("  ");
+        // Um corpo pode conter vários valores seguidos
+        json.setLenient(true);
+        
+        int first;
+        boolean firstValue = true;
+        while ((first = in.read()) != -1) {
+            if (!firstValue) {
+                output.write('\n');
+            }
+            writeValue(first, in, json, 0);
+            json.flush();
+            firstValue = false;
+        }
+    }
+    
+    private void writeValue(int format, DataInputStream in, JsonWriter json, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Estrutura MessagePack demasiado profunda");
+        }
+        
+        if (format <= 0x7F) {
+            json.value(format);
+        } else if (format <= 0x8F) {
+            writeMap(format & 0x0F, in, json, depth);
+        } else if (format <= 0x9F) {
+            writeArray(format & 0x0F, in, json, depth);
+        } else if (format <= 0xBF) {
+            json.value(readString(format & 0x1F, in));
+        } else if (format >= 0xE0) {
+            json.value((byte) format);
+        } else {
+            switch (format) {
+                case 0xC0 -> json.nullValue();
+                case 0xC2 -> json.value(false);
+                case 0xC3 -> json.value(true);
+                case 0xC4 -> writeBinary(in.readUnsignedByte(), in, json);
+                case 0xC5 -> writeBinary(in.readUnsignedShort(), in, json);
+                case 0xC6 -> writeBinary(readLength32(in), in, json);
+                case 0xC7 -> writeExtension(in.readUnsignedByte(), in, json);
+                case 0xC8 -> writeExtension(in.readUnsignedShort(), in, json);
+                case 0xC9 -> writeExtension(readLength32(in), in, json);
+                case 0xCA -> writeDouble(in.readFloat(), json);
+                case 0xCB -> writeDouble(in.readDouble(), json);
+                case 0xCC -> json.value(in.readUnsignedByte());
+                case 0xCD -> json.value(in.readUnsignedShort());
+                case 0xCE -> json.value(in.readInt() & 0xFFFFFFFFL);
+                case 0xCF -> json.jsonValue(Long.toUnsignedString(in.readLong()));
+                case 0xD0 -> json.value(in.readByte());
+                case 0xD1 -> json.value(in.readShort());
+                case 0xD2 -> json.value(in.readInt());
+                case 0xD3 -> json.value(in.readLong());
+                case 0xD4 -> writeExtension(1, in, json);
+                case 0xD5 -> writeExtension(2, in, json);
+                case 0xD6 -> writeExtension(4, in, json);
+                case 0xD7 -> writeExtension(8, in, json);
+                case 0xD8 -> writeExtension(16, in, json);
+                case 0xD9 -> json.value(readString(in.readUnsignedByte(), in));
+                case 0xDA -> json.value(readString(in.readUnsignedShort(), in));
+                case 0xDB -> json.value(readString(readLength32(in), in));
+                case 0xDC -> writeArray(in.readUnsignedShort(), in, json, depth);
+                case 0xDD -> writeArray(readLength32(in), in, json, depth);
+                case 0xDE -> writeMap(in.readUnsignedShort(), in, json, depth);
+                case 0xDF -> writeMap(readLength32(in), in, json, depth);
+                default -> throw new IOException(String.format("Formato MessagePack inválido: 0x%02X", format));
+            }
+        }
+    }
+    
+    private void writeArray(int size, DataInputStream in, JsonWriter json, int depth) throws IOException {
+        json.beginArray();
+        for (int i = 0; i < size; i++) {
+            writeValue(readFormat(in), in, json, depth + 1);
+        }
+        json.endArray();
+    }
+    
+    private void writeMap(int size, DataInputStream in, JsonWriter json, int depth) throws IOException {
+        json.beginObject();
+        for (int i = 0; i < size; i++) {
+            json.name(readKey(in, depth));
+            writeValue(readFormat(in), in, json, depth + 1);
+        }
+        json.endObject();
+    }
+    
+    private String readKey(DataInputStream in, int depth) throws IOException {
+        int format = readFormat(in);
+        if (format >= 0xA0 && format <= 0xBF) {
+            return readString(format & 0x1F, in);
+        }
+        if (format == 0xD9 || format == 0xDA || format == 0xDB) {
+            int length = format == 0xD9 ? in.readUnsignedByte()
+                : format == 0xDA ? in.readUnsignedShort() : readLength32(in);
+            return readString(length, in);
+        }
+        
+        // Chave que não é string: usa a sua representação JSON compacta
+        StringWriter key = new StringWriter();
+        JsonWriter keyJson = new JsonWriter(key);
+        keyJson.setLenient(true);
+        writeValue(format, in, keyJson, depth + 1);
+        keyJson.flush();
+        return key.toString();
+    }
+    
+    private static void writeBinary(int length, DataInputStream in, JsonWriter json) throws IOException {
+        json.value(Base64.getEncoder().encodeToString(readBytes(length, in)));
+    }
+    
+    private static void writeExtension(int length, DataInputStream in, JsonWriter json) throws IOException {
+        byte type = in.readByte();
+        json.beginObject();
+        json.name("ext").value(type);
+        json.name("data").value(Base64.getEncoder().encodeToString(readBytes(length, in)));
+        json.endObject();
+    }
+    
+    private static void writeDouble(double value, JsonWriter json) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            json.value(Double.toString(value));
+        } else {
+            json.value(value);
+        }
+    }
+    
+    private static String readString(int length, DataInputStream in) throws IOException {
+        return new String(readBytes(length, in), StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] readBytes(int length, DataInputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Fim inesperado do corpo MessagePack");
+        }
+        return bytes;
+    }
+    
+    private static int readFormat(DataInputStream in) throws IOException {
+        return in.readUnsignedByte();
+    }
+    
+    private static int readLength32(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Comprimento MessagePack acima do suportado");
+        }
+        return length;
+    }
+}
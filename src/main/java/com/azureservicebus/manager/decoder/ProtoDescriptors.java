@@ -0,0 +1,209 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tipos de mensagem lidos de um FileDescriptorSet ({@code protoc --descriptor_set_out}).
+ *
+ * O próprio descritor é uma mensagem protobuf; é lido diretamente pelos números de campo de
+ * descriptor.proto, sem depender da biblioteca do protobuf. Só é guardado o necessário para
+ * dar nomes e tipos aos campos: nomes, números, tipos, repetição e nomes de enums.
+ */
+final class ProtoDescriptors {
+    
+    // Tipos de campo de FieldDescriptorProto.Type
+    static final int TYPE_DOUBLE = 1;
+    static final int TYPE_FLOAT = 2;
+    static final int TYPE_INT64 = 3;
+    static final int TYPE_UINT64 = 4;
+    static final int TYPE_INT32 = 5;
+    static final int TYPE_FIXED64 = 6;
+    static final int TYPE_FIXED32 = 7;
+    static final int TYPE_BOOL = 8;
+    static final int TYPE_STRING = 9;
+    static final int TYPE_GROUP = 10;
+    static final int TYPE_MESSAGE = 11;
+    static final int TYPE_BYTES = 12;
+    static final int TYPE_UINT32 = 13;
+    static final int TYPE_ENUM = 14;
+    static final int TYPE_SFIXED32 = 15;
+    static final int TYPE_SFIXED64 = 16;
+    static final int TYPE_SINT32 = 17;
+    static final int TYPE_SINT64 = 18;
+    
+    private static final int LABEL_REPEATED = 3;
+    
+    record Field(String name, int number, int type, boolean repeated, String typeName) {
+    }
+    
+    record MessageType(String fullName, Map<Integer, Field> fields) {
+    }
+    
+    private final Map<String, MessageType> messages = new HashMap<>();
+    private final Map<String, Map<Integer, String>> enums = new HashMap<>();
+    
+    /**
+     * Acrescenta os tipos de um FileDescriptorSet
+     */
+    void addDescriptorSet(byte[] data) throws IOException {
+        ProtoWire set = new ProtoWire(data);
+        while (!set.isAtEnd()) {
+            long tag = set.readVarint();
+            if (tag >>> 3 == 1 && (tag & 7) == ProtoWire.LENGTH_DELIMITED) {
+                readFile(set.readLengthDelimited());
+            } else {
+                set.skip((int) (tag & 7));
+            }
+        }
+    }
+    
+    MessageType findMessage(String name) {
+        return messages.get(stripLeadingDot(name));
+    }
+    
+    String enumName(String enumType, int number) {
+        Map<Integer, String> values = enums.get(stripLeadingDot(enumType));
+        return values != null ? values.get(number) : null;
+    }
+    
+    int getMessageCount() {
+        return messages.size();
+    }
+    
+    private void readFile(byte[] file) throws IOException {
+        ProtoWire wire = new ProtoWire(file);
+        String packageName = "";
+        Map<Integer, List<byte[]>> children = new HashMap<>();
+        
+        while (!wire.isAtEnd()) {
+            long tag = wire.readVarint();
+            int field = (int) (tag >>> 3);
+            int wireType = (int) (tag & 7);
+            if (wireType != ProtoWire.LENGTH_DELIMITED) {
+                wire.skip(wireType);
+            } else if (field == 2) {
+                packageName = new String(wire.readLengthDelimited(), StandardCharsets.UTF_8);
+            } else if (field == 4 || field == 5) {
+                children.computeIfAbsent(field, key -> new ArrayList<>()).add(wire.readLengthDelimited());
+            } else {
+                wire.skip(wireType);
+            }
+        }
+        
+        // O pacote pode vir depois das mensagens no arquivo, por isso as filhas são lidas no fim
+        for (byte[] message : children.getOrDefault(4, List.of())) {
+            readMessage(message, packageName);
+        }
+        for (byte[] enumType : children.getOrDefault(5, List.of())) {
+            readEnum(enumType, packageName);
+        }
+    }
+    
+    private void readMessage(byte[] descriptor, String scope) throws IOException {
+        ProtoWire wire = new ProtoWire(descriptor);
+        String name = "";
+        List<byte[]> fields = new ArrayList<>();
+        List<byte[]> nestedMessages = new ArrayList<>();
+        List<byte[]> nestedEnums = new ArrayList<>();
+        
+        while (!wire.isAtEnd()) {
+            long tag = wire.readVarint();
+            int wireType = (int) (tag & 7);
+            if (wireType != ProtoWire.LENGTH_DELIMITED) {
+                wire.skip(wireType);
+                continue;
+            }
+            switch ((int) (tag >>> 3)) {
+                case 1 -> name = new String(wire.readLengthDelimited(), StandardCharsets.UTF_8);
+                case 2 -> fields.add(wire.readLengthDelimited());
+                case 3 -> nestedMessages.add(wire.readLengthDelimited());
+                case 4 -> nestedEnums.add(wire.readLengthDelimited());
+                default -> wire.skip(wireType);
+            }
+        }
+        
+        String fullName = qualify(scope, name);
+        Map<Integer, Field> byNumber = new LinkedHashMap<>();
+        for (byte[] field : fields) {
+            Field parsed = readField(field);
+            byNumber.put(parsed.number(), parsed);
+        }
+        messages.put(fullName, new MessageType(fullName, byNumber));
+        
+        for (byte[] nested : nestedMessages) {
+            readMessage(nested, fullName);
+        }
+        for (byte[] nested : nestedEnums) {
+            readEnum(nested, fullName);
+        }
+    }
+    
+    private static Field readField(byte[] descriptor) throws IOException {
+        ProtoWire wire = new ProtoWire(descriptor);
+        String name = "";
+        int number = 0;
+        int type = 0;
+        boolean repeated = false;
+        String typeName = null;
+        
+        while (!wire.isAtEnd()) {
+            long tag = wire.readVarint();
+            int wireType = (int) (tag & 7);
+            switch ((int) (tag >>> 3)) {
+                case 1 -> name = new String(wire.readLengthDelimited(), StandardCharsets.UTF_8);
+                case 3 -> number = (int) wire.readVarint();
+                case 4 -> repeated = wire.readVarint() == LABEL_REPEATED;
+                case 5 -> type = (int) wire.readVarint();
+                case 6 -> typeName = new String(wire.readLengthDelimited(), StandardCharsets.UTF_8);
+                default -> wire.skip(wireType);
+            }
+        }
+        return new Field(name, number, type, repeated, typeName);
+    }
+    
+    private void readEnum(byte[] descriptor, String scope) throws IOException {
+        ProtoWire wire = new ProtoWire(descriptor);
+        String name = "";
+        Map<Integer, String> values = new HashMap<>();
+        
+        while (!wire.isAtEnd()) {
+            long tag = wire.readVarint();
+            int wireType = (int) (tag & 7);
+            if (tag >>> 3 == 1 && wireType == ProtoWire.LENGTH_DELIMITED) {
+                name = new String(wire.readLengthDelimited(), StandardCharsets.UTF_8);
+            } else if (tag >>> 3 == 2 && wireType == ProtoWire.LENGTH_DELIMITED) {
+                ProtoWire value = new ProtoWire(wire.readLengthDelimited());
+                String valueName = "";
+                int valueNumber = 0;
+                while (!value.isAtEnd()) {
+                    long valueTag = value.readVarint();
+                    if (valueTag >>> 3 == 1 && (valueTag & 7) == ProtoWire.LENGTH_DELIMITED) {
+                        valueName = new String(value.readLengthDelimited(), StandardCharsets.UTF_8);
+                    } else if (valueTag >>> 3 == 2 && (valueTag & 7) == ProtoWire.VARINT) {
+                        valueNumber = (int) value.readVarint();
+                    } else {
+                        value.skip((int) (valueTag & 7));
+                    }
+                }
+                values.put(valueNumber, valueName);
+            } else {
+                wire.skip(wireType);
+            }
+        }
+        enums.put(qualify(scope, name), values);
+    }
+    
+    private static String qualify(String scope, String name) {
+        return scope == null || scope.isEmpty() ? name : scope + "." + name;
+    }
+    
+    private static String stripLeadingDot(String name) {
+        return name != null && name.startsWith(".") ? name.substring(1) : name;
+    }
+}
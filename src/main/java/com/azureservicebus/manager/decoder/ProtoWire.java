@@ -0,0 +1,93 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Leitor do formato de fio do Protocol Buffers sobre um array de bytes
+ */
+final class ProtoWire {
+    
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int FIXED32 = 5;
+    
+    private final byte[] data;
+    private int position;
+    private final int end;
+    
+    ProtoWire(byte[] data) {
+        this(data, 0, data.length);
+    }
+    
+    ProtoWire(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+    
+    boolean isAtEnd() {
+        return position >= end;
+    }
+    
+    long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Varint inválido");
+    }
+    
+    long readFixed64() throws IOException {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result |= (long) (readByte() & 0xFF) << (8 * i);
+        }
+        return result;
+    }
+    
+    int readFixed32() throws IOException {
+        int result = 0;
+        for (int i = 0; i < 4; i++) {
+            result |= (readByte() & 0xFF) << (8 * i);
+        }
+        return result;
+    }
+    
+    byte[] readLengthDelimited() throws IOException {
+        long length = readVarint();
+        if (length < 0 || length > end - position) {
+            throw new IOException("Comprimento inválido: " + length);
+        }
+        byte[] bytes = Arrays.copyOfRange(data, position, position + (int) length);
+        position += (int) length;
+        return bytes;
+    }
+    
+    void skip(int wireType) throws IOException {
+        switch (wireType) {
+            case VARINT -> readVarint();
+            case FIXED64 -> readFixed64();
+            case LENGTH_DELIMITED -> readLengthDelimited();
+            case FIXED32 -> readFixed32();
+            default -> throw new IOException("Tipo de fio não suportado: " + wireType);
+        }
+    }
+    
+    private byte readByte() throws IOException {
+        if (position >= end) {
+            throw new EOFException("Fim inesperado da mensagem protobuf");
+        }
+        return data[position++];
+    }
+    
+    static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,305 @@
+package com.azureservicebus.manager.decoder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Corpos em Protocol Buffers.
+ *
+ * Com o tipo indicado no content type ({@code application/x-protobuf; messageType=pacote.Tipo})
+ * e um descritor registado no {@link SchemaStore}, a mensagem é mostrada como JSON com os nomes
+ * dos campos. Sem descritor, é mostrada como {@code protoc --decode_raw}: números de campo,
+ * valores e mensagens aninhadas quando os bytes formam uma mensagem válida.
+ */
+public class ProtobufBodyDecoder implements BodyDecoder {
+    
+    private static final int MAX_DEPTH = 64;
+    private static final String INDENT = "  ";
+    
+    private static final Gson GSON = new GsonBuilder()
+        .setPrettyPrinting()
+        .serializeSpecialFloatingPointValues()
+        .disableHtmlEscaping()
+        .create();
+        
+    private record RawField(int number, int wireType, long value, byte[] bytes) {
+    }
+    
+    @Override
+    public String getName() {
+        return "protobuf";
+    }
+    
+    @Override
+    public int detect(byte[] data, String contentType) {
+        return contentType.contains("protobuf") ? 100 : 0;
+    }
+    
+    @Override
+    public void decode(InputStream input, String contentType, SchemaStore schemas, Writer output) throws IOException {
+        // O formato não tem delimitadores de fim, por isso a mensagem é lida inteira
+        byte[] data = input.readAllBytes();
+        String typeName = ContentTypes.parameter(contentType, "messageType", "proto", "type", "schema");
+        if (typeName == null) {
+            typeName = ContentTypes.suffix(contentType);
+        }
+        
+        ProtoDescriptors.MessageType messageType = schemas != null ? schemas.findProtoMessage(typeName) : null;
+        if (messageType != null) {
+            try {
+                GSON.toJson(toJson(data, messageType, schemas.getProtoDescriptors(), 0), output);
+            } catch (JsonIOException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw e;
+            }
+            return;
+        }
+        
+        List<RawField> fields = parseRaw(data);
+        if (fields == null) {
+            throw new IOException("Os bytes não formam uma mensagem protobuf válida");
+        }
+        if (typeName != null) {
+            output.write("# Tipo '" + typeName + "' não encontrado nos descritores registados\n");
+        }
+        writeRaw(fields, output, 0);
+    }
+    
+    private JsonObject toJson(byte[] data, ProtoDescriptors.MessageType type, ProtoDescriptors descriptors,
+                              int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Mensagem protobuf demasiado profunda");
+        }
+        
+        JsonObject object = new JsonObject();
+        ProtoWire wire = new ProtoWire(data);
+        while (!wire.isAtEnd()) {
+            long tag = wire.readVarint();
+            int number = (int) (tag >>> 3);
+            int wireType = (int) (tag & 7);
+            ProtoDescriptors.Field field = type.fields().get(number);
+            
+            if (field == null) {
+                // Campo desconhecido: mostrado pelo número, como no modo sem descritor
+                add(object, String.valueOf(number), true, rawValue(wire, wireType));
+                continue;
+            }
+            
+            if (wireType == ProtoWire.LENGTH_DELIMITED && isPackable(field.type())) {
+                ProtoWire packed = new ProtoWire(wire.readLengthDelimited());
+                while (!packed.isAtEnd()) {
+                    add(object, field.name(), true, scalar(packed, scalarWireType(field.type()), field, descriptors));
+                }
+            } else if (field.type() == ProtoDescriptors.TYPE_MESSAGE && wireType == ProtoWire.LENGTH_DELIMITED) {
+                byte[] nested = wire.readLengthDelimited();
+                ProtoDescriptors.MessageType nestedType = descriptors.findMessage(field.typeName());
+                JsonElement value = nestedType != null
+                    ? toJson(nested, nestedType, descriptors, depth + 1)
+                    : new JsonPrimitive(Base64.getEncoder().encodeToString(nested));
+                add(object, field.name(), field.repeated(), value);
+            } else {
+                add(object, field.name(), field.repeated(), scalar(wire, wireType, field, descriptors));
+            }
+        }
+        return object;
+    }
+    
+    private static JsonElement scalar(ProtoWire wire, int wireType, ProtoDescriptors.Field field,
+                                      ProtoDescriptors descriptors) throws IOException {
+        switch (wireType) {
+            case ProtoWire.VARINT -> {
+                long value = wire.readVarint();
+                return switch (field.type()) {
+                    case ProtoDescriptors.TYPE_INT32 -> new JsonPrimitive((int) value);
+                    case ProtoDescriptors.TYPE_UINT32 -> new JsonPrimitive(value & 0xFFFFFFFFL);
+                    case ProtoDescriptors.TYPE_UINT64 -> new JsonPrimitive(new BigInteger(Long.toUnsignedString(value)));
+                    case ProtoDescriptors.TYPE_SINT32 -> new JsonPrimitive((int) ProtoWire.decodeZigZag(value));
+                    case ProtoDescriptors.TYPE_SINT64 -> new JsonPrimitive(ProtoWire.decodeZigZag(value));
+                    case ProtoDescriptors.TYPE_BOOL -> new JsonPrimitive(value != 0);
+                    case ProtoDescriptors.TYPE_ENUM -> {
+                        String name = descriptors.enumName(field.typeName(), (int) value);
+                        yield name != null ? new JsonPrimitive(name) : new JsonPrimitive((int) value);
+                    }
+                    default -> new JsonPrimitive(value);
+                };
+            }
+            case ProtoWire.FIXED64 -> {
+                long value = wire.readFixed64();
+                return switch (field.type()) {
+                    case ProtoDescriptors.TYPE_DOUBLE -> new JsonPrimitive(Double.longBitsToDouble(value));
+                    case ProtoDescriptors.TYPE_FIXED64 -> new JsonPrimitive(new BigInteger(Long.toUnsignedString(value)));
+                    default -> new JsonPrimitive(value);
+                };
+            }
+            case ProtoWire.FIXED32 -> {
+                int value = wire.readFixed32();
+                return switch (field.type()) {
+                    case ProtoDescriptors.TYPE_FLOAT -> new JsonPrimitive(Float.intBitsToFloat(value));
+                    case ProtoDescriptors.TYPE_FIXED32 -> new JsonPrimitive(value & 0xFFFFFFFFL);
+                    default -> new JsonPrimitive(value);
+                };
+            }
+            case ProtoWire.LENGTH_DELIMITED -> {
+                byte[] bytes = wire.readLengthDelimited();
+                return field.type() == ProtoDescriptors.TYPE_STRING
+                    ? new JsonPrimitive(new String(bytes, StandardCharsets.UTF_8))
+                    : new JsonPrimitive(Base64.getEncoder().encodeToString(bytes));
+            }
+            default -> throw new IOException("Tipo de fio não suportado: " + wireType);
+        }
+    }
+    
+    private static JsonElement rawValue(ProtoWire wire, int wireType) throws IOException {
+        return switch (wireType) {
+            case ProtoWire.VARINT -> new JsonPrimitive(wire.readVarint());
+            case ProtoWire.FIXED64 -> new JsonPrimitive(wire.readFixed64());
+            case ProtoWire.FIXED32 -> new JsonPrimitive(wire.readFixed32());
+            case ProtoWire.LENGTH_DELIMITED -> new JsonPrimitive(Base64.getEncoder().encodeToString(wire.readLengthDelimited()));
+            default -> throw new IOException("Tipo de fio não suportado: " + wireType);
+        };
+    }
+    
+    private static void add(JsonObject object, String name, boolean repeated, JsonElement value) {
+        if (!repeated) {
+            object.add(name, value);
+            return;
+        }
+        JsonElement existing = object.get(name);
+        if (existing == null || !existing.isJsonArray()) {
+            existing = new JsonArray();
+            object.add(name, existing);
+        }
+        existing.getAsJsonArray().add(value);
+    }
+    
+    private static boolean isPackable(int type) {
+        return type != ProtoDescriptors.TYPE_STRING && type != ProtoDescriptors.TYPE_BYTES
+            && type != ProtoDescriptors.TYPE_MESSAGE && type != ProtoDescriptors.TYPE_GROUP;
+    }
+    
+    private static int scalarWireType(int type) {
+        return switch (type) {
+            case ProtoDescriptors.TYPE_DOUBLE, ProtoDescriptors.TYPE_FIXED64, ProtoDescriptors.TYPE_SFIXED64 -> ProtoWire.FIXED64;
+            case ProtoDescriptors.TYPE_FLOAT, ProtoDescriptors.TYPE_FIXED32, ProtoDescriptors.TYPE_SFIXED32 -> ProtoWire.FIXED32;
+            default -> ProtoWire.VARINT;
+        };
+    }
+    
+    /**
+     * Lê os campos sem descritor; devolve null se os bytes não formarem uma mensagem válida
+     */
+    private static List<RawField> parseRaw(byte[] data) {
+        List<RawField> fields = new ArrayList<>();
+        ProtoWire wire = new ProtoWire(data);
+        try {
+            while (!wire.isAtEnd()) {
+                long tag = wire.readVarint();
+                int number = (int) (tag >>> 3);
+                int wireType = (int) (tag & 7);
+                if (number <= 0 || tag >>> 3 > 0x1FFFFFFF) {
+                    return null;
+                }
+                switch (wireType) {
+                    case ProtoWire.VARINT -> fields.add(new RawField(number, wireType, wire.readVarint(), null));
+                    case ProtoWire.FIXED64 -> fields.add(new RawField(number, wireType, wire.readFixed64(), null));
+                    case ProtoWire.FIXED32 -> fields.add(new RawField(number, wireType, wire.readFixed32(), null));
+                    case ProtoWire.LENGTH_DELIMITED -> fields.add(new RawField(number, wireType, 0, wire.readLengthDelimited()));
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return fields;
+    }
+    
+    private static void writeRaw(List<RawField> fields, Writer output, int depth) throws IOException {
+        String indent = INDENT.repeat(depth);
+        for (RawField field : fields) {
+            output.write(indent);
+            output.write(String.valueOf(field.number()));
+            
+            if (field.wireType() != ProtoWire.LENGTH_DELIMITED) {
+                output.write(": ");
+                output.write(field.wireType() == ProtoWire.FIXED32
+                    ? String.format("0x%08x", (int) field.value())
+                    : field.wireType() == ProtoWire.FIXED64
+                        ? String.format("0x%016x", field.value())
+                        : Long.toString(field.value()));
+                output.write('\n');
+                continue;
+            }
+            
+            // Texto legível tem prioridade; senão tenta interpretar como mensagem aninhada
+            String text = printableUtf8(field.bytes());
+            List<RawField> nested = text == null && depth < MAX_DEPTH ? parseRaw(field.bytes()) : null;
+            if (text != null) {
+                output.write(": \"" + escape(text) + "\"\n");
+            } else if (nested != null && !nested.isEmpty()) {
+                output.write(" {\n");
+                writeRaw(nested, output, depth + 1);
+                output.write(indent + "}\n");
+            } else {
+                output.write(": \"" + escapeBytes(field.bytes()) + "\"\n");
+            }
+        }
+    }
+    
+    private static String printableUtf8(byte[] bytes) {
+        try {
+            String text = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (Character.isISOControl(c) && c != '\n' && c != '\r' && c != '\t') {
+                    return null;
+                }
+            }
+            return text;
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+    
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"")
+            .replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+    
+    private static String escapeBytes(byte[] bytes) {
+        StringBuilder escaped = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            int value = b & 0xFF;
+            if (value >= 0x20 && value < 0x7F && value != '"' && value != '\\') {
+                escaped.append((char) value);
+            } else {
+                escaped.append(String.format("\\%03o", value));
+            }
+        }
+        return escaped.toString();
+    }
+}
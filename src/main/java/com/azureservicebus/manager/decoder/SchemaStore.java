@@ -0,0 +1,189 @@
+package com.azureservicebus.manager.decoder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Schemas Avro ({@code .avsc}) e descritores Protobuf ({@code .desc}/{@code .pb}, gerados com
+ * {@code protoc --include_imports --descriptor_set_out}) guardados numa pasta local.
+ *
+ * Os arquivos são lidos na primeira utilização e de novo a cada importação; as leituras usam uma
+ * fotografia imutável, por isso podem ser feitas de qualquer thread.
+ */
+public class SchemaStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SchemaStore.class);
+    
+    private final Path directory;
+    private volatile Snapshot snapshot;
+    
+    private record Snapshot(Map<String, JsonElement> avroSchemas, Set<JsonElement> distinctAvroSchemas,
+                            ProtoDescriptors protoDescriptors) {
+    }
+    
+    public SchemaStore(Path directory) {
+        this.directory = directory;
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Schema Avro pelo nome completo do registo (ex.: "com.exemplo.Pedido"), pelo nome simples
+     * ou pelo nome do arquivo sem extensão
+     */
+    public JsonElement findAvroSchema(String name) {
+        return name == null ? null : getSnapshot().avroSchemas().get(name);
+    }
+    
+    /**
+     * Único schema Avro registado, ou null se houver zero ou vários
+     */
+    public JsonElement getSingleAvroSchema() {
+        Set<JsonElement> schemas = getSnapshot().distinctAvroSchemas();
+        return schemas.size() == 1 ? schemas.iterator().next() : null;
+    }
+    
+    ProtoDescriptors.MessageType findProtoMessage(String name) {
+        return name == null ? null : getSnapshot().protoDescriptors().findMessage(name);
+    }
+    
+    ProtoDescriptors getProtoDescriptors() {
+        return getSnapshot().protoDescriptors();
+    }
+    
+    /**
+     * Copia os arquivos para a pasta de schemas e recarrega-os
+     *
+     * @throws IOException se algum arquivo não puder ser copiado ou não for um schema válido
+     */
+    public synchronized void importFiles(List<Path> files) throws IOException {
+        Files.createDirectories(directory);
+        for (Path file : files) {
+            // Valida antes de copiar para não deixar um arquivo inválido na pasta
+            loadFile(file, new HashMap<>(), new LinkedHashSet<>(), new ProtoDescriptors());
+            Files.copy(file, directory.resolve(file.getFileName().toString()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        reload();
+    }
+    
+    /**
+     * Relê todos os arquivos da pasta. Arquivos inválidos são ignorados com um aviso no log.
+     */
+    public synchronized void reload() {
+        Map<String, JsonElement> avroSchemas = new HashMap<>();
+        Set<JsonElement> distinctAvroSchemas = new LinkedHashSet<>();
+        ProtoDescriptors protoDescriptors = new ProtoDescriptors();
+        
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    try {
+                        loadFile(file, avroSchemas, distinctAvroSchemas, protoDescriptors);
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Schema ignorado '{}': {}", file.getFileName(), e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Erro ao listar schemas em '{}': {}", directory, e.getMessage());
+            }
+        }
+        
+        snapshot = new Snapshot(avroSchemas, distinctAvroSchemas, protoDescriptors);
+        logger.debug("Schemas carregados: {}", getSummary());
+    }
+    
+    /**
+     * Resumo legível para a interface (ex.: "2 schemas Avro • 14 mensagens Protobuf")
+     */
+    public String getSummary() {
+        Snapshot current = getSnapshot();
+        return String.format("%d schemas Avro • %d mensagens Protobuf",
+            current.distinctAvroSchemas().size(), current.protoDescriptors().getMessageCount());
+    }
+    
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+    
+    private static void loadFile(Path file, Map<String, JsonElement> avroSchemas, Set<JsonElement> distinctAvroSchemas,
+                                 ProtoDescriptors protoDescriptors) throws IOException {
+        String fileName = file.getFileName().toString();
+        String lowerName = fileName.toLowerCase(Locale.ROOT);
+        
+        if (lowerName.endsWith(".avsc")) {
+            JsonElement schema = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8));
+            distinctAvroSchemas.add(schema);
+            avroSchemas.put(fileName.substring(0, fileName.length() - ".avsc".length()), schema);
+            registerAvroNames(schema, null, avroSchemas);
+        } else if (lowerName.endsWith(".desc") || lowerName.endsWith(".pb") || lowerName.endsWith(".protoset")) {
+            protoDescriptors.addDescriptorSet(Files.readAllBytes(file));
+        } else {
+            throw new IOException("Extensão não suportada (use .avsc, .desc ou .pb)");
+        }
+    }
+    
+    /**
+     * Regista o schema pelos nomes de todos os tipos com nome que declara,
+     * para que um schema com vários registos possa ser escolhido por qualquer um deles
+     */
+    private static void registerAvroNames(JsonElement schema, String namespace, Map<String, JsonElement> avroSchemas) {
+        if (schema.isJsonArray()) {
+            JsonArray union = schema.getAsJsonArray();
+            for (JsonElement branch : union) {
+                registerAvroNames(branch, namespace, avroSchemas);
+            }
+            return;
+        }
+        if (!schema.isJsonObject()) {
+            return;
+        }
+        
+        JsonObject object = schema.getAsJsonObject();
+        if (object.has("name")) {
+            String fullName = AvroBodyDecoder.fullName(object, namespace);
+            avroSchemas.putIfAbsent(fullName, object);
+            avroSchemas.putIfAbsent(fullName.substring(fullName.lastIndexOf('.') + 1), object);
+            namespace = fullName.contains(".") ? fullName.substring(0, fullName.lastIndexOf('.')) : namespace;
+        }
+        if (object.has("fields")) {
+            for (JsonElement field : object.getAsJsonArray("fields")) {
+                if (field.isJsonObject() && field.getAsJsonObject().has("type")) {
+                    registerAvroNames(field.getAsJsonObject().get("type"), namespace, avroSchemas);
+                }
+            }
+        }
+        for (String child : new String[] {"items", "values"}) {
+            if (object.has(child)) {
+                registerAvroNames(object.get(child), namespace, avroSchemas);
+            }
+        }
+    }
+}
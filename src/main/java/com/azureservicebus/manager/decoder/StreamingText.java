@@ -0,0 +1,28 @@
+package com.azureservicebus.manager.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cópia de texto UTF-8 em blocos, sem materializar o conteúdo descomprimido inteiro
+ */
+final class StreamingText {
+    
+    private static final int CHUNK_CHARS = 8192;
+    
+    private StreamingText() {
+    }
+    
+    static void copy(InputStream input, Writer output) throws IOException {
+        Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        char[] buffer = new char[CHUNK_CHARS];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+    }
+}
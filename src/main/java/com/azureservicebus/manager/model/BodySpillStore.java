@@ -0,0 +1,263 @@
+package com.azureservicebus.manager.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Guarda os corpos das mensagens espiadas em segmentos temporários em disco, fora do heap.
+ *
+ * Os corpos são acrescentados ao segmento atual e as linhas em memória guardam só o segmento,
+ * o offset e o tamanho; os bytes só são lidos quando a mensagem é selecionada, pesquisada ou
+ * decodificada, e as leituras repetidas vêm da cache de páginas do sistema operativo.
+ *
+ * Cada segmento conta os corpos que ainda o referenciam. Quem deixa de mostrar uma mensagem
+ * chama {@link MessageBody#release()}; quando o último corpo de um segmento já cheio é libertado,
+ * o arquivo é fechado e apagado de imediato, sem depender do GC. {@link #clear()} descarta todos
+ * os segmentos (ex.: ao desconectar). Onde o sistema o permite, o arquivo é apagado logo depois de
+ * aberto, para que nada fique para trás se a aplicação terminar abruptamente.
+ *
+ * Se não for possível criar segmentos (ex.: disco cheio), os corpos ficam no heap como antes.
+ */
+public final class BodySpillStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BodySpillStore.class);
+    
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    
+    // Corpos pequenos custam mais a referenciar no disco do que a guardar no heap
+    public static final int DEFAULT_MIN_SPILL_BYTES = 256;
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final int minSpillBytes;
+    
+    // Segmentos abertos e segmento em escrita (guardados por "this")
+    private final Set<Segment> segments = new HashSet<>();
+    private Segment current;
+    private volatile boolean disabled;
+    
+    public BodySpillStore() {
+        this(Path.of(System.getProperty("java.io.tmpdir"), "azure-servicebus-manager", "bodies"),
+            DEFAULT_SEGMENT_SIZE, DEFAULT_MIN_SPILL_BYTES);
+    }
+    
+    public BodySpillStore(Path directory, int segmentSize, int minSpillBytes) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.minSpillBytes = minSpillBytes;
+    }
+    
+    /**
+     * Corpo a partir dos bytes recebidos: em disco se for grande o suficiente, senão no heap.
+     * O array não é guardado quando o corpo vai para o disco.
+     */
+    public MessageBody store(byte[] data) {
+        if (data == null || data.length < minSpillBytes || disabled) {
+            return MessageBody.of(data);
+        }
+        
+        Segment target = null;
+        long offset;
+        try {
+            synchronized (this) {
+                if (data.length > segmentSize) {
+                    // Corpo maior que um segmento: fica num segmento só seu, fechado para novas escritas
+                    target = openSegment();
+                    target.sealed = true;
+                    offset = 0;
+                } else {
+                    if (current == null || segmentSize - current.position < data.length) {
+                        sealCurrent();
+                        current = openSegment();
+                    }
+                    target = current;
+                    offset = current.position;
+                    current.position += data.length;
+                }
+                target.references++;
+            }
+            
+            // Escrita fora do lock do store: cada corpo tem a sua faixa reservada
+            if (!target.write(offset, data)) {
+                // Segmento descartado por clear() entretanto
+                release(target);
+                return MessageBody.of(data);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (target != null) {
+                release(target);
+            }
+            disabled = true;
+            logger.warn("Corpos de mensagens passam a ficar em memória: não foi possível escrever segmento em '{}': {}",
+                directory, e.getMessage());
+            return MessageBody.of(data);
+        }
+        
+        return MessageBody.spilled(target, offset, data.length);
+    }
+    
+    /**
+     * Número de segmentos abertos (em disco)
+     */
+    public synchronized int getOpenSegmentCount() {
+        return segments.size();
+    }
+    
+    /**
+     * Fecha e apaga todos os segmentos; corpos ainda referenciados passam a ler-se vazios.
+     * O store continua utilizável e abre segmentos novos conforme for preciso.
+     */
+    public void clear() {
+        List<Segment> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(segments);
+            segments.clear();
+            current = null;
+        }
+        for (Segment segment : toClose) {
+            segment.close();
+        }
+    }
+    
+    /**
+     * Liberta a referência de um corpo; o segmento é fechado quando já não recebe escritas
+     * e nenhum corpo o referencia
+     */
+    void release(Segment segment) {
+        boolean closeNow;
+        synchronized (this) {
+            segment.references--;
+            closeNow = segment.sealed && segment.references == 0 && segments.remove(segment);
+        }
+        if (closeNow) {
+            segment.close();
+        }
+    }
+    
+    private void sealCurrent() {
+        if (current == null) {
+            return;
+        }
+        current.sealed = true;
+        if (current.references == 0 && segments.remove(current)) {
+            current.close();
+        }
+        current = null;
+    }
+    
+    private Segment openSegment() throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "segment-", ".bin");
+        RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+        
+        boolean unlinked;
+        try {
+            // Em sistemas POSIX o arquivo pode ser apagado já: o espaço é libertado ao fechar
+            Files.delete(file);
+            unlinked = true;
+        } catch (IOException e) {
+            // Windows não apaga arquivos abertos: apagado ao fechar o segmento
+            unlinked = false;
+            file.toFile().deleteOnExit();
+        }
+        
+        Segment segment = new Segment(this, file, raf, unlinked);
+        segments.add(segment);
+        return segment;
+    }
+    
+    /**
+     * Arquivo temporário com os corpos de várias mensagens
+     */
+    static final class Segment {
+        private final BodySpillStore owner;
+        private final Path file;
+        private final RandomAccessFile raf;
+        private final boolean unlinked;
+        // RandomAccessFile em vez de FileChannel: uma interrupção da thread não fecha o arquivo
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        // Guardados pelo store
+        long position;
+        int references;
+        boolean sealed;
+        
+        private boolean closed;
+        
+        Segment(BodySpillStore owner, Path file, RandomAccessFile raf, boolean unlinked) {
+            this.owner = owner;
+            this.file = file;
+            this.raf = raf;
+            this.unlinked = unlinked;
+        }
+        
+        BodySpillStore owner() {
+            return owner;
+        }
+        
+        /**
+         * Escreve os bytes na faixa reservada; devolve false se o segmento já foi fechado
+         */
+        boolean write(long offset, byte[] data) throws IOException {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                raf.seek(offset);
+                raf.write(data);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        /**
+         * Lê exatamente {@code length} bytes; devolve false se o segmento já foi fechado
+         */
+        boolean read(long offset, byte[] target, int targetOffset, int length) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                raf.seek(offset);
+                raf.readFully(target, targetOffset, length);
+                return true;
+            } catch (IOException e) {
+                logger.warn("Erro ao ler corpo de mensagem do segmento '{}': {}", file, e.getMessage());
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                raf.close();
+                if (!unlinked) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                logger.warn("Erro ao apagar segmento de corpos '{}': {}", file, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.azureservicebus.manager.model;
+
+import java.util.Objects;
+
+/**
+ * Referência imutável para uma entidade de mensagens do Service Bus
+ * (fila, tópico ou subscription, opcionalmente a sua dead letter queue)
+ */
+public final class EntityPath {
+    
+    /**
+     * Tipos de entidade suportados
+     */
+    public enum Type {
+        QUEUE,
+        TOPIC,
+        SUBSCRIPTION
+    }
+    
+    private final Type type;
+    private final String name;
+    private final String subscriptionName;
+    private final boolean deadLetter;
+    
+    private EntityPath(Type type, String name, String subscriptionName, boolean deadLetter) {
+        this.type = Objects.requireNonNull(type);
+        this.name = Objects.requireNonNull(name);
+        this.subscriptionName = subscriptionName;
+        this.deadLetter = deadLetter;
+    }
+    
+    public static EntityPath queue(String queueName) {
+        return new EntityPath(Type.QUEUE, queueName, null, false);
+    }
+    
+    public static EntityPath topic(String topicName) {
+        return new EntityPath(Type.TOPIC, topicName, null, false);
+    }
+    
+    public static EntityPath subscription(String topicName, String subscriptionName) {
+        return new EntityPath(Type.SUBSCRIPTION, topicName, Objects.requireNonNull(subscriptionName), false);
+    }
+    
+    /**
+     * Retorna a dead letter queue desta entidade (tópicos não possuem DLQ)
+     */
+    public EntityPath deadLetter() {
+        if (type == Type.TOPIC) {
+            throw new IllegalStateException("Tópicos não possuem dead letter queue");
+        }
+        return new EntityPath(type, name, subscriptionName, true);
+    }
+    
+    /**
+     * Retorna a entidade principal (sem sub-fila de dead letter)
+     */
+    public EntityPath parent() {
+        return deadLetter ? new EntityPath(type, name, subscriptionName, false) : this;
+    }
+    
+    public Type getType() { return type; }
+    
+    /**
+     * Nome da fila ou do tópico
+     */
+    public String getName() { return name; }
+    
+    public String getSubscriptionName() { return subscriptionName; }
+    
+    public boolean isDeadLetter() { return deadLetter; }
+    
+    public boolean isQueue() { return type == Type.QUEUE; }
+    
+    public boolean isTopic() { return type == Type.TOPIC; }
+    
+    public boolean isSubscription() { return type == Type.SUBSCRIPTION; }
+    
+    /**
+     * Descrição legível usada em logs e na interface
+     */
+    public String getDisplayName() {
+        String base = isSubscription() ? name + "/" + subscriptionName : name;
+        return deadLetter ? base + "/$deadletterqueue" : base;
+    }
+    
+    @Override
+    public String toString() {
+        return getDisplayName();
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        
+        EntityPath that = (EntityPath) obj;
+        return deadLetter == that.deadLetter &&
+               type == that.type &&
+               name.equals(that.name) &&
+               Objects.equals(subscriptionName, that.subscriptionName);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name, subscriptionName, deadLetter);
+    }
+}
@@ -0,0 +1,208 @@
+package com.azureservicebus.manager.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Corpo de uma mensagem guardado em bytes e decodificado só quando é preciso.
+ *
+ * A tabela de mensagens usa apenas uma pré-visualização curta, que decodifica no máximo
+ * algumas centenas de bytes; o texto completo só é produzido para a mensagem selecionada,
+ * com limite de tamanho, ou a pedido explícito. Assim espiar 1.000 mensagens de 200 KB
+ * não cria 1.000 Strings de 200 KB.
+ *
+ * Os bytes ficam no heap ou num segmento em disco do {@link BodySpillStore}; no segundo caso
+ * só os bytes efetivamente pedidos são lidos. Um corpo em disco deve ser libertado com
+ * {@link #release()} quando a mensagem deixa de ser mostrada; depois de o segmento ser apagado
+ * o corpo lê-se vazio.
+ */
+public final class MessageBody {
+    
+    public static final int PREVIEW_CHARS = 100;
+    
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final MessageBody EMPTY = new MessageBody(NO_BYTES, null, 0, 0);
+    
+    // Exatamente um dos dois está preenchido
+    private final byte[] data;
+    private final BodySpillStore.Segment segment;
+    private final long offset;
+    private final int length;
+    private final AtomicBoolean released;
+    private volatile String preview;
+    
+    private MessageBody(byte[] data, BodySpillStore.Segment segment, long offset, int length) {
+        this.data = data;
+        this.segment = segment;
+        this.offset = offset;
+        this.length = length;
+        this.released = segment != null ? new AtomicBoolean() : null;
+    }
+    
+    /**
+     * Corpo a partir dos bytes recebidos (o array não é copiado e não deve ser alterado)
+     */
+    public static MessageBody of(byte[] data) {
+        return data == null || data.length == 0 ? EMPTY : new MessageBody(data, null, 0, data.length);
+    }
+    
+    public static MessageBody of(String text) {
+        return text == null || text.isEmpty() ? EMPTY : of(text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Corpo guardado numa faixa de um segmento em disco (só escrita antes desta chamada)
+     */
+    static MessageBody spilled(BodySpillStore.Segment segment, long offset, int length) {
+        return new MessageBody(null, segment, offset, length);
+    }
+    
+    public int getSize() {
+        return length;
+    }
+    
+    public boolean isEmpty() {
+        return length == 0;
+    }
+    
+    /**
+     * Verdadeiro se os bytes estão num segmento em disco e não no heap
+     */
+    public boolean isSpilled() {
+        return segment != null;
+    }
+    
+    /**
+     * Liberta a referência ao segmento em disco (chamadas repetidas são ignoradas);
+     * sem efeito para corpos no heap
+     */
+    public void release() {
+        if (segment != null && released.compareAndSet(false, true)) {
+            segment.owner().release(segment);
+        }
+    }
+    
+    /**
+     * Bytes do corpo. Para corpos no heap não há cópia (não devem ser alterados); para corpos
+     * em disco é criada uma cópia completa, por isso leituras parciais devem usar
+     * {@link #head(int)} ou {@link #openStream()}.
+     */
+    public byte[] getBytes() {
+        return data != null ? data : read(length);
+    }
+    
+    /**
+     * Primeiros bytes do corpo, no máximo {@code maxBytes} (para deteção de formato)
+     */
+    public byte[] head(int maxBytes) {
+        int count = Math.min(length, Math.max(0, maxBytes));
+        return data != null && count == length ? data : read(count);
+    }
+    
+    /**
+     * Lê o corpo sem o copiar inteiro para o heap
+     */
+    public InputStream openStream() {
+        if (data != null) {
+            return new ByteArrayInputStream(data);
+        }
+        return new InputStream() {
+            private int position;
+            
+            @Override
+            public int read() {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+            }
+            
+            @Override
+            public int read(byte[] buffer, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                int count = Math.min(len, length - position);
+                if (count <= 0 || !segment.read(offset + position, buffer, off, count)) {
+                    return -1;
+                }
+                position += count;
+                return count;
+            }
+            
+            @Override
+            public int available() {
+                return length - position;
+            }
+        };
+    }
+    
+    /**
+     * Verdadeiro se o corpo tem mais bytes do que o limite indicado
+     */
+    public boolean exceeds(int maxBytes) {
+        return length > maxBytes;
+    }
+    
+    /**
+     * Primeiros {@link #PREVIEW_CHARS} caracteres, com "..." se o corpo continua
+     */
+    public String getPreview() {
+        String cached = preview;
+        if (cached == null) {
+            // Um caractere UTF-8 ocupa no máximo 4 bytes
+            String text = decode(PREVIEW_CHARS * 4);
+            if (text.length() > PREVIEW_CHARS) {
+                cached = text.substring(0, PREVIEW_CHARS) + "...";
+            } else {
+                cached = exceeds(PREVIEW_CHARS * 4) ? text + "..." : text;
+            }
+            preview = cached;
+        }
+        return cached;
+    }
+    
+    /**
+     * Decodifica no máximo {@code maxBytes} bytes, sem cortar um caractere multibyte a meio
+     */
+    public String decode(int maxBytes) {
+        int count = Math.min(length, Math.max(0, maxBytes));
+        // Um byte a mais permite saber se o corte cai a meio de um caractere
+        byte[] bytes = head(count < length ? count + 1 : count);
+        // Array mais curto que o pedido: corpo em disco já descartado
+        int end = bytes.length <= count ? bytes.length : utf8Boundary(bytes, count);
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+    
+    public String decodeFull() {
+        return new String(getBytes(), StandardCharsets.UTF_8);
+    }
+    
+    private byte[] read(int count) {
+        if (data != null) {
+            return Arrays.copyOf(data, count);
+        }
+        byte[] bytes = new byte[count];
+        return segment.read(offset, bytes, 0, count) ? bytes : NO_BYTES;
+    }
+    
+    /**
+     * Recua o fim até ao início de um caractere quando o corte cai num byte de continuação
+     */
+    private int utf8Boundary(byte[] bytes, int end) {
+        if (end >= length) {
+            return length;
+        }
+        int boundary = end;
+        while (boundary > 0 && (bytes[boundary] & 0xC0) == 0x80) {
+            boundary--;
+        }
+        return boundary;
+    }
+    
+    @Override
+    public String toString() {
+        return getPreview();
+    }
+}
@@ -1,39 +1,30 @@
 package com.azureservicebus.manager.model;
 
-import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableMap;
+import com.azureservicebus.manager.model.MessageStore.StringColumn;
+import com.azureservicebus.manager.model.MessageStore.TimeColumn;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.HashMap;
 
 /**
- * Modelo de dados para informações de uma mensagem do Service Bus
+ * Modelo de dados para informações de uma mensagem do Service Bus.
+ *
+ * É uma vista sobre uma linha de um {@link MessageStore}: não guarda campos próprios, por isso
+ * dezenas de milhares de mensagens na tabela custam pouco mais do que os seus corpos. As colunas
+ * da tabela leem os getters; quem altera uma mensagem já mostrada deve atualizar a tabela.
  */
 public class MessageInfo {
     
-    private final LongProperty sequenceNumber = new SimpleLongProperty();
-    private final StringProperty messageId = new SimpleStringProperty();
-    private final StringProperty messageBody = new SimpleStringProperty();
-    private final StringProperty contentType = new SimpleStringProperty();
-    private final StringProperty correlationId = new SimpleStringProperty();
-    private final StringProperty sessionId = new SimpleStringProperty();
-    private final StringProperty replyTo = new SimpleStringProperty();
-    private final StringProperty subject = new SimpleStringProperty();
-    private final ObjectProperty<LocalDateTime> enqueuedTime = new SimpleObjectProperty<>();
-    private final ObjectProperty<LocalDateTime> scheduledEnqueueTime = new SimpleObjectProperty<>();
-    private final ObjectProperty<LocalDateTime> expiresAt = new SimpleObjectProperty<>();
-    private final IntegerProperty deliveryCount = new SimpleIntegerProperty();
-    private final LongProperty sizeInBytes = new SimpleLongProperty();
-    private final StringProperty lockToken = new SimpleStringProperty();
-    private final ObjectProperty<LocalDateTime> lockedUntil = new SimpleObjectProperty<>();
-    private final StringProperty deadLetterReason = new SimpleStringProperty();
-    private final StringProperty deadLetterErrorDescription = new SimpleStringProperty();
-    private final MapProperty<String, Object> applicationProperties = new SimpleMapProperty<>();
+    private final MessageStore.Chunk chunk;
+    private final int index;
     
     // Construtores
     public MessageInfo() {
-        this.applicationProperties.set(FXCollections.observableHashMap());
+        this(MessageStore.Chunk.single(), 0);
     }
     
     public MessageInfo(String messageBody) {
@@ -41,95 +32,142 @@ public class MessageInfo {
         setMessageBody(messageBody);
     }
     
-    // Getters e Setters para Properties
-    public long getSequenceNumber() { return sequenceNumber.get(); }
-    public void setSequenceNumber(long sequenceNumber) { this.sequenceNumber.set(sequenceNumber); }
-    public LongProperty sequenceNumberProperty() { return sequenceNumber; }
+    MessageInfo(MessageStore.Chunk chunk, int index) {
+        this.chunk = chunk;
+        this.index = index;
+    }
+    
+    // Getters e Setters
+    public long getSequenceNumber() { return chunk.sequenceNumbers[index]; }
+    public void setSequenceNumber(long sequenceNumber) { chunk.sequenceNumbers[index] = sequenceNumber; }
     
-    public String getMessageId() { return messageId.get(); }
-    public void setMessageId(String messageId) { this.messageId.set(messageId); }
-    public StringProperty messageIdProperty() { return messageId; }
+    public String getMessageId() { return chunk.getString(StringColumn.MESSAGE_ID, index); }
+    public void setMessageId(String messageId) { chunk.setString(StringColumn.MESSAGE_ID, index, messageId); }
     
-    public String getMessageBody() { return messageBody.get(); }
-    public void setMessageBody(String messageBody) { this.messageBody.set(messageBody); }
-    public StringProperty messageBodyProperty() { return messageBody; }
+    /**
+     * Corpo completo como texto; decodifica todos os bytes a cada chamada,
+     * por isso a interface deve preferir {@link #getBody()} com limite
+     */
+    public String getMessageBody() {
+        MessageBody body = getBody();
+        return body != null ? body.decodeFull() : null;
+    }
+    public void setMessageBody(String messageBody) { setBody(messageBody != null ? MessageBody.of(messageBody) : null); }
+    
+    public MessageBody getBody() { return chunk.bodies[index]; }
+    public void setBody(MessageBody body) { chunk.bodies[index] = body; }
+    
+    /**
+     * Liberta o corpo guardado em disco; chamar quando a mensagem deixa de ser mostrada
+     */
+    public void release() {
+        MessageBody body = chunk.bodies[index];
+        if (body != null) {
+            body.release();
+        }
+    }
     
-    public String getContentType() { return contentType.get(); }
-    public void setContentType(String contentType) { this.contentType.set(contentType); }
-    public StringProperty contentTypeProperty() { return contentType; }
+    public String getContentType() { return chunk.getString(StringColumn.CONTENT_TYPE, index); }
+    public void setContentType(String contentType) { chunk.setString(StringColumn.CONTENT_TYPE, index, contentType); }
     
-    public String getCorrelationId() { return correlationId.get(); }
-    public void setCorrelationId(String correlationId) { this.correlationId.set(correlationId); }
-    public StringProperty correlationIdProperty() { return correlationId; }
+    public String getCorrelationId() { return chunk.getString(StringColumn.CORRELATION_ID, index); }
+    public void setCorrelationId(String correlationId) { chunk.setString(StringColumn.CORRELATION_ID, index, correlationId); }
     
-    public String getSessionId() { return sessionId.get(); }
-    public void setSessionId(String sessionId) { this.sessionId.set(sessionId); }
-    public StringProperty sessionIdProperty() { return sessionId; }
+    public String getSessionId() { return chunk.getString(StringColumn.SESSION_ID, index); }
+    public void setSessionId(String sessionId) { chunk.setString(StringColumn.SESSION_ID, index, sessionId); }
     
-    public String getReplyTo() { return replyTo.get(); }
-    public void setReplyTo(String replyTo) { this.replyTo.set(replyTo); }
-    public StringProperty replyToProperty() { return replyTo; }
+    public String getReplyTo() { return chunk.getString(StringColumn.REPLY_TO, index); }
+    public void setReplyTo(String replyTo) { chunk.setString(StringColumn.REPLY_TO, index, replyTo); }
     
-    public String getSubject() { return subject.get(); }
-    public void setSubject(String subject) { this.subject.set(subject); }
-    public StringProperty subjectProperty() { return subject; }
+    public String getSubject() { return chunk.getString(StringColumn.SUBJECT, index); }
+    public void setSubject(String subject) { chunk.setString(StringColumn.SUBJECT, index, subject); }
     
-    public LocalDateTime getEnqueuedTime() { return enqueuedTime.get(); }
-    public void setEnqueuedTime(LocalDateTime enqueuedTime) { this.enqueuedTime.set(enqueuedTime); }
-    public ObjectProperty<LocalDateTime> enqueuedTimeProperty() { return enqueuedTime; }
+    public LocalDateTime getEnqueuedTime() { return getTime(TimeColumn.ENQUEUED); }
+    public void setEnqueuedTime(LocalDateTime enqueuedTime) { setTime(TimeColumn.ENQUEUED, enqueuedTime); }
+    public void setEnqueuedTime(Instant enqueuedTime) { setTime(TimeColumn.ENQUEUED, enqueuedTime); }
     
-    public LocalDateTime getScheduledEnqueueTime() { return scheduledEnqueueTime.get(); }
-    public void setScheduledEnqueueTime(LocalDateTime scheduledEnqueueTime) { this.scheduledEnqueueTime.set(scheduledEnqueueTime); }
-    public ObjectProperty<LocalDateTime> scheduledEnqueueTimeProperty() { return scheduledEnqueueTime; }
+    public LocalDateTime getScheduledEnqueueTime() { return getTime(TimeColumn.SCHEDULED_ENQUEUE); }
+    public void setScheduledEnqueueTime(LocalDateTime scheduledEnqueueTime) { 
+        setTime(TimeColumn.SCHEDULED_ENQUEUE, scheduledEnqueueTime); 
+    }
     
-    public LocalDateTime getExpiresAt() { return expiresAt.get(); }
-    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt.set(expiresAt); }
-    public ObjectProperty<LocalDateTime> expiresAtProperty() { return expiresAt; }
+    public LocalDateTime getExpiresAt() { return getTime(TimeColumn.EXPIRES_AT); }
+    public void setExpiresAt(LocalDateTime expiresAt) { setTime(TimeColumn.EXPIRES_AT, expiresAt); }
     
-    public int getDeliveryCount() { return deliveryCount.get(); }
-    public void setDeliveryCount(int deliveryCount) { this.deliveryCount.set(deliveryCount); }
-    public IntegerProperty deliveryCountProperty() { return deliveryCount; }
+    public int getDeliveryCount() { return chunk.deliveryCounts[index]; }
+    public void setDeliveryCount(int deliveryCount) { chunk.deliveryCounts[index] = deliveryCount; }
     
-    public long getSizeInBytes() { return sizeInBytes.get(); }
-    public void setSizeInBytes(long sizeInBytes) { this.sizeInBytes.set(sizeInBytes); }
-    public LongProperty sizeInBytesProperty() { return sizeInBytes; }
+    public long getSizeInBytes() { return chunk.sizes[index]; }
+    public void setSizeInBytes(long sizeInBytes) { chunk.sizes[index] = (int) Math.min(sizeInBytes, Integer.MAX_VALUE); }
     
-    public String getLockToken() { return lockToken.get(); }
-    public void setLockToken(String lockToken) { this.lockToken.set(lockToken); }
-    public StringProperty lockTokenProperty() { return lockToken; }
+    public String getLockToken() { return chunk.getString(StringColumn.LOCK_TOKEN, index); }
+    public void setLockToken(String lockToken) { chunk.setString(StringColumn.LOCK_TOKEN, index, lockToken); }
     
-    public LocalDateTime getLockedUntil() { return lockedUntil.get(); }
-    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil.set(lockedUntil); }
-    public ObjectProperty<LocalDateTime> lockedUntilProperty() { return lockedUntil; }
+    public LocalDateTime getLockedUntil() { return getTime(TimeColumn.LOCKED_UNTIL); }
+    public void setLockedUntil(LocalDateTime lockedUntil) { setTime(TimeColumn.LOCKED_UNTIL, lockedUntil); }
+    public void setLockedUntil(Instant lockedUntil) { setTime(TimeColumn.LOCKED_UNTIL, lockedUntil); }
     
-    public String getDeadLetterReason() { return deadLetterReason.get(); }
-    public void setDeadLetterReason(String deadLetterReason) { this.deadLetterReason.set(deadLetterReason); }
-    public StringProperty deadLetterReasonProperty() { return deadLetterReason; }
+    public String getDeadLetterReason() { return chunk.getString(StringColumn.DEAD_LETTER_REASON, index); }
+    public void setDeadLetterReason(String deadLetterReason) { 
+        chunk.setString(StringColumn.DEAD_LETTER_REASON, index, deadLetterReason); 
+    }
     
-    public String getDeadLetterErrorDescription() { return deadLetterErrorDescription.get(); }
+    public String getDeadLetterErrorDescription() { return chunk.getString(StringColumn.DEAD_LETTER_DESCRIPTION, index); }
     public void setDeadLetterErrorDescription(String deadLetterErrorDescription) { 
-        this.deadLetterErrorDescription.set(deadLetterErrorDescription); 
+        chunk.setString(StringColumn.DEAD_LETTER_DESCRIPTION, index, deadLetterErrorDescription); 
     }
-    public StringProperty deadLetterErrorDescriptionProperty() { return deadLetterErrorDescription; }
     
-    public Map<String, Object> getApplicationProperties() { return applicationProperties.get(); }
+    /**
+     * Cópia só de leitura das propriedades da aplicação (montada a cada chamada)
+     */
+    public Map<String, Object> getApplicationProperties() {
+        Object[] keyValues = chunk.getProperties(index);
+        if (keyValues == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> properties = new LinkedHashMap<>(keyValues.length);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+    
+    /**
+     * Valor de uma propriedade da aplicação sem montar o mapa (null se não existir)
+     */
+    public Object getApplicationProperty(String key) {
+        Object[] keyValues = chunk.getProperties(index);
+        if (keyValues != null) {
+            for (int i = 0; i < keyValues.length; i += 2) {
+                if (keyValues[i].equals(key)) {
+                    return keyValues[i + 1];
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Guarda as propriedades como pares chave/valor compactos, com chaves e valores de texto deduplicados
+     */
     public void setApplicationProperties(Map<String, Object> applicationProperties) { 
-        this.applicationProperties.set(FXCollections.observableMap(applicationProperties)); 
+        if (applicationProperties == null || applicationProperties.isEmpty()) {
+            chunk.setProperties(index, null);
+            return;
+        }
+        Object[] keyValues = new Object[applicationProperties.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : applicationProperties.entrySet()) {
+            keyValues[i++] = chunk.dedupe(entry.getKey());
+            keyValues[i++] = entry.getValue() instanceof String text ? chunk.dedupe(text) : entry.getValue();
+        }
+        chunk.setProperties(index, keyValues);
     }
-    public MapProperty<String, Object> applicationPropertiesProperty() { return applicationProperties; }
     
     // Métodos utilitários
     public String getMessageBodyPreview() {
-        String body = getMessageBody();
-        if (body == null || body.isEmpty()) {
-            return "Mensagem vazia";
-        }
-        
-        if (body.length() <= 100) {
-            return body;
-        }
-        
-        return body.substring(0, 100) + "...";
+        MessageBody body = getBody();
+        return body == null || body.isEmpty() ? "Mensagem vazia" : body.getPreview();
     }
     
     public String getFormattedEnqueuedTime() {
@@ -152,7 +190,7 @@ public class MessageInfo {
     
     public String getApplicationPropertiesAsString() {
         Map<String, Object> props = getApplicationProperties();
-        if (props == null || props.isEmpty()) {
+        if (props.isEmpty()) {
             return "{}";
         }
         
@@ -190,18 +228,33 @@ public class MessageInfo {
     }
     
     public void addApplicationProperty(String key, Object value) {
-        if (applicationProperties.get() == null) {
-            applicationProperties.set(FXCollections.observableHashMap());
-        }
-        applicationProperties.get().put(key, value);
+        Map<String, Object> properties = new LinkedHashMap<>(getApplicationProperties());
+        properties.put(key, value);
+        setApplicationProperties(properties);
     }
     
     public void removeApplicationProperty(String key) {
-        if (applicationProperties.get() != null) {
-            applicationProperties.get().remove(key);
+        Map<String, Object> properties = new LinkedHashMap<>(getApplicationProperties());
+        if (properties.remove(key) != null) {
+            setApplicationProperties(properties);
         }
     }
     
+    private LocalDateTime getTime(TimeColumn column) {
+        long epochMillis = chunk.getTime(column, index);
+        return epochMillis == MessageStore.NO_TIME 
+            ? null 
+            : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    private void setTime(TimeColumn column, LocalDateTime time) {
+        setTime(column, time != null ? time.atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+    
+    private void setTime(TimeColumn column, Instant time) {
+        chunk.setTime(column, index, time != null ? time.toEpochMilli() : MessageStore.NO_TIME);
+    }
+    
     @Override
     public String toString() {
         return String.format("MessageInfo{sequenceNumber=%d, messageId='%s', contentType='%s', sizeInBytes=%d}",
@@ -0,0 +1,180 @@
+package com.azureservicebus.manager.model;
+
+import com.azureservicebus.manager.util.StringPool;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Armazenamento colunar das mensagens espiadas ou recebidas.
+ *
+ * Em vez de um objeto com uma property JavaFX por campo, cada mensagem é uma linha em blocos de
+ * arrays primitivos (sequence number, tempos em epoch millis, delivery count, tamanho) e de
+ * strings deduplicadas; o {@link MessageInfo} da tabela é só uma vista (bloco + índice).
+ * Colunas opcionais só são alocadas num bloco quando alguma linha as preenche, e os corpos
+ * ficam à parte como {@link MessageBody}.
+ *
+ * O store só guarda o bloco que está a ser preenchido: os blocos anteriores vivem enquanto
+ * houver linhas que os referenciem, por isso descartar as mensagens da tabela liberta a memória.
+ */
+public final class MessageStore {
+    
+    public static final int CHUNK_SIZE = 1024;
+    
+    static final long NO_TIME = Long.MIN_VALUE;
+    
+    enum StringColumn {
+        MESSAGE_ID(false),
+        CONTENT_TYPE(true),
+        CORRELATION_ID(false),
+        SESSION_ID(true),
+        REPLY_TO(true),
+        SUBJECT(true),
+        LOCK_TOKEN(false),
+        DEAD_LETTER_REASON(true),
+        DEAD_LETTER_DESCRIPTION(true);
+        
+        // Valores que costumam repetir-se entre mensagens são deduplicados
+        final boolean pooled;
+        
+        StringColumn(boolean pooled) {
+            this.pooled = pooled;
+        }
+    }
+    
+    enum TimeColumn {
+        ENQUEUED,
+        SCHEDULED_ENQUEUE,
+        EXPIRES_AT,
+        LOCKED_UNTIL
+    }
+    
+    private final StringPool strings;
+    private Chunk current;
+    
+    public MessageStore() {
+        this(new StringPool());
+    }
+    
+    public MessageStore(StringPool strings) {
+        this.strings = strings;
+    }
+    
+    /**
+     * Acrescenta uma linha vazia e devolve a sua vista. Linhas consecutivas do mesmo bloco podem
+     * ser preenchidas em paralelo por threads diferentes; cada linha só deve ser escrita pela
+     * thread que a criou e só deve ser publicada para a interface depois de preenchida.
+     */
+    public synchronized MessageInfo append() {
+        if (current == null || current.size == current.capacity) {
+            current = new Chunk(CHUNK_SIZE, strings);
+        }
+        return new MessageInfo(current, current.size++);
+    }
+    
+    /**
+     * Larga o bloco em escrita. Blocos antigos só ficam vivos enquanto alguma linha os referenciar.
+     */
+    public synchronized void clear() {
+        current = null;
+    }
+    
+    /**
+     * Bloco de linhas com colunas em arrays
+     */
+    static final class Chunk {
+        
+        final int capacity;
+        final StringPool strings;
+        int size;
+        
+        final long[] sequenceNumbers;
+        final int[] deliveryCounts;
+        final int[] sizes;
+        final MessageBody[] bodies;
+        
+        // Alocadas na primeira escrita com compareAndSet: o bloco é partilhado pelas threads que
+        // preenchem as suas linhas, e duas alocações concorrentes perderiam os valores de uma delas
+        private final AtomicReferenceArray<String[]> stringColumns = new AtomicReferenceArray<>(StringColumn.values().length);
+        private final AtomicReferenceArray<long[]> timeColumns = new AtomicReferenceArray<>(TimeColumn.values().length);
+        private final AtomicReference<Object[][]> properties = new AtomicReference<>();
+        
+        Chunk(int capacity, StringPool strings) {
+            this.capacity = capacity;
+            this.strings = strings;
+            this.sequenceNumbers = new long[capacity];
+            this.deliveryCounts = new int[capacity];
+            this.sizes = new int[capacity];
+            this.bodies = new MessageBody[capacity];
+        }
+        
+        /**
+         * Bloco de uma só linha, para mensagens criadas fora de um store
+         */
+        static Chunk single() {
+            Chunk chunk = new Chunk(1, null);
+            chunk.size = 1;
+            return chunk;
+        }
+        
+        String getString(StringColumn column, int index) {
+            String[] values = stringColumns.get(column.ordinal());
+            return values != null ? values[index] : null;
+        }
+        
+        void setString(StringColumn column, int index, String value) {
+            String[] values = stringColumns.get(column.ordinal());
+            if (values == null) {
+                if (value == null) {
+                    return;
+                }
+                stringColumns.compareAndSet(column.ordinal(), null, new String[capacity]);
+                values = stringColumns.get(column.ordinal());
+            }
+            values[index] = column.pooled ? dedupe(value) : value;
+        }
+        
+        // Os tempos são guardados com o bit de sinal invertido para que NO_TIME seja o zero do array:
+        // uma coluna alocada por outra thread nunca mostra um tempo falso nas linhas já publicadas
+        long getTime(TimeColumn column, int index) {
+            long[] values = timeColumns.get(column.ordinal());
+            return values != null ? values[index] ^ NO_TIME : NO_TIME;
+        }
+        
+        void setTime(TimeColumn column, int index, long epochMillis) {
+            long[] values = timeColumns.get(column.ordinal());
+            if (values == null) {
+                if (epochMillis == NO_TIME) {
+                    return;
+                }
+                timeColumns.compareAndSet(column.ordinal(), null, new long[capacity]);
+                values = timeColumns.get(column.ordinal());
+            }
+            values[index] = epochMillis ^ NO_TIME;
+        }
+        
+        /**
+         * Propriedades como array de pares chave/valor, ou null se a mensagem não tem propriedades
+         */
+        Object[] getProperties(int index) {
+            Object[][] values = properties.get();
+            return values != null ? values[index] : null;
+        }
+        
+        void setProperties(int index, Object[] keyValues) {
+            Object[][] values = properties.get();
+            if (values == null) {
+                if (keyValues == null) {
+                    return;
+                }
+                properties.compareAndSet(null, new Object[capacity][]);
+                values = properties.get();
+            }
+            values[index] = keyValues;
+        }
+        
+        String dedupe(String value) {
+            return strings != null ? strings.dedupe(value) : value;
+        }
+    }
+}
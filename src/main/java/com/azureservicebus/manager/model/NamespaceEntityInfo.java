@@ -0,0 +1,148 @@
+package com.azureservicebus.manager.model;
+
+import javafx.beans.property.*;
+import java.time.LocalDateTime;
+
+/**
+ * Linha do inventário do namespace: propriedades estáticas da listagem
+ * e contagens de runtime de uma fila ou tópico
+ */
+public class NamespaceEntityInfo {
+    
+    /**
+     * Estado do carregamento das propriedades de runtime
+     */
+    public enum LoadState {
+        PENDING("⏳ Pendente"),
+        LOADED("✅ OK"),
+        FAILED("❌ Erro"),
+        STALE("🕓 Cache");
+        
+        private final String displayName;
+        
+        LoadState(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    private final EntityPath.Type type;
+    private final StringProperty name = new SimpleStringProperty();
+    private final StringProperty status = new SimpleStringProperty();
+    private final LongProperty totalMessages = new SimpleLongProperty();
+    private final LongProperty activeMessages = new SimpleLongProperty();
+    private final LongProperty deadLetterMessages = new SimpleLongProperty();
+    private final LongProperty scheduledMessages = new SimpleLongProperty();
+    private final DoubleProperty sizeInKB = new SimpleDoubleProperty();
+    private final LongProperty maxSizeInMB = new SimpleLongProperty();
+    private final IntegerProperty subscriptionCount = new SimpleIntegerProperty();
+    private final ObjectProperty<LocalDateTime> updatedAt = new SimpleObjectProperty<>();
+    private final ObjectProperty<LoadState> loadState = new SimpleObjectProperty<>(LoadState.PENDING);
+    private final StringProperty errorMessage = new SimpleStringProperty();
+    
+    public NamespaceEntityInfo(EntityPath.Type type, String name) {
+        this.type = type;
+        setName(name);
+    }
+    
+    public EntityPath.Type getType() { return type; }
+    
+    public String getTypeText() {
+        return type == EntityPath.Type.TOPIC ? "Tópico" : "Fila";
+    }
+    
+    public EntityPath getEntityPath() {
+        return type == EntityPath.Type.TOPIC ? EntityPath.topic(getName()) : EntityPath.queue(getName());
+    }
+    
+    /**
+     * Chave única da entidade no namespace (filas e tópicos podem ter o mesmo nome)
+     */
+    public String getKey() {
+        return type + ":" + getName();
+    }
+    
+    // Getters e Setters para Properties
+    public String getName() { return name.get(); }
+    public void setName(String name) { this.name.set(name); }
+    public StringProperty nameProperty() { return name; }
+    
+    public String getStatus() { return status.get(); }
+    public void setStatus(String status) { this.status.set(status); }
+    public StringProperty statusProperty() { return status; }
+    
+    public long getTotalMessages() { return totalMessages.get(); }
+    public void setTotalMessages(long totalMessages) { this.totalMessages.set(totalMessages); }
+    public LongProperty totalMessagesProperty() { return totalMessages; }
+    
+    public long getActiveMessages() { return activeMessages.get(); }
+    public void setActiveMessages(long activeMessages) { this.activeMessages.set(activeMessages); }
+    public LongProperty activeMessagesProperty() { return activeMessages; }
+    
+    public long getDeadLetterMessages() { return deadLetterMessages.get(); }
+    public void setDeadLetterMessages(long deadLetterMessages) { this.deadLetterMessages.set(deadLetterMessages); }
+    public LongProperty deadLetterMessagesProperty() { return deadLetterMessages; }
+    
+    public long getScheduledMessages() { return scheduledMessages.get(); }
+    public void setScheduledMessages(long scheduledMessages) { this.scheduledMessages.set(scheduledMessages); }
+    public LongProperty scheduledMessagesProperty() { return scheduledMessages; }
+    
+    public double getSizeInKB() { return sizeInKB.get(); }
+    public void setSizeInKB(double sizeInKB) { this.sizeInKB.set(sizeInKB); }
+    public DoubleProperty sizeInKBProperty() { return sizeInKB; }
+    
+    public long getMaxSizeInMB() { return maxSizeInMB.get(); }
+    public void setMaxSizeInMB(long maxSizeInMB) { this.maxSizeInMB.set(maxSizeInMB); }
+    public LongProperty maxSizeInMBProperty() { return maxSizeInMB; }
+    
+    public int getSubscriptionCount() { return subscriptionCount.get(); }
+    public void setSubscriptionCount(int subscriptionCount) { this.subscriptionCount.set(subscriptionCount); }
+    public IntegerProperty subscriptionCountProperty() { return subscriptionCount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt.get(); }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt.set(updatedAt); }
+    public ObjectProperty<LocalDateTime> updatedAtProperty() { return updatedAt; }
+    
+    public LoadState getLoadState() { return loadState.get(); }
+    public void setLoadState(LoadState loadState) { this.loadState.set(loadState); }
+    public ObjectProperty<LoadState> loadStateProperty() { return loadState; }
+    
+    public String getErrorMessage() { return errorMessage.get(); }
+    public void setErrorMessage(String errorMessage) { this.errorMessage.set(errorMessage); }
+    public StringProperty errorMessageProperty() { return errorMessage; }
+    
+    /**
+     * Copia todos os valores de outra leitura da mesma entidade
+     */
+    public void updateFrom(NamespaceEntityInfo other) {
+        setStatus(other.getStatus());
+        setTotalMessages(other.getTotalMessages());
+        setActiveMessages(other.getActiveMessages());
+        setDeadLetterMessages(other.getDeadLetterMessages());
+        setScheduledMessages(other.getScheduledMessages());
+        setSizeInKB(other.getSizeInKB());
+        setMaxSizeInMB(other.getMaxSizeInMB());
+        setSubscriptionCount(other.getSubscriptionCount());
+        setUpdatedAt(other.getUpdatedAt());
+        setLoadState(other.getLoadState());
+        setErrorMessage(other.getErrorMessage());
+    }
+    
+    /**
+     * Copia apenas as propriedades da listagem, mantendo as contagens já conhecidas
+     * (usado quando a entidade volta a ser listada antes de as contagens chegarem)
+     */
+    public void updateStaticFrom(NamespaceEntityInfo other) {
+        setStatus(other.getStatus());
+        setMaxSizeInMB(other.getMaxSizeInMB());
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("NamespaceEntityInfo{type=%s, name='%s', activeMessages=%d, deadLetterMessages=%d}",
+                type, getName(), getActiveMessages(), getDeadLetterMessages());
+    }
+}
@@ -0,0 +1,84 @@
+package com.azureservicebus.manager.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Último estado conhecido do namespace de um perfil: nomes das filas e tópicos e as linhas
+ * do inventário com as contagens de runtime. É mostrado como cache ao abrir o perfil,
+ * antes de a listagem real terminar.
+ */
+public final class NamespaceSnapshot {
+    
+    /**
+     * Linha do inventário sem properties JavaFX, para ser lida e gravada fora da thread de UI
+     */
+    public record Entry(EntityPath.Type type, String name, String status, long totalMessages, long activeMessages,
+                        long deadLetterMessages, long scheduledMessages, double sizeInKB, long maxSizeInMB,
+                        int subscriptionCount, long updatedAtMillis) {
+                        
+        public static Entry from(NamespaceEntityInfo info) {
+            LocalDateTime updatedAt = info.getUpdatedAt();
+            return new Entry(info.getType(), info.getName(), info.getStatus(), info.getTotalMessages(),
+                info.getActiveMessages(), info.getDeadLetterMessages(), info.getScheduledMessages(),
+                info.getSizeInKB(), info.getMaxSizeInMB(), info.getSubscriptionCount(),
+                updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1);
+        }
+        
+        /**
+         * Cria a linha do inventário marcada como cache
+         */
+        public NamespaceEntityInfo toEntityInfo() {
+            NamespaceEntityInfo info = new NamespaceEntityInfo(type, name);
+            info.setStatus(status);
+            info.setTotalMessages(totalMessages);
+            info.setActiveMessages(activeMessages);
+            info.setDeadLetterMessages(deadLetterMessages);
+            info.setScheduledMessages(scheduledMessages);
+            info.setSizeInKB(sizeInKB);
+            info.setMaxSizeInMB(maxSizeInMB);
+            info.setSubscriptionCount(subscriptionCount);
+            if (updatedAtMillis >= 0) {
+                info.setUpdatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(updatedAtMillis), ZoneId.systemDefault()));
+            }
+            info.setLoadState(NamespaceEntityInfo.LoadState.STALE);
+            return info;
+        }
+    }
+    
+    private final long savedAtMillis;
+    private final List<String> queueNames;
+    private final List<String> topicNames;
+    private final List<Entry> entries;
+    
+    public NamespaceSnapshot(long savedAtMillis, List<String> queueNames, List<String> topicNames, List<Entry> entries) {
+        this.savedAtMillis = savedAtMillis;
+        this.queueNames = List.copyOf(queueNames);
+        this.topicNames = List.copyOf(topicNames);
+        this.entries = List.copyOf(entries);
+    }
+    
+    public long getSavedAtMillis() { return savedAtMillis; }
+    
+    public LocalDateTime getSavedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(savedAtMillis), ZoneId.systemDefault());
+    }
+    
+    public List<String> getQueueNames() { return queueNames; }
+    
+    public List<String> getTopicNames() { return topicNames; }
+    
+    public List<Entry> getEntries() { return entries; }
+    
+    public boolean isEmpty() {
+        return queueNames.isEmpty() && topicNames.isEmpty() && entries.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("NamespaceSnapshot{queues=%d, topics=%d, entries=%d}",
+                queueNames.size(), topicNames.size(), entries.size());
+    }
+}
@@ -0,0 +1,161 @@
+package com.azureservicebus.manager.model;
+
+/**
+ * Fotografia imutável do progresso de uma operação em massa
+ * (envio, limpeza, exportação, reenvio de mensagens, etc.)
+ */
+public final class OperationProgress {
+    
+    private final long processed;
+    private final long failed;
+    private final long total;
+    private final long elapsedNanos;
+    private final long batches;
+    private final double lastBatchLatencyMillis;
+    private final double averageBatchLatencyMillis;
+    private final boolean finished;
+    private final boolean cancelled;
+    private final String stopReason;
+    
+    public OperationProgress(long processed, long failed, long total, long elapsedNanos, long batches,
+                             double lastBatchLatencyMillis, double averageBatchLatencyMillis,
+                             boolean finished, boolean cancelled, String stopReason) {
+        this.processed = processed;
+        this.failed = failed;
+        this.total = total;
+        this.elapsedNanos = elapsedNanos;
+        this.batches = batches;
+        this.lastBatchLatencyMillis = lastBatchLatencyMillis;
+        this.averageBatchLatencyMillis = averageBatchLatencyMillis;
+        this.finished = finished;
+        this.cancelled = cancelled;
+        this.stopReason = stopReason;
+    }
+    
+    public long getProcessed() { return processed; }
+    
+    public long getFailed() { return failed; }
+    
+    /**
+     * Total esperado de itens, ou valor negativo quando desconhecido
+     */
+    public long getTotal() { return total; }
+    
+    public long getElapsedNanos() { return elapsedNanos; }
+    
+    public long getBatches() { return batches; }
+    
+    public double getLastBatchLatencyMillis() { return lastBatchLatencyMillis; }
+    
+    public double getAverageBatchLatencyMillis() { return averageBatchLatencyMillis; }
+    
+    public boolean isFinished() { return finished; }
+    
+    public boolean isCancelled() { return cancelled; }
+    
+    /**
+     * Indica que a operação parou antes de processar tudo por um motivo que não o cancelamento
+     * (ex.: limite de mensagens retidas); os itens restantes ficaram por processar
+     */
+    public boolean isIncomplete() { return stopReason != null; }
+    
+    /**
+     * Motivo da paragem antecipada, ou null quando a operação não parou antes do fim
+     */
+    public String getStopReason() { return stopReason; }
+    
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1_000_000_000.0;
+    }
+    
+    /**
+     * Itens processados por segundo desde o início da operação
+     */
+    public double getRatePerSecond() {
+        double seconds = getElapsedSeconds();
+        return seconds > 0 ? processed / seconds : 0;
+    }
+    
+    /**
+     * Fração concluída entre 0 e 1, ou -1 quando o total é desconhecido
+     */
+    public double getFraction() {
+        if (total <= 0) {
+            return total == 0 ? 1.0 : -1.0;
+        }
+        return Math.min(1.0, (double) processed / total);
+    }
+    
+    /**
+     * Tempo restante estimado em segundos, ou -1 quando não é possível estimar
+     */
+    public long getEtaSeconds() {
+        double rate = getRatePerSecond();
+        if (total < 0 || rate <= 0) {
+            return -1;
+        }
+        return (long) Math.ceil(Math.max(0, total - processed) / rate);
+    }
+    
+    /**
+     * Resumo legível para a interface, com a taxa em mensagens por segundo
+     */
+    public String getSummary() {
+        return getSummary("msg/s");
+    }
+    
+    /**
+     * Resumo legível para a interface, com a unidade de taxa indicada (ex.: "entidades/s")
+     */
+    public String getSummary(String rateUnit) {
+        StringBuilder summary = new StringBuilder();
+        
+        if (total >= 0) {
+            summary.append(String.format("%,d / %,d", processed, total));
+        } else {
+            summary.append(String.format("%,d", processed));
+        }
+        summary.append(String.format(" • %,.0f %s • %s decorridos", 
+            getRatePerSecond(), rateUnit, formatDuration((long) getElapsedSeconds())));
+        
+        long eta = getEtaSeconds();
+        if (!finished && eta >= 0) {
+            summary.append(" • ETA ").append(formatDuration(eta));
+        }
+        
+        if (failed > 0) {
+            summary.append(String.format(" • %,d falhas", failed));
+        }
+        
+        if (stopReason != null) {
+            summary.append(" • interrompida: ").append(stopReason);
+        }
+        
+        return summary.toString();
+    }
+    
+    /**
+     * Resumo da latência por lote, vazio quando a operação não trabalha com lotes
+     */
+    public String getBatchSummary() {
+        if (batches == 0) {
+            return "";
+        }
+        return String.format("%,d lotes • último lote %.0f ms • média %.0f ms",
+            batches, lastBatchLatencyMillis, averageBatchLatencyMillis);
+    }
+    
+    private static String formatDuration(long totalSeconds) {
+        long hours = totalSeconds / 3600;
+        long minutes = (totalSeconds % 3600) / 60;
+        long seconds = totalSeconds % 60;
+        return hours > 0
+            ? String.format("%d:%02d:%02d", hours, minutes, seconds)
+            : String.format("%02d:%02d", minutes, seconds);
+    }
+    
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -27,6 +27,7 @@ public class QueueInfo {
     private final StringProperty defaultMessageTimeToLive = new SimpleStringProperty();
     private final ObjectProperty<LocalDateTime> createdAt = new SimpleObjectProperty<>();
     private final ObjectProperty<LocalDateTime> updatedAt = new SimpleObjectProperty<>();
+    private final StringProperty trend = new SimpleStringProperty("");
     
     // Construtores
     public QueueInfo() {}
@@ -60,6 +61,13 @@ public class QueueInfo {
     public void setScheduledMessages(long scheduledMessages) { this.scheduledMessages.set(scheduledMessages); }
     public LongProperty scheduledMessagesProperty() { return scheduledMessages; }
     
+    /**
+     * Tendência das contagens derivada das amostras em segundo plano (ex.: "Ativas ▲ +120/min • DLQ → 0/min")
+     */
+    public String getTrend() { return trend.get(); }
+    public void setTrend(String trend) { this.trend.set(trend); }
+    public StringProperty trendProperty() { return trend; }
+    
     public double getSizeInKB() { return sizeInKB.get(); }
     public void setSizeInKB(double sizeInKB) { this.sizeInKB.set(sizeInKB); }
     public DoubleProperty sizeInKBProperty() { return sizeInKB; }
@@ -0,0 +1,57 @@
+package com.azureservicebus.manager.model;
+
+/**
+ * Opções do reenvio de mensagens da dead letter queue para a entidade de origem
+ */
+public class ResubmitOptions {
+    
+    private long maxCount;                 // 0 = todas as mensagens
+    private String reasonContains;         // filtro pelo DeadLetterReason (vazio = sem filtro)
+    private String bodyContains;           // filtro pelo corpo (vazio = sem filtro)
+    private boolean stripDeadLetterHeaders;
+    private int concurrency;
+    
+    /**
+     * Construtor com valores padrão: todas as mensagens, sem filtros, sem cabeçalhos de dead letter
+     */
+    public ResubmitOptions() {
+        this.maxCount = 0;
+        this.stripDeadLetterHeaders = true;
+        this.concurrency = 4;
+    }
+    
+    public long getMaxCount() { return maxCount; }
+    public void setMaxCount(long maxCount) { this.maxCount = maxCount; }
+    
+    public String getReasonContains() { return reasonContains; }
+    public void setReasonContains(String reasonContains) { this.reasonContains = reasonContains; }
+    
+    public String getBodyContains() { return bodyContains; }
+    public void setBodyContains(String bodyContains) { this.bodyContains = bodyContains; }
+    
+    public boolean isStripDeadLetterHeaders() { return stripDeadLetterHeaders; }
+    public void setStripDeadLetterHeaders(boolean stripDeadLetterHeaders) { this.stripDeadLetterHeaders = stripDeadLetterHeaders; }
+    
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+    
+    public boolean hasFilter() {
+        return (reasonContains != null && !reasonContains.isBlank()) 
+            || (bodyContains != null && !bodyContains.isBlank());
+    }
+    
+    /**
+     * Resumo legível das opções, para o log e o diálogo de progresso
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(maxCount > 0 ? String.format("até %,d mensagens", maxCount) : "todas as mensagens");
+        if (reasonContains != null && !reasonContains.isBlank()) {
+            summary.append(String.format(", motivo contém '%s'", reasonContains));
+        }
+        if (bodyContains != null && !bodyContains.isBlank()) {
+            summary.append(String.format(", corpo contém '%s'", bodyContains));
+        }
+        summary.append(stripDeadLetterHeaders ? ", sem cabeçalhos de dead letter" : ", mantendo cabeçalhos de dead letter");
+        return summary.toString();
+    }
+}
@@ -27,6 +27,7 @@ public class SubscriptionInfo {
     private long scheduledMessages;
     private long transferMessageCount;
     private long transferDeadLetterMessageCount;
+    private String trend = "";
     
     // Timestamps
     private LocalDateTime createdAt;
@@ -176,6 +177,17 @@ public class SubscriptionInfo {
         this.transferDeadLetterMessageCount = transferDeadLetterMessageCount;
     }
     
+    /**
+     * Tendência das contagens derivada das amostras em segundo plano
+     */
+    public String getTrend() {
+        return trend;
+    }
+    
+    public void setTrend(String trend) {
+        this.trend = trend;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,143 @@
+package com.azureservicebus.manager.model;
+
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Opções da cópia ou movimentação de mensagens entre entidades do mesmo namespace
+ */
+public class TransferOptions {
+    
+    /**
+     * Modos de transferência
+     */
+    public enum Mode {
+        COPY("Copiar"),
+        MOVE("Mover");
+        
+        private final String displayName;
+        
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() { return displayName; }
+        
+        @Override
+        public String toString() { return displayName; }
+    }
+    
+    private Mode mode;
+    private EntityPath target;
+    private NavigableSet<Long> sequenceNumbers; // mensagens selecionadas (null = intervalo)
+    private long fromSequenceNumber;
+    private long toSequenceNumber;
+    private long maxCount;                 // 0 = sem limite
+    private int concurrency;
+    
+    /**
+     * Construtor com valores padrão: cópia de todas as mensagens com 4 workers
+     */
+    public TransferOptions() {
+        this.mode = Mode.COPY;
+        this.fromSequenceNumber = 0;
+        this.toSequenceNumber = Long.MAX_VALUE;
+        this.maxCount = 0;
+        this.concurrency = 4;
+    }
+    
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+    
+    public EntityPath getTarget() { return target; }
+    public void setTarget(EntityPath target) { this.target = target; }
+    
+    public Set<Long> getSequenceNumbers() { return sequenceNumbers; }
+    public void setSequenceNumbers(Set<Long> sequenceNumbers) {
+        this.sequenceNumbers = sequenceNumbers != null ? new TreeSet<>(sequenceNumbers) : null;
+    }
+    
+    public long getFromSequenceNumber() { return fromSequenceNumber; }
+    public void setFromSequenceNumber(long fromSequenceNumber) { this.fromSequenceNumber = fromSequenceNumber; }
+    
+    public long getToSequenceNumber() { return toSequenceNumber; }
+    public void setToSequenceNumber(long toSequenceNumber) { this.toSequenceNumber = toSequenceNumber; }
+    
+    public long getMaxCount() { return maxCount; }
+    public void setMaxCount(long maxCount) { this.maxCount = maxCount; }
+    
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+    
+    public boolean isMove() {
+        return mode == Mode.MOVE;
+    }
+    
+    public boolean hasSelection() {
+        return sequenceNumbers != null;
+    }
+    
+    /**
+     * Indica se a mensagem com o sequence number indicado faz parte da seleção
+     */
+    public boolean matches(long sequenceNumber) {
+        if (sequenceNumbers != null) {
+            return sequenceNumbers.contains(sequenceNumber);
+        }
+        return sequenceNumber >= fromSequenceNumber && sequenceNumber <= toSequenceNumber;
+    }
+    
+    /**
+     * Primeiro sequence number a considerar na leitura da origem
+     */
+    public long getFirstSequenceNumber() {
+        if (sequenceNumbers != null) {
+            return sequenceNumbers.isEmpty() ? 0 : sequenceNumbers.first();
+        }
+        return fromSequenceNumber;
+    }
+    
+    /**
+     * Último sequence number a considerar na leitura da origem
+     */
+    public long getLastSequenceNumber() {
+        if (sequenceNumbers != null) {
+            return sequenceNumbers.isEmpty() ? -1 : sequenceNumbers.last();
+        }
+        return toSequenceNumber;
+    }
+    
+    /**
+     * Número máximo de mensagens a transferir, ou -1 quando não é conhecido antes de ler a origem
+     */
+    public long getExpectedLimit() {
+        long limit = sequenceNumbers != null ? sequenceNumbers.size() : -1;
+        if (maxCount > 0) {
+            limit = limit < 0 ? maxCount : Math.min(limit, maxCount);
+        }
+        return limit;
+    }
+    
+    /**
+     * Resumo legível das opções, para o log e o diálogo de progresso
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder(mode.getDisplayName()).append(" ");
+        if (sequenceNumbers != null) {
+            summary.append(String.format("%,d mensagens selecionadas", sequenceNumbers.size()));
+        } else if (fromSequenceNumber > 0 || toSequenceNumber < Long.MAX_VALUE) {
+            summary.append(String.format("sequence numbers %s a %s", fromSequenceNumber, 
+                toSequenceNumber < Long.MAX_VALUE ? Long.toString(toSequenceNumber) : "fim"));
+        } else {
+            summary.append("todas as mensagens");
+        }
+        if (maxCount > 0) {
+            summary.append(String.format(" (até %,d)", maxCount));
+        }
+        if (target != null) {
+            summary.append(" para '").append(target).append("'");
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.azureservicebus.manager.rules;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Critérios de um CorrelationRuleFilter: todas as propriedades indicadas têm de ser iguais
+ * (propriedades de sistema como texto exato, propriedades da aplicação pelo valor)
+ */
+public final class CorrelationCriteria {
+    
+    // Ordem de preferência para indexar a rule: propriedades com valores mais seletivos primeiro
+    // (To e ReplyToSessionId não são carregados, por isso nunca servem de índice)
+    private static final List<SystemProperty> INDEX_PREFERENCE = List.of(
+        SystemProperty.LABEL, SystemProperty.CORRELATION_ID, SystemProperty.MESSAGE_ID,
+        SystemProperty.SESSION_ID, SystemProperty.REPLY_TO, SystemProperty.CONTENT_TYPE);
+    
+    private final Map<SystemProperty, String> system;
+    private final Map<String, Object> properties;
+    
+    public CorrelationCriteria(Map<SystemProperty, String> system, Map<String, Object> properties) {
+        Map<SystemProperty, String> systemCopy = new EnumMap<>(SystemProperty.class);
+        if (system != null) {
+            system.forEach((property, value) -> {
+                if (value != null && !value.isEmpty()) {
+                    systemCopy.put(property, value);
+                }
+            });
+        }
+        Map<String, Object> propertiesCopy = new LinkedHashMap<>();
+        if (properties != null) {
+            properties.forEach((name, value) -> {
+                if (value != null) {
+                    propertiesCopy.put(name, SqlValues.normalize(value));
+                }
+            });
+        }
+        this.system = Collections.unmodifiableMap(systemCopy);
+        this.properties = Collections.unmodifiableMap(propertiesCopy);
+    }
+    
+    public Map<SystemProperty, String> getSystem() {
+        return system;
+    }
+    
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+    
+    public boolean isEmpty() {
+        return system.isEmpty() && properties.isEmpty();
+    }
+    
+    /**
+     * Propriedades de sistema exigidas pelos critérios que a aplicação não carrega
+     * (a rule não pode ser avaliada localmente se houver alguma)
+     */
+    public List<SystemProperty> getUnloadedProperties() {
+        return system.keySet().stream()
+            .filter(property -> !property.isLoaded())
+            .toList();
+    }
+    
+    public boolean matches(SqlMessage message) {
+        for (Map.Entry<SystemProperty, String> entry : system.entrySet()) {
+            if (!entry.getValue().equals(message.getSystemProperty(entry.getKey()))) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            Object value = message.getUserProperty(entry.getKey());
+            if (value == null || !SqlValues.key(value).equals(SqlValues.key(entry.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Propriedade e valor usados para indexar a rule (null se não houver critérios)
+     */
+    SqlCompiler.PropertyEquals indexKey() {
+        for (SystemProperty property : INDEX_PREFERENCE) {
+            String value = system.get(property);
+            if (value != null) {
+                return new SqlCompiler.PropertyEquals(new SqlCompiler.PropertyRef(property, null), value);
+            }
+        }
+        if (!system.isEmpty()) {
+            Map.Entry<SystemProperty, String> first = system.entrySet().iterator().next();
+            return new SqlCompiler.PropertyEquals(new SqlCompiler.PropertyRef(first.getKey(), null), first.getValue());
+        }
+        if (!properties.isEmpty()) {
+            Map.Entry<String, Object> first = properties.entrySet().iterator().next();
+            return new SqlCompiler.PropertyEquals(new SqlCompiler.PropertyRef(null, first.getKey()), first.getValue());
+        }
+        return null;
+    }
+    
+    @Override
+    public String toString() {
+        String systemPart = system.entrySet().stream()
+            .map(entry -> String.format("%s='%s'", entry.getKey().getPropertyName(), entry.getValue()))
+            .collect(Collectors.joining(" "));
+        String propertiesPart = properties.entrySet().stream()
+            .map(entry -> String.format("%s=%s", entry.getKey(), entry.getValue() instanceof String text 
+                ? "'" + text + "'" : entry.getValue()))
+            .collect(Collectors.joining(" "));
+        return (systemPart + " " + propertiesPart).trim();
+    }
+}
@@ -0,0 +1,123 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Resultado da simulação de encaminhamento de um conjunto de mensagens por um tópico
+ */
+public final class RoutingReport {
+    
+    private final TopicRoutingTable table;
+    private final List<MessageInfo> messages;
+    private final int[][] routes;
+    private final int[] copiesPerMessage;
+    private final long[] messagesPerSubscription;
+    private final long[] copiesPerSubscription;
+    private final long elapsedNanos;
+    
+    RoutingReport(TopicRoutingTable table, List<MessageInfo> messages, int[][] routes, int[] copiesPerMessage, 
+                  long[] copiesPerSubscription, long elapsedNanos) {
+        this.table = table;
+        this.messages = List.copyOf(messages);
+        this.routes = routes;
+        this.copiesPerMessage = copiesPerMessage;
+        this.elapsedNanos = elapsedNanos;
+        this.messagesPerSubscription = new long[table.getSubscriptions().size()];
+        this.copiesPerSubscription = copiesPerSubscription;
+        
+        for (int[] route : routes) {
+            for (int subscription : route) {
+                messagesPerSubscription[subscription]++;
+            }
+        }
+    }
+    
+    public TopicRoutingTable getTable() {
+        return table;
+    }
+    
+    public List<MessageInfo> getMessages() {
+        return messages;
+    }
+    
+    public int getMessageCount() {
+        return messages.size();
+    }
+    
+    /**
+     * Índices (em {@link TopicRoutingTable#getSubscriptions()}) das subscriptions que recebem a mensagem
+     */
+    public int[] getRoute(int message) {
+        return routes[message].clone();
+    }
+    
+    public String getRouteNames(int message) {
+        return IntStream.of(routes[message])
+            .mapToObj(table.getSubscriptions()::get)
+            .collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * Número de subscriptions que recebem a mensagem
+     */
+    public int getFanOut(int message) {
+        return routes[message].length;
+    }
+    
+    /**
+     * Número de cópias entregues para a mensagem (soma de todas as subscriptions)
+     */
+    public int getCopies(int message) {
+        return copiesPerMessage[message];
+    }
+    
+    public long getMessagesForSubscription(int subscription) {
+        return messagesPerSubscription[subscription];
+    }
+    
+    public long getCopiesForSubscription(int subscription) {
+        return copiesPerSubscription[subscription];
+    }
+    
+    public long getTotalCopies() {
+        long total = 0;
+        for (int copies : copiesPerMessage) {
+            total += copies;
+        }
+        return total;
+    }
+    
+    public long getUnroutedCount() {
+        return IntStream.range(0, routes.length).filter(i -> routes[i].length == 0).count();
+    }
+    
+    /**
+     * Número de mensagens por fan-out (quantidade de subscriptions atingidas)
+     */
+    public SortedMap<Integer, Integer> getFanOutHistogram() {
+        SortedMap<Integer, Integer> histogram = new TreeMap<>();
+        for (int[] route : routes) {
+            histogram.merge(route.length, 1, Integer::sum);
+        }
+        return histogram;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Resumo legível para a interface
+     */
+    public String getSummary() {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return String.format("%,d mensagens × %,d rules em %.2f s • %,d cópias entregues • %,d sem destino", 
+            messages.size(), table.getRuleCount(), seconds, getTotalCopies(), getUnroutedCount());
+    }
+}
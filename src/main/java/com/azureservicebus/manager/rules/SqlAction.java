@@ -0,0 +1,76 @@
+package com.azureservicebus.manager.rules;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ação SQL de rule compilada ({@code SET propriedade = expressão} e {@code REMOVE propriedade},
+ * separadas por ';'). As instruções são aplicadas por ordem sobre a camada de alterações da
+ * {@link SqlMessage}, sem modificar a mensagem carregada.
+ */
+public final class SqlAction {
+    
+    private static final int MAX_CACHED = 256;
+    
+    // LinkedHashMap em ordem de acesso: descarta as expressões menos usadas
+    private static final Map<String, SqlAction> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SqlAction> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    
+    private final String expression;
+    private final List<SqlCompiler.Statement> statements;
+    
+    private SqlAction(String expression, List<SqlCompiler.Statement> statements) {
+        this.expression = expression;
+        this.statements = List.copyOf(statements);
+    }
+    
+    /**
+     * Compila a ação (ou devolve a compilação em cache)
+     *
+     * @throws SqlSyntaxException se a ação for inválida
+     */
+    public static SqlAction compile(String expression) {
+        synchronized (cache) {
+            SqlAction cached = cache.get(expression);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        SqlAction action = new SqlAction(expression, SqlCompiler.compileAction(expression));
+        synchronized (cache) {
+            cache.put(expression, action);
+        }
+        return action;
+    }
+    
+    public String getExpression() {
+        return expression;
+    }
+    
+    /**
+     * Aplica as instruções à mensagem; cada instrução vê o resultado das anteriores
+     */
+    public void apply(SqlMessage message) {
+        for (SqlCompiler.Statement statement : statements) {
+            SqlCompiler.PropertyRef target = statement.target();
+            if (statement.remove()) {
+                message.removeUserProperty(target.user());
+            } else if (target.system() != null) {
+                message.setSystemProperty(target.system(), statement.value().eval(message));
+            } else {
+                message.setUserProperty(target.user(), statement.value().eval(message));
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,670 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.rules.SqlLexer.Token;
+import com.azureservicebus.manager.rules.SqlLexer.Type;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Analisador da gramática SQL dos filtros e ações de rules do Service Bus.
+ *
+ * A expressão é compilada diretamente numa árvore de avaliadores (sem AST intermédia);
+ * subexpressões constantes são calculadas uma única vez na compilação e padrões LIKE e
+ * listas IN constantes são preparados antecipadamente.
+ */
+final class SqlCompiler {
+    
+    /**
+     * Avaliador compilado; devolve o valor normalizado ou null (desconhecido)
+     */
+    @FunctionalInterface
+    interface SqlExpr {
+        Object eval(SqlMessage message);
+    }
+    
+    /**
+     * Valor conhecido na compilação
+     */
+    record Constant(Object value) implements SqlExpr {
+        @Override
+        public Object eval(SqlMessage message) {
+            return value;
+        }
+    }
+    
+    /**
+     * Referência a uma propriedade ({@code sys.Nome}, {@code user.Nome} ou só {@code Nome})
+     */
+    record PropertyRef(SystemProperty system, String user) implements SqlExpr {
+        @Override
+        public Object eval(SqlMessage message) {
+            return system != null ? message.getSystemProperty(system) : message.getUserProperty(user);
+        }
+        
+        String displayName() {
+            return system != null ? "sys." + system.getPropertyName() : "user." + user;
+        }
+    }
+    
+    /**
+     * Igualdade entre uma propriedade e uma constante; permite indexar a rule pelo valor
+     */
+    record PropertyEquals(PropertyRef property, Object value) implements SqlExpr {
+        @Override
+        public Object eval(SqlMessage message) {
+            Integer c = SqlValues.compare(property.eval(message), value);
+            return c == null ? null : c == 0;
+        }
+    }
+    
+    /**
+     * Conjunção com lógica de três valores
+     */
+    record And(SqlExpr left, SqlExpr right) implements SqlExpr {
+        @Override
+        public Object eval(SqlMessage message) {
+            Object x = left.eval(message);
+            if (Boolean.FALSE.equals(x)) {
+                return Boolean.FALSE;
+            }
+            Object y = right.eval(message);
+            if (Boolean.FALSE.equals(y)) {
+                return Boolean.FALSE;
+            }
+            return Boolean.TRUE.equals(x) && Boolean.TRUE.equals(y) ? Boolean.TRUE : null;
+        }
+    }
+    
+    /**
+     * Filtro compilado e todas as propriedades que a expressão referencia
+     */
+    record CompiledFilter(SqlExpr expr, Set<PropertyRef> properties) {
+    }
+    
+    /**
+     * Instrução de uma SqlRuleAction
+     */
+    record Statement(PropertyRef target, SqlExpr value, boolean remove) {
+    }
+    
+    private final List<Token> tokens;
+    private final Set<PropertyRef> properties = new LinkedHashSet<>();
+    private int index;
+    
+    private SqlCompiler(String text) {
+        this.tokens = SqlLexer.tokenize(text);
+    }
+    
+    static CompiledFilter compileFilter(String text) {
+        SqlCompiler compiler = new SqlCompiler(requireText(text));
+        int start = compiler.peek().position();
+        SqlExpr expr = compiler.parseOr();
+        compiler.expectEnd();
+        if (expr instanceof Constant constant && constant.value() != null && !(constant.value() instanceof Boolean)) {
+            throw new SqlSyntaxException("O filtro deve ser uma condição, não um valor " 
+                + SqlValues.typeName(constant.value()), start + 1);
+        }
+        return new CompiledFilter(expr, Collections.unmodifiableSet(compiler.properties));
+    }
+    
+    static List<Statement> compileAction(String text) {
+        SqlCompiler compiler = new SqlCompiler(requireText(text));
+        List<Statement> statements = new ArrayList<>();
+        
+        while (compiler.peek().type() != Type.END) {
+            statements.add(compiler.parseStatement());
+            if (compiler.peek().isSymbol(";")) {
+                compiler.index++;
+            } else {
+                compiler.expectEnd();
+            }
+        }
+        if (statements.isEmpty()) {
+            throw new SqlSyntaxException("A ação deve ter pelo menos uma instrução SET ou REMOVE", 1);
+        }
+        return statements;
+    }
+    
+    private static String requireText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new SqlSyntaxException("Expressão vazia", 1);
+        }
+        return text;
+    }
+    
+    // ==================== AÇÕES ====================
+    
+    private Statement parseStatement() {
+        Token token = next();
+        if (token.isKeyword("SET")) {
+            Token targetToken = peek();
+            PropertyRef target = parseProperty();
+            if (target.system() != null && !target.system().isSettable()) {
+                throw error(targetToken, target.displayName() + " não pode ser alterada por uma ação");
+            }
+            expectSymbol("=");
+            return new Statement(target, parseOr(), false);
+        }
+        if (token.isKeyword("REMOVE")) {
+            Token targetToken = peek();
+            PropertyRef target = parseProperty();
+            if (target.system() != null) {
+                throw error(targetToken, "Propriedades de sistema não podem ser removidas");
+            }
+            return new Statement(target, null, true);
+        }
+        throw error(token, "Instrução esperada (SET ou REMOVE)");
+    }
+    
+    // ==================== EXPRESSÕES LÓGICAS ====================
+    
+    private SqlExpr parseOr() {
+        SqlExpr left = parseAnd();
+        while (peek().isKeyword("OR")) {
+            index++;
+            SqlExpr a = left;
+            SqlExpr b = parseAnd();
+            left = fold(message -> {
+                Object x = a.eval(message);
+                if (Boolean.TRUE.equals(x)) {
+                    return Boolean.TRUE;
+                }
+                Object y = b.eval(message);
+                if (Boolean.TRUE.equals(y)) {
+                    return Boolean.TRUE;
+                }
+                return Boolean.FALSE.equals(x) && Boolean.FALSE.equals(y) ? Boolean.FALSE : null;
+            }, a, b);
+        }
+        return left;
+    }
+    
+    private SqlExpr parseAnd() {
+        SqlExpr left = parseNot();
+        while (peek().isKeyword("AND")) {
+            index++;
+            SqlExpr right = parseNot();
+            left = fold(new And(left, right), left, right);
+        }
+        return left;
+    }
+    
+    private SqlExpr parseNot() {
+        if (peek().isKeyword("NOT")) {
+            index++;
+            SqlExpr operand = parseNot();
+            return fold(message -> SqlValues.not(operand.eval(message)), operand);
+        }
+        return parsePredicate();
+    }
+    
+    private SqlExpr parsePredicate() {
+        if (peek().isKeyword("EXISTS")) {
+            index++;
+            expectSymbol("(");
+            PropertyRef property = parseProperty();
+            expectSymbol(")");
+            return message -> property.eval(message) != null;
+        }
+        
+        SqlExpr left = parseAdditive();
+        Token token = peek();
+        
+        if (token.type() == Type.SYMBOL && isComparison(token.text())) {
+            index++;
+            return comparison(token.text(), left, parseAdditive());
+        }
+        
+        if (token.isKeyword("IS")) {
+            index++;
+            boolean negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            return fold(message -> (left.eval(message) == null) != negated, left);
+        }
+        
+        boolean negated = false;
+        if (token.isKeyword("NOT")) {
+            Token following = tokens.get(index + 1);
+            if (following.isKeyword("LIKE") || following.isKeyword("IN") || following.isKeyword("BETWEEN")) {
+                index++;
+                negated = true;
+            }
+        }
+        
+        SqlExpr predicate;
+        if (acceptKeyword("LIKE")) {
+            predicate = parseLike(left);
+        } else if (acceptKeyword("IN")) {
+            predicate = parseIn(left);
+        } else if (acceptKeyword("BETWEEN")) {
+            SqlExpr low = parseAdditive();
+            expectKeyword("AND");
+            SqlExpr high = parseAdditive();
+            predicate = fold(message -> {
+                Object value = left.eval(message);
+                Integer lower = SqlValues.compare(value, low.eval(message));
+                Integer upper = SqlValues.compare(value, high.eval(message));
+                if (lower != null && lower < 0 || upper != null && upper > 0) {
+                    return Boolean.FALSE;
+                }
+                return lower == null || upper == null ? null : Boolean.TRUE;
+            }, left, low, high);
+        } else {
+            return left;
+        }
+        
+        if (!negated) {
+            return predicate;
+        }
+        SqlExpr positive = predicate;
+        return fold(message -> SqlValues.not(positive.eval(message)), positive);
+    }
+    
+    private SqlExpr comparison(String operator, SqlExpr left, SqlExpr right) {
+        if (operator.equals("=")) {
+            if (left instanceof PropertyRef property && right instanceof Constant constant && constant.value() != null) {
+                return new PropertyEquals(property, constant.value());
+            }
+            if (right instanceof PropertyRef property && left instanceof Constant constant && constant.value() != null) {
+                return new PropertyEquals(property, constant.value());
+            }
+        }
+        
+        SqlExpr expr = switch (operator) {
+            case "=" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c == 0;
+            };
+            case "<>", "!=" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c != 0;
+            };
+            case "<" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c < 0;
+            };
+            case "<=" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c <= 0;
+            };
+            case ">" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c > 0;
+            };
+            case ">=" -> message -> {
+                Integer c = SqlValues.compare(left.eval(message), right.eval(message));
+                return c == null ? null : c >= 0;
+            };
+            default -> throw new IllegalStateException("Operador desconhecido: " + operator);
+        };
+        return fold(expr, left, right);
+    }
+    
+    private SqlExpr parseLike(SqlExpr left) {
+        Token patternToken = next();
+        if (patternToken.type() != Type.STRING) {
+            throw error(patternToken, "O padrão de LIKE deve ser um texto entre aspas");
+        }
+        Character escape = null;
+        if (acceptKeyword("ESCAPE")) {
+            Token escapeToken = next();
+            if (escapeToken.type() != Type.STRING || escapeToken.text().length() != 1) {
+                throw error(escapeToken, "ESCAPE deve ser um único caractere entre aspas");
+            }
+            escape = escapeToken.text().charAt(0);
+        }
+        
+        LikePattern pattern = LikePattern.compile(patternToken.text(), escape);
+        return fold(message -> left.eval(message) instanceof String text ? pattern.matches(text) : null, left);
+    }
+    
+    private SqlExpr parseIn(SqlExpr left) {
+        expectSymbol("(");
+        List<SqlExpr> items = new ArrayList<>();
+        do {
+            items.add(parseAdditive());
+        } while (acceptSymbol(","));
+        expectSymbol(")");
+        
+        if (items.stream().allMatch(item -> item instanceof Constant)) {
+            Set<Object> keys = new HashSet<>();
+            for (SqlExpr item : items) {
+                Object value = ((Constant) item).value();
+                if (value != null) {
+                    keys.add(SqlValues.key(value));
+                }
+            }
+            return fold(message -> {
+                Object value = left.eval(message);
+                return value == null ? null : keys.contains(SqlValues.key(value));
+            }, left);
+        }
+        
+        return message -> {
+            Object value = left.eval(message);
+            if (value == null) {
+                return null;
+            }
+            for (SqlExpr item : items) {
+                Integer c = SqlValues.compare(value, item.eval(message));
+                if (c != null && c == 0) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        };
+    }
+    
+    // ==================== EXPRESSÕES ARITMÉTICAS ====================
+    
+    private SqlExpr parseAdditive() {
+        SqlExpr left = parseMultiplicative();
+        while (peek().isSymbol("+") || peek().isSymbol("-")) {
+            Token operator = next();
+            left = arithmetic(operator, left, parseMultiplicative());
+        }
+        return left;
+    }
+    
+    private SqlExpr parseMultiplicative() {
+        SqlExpr left = parseUnary();
+        while (peek().isSymbol("*") || peek().isSymbol("/") || peek().isSymbol("%")) {
+            Token operator = next();
+            left = arithmetic(operator, left, parseUnary());
+        }
+        return left;
+    }
+    
+    private SqlExpr arithmetic(Token operatorToken, SqlExpr left, SqlExpr right) {
+        char operator = operatorToken.text().charAt(0);
+        SqlExpr expr = fold(message -> SqlValues.arithmetic(operator, left.eval(message), right.eval(message)), left, right);
+        
+        // Tipos incompatíveis entre constantes são um erro de escrita, não um valor desconhecido
+        if (expr instanceof Constant result && result.value() == null 
+                && left instanceof Constant a && a.value() != null 
+                && right instanceof Constant b && b.value() != null
+                && !(a.value() instanceof Number && b.value() instanceof Number)) {
+            throw error(operatorToken, String.format("Operador '%c' não se aplica a %s e %s", 
+                operator, SqlValues.typeName(a.value()), SqlValues.typeName(b.value())));
+        }
+        return expr;
+    }
+    
+    private SqlExpr parseUnary() {
+        if (peek().isSymbol("-")) {
+            index++;
+            SqlExpr operand = parseUnary();
+            return fold(message -> SqlValues.negate(operand.eval(message)), operand);
+        }
+        if (peek().isSymbol("+")) {
+            index++;
+            return parseUnary();
+        }
+        return parsePrimary();
+    }
+    
+    private SqlExpr parsePrimary() {
+        Token token = peek();
+        
+        switch (token.type()) {
+            case INTEGER -> {
+                index++;
+                try {
+                    return new Constant(Long.parseLong(token.text()));
+                } catch (NumberFormatException e) {
+                    return new Constant(Double.parseDouble(token.text()));
+                }
+            }
+            case DECIMAL -> {
+                index++;
+                return new Constant(Double.parseDouble(token.text()));
+            }
+            case STRING -> {
+                index++;
+                return new Constant(token.text());
+            }
+            case KEYWORD -> {
+                if (acceptKeyword("TRUE")) {
+                    return new Constant(Boolean.TRUE);
+                }
+                if (acceptKeyword("FALSE")) {
+                    return new Constant(Boolean.FALSE);
+                }
+                if (acceptKeyword("NULL")) {
+                    return new Constant(null);
+                }
+                throw error(token, "Valor esperado antes de '" + token.text() + "'");
+            }
+            case SYMBOL -> {
+                if (acceptSymbol("(")) {
+                    SqlExpr inner = parseOr();
+                    expectSymbol(")");
+                    return inner;
+                }
+                throw error(token, "Valor esperado antes de '" + token.text() + "'");
+            }
+            case IDENTIFIER -> {
+                if (tokens.get(index + 1).isSymbol("(")) {
+                    return parseFunction();
+                }
+                return parseProperty();
+            }
+            case DELIMITED_IDENTIFIER -> {
+                return parseProperty();
+            }
+            default -> throw error(token, "Expressão incompleta");
+        }
+    }
+    
+    private SqlExpr parseFunction() {
+        Token name = next();
+        expectSymbol("(");
+        String function = name.text().toLowerCase(Locale.ROOT);
+        if (function.equals("newid")) {
+            expectSymbol(")");
+            return message -> UUID.randomUUID().toString();
+        }
+        throw error(name, "Função desconhecida: " + name.text());
+    }
+    
+    private PropertyRef parseProperty() {
+        Token token = next();
+        if (token.type() != Type.IDENTIFIER && token.type() != Type.DELIMITED_IDENTIFIER) {
+            throw error(token, "Nome de propriedade esperado");
+        }
+        
+        String scope = token.type() == Type.IDENTIFIER ? token.text().toLowerCase(Locale.ROOT) : null;
+        if (("sys".equals(scope) || "user".equals(scope)) && peek().isSymbol(".")) {
+            index++;
+            Token nameToken = next();
+            if (nameToken.type() != Type.IDENTIFIER && nameToken.type() != Type.DELIMITED_IDENTIFIER) {
+                throw error(nameToken, "Nome de propriedade esperado depois de '" + token.text() + ".'");
+            }
+            if (scope.equals("user")) {
+                return referenced(new PropertyRef(null, nameToken.text()));
+            }
+            SystemProperty property = SystemProperty.forName(nameToken.text());
+            if (property == null) {
+                throw error(nameToken, "Propriedade de sistema desconhecida: sys." + nameToken.text());
+            }
+            return referenced(new PropertyRef(property, null));
+        }
+        
+        if (peek().isSymbol(".")) {
+            throw error(peek(), "Prefixo de propriedade inválido: use sys. ou user.");
+        }
+        return referenced(new PropertyRef(null, token.text()));
+    }
+    
+    private PropertyRef referenced(PropertyRef property) {
+        properties.add(property);
+        return property;
+    }
+    
+    // ==================== AUXILIARES ====================
+    
+    /**
+     * Igualdade que tem de ser verdadeira para a expressão ser verdadeira (procura nos ramos de AND),
+     * ou null se não houver nenhuma
+     */
+    static PropertyEquals requiredEquality(SqlExpr expr) {
+        if (expr instanceof PropertyEquals equality) {
+            return equality;
+        }
+        if (expr instanceof And and) {
+            PropertyEquals left = requiredEquality(and.left());
+            return left != null ? left : requiredEquality(and.right());
+        }
+        return null;
+    }
+    
+    /**
+     * Substitui o avaliador por uma constante quando todos os operandos são constantes
+     */
+    private static SqlExpr fold(SqlExpr expr, SqlExpr... operands) {
+        for (SqlExpr operand : operands) {
+            if (!(operand instanceof Constant)) {
+                return expr;
+            }
+        }
+        return new Constant(expr.eval(null));
+    }
+    
+    private static boolean isComparison(String symbol) {
+        return switch (symbol) {
+            case "=", "<>", "!=", "<", "<=", ">", ">=" -> true;
+            default -> false;
+        };
+    }
+    
+    private Token peek() {
+        return tokens.get(index);
+    }
+    
+    private Token next() {
+        Token token = tokens.get(index);
+        if (token.type() != Type.END) {
+            index++;
+        }
+        return token;
+    }
+    
+    private boolean acceptKeyword(String keyword) {
+        if (peek().isKeyword(keyword)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+    
+    private boolean acceptSymbol(String symbol) {
+        if (peek().isSymbol(symbol)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error(peek(), keyword + " esperado");
+        }
+    }
+    
+    private void expectSymbol(String symbol) {
+        if (!acceptSymbol(symbol)) {
+            throw error(peek(), "'" + symbol + "' esperado");
+        }
+    }
+    
+    private void expectEnd() {
+        Token token = peek();
+        if (token.type() != Type.END) {
+            throw error(token, "Texto inesperado: '" + token.text() + "'");
+        }
+    }
+    
+    private static SqlSyntaxException error(Token token, String message) {
+        String where = token.type() == Type.END ? " no fim da expressão" : "";
+        return new SqlSyntaxException(message + where, token.position() + 1);
+    }
+    
+    /**
+     * Padrão LIKE compilado; padrões simples usam comparações diretas em vez de regex
+     */
+    static final class LikePattern {
+        
+        private enum Kind { EXACT, PREFIX, SUFFIX, CONTAINS, REGEX }
+        
+        private final Kind kind;
+        private final String literal;
+        private final Pattern regex;
+        
+        private LikePattern(Kind kind, String literal, Pattern regex) {
+            this.kind = kind;
+            this.literal = literal;
+            this.regex = regex;
+        }
+        
+        static LikePattern compile(String pattern, Character escape) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            List<Integer> wildcards = new ArrayList<>();
+            boolean hasUnderscore = false;
+            
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (escape != null && c == escape && i + 1 < pattern.length()) {
+                    char escaped = pattern.charAt(++i);
+                    regex.append(Pattern.quote(String.valueOf(escaped)));
+                    literal.append(escaped);
+                } else if (c == '%') {
+                    regex.append(".*");
+                    wildcards.add(literal.length());
+                } else if (c == '_') {
+                    regex.append('.');
+                    hasUnderscore = true;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    literal.append(c);
+                }
+            }
+            
+            if (!hasUnderscore) {
+                int end = literal.length();
+                if (wildcards.isEmpty()) {
+                    return new LikePattern(Kind.EXACT, literal.toString(), null);
+                }
+                if (wildcards.size() == 1 && wildcards.get(0) == end) {
+                    return new LikePattern(Kind.PREFIX, literal.toString(), null);
+                }
+                if (wildcards.stream().allMatch(position -> position == 0)) {
+                    return new LikePattern(Kind.SUFFIX, literal.toString(), null);
+                }
+                if (wildcards.stream().allMatch(position -> position == 0 || position == end) 
+                        && wildcards.contains(0) && wildcards.contains(end)) {
+                    return new LikePattern(Kind.CONTAINS, literal.toString(), null);
+                }
+            }
+            return new LikePattern(Kind.REGEX, null, Pattern.compile(regex.toString(), Pattern.DOTALL));
+        }
+        
+        boolean matches(String text) {
+            return switch (kind) {
+                case EXACT -> text.equals(literal);
+                case PREFIX -> text.startsWith(literal);
+                case SUFFIX -> text.endsWith(literal);
+                case CONTAINS -> text.contains(literal);
+                case REGEX -> regex.matcher(text).matches();
+            };
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Filtro SQL de rule compilado para avaliação local.
+ *
+ * Suporta a gramática dos SqlRuleFilter do Service Bus: comparações, AND/OR/NOT, IS [NOT] NULL,
+ * [NOT] LIKE com ESCAPE, [NOT] IN, [NOT] BETWEEN, EXISTS, aritmética (+ - * / %) e propriedades
+ * {@code sys.Nome} (sem diferenciar maiúsculas) ou {@code user.Nome} / {@code Nome} (nome exato).
+ * Propriedades ausentes tornam o resultado desconhecido, e só um resultado verdadeiro aceita a mensagem.
+ *
+ * As compilações são guardadas numa cache, por isso {@link #compile(String)} pode ser chamado
+ * a cada avaliação de um conjunto de rules.
+ */
+public final class SqlFilter {
+    
+    private static final int MAX_CACHED = 256;
+    
+    // LinkedHashMap em ordem de acesso: descarta as expressões menos usadas
+    private static final Map<String, SqlFilter> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SqlFilter> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+    
+    private final String expression;
+    private final SqlCompiler.SqlExpr compiled;
+    private final Set<SqlCompiler.PropertyRef> properties;
+    
+    private SqlFilter(String expression, SqlCompiler.CompiledFilter compiled) {
+        this.expression = expression;
+        this.compiled = compiled.expr();
+        this.properties = compiled.properties();
+    }
+    
+    /**
+     * Compila a expressão (ou devolve a compilação em cache)
+     *
+     * @throws SqlSyntaxException se a expressão for inválida
+     */
+    public static SqlFilter compile(String expression) {
+        synchronized (cache) {
+            SqlFilter cached = cache.get(expression);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        SqlFilter filter = new SqlFilter(expression, SqlCompiler.compileFilter(expression));
+        synchronized (cache) {
+            cache.put(expression, filter);
+        }
+        return filter;
+    }
+    
+    public String getExpression() {
+        return expression;
+    }
+    
+    /**
+     * Verdadeiro se a expressão avalia como verdadeira para a mensagem
+     */
+    public boolean matches(SqlMessage message) {
+        return Boolean.TRUE.equals(compiled.eval(message));
+    }
+    
+    public boolean matches(MessageInfo message) {
+        return matches(SqlMessage.of(message));
+    }
+    
+    /**
+     * Propriedades de sistema referenciadas em qualquer ponto da expressão que a aplicação não carrega.
+     * Valem NULL localmente, por isso o resultado do filtro não pode ser avaliado se houver alguma.
+     */
+    public List<SystemProperty> getUnloadedProperties() {
+        return properties.stream()
+            .map(SqlCompiler.PropertyRef::system)
+            .filter(Objects::nonNull)
+            .filter(property -> !property.isLoaded())
+            .distinct()
+            .toList();
+    }
+    
+    /**
+     * Igualdade propriedade = constante exigida pelo filtro, usada para indexar rules (null se não houver)
+     */
+    SqlCompiler.PropertyEquals requiredEquality() {
+        return SqlCompiler.requiredEquality(compiled);
+    }
+    
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,141 @@
+package com.azureservicebus.manager.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Divide uma expressão SQL de rule em tokens
+ */
+final class SqlLexer {
+    
+    enum Type { IDENTIFIER, DELIMITED_IDENTIFIER, KEYWORD, STRING, INTEGER, DECIMAL, SYMBOL, END }
+    
+    record Token(Type type, String text, int position) {
+        
+        boolean is(Type expected, String value) {
+            return type == expected && text.equals(value);
+        }
+        
+        boolean isKeyword(String keyword) {
+            return is(Type.KEYWORD, keyword);
+        }
+        
+        boolean isSymbol(String symbol) {
+            return is(Type.SYMBOL, symbol);
+        }
+    }
+    
+    private static final Set<String> KEYWORDS = Set.of(
+        "AND", "OR", "NOT", "IS", "NULL", "LIKE", "ESCAPE", "IN", "EXISTS", "BETWEEN", 
+        "TRUE", "FALSE", "SET", "REMOVE");
+        
+    private SqlLexer() {
+    }
+    
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+        
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+            
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c) || c == '_' || c == '@' || c == '$') {
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_' 
+                        || text.charAt(i) == '@' || text.charAt(i) == '$')) {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                String upper = word.toUpperCase(Locale.ROOT);
+                tokens.add(KEYWORDS.contains(upper) 
+                    ? new Token(Type.KEYWORD, upper, start) 
+                    : new Token(Type.IDENTIFIER, word, start));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(text.charAt(i + 1)))) {
+                boolean decimal = false;
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                if (i < length && text.charAt(i) == '.') {
+                    decimal = true;
+                    i++;
+                    while (i < length && Character.isDigit(text.charAt(i))) {
+                        i++;
+                    }
+                }
+                if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+                    int exponent = i + 1;
+                    if (exponent < length && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                        exponent++;
+                    }
+                    if (exponent < length && Character.isDigit(text.charAt(exponent))) {
+                        decimal = true;
+                        i = exponent;
+                        while (i < length && Character.isDigit(text.charAt(i))) {
+                            i++;
+                        }
+                    }
+                }
+                tokens.add(new Token(decimal ? Type.DECIMAL : Type.INTEGER, text.substring(start, i), start));
+            } else if (c == '\'') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new SqlSyntaxException("Texto não terminado (falta ')", start + 1);
+                    }
+                    char next = text.charAt(i);
+                    if (next == '\'') {
+                        // '' representa uma aspa dentro do texto
+                        if (i + 1 < length && text.charAt(i + 1) == '\'') {
+                            value.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    value.append(next);
+                    i++;
+                }
+                tokens.add(new Token(Type.STRING, value.toString(), start));
+            } else if (c == '[' || c == '"') {
+                char close = c == '[' ? ']' : '"';
+                int end = text.indexOf(close, i + 1);
+                if (end < 0) {
+                    throw new SqlSyntaxException("Identificador não terminado (falta " + close + ")", start + 1);
+                }
+                if (end == i + 1) {
+                    throw new SqlSyntaxException("Identificador vazio", start + 1);
+                }
+                tokens.add(new Token(Type.DELIMITED_IDENTIFIER, text.substring(i + 1, end), start));
+                i = end + 1;
+            } else {
+                String symbol = symbolAt(text, i);
+                if (symbol == null) {
+                    throw new SqlSyntaxException("Caractere inesperado: '" + c + "'", start + 1);
+                }
+                tokens.add(new Token(Type.SYMBOL, symbol, start));
+                i += symbol.length();
+            }
+        }
+        
+        tokens.add(new Token(Type.END, "", length));
+        return tokens;
+    }
+    
+    private static String symbolAt(String text, int i) {
+        if (i + 1 < text.length()) {
+            String pair = text.substring(i, i + 2);
+            if (pair.equals("<>") || pair.equals("!=") || pair.equals("<=") || pair.equals(">=")) {
+                return pair;
+            }
+        }
+        char c = text.charAt(i);
+        return "=<>+-*/%(),;.".indexOf(c) >= 0 ? String.valueOf(c) : null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mensagem vista pelas expressões de rule.
+ *
+ * As leituras vão diretamente às colunas da {@link MessageInfo}; as alterações feitas por uma
+ * {@link SqlAction} ficam numa camada própria, por isso a mensagem original nunca é modificada
+ * e avaliar só filtros não aloca nada.
+ */
+public final class SqlMessage {
+    
+    private static final Object REMOVED = new Object();
+    
+    // Depois de algumas leituras (ex.: muitas rules sobre a mesma mensagem) as propriedades
+    // são normalizadas uma vez para um mapa, em vez de percorridas e convertidas a cada leitura
+    private static final int LOOKUPS_BEFORE_CACHE = 8;
+    
+    private final MessageInfo message;
+    private Map<String, Object> userOverrides;
+    private Map<SystemProperty, Object> systemOverrides;
+    private Map<String, Object> normalizedProperties;
+    private int lookups;
+    
+    private SqlMessage(MessageInfo message) {
+        this.message = message;
+    }
+    
+    public static SqlMessage of(MessageInfo message) {
+        return new SqlMessage(message);
+    }
+    
+    public MessageInfo getMessage() {
+        return message;
+    }
+    
+    /**
+     * Valor normalizado de uma propriedade da aplicação (null se não existir)
+     */
+    public Object getUserProperty(String name) {
+        if (userOverrides != null) {
+            Object override = userOverrides.get(name);
+            if (override != null) {
+                return override == REMOVED ? null : override;
+            }
+        }
+        if (normalizedProperties == null && ++lookups > LOOKUPS_BEFORE_CACHE) {
+            normalizedProperties = new HashMap<>();
+            message.getApplicationProperties().forEach((key, value) -> 
+                normalizedProperties.put(key, SqlValues.normalize(value)));
+        }
+        return normalizedProperties != null 
+            ? normalizedProperties.get(name) 
+            : SqlValues.normalize(message.getApplicationProperty(name));
+    }
+    
+    /**
+     * Valor normalizado de uma propriedade de sistema (null se não existir)
+     */
+    public Object getSystemProperty(SystemProperty property) {
+        if (systemOverrides != null && systemOverrides.containsKey(property)) {
+            return systemOverrides.get(property);
+        }
+        return SqlValues.normalize(property.read(message));
+    }
+    
+    public boolean hasUserProperty(String name) {
+        return getUserProperty(name) != null;
+    }
+    
+    void setUserProperty(String name, Object value) {
+        if (userOverrides == null) {
+            userOverrides = new HashMap<>();
+        }
+        userOverrides.put(name, value != null ? value : REMOVED);
+    }
+    
+    void removeUserProperty(String name) {
+        setUserProperty(name, null);
+    }
+    
+    void setSystemProperty(SystemProperty property, Object value) {
+        if (systemOverrides == null) {
+            systemOverrides = new EnumMap<>(SystemProperty.class);
+        }
+        systemOverrides.put(property, value);
+    }
+    
+    /**
+     * Propriedades da aplicação depois das ações aplicadas
+     */
+    public Map<String, Object> getUserProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>(message.getApplicationProperties());
+        if (userOverrides != null) {
+            userOverrides.forEach((name, value) -> {
+                if (value == REMOVED) {
+                    properties.remove(name);
+                } else {
+                    properties.put(name, value);
+                }
+            });
+        }
+        return properties;
+    }
+    
+    /**
+     * Propriedades de sistema alteradas por ações
+     */
+    public Map<SystemProperty, Object> getSystemOverrides() {
+        return systemOverrides != null ? Collections.unmodifiableMap(new EnumMap<>(systemOverrides)) : Map.of();
+    }
+    
+    /**
+     * Verdadeiro se alguma ação alterou a mensagem
+     */
+    public boolean isModified() {
+        return userOverrides != null || systemOverrides != null;
+    }
+}
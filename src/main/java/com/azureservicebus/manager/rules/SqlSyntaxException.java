@@ -0,0 +1,23 @@
+package com.azureservicebus.manager.rules;
+
+/**
+ * Erro de sintaxe (ou de semântica detetável na compilação) numa expressão SQL de rule
+ */
+public class SqlSyntaxException extends IllegalArgumentException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int position;
+    
+    /**
+     * @param position posição do erro na expressão, a partir de 1
+     */
+    public SqlSyntaxException(String message, int position) {
+        super(String.format("%s (posição %d)", message, position));
+        this.position = position;
+    }
+    
+    public int getPosition() {
+        return position;
+    }
+}
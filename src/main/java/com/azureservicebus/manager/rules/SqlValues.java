@@ -0,0 +1,144 @@
+package com.azureservicebus.manager.rules;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Tipos e operações dos valores nas expressões de rule.
+ *
+ * Os valores são normalizados para Long, Double, String, Boolean ou Instant; null representa
+ * uma propriedade ausente ou um resultado desconhecido (lógica de três valores do SQL).
+ */
+final class SqlValues {
+    
+    private SqlValues() {
+    }
+    
+    static Object normalize(Object value) {
+        if (value == null || value instanceof Long || value instanceof String 
+                || value instanceof Boolean || value instanceof Double) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float floatValue) {
+            return floatValue.doubleValue();
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof Character || value instanceof UUID) {
+            return value.toString();
+        }
+        if (value instanceof OffsetDateTime time) {
+            return time.toInstant();
+        }
+        if (value instanceof ZonedDateTime time) {
+            return time.toInstant();
+        }
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        if (value instanceof Instant) {
+            return value;
+        }
+        return value.toString();
+    }
+    
+    /**
+     * Compara dois valores do mesmo tipo; devolve null se algum é null ou os tipos não são comparáveis
+     */
+    static Integer compare(Object left, Object right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (left instanceof Long a && right instanceof Long b) {
+            return Long.compare(a, b);
+        }
+        if (left instanceof Number a && right instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        if (left instanceof String a && right instanceof String b) {
+            return a.compareTo(b);
+        }
+        if (left instanceof Boolean a && right instanceof Boolean b) {
+            return Boolean.compare(a, b);
+        }
+        if (left instanceof Instant a && right instanceof Instant b) {
+            return a.compareTo(b);
+        }
+        return null;
+    }
+    
+    static Boolean not(Object value) {
+        return value instanceof Boolean bool ? !bool : null;
+    }
+    
+    static Object arithmetic(char operator, Object left, Object right) {
+        if (left instanceof Long a && right instanceof Long b) {
+            try {
+                return switch (operator) {
+                    case '+' -> Math.addExact(a, b);
+                    case '-' -> Math.subtractExact(a, b);
+                    case '*' -> Math.multiplyExact(a, b);
+                    case '/' -> b == 0 ? null : a / b;
+                    case '%' -> b == 0 ? null : a % b;
+                    default -> throw new IllegalStateException("Operador desconhecido: " + operator);
+                };
+            } catch (ArithmeticException overflow) {
+                return arithmetic(operator, a.doubleValue(), b.doubleValue());
+            }
+        }
+        if (left instanceof Number a && right instanceof Number b) {
+            double x = a.doubleValue();
+            double y = b.doubleValue();
+            return switch (operator) {
+                case '+' -> x + y;
+                case '-' -> x - y;
+                case '*' -> x * y;
+                case '/' -> y == 0 ? null : x / y;
+                case '%' -> y == 0 ? null : x % y;
+                default -> throw new IllegalStateException("Operador desconhecido: " + operator);
+            };
+        }
+        if (operator == '+' && left instanceof String a && right instanceof String b) {
+            return a + b;
+        }
+        return null;
+    }
+    
+    static Object negate(Object value) {
+        if (value instanceof Long number) {
+            return number == Long.MIN_VALUE ? -number.doubleValue() : -number;
+        }
+        if (value instanceof Double number) {
+            return -number;
+        }
+        return null;
+    }
+    
+    /**
+     * Chave para pertença em listas IN: números inteiros representáveis exatamente ficam como Long
+     */
+    static Object key(Object value) {
+        if (value instanceof Double number && number == Math.rint(number) 
+                && number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+            return number.longValue();
+        }
+        return value;
+    }
+    
+    static String typeName(Object value) {
+        if (value == null) return "NULL";
+        if (value instanceof Long) return "inteiro";
+        if (value instanceof Double) return "decimal";
+        if (value instanceof String) return "texto";
+        if (value instanceof Boolean) return "booleano";
+        if (value instanceof Instant) return "data/hora";
+        return value.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,93 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Propriedades de sistema acessíveis com o prefixo {@code sys.} nas expressões de rule.
+ * Propriedades que a aplicação não carrega (ex.: To, PartitionKey) são aceites e valem NULL;
+ * rules que dependem delas para aceitar uma mensagem não podem ser avaliadas localmente.
+ */
+public enum SystemProperty {
+    
+    MESSAGE_ID("MessageId", true, MessageInfo::getMessageId),
+    CORRELATION_ID("CorrelationId", true, MessageInfo::getCorrelationId),
+    SESSION_ID("SessionId", true, MessageInfo::getSessionId),
+    REPLY_TO("ReplyTo", true, MessageInfo::getReplyTo),
+    REPLY_TO_SESSION_ID("ReplyToSessionId", true, null),
+    TO("To", true, null),
+    LABEL("Label", true, MessageInfo::getSubject),
+    CONTENT_TYPE("ContentType", true, MessageInfo::getContentType),
+    PARTITION_KEY("PartitionKey", true, null),
+    SEQUENCE_NUMBER("SequenceNumber", false, message -> message.getSequenceNumber()),
+    ENQUEUED_SEQUENCE_NUMBER("EnqueuedSequenceNumber", false, null),
+    DELIVERY_COUNT("DeliveryCount", false, message -> (long) message.getDeliveryCount()),
+    SIZE("Size", false, message -> message.getSizeInBytes()),
+    ENQUEUED_TIME_UTC("EnqueuedTimeUtc", false, message -> utc(message.getEnqueuedTime())),
+    SCHEDULED_ENQUEUE_TIME_UTC("ScheduledEnqueueTimeUtc", true, message -> utc(message.getScheduledEnqueueTime())),
+    EXPIRES_AT_UTC("ExpiresAtUtc", false, message -> utc(message.getExpiresAt())),
+    TIME_TO_LIVE("TimeToLive", true, null),
+    LOCK_TOKEN("LockToken", false, MessageInfo::getLockToken),
+    LOCKED_UNTIL_UTC("LockedUntilUtc", false, message -> utc(message.getLockedUntil())),
+    DEAD_LETTER_SOURCE("DeadLetterSource", false, null);
+    
+    private static final Map<String, SystemProperty> BY_NAME = new HashMap<>();
+    
+    static {
+        for (SystemProperty property : values()) {
+            BY_NAME.put(property.propertyName.toLowerCase(Locale.ROOT), property);
+        }
+        // Nome atual da propriedade Label nos SDKs
+        BY_NAME.put("subject", LABEL);
+    }
+    
+    private final String propertyName;
+    private final boolean settable;
+    // null para propriedades que a aplicação não carrega
+    private final Function<MessageInfo, Object> accessor;
+    
+    SystemProperty(String propertyName, boolean settable, Function<MessageInfo, Object> accessor) {
+        this.propertyName = propertyName;
+        this.settable = settable;
+        this.accessor = accessor;
+    }
+    
+    public String getPropertyName() {
+        return propertyName;
+    }
+    
+    /**
+     * Verdadeiro se uma SqlRuleAction pode alterar a propriedade com SET
+     */
+    public boolean isSettable() {
+        return settable;
+    }
+    
+    /**
+     * Verdadeiro se o valor da propriedade é carregado com as mensagens (senão vale sempre NULL)
+     */
+    public boolean isLoaded() {
+        return accessor != null;
+    }
+    
+    Object read(MessageInfo message) {
+        return accessor != null ? accessor.apply(message) : null;
+    }
+    
+    /**
+     * Procura a propriedade pelo nome, sem diferenciar maiúsculas (null se não existir)
+     */
+    public static SystemProperty forName(String name) {
+        return BY_NAME.get(name.toLowerCase(Locale.ROOT));
+    }
+    
+    private static Object utc(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
@@ -0,0 +1,405 @@
+package com.azureservicebus.manager.rules;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tabela de encaminhamento de um tópico: as rules de todas as subscriptions compiladas para
+ * simular, sem enviar mensagens, em que subscriptions cada mensagem seria entregue.
+ *
+ * Rules de correlação e filtros SQL com uma igualdade obrigatória ({@code sys.Label = 'x' AND ...})
+ * ficam num índice por propriedade e valor, por isso cada mensagem só avalia as rules candidatas
+ * e as restantes (TrueFilter, SQL sem igualdade). Uma subscription recebe uma cópia se alguma
+ * rule sem ação aceitar a mensagem e mais uma cópia por cada rule com ação que a aceite.
+ */
+public final class TopicRoutingTable {
+    
+    /**
+     * Tipo de filtro de uma rule
+     */
+    public enum FilterKind { SQL, CORRELATION, TRUE, FALSE }
+    
+    /**
+     * Definição de uma rule tal como veio do Service Bus (ou da rule em teste)
+     */
+    public record RuleDefinition(String subscription, String name, FilterKind kind, String sqlExpression,
+                                 CorrelationCriteria correlation, String actionExpression) {
+        
+        public String getFilterDescription() {
+            return switch (kind) {
+                case SQL -> sqlExpression;
+                case CORRELATION -> correlation.toString();
+                case TRUE -> "1=1";
+                case FALSE -> "1=0";
+            };
+        }
+    }
+    
+    /**
+     * Rule que aceitou uma mensagem, com o resultado da ação (null se a rule não tem ação)
+     */
+    public record RuleMatch(String subscription, String rule, SqlMessage actionResult) {
+    }
+    
+    private record CompiledRule(int subscription, String name, Predicate<SqlMessage> filter, SqlAction action) {
+    }
+    
+    private final String topicName;
+    private final List<String> subscriptions;
+    private final List<RuleDefinition> definitions;
+    private final int[] rulesPerSubscription;
+    private final List<String> problems = new ArrayList<>();
+    
+    private final CompiledRule[] unindexed;
+    private final SqlCompiler.PropertyRef[] indexFields;
+    private final List<Map<Object, CompiledRule[]>> indexes;
+    
+    private TopicRoutingTable(String topicName, List<String> subscriptions, List<RuleDefinition> definitions) {
+        this.topicName = topicName;
+        this.subscriptions = List.copyOf(subscriptions);
+        this.definitions = List.copyOf(definitions);
+        this.rulesPerSubscription = new int[subscriptions.size()];
+        
+        Map<String, Integer> subscriptionIds = new HashMap<>();
+        for (int i = 0; i < subscriptions.size(); i++) {
+            subscriptionIds.put(subscriptions.get(i), i);
+        }
+        
+        List<CompiledRule> unindexedRules = new ArrayList<>();
+        Map<SqlCompiler.PropertyRef, Map<Object, List<CompiledRule>>> indexed = new LinkedHashMap<>();
+        
+        for (RuleDefinition definition : definitions) {
+            int subscription = subscriptionIds.get(definition.subscription());
+            rulesPerSubscription[subscription]++;
+            
+            SqlAction action = null;
+            if (definition.actionExpression() != null && !definition.actionExpression().isBlank()) {
+                try {
+                    action = SqlAction.compile(definition.actionExpression());
+                } catch (SqlSyntaxException e) {
+                    problems.add(String.format("%s/%s (ação ignorada): %s", 
+                        definition.subscription(), definition.name(), e.getMessage()));
+                }
+            }
+            
+            Predicate<SqlMessage> filter;
+            SqlCompiler.PropertyEquals indexKey = null;
+            switch (definition.kind()) {
+                case TRUE -> filter = message -> true;
+                case FALSE -> {
+                    continue;
+                }
+                case CORRELATION -> {
+                    CorrelationCriteria criteria = definition.correlation();
+                    List<SystemProperty> unloaded = criteria.getUnloadedProperties();
+                    if (!unloaded.isEmpty()) {
+                        problems.add(notEvaluated(definition, unloaded));
+                        continue;
+                    }
+                    filter = criteria::matches;
+                    indexKey = criteria.indexKey();
+                }
+                default -> {
+                    SqlFilter sqlFilter;
+                    try {
+                        sqlFilter = SqlFilter.compile(definition.sqlExpression());
+                    } catch (SqlSyntaxException e) {
+                        problems.add(String.format("%s/%s (nunca aceita): %s", 
+                            definition.subscription(), definition.name(), e.getMessage()));
+                        continue;
+                    }
+                    List<SystemProperty> unloaded = sqlFilter.getUnloadedProperties();
+                    if (!unloaded.isEmpty()) {
+                        problems.add(notEvaluated(definition, unloaded));
+                        continue;
+                    }
+                    filter = sqlFilter::matches;
+                    indexKey = sqlFilter.requiredEquality();
+                }
+            }
+            
+            CompiledRule rule = new CompiledRule(subscription, definition.name(), filter, action);
+            if (indexKey == null) {
+                unindexedRules.add(rule);
+            } else {
+                indexed.computeIfAbsent(indexKey.property(), key -> new HashMap<>())
+                    .computeIfAbsent(SqlValues.key(SqlValues.normalize(indexKey.value())), key -> new ArrayList<>())
+                    .add(rule);
+            }
+        }
+        
+        this.unindexed = unindexedRules.toArray(new CompiledRule[0]);
+        this.indexFields = indexed.keySet().toArray(new SqlCompiler.PropertyRef[0]);
+        this.indexes = new ArrayList<>(indexed.size());
+        for (Map<Object, List<CompiledRule>> byValue : indexed.values()) {
+            Map<Object, CompiledRule[]> compact = new HashMap<>(byValue.size() * 2);
+            byValue.forEach((value, rules) -> compact.put(value, rules.toArray(new CompiledRule[0])));
+            indexes.add(compact);
+        }
+    }
+    
+    /**
+     * Problema de uma rule que depende de propriedades não carregadas. Não é o mesmo que nunca
+     * aceitar: o resultado real depende de valores que a aplicação não tem.
+     */
+    private static String notEvaluated(RuleDefinition definition, List<SystemProperty> unloaded) {
+        return String.format("%s/%s (não avaliada): %s não %s carregad%s com as mensagens", 
+            definition.subscription(), definition.name(), 
+            unloaded.stream().map(SystemProperty::getPropertyName).collect(Collectors.joining(", ")),
+            unloaded.size() == 1 ? "é" : "são", unloaded.size() == 1 ? "o" : "os");
+    }
+    
+    public static Builder builder(String topicName) {
+        return new Builder(topicName);
+    }
+    
+    public String getTopicName() {
+        return topicName;
+    }
+    
+    public List<String> getSubscriptions() {
+        return subscriptions;
+    }
+    
+    public List<RuleDefinition> getRules() {
+        return definitions;
+    }
+    
+    public int getRuleCount() {
+        return definitions.size();
+    }
+    
+    public int getRuleCount(int subscription) {
+        return rulesPerSubscription[subscription];
+    }
+    
+    /**
+     * Rules que não puderam ser compiladas ou avaliadas localmente (ex.: sintaxe não suportada,
+     * igualdade sobre propriedades de sistema que não são carregadas)
+     */
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+    
+    /**
+     * Cópia da tabela com uma rule SQL acrescentada ou substituída (mesmo nome na mesma subscription),
+     * para comparar o encaminhamento antes de aplicar a alteração no Service Bus
+     */
+    public TopicRoutingTable withSqlRule(String subscription, String ruleName, String sqlExpression, 
+                                         String actionExpression) {
+        if (!subscriptions.contains(subscription)) {
+            throw new IllegalArgumentException("Subscription desconhecida: " + subscription);
+        }
+        SqlFilter.compile(sqlExpression);
+        if (actionExpression != null && !actionExpression.isBlank()) {
+            SqlAction.compile(actionExpression);
+        }
+        
+        Builder builder = new Builder(topicName);
+        subscriptions.forEach(builder::addSubscription);
+        definitions.forEach(builder::add);
+        builder.add(new RuleDefinition(subscription, ruleName, FilterKind.SQL, sqlExpression, null, actionExpression));
+        return builder.build();
+    }
+    
+    /**
+     * Encaminha as mensagens em paralelo e resume o resultado
+     */
+    public RoutingReport route(List<MessageInfo> messages) {
+        long start = System.nanoTime();
+        int[][] routes = new int[messages.size()][];
+        int[] copies = new int[messages.size()];
+        Queue<Scratch> allScratches = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(() -> {
+            Scratch scratch = new Scratch(subscriptions.size());
+            allScratches.add(scratch);
+            return scratch;
+        });
+        
+        IntStream.range(0, messages.size()).parallel().forEach(i -> {
+            Scratch scratch = scratches.get();
+            evaluate(SqlMessage.of(messages.get(i)), scratch, null);
+            routes[i] = scratch.drain();
+            copies[i] = scratch.lastCopies;
+        });
+        
+        long[] copiesPerSubscription = new long[subscriptions.size()];
+        for (Scratch scratch : allScratches) {
+            for (int i = 0; i < copiesPerSubscription.length; i++) {
+                copiesPerSubscription[i] += scratch.copiesTotal[i];
+            }
+        }
+        return new RoutingReport(this, messages, routes, copies, copiesPerSubscription, System.nanoTime() - start);
+    }
+    
+    /**
+     * Rules que aceitam a mensagem, com o resultado das ações aplicadas a cada cópia
+     */
+    public List<RuleMatch> explain(MessageInfo message) {
+        List<RuleMatch> matches = new ArrayList<>();
+        Scratch scratch = new Scratch(subscriptions.size());
+        scratch.explainAll = true;
+        evaluate(SqlMessage.of(message), scratch, rule -> {
+            SqlMessage result = null;
+            if (rule.action() != null) {
+                result = SqlMessage.of(message);
+                rule.action().apply(result);
+            }
+            matches.add(new RuleMatch(subscriptions.get(rule.subscription()), rule.name(), result));
+        });
+        scratch.drain();
+        matches.sort((a, b) -> a.subscription().compareTo(b.subscription()));
+        return matches;
+    }
+    
+    private void evaluate(SqlMessage message, Scratch scratch, Consumer<CompiledRule> onMatch) {
+        for (CompiledRule rule : unindexed) {
+            consider(rule, message, scratch, onMatch);
+        }
+        for (int i = 0; i < indexFields.length; i++) {
+            Object value = indexFields[i].eval(message);
+            if (value == null) {
+                continue;
+            }
+            CompiledRule[] candidates = indexes.get(i).get(SqlValues.key(value));
+            if (candidates != null) {
+                for (CompiledRule rule : candidates) {
+                    consider(rule, message, scratch, onMatch);
+                }
+            }
+        }
+    }
+    
+    private static void consider(CompiledRule rule, SqlMessage message, Scratch scratch, 
+                                 Consumer<CompiledRule> onMatch) {
+        int subscription = rule.subscription();
+        // Rules sem ação depois da primeira que aceitou não acrescentam cópias
+        if (rule.action() == null && scratch.plainMatched[subscription] && !scratch.explainAll) {
+            return;
+        }
+        if (!rule.filter().test(message)) {
+            return;
+        }
+        if (onMatch != null) {
+            onMatch.accept(rule);
+        }
+        
+        if (scratch.copies[subscription] == 0) {
+            scratch.touched[scratch.touchedCount++] = subscription;
+        }
+        if (rule.action() == null) {
+            if (!scratch.plainMatched[subscription]) {
+                scratch.plainMatched[subscription] = true;
+                scratch.copies[subscription]++;
+            }
+        } else {
+            scratch.copies[subscription]++;
+        }
+    }
+    
+    /**
+     * Estado de avaliação reutilizado entre mensagens na mesma thread
+     */
+    private static final class Scratch {
+        final int[] copies;
+        final boolean[] plainMatched;
+        final int[] touched;
+        final long[] copiesTotal;
+        int touchedCount;
+        int lastCopies;
+        boolean explainAll;
+        
+        Scratch(int subscriptions) {
+            copies = new int[subscriptions];
+            plainMatched = new boolean[subscriptions];
+            touched = new int[subscriptions];
+            copiesTotal = new long[subscriptions];
+        }
+        
+        /**
+         * Devolve as subscriptions atingidas (ordenadas) e limpa o estado para a próxima mensagem
+         */
+        int[] drain() {
+            int[] result = Arrays.copyOf(touched, touchedCount);
+            Arrays.sort(result);
+            int total = 0;
+            for (int subscription : result) {
+                total += copies[subscription];
+                copiesTotal[subscription] += copies[subscription];
+                copies[subscription] = 0;
+                plainMatched[subscription] = false;
+            }
+            lastCopies = total;
+            touchedCount = 0;
+            return result;
+        }
+    }
+    
+    /**
+     * Monta a tabela a partir das rules lidas de cada subscription
+     */
+    public static final class Builder {
+        
+        private final String topicName;
+        private final List<String> subscriptions = new ArrayList<>();
+        private final Map<String, RuleDefinition> rules = new LinkedHashMap<>();
+        
+        private Builder(String topicName) {
+            this.topicName = topicName;
+        }
+        
+        /**
+         * Regista a subscription (subscriptions sem rules não recebem mensagens)
+         */
+        public Builder addSubscription(String subscription) {
+            if (!subscriptions.contains(subscription)) {
+                subscriptions.add(subscription);
+            }
+            return this;
+        }
+        
+        public Builder addSqlRule(String subscription, String name, String sqlExpression, String actionExpression) {
+            return add(new RuleDefinition(subscription, name, FilterKind.SQL, sqlExpression, null, actionExpression));
+        }
+        
+        public Builder addCorrelationRule(String subscription, String name, CorrelationCriteria criteria, 
+                                          String actionExpression) {
+            return add(new RuleDefinition(subscription, name, 
+                criteria.isEmpty() ? FilterKind.TRUE : FilterKind.CORRELATION, null, criteria, actionExpression));
+        }
+        
+        public Builder addTrueRule(String subscription, String name, String actionExpression) {
+            return add(new RuleDefinition(subscription, name, FilterKind.TRUE, null, null, actionExpression));
+        }
+        
+        public Builder addFalseRule(String subscription, String name) {
+            return add(new RuleDefinition(subscription, name, FilterKind.FALSE, null, null, null));
+        }
+        
+        /**
+         * Acrescenta a rule, substituindo outra com o mesmo nome na mesma subscription
+         */
+        Builder add(RuleDefinition definition) {
+            addSubscription(definition.subscription());
+            rules.put(definition.subscription() + "/" + definition.name(), definition);
+            return this;
+        }
+        
+        public TopicRoutingTable build() {
+            return new TopicRoutingTable(topicName, subscriptions, new ArrayList<>(rules.values()));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.azureservicebus.manager.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consulta sobre as mensagens carregadas.
+ *
+ * Sintaxe:
+ * <ul>
+ *   <li>{@code timeout} – palavra no corpo ou em qualquer campo indexado; {@code time*} procura por prefixo</li>
+ *   <li>{@code "request timeout"} – frase exata no corpo</li>
+ *   <li>{@code orderId:12345} – valor exato de uma propriedade da aplicação ou de messageId, correlationId,
+ *       sessionId ou subject (sem diferenciar maiúsculas); {@code orderId:"a b"}, {@code orderId:12*}
+ *       e {@code orderId:*} (propriedade presente) também são aceites</li>
+ *   <li>{@code AND}, {@code OR}, {@code NOT} ou {@code -termo}, e parênteses; termos seguidos sem operador
+ *       são combinados com AND</li>
+ * </ul>
+ */
+public final class MessageQuery {
+    
+    /**
+     * Nó da árvore da consulta
+     */
+    public sealed interface Node permits And, Or, Not, Term {
+    }
+    
+    public record And(List<Node> children) implements Node {
+    }
+    
+    public record Or(List<Node> children) implements Node {
+    }
+    
+    public record Not(Node child) implements Node {
+    }
+    
+    /**
+     * Termo da consulta
+     *
+     * @param field campo ou propriedade (null para procurar em tudo)
+     * @param value valor procurado, sem aspas nem '*' final
+     * @param phrase verdadeiro se o valor veio entre aspas
+     * @param prefix verdadeiro se o valor terminava em '*'
+     */
+    public record Term(String field, String value, boolean phrase, boolean prefix) implements Node {
+    }
+    
+    private final String text;
+    private final Node root;
+    
+    private MessageQuery(String text, Node root) {
+        this.text = text;
+        this.root = root;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public Node getRoot() {
+        return root;
+    }
+    
+    /**
+     * Interpreta a consulta
+     *
+     * @throws IllegalArgumentException com a posição do erro se a sintaxe for inválida
+     */
+    public static MessageQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Consulta vazia");
+        }
+        Parser parser = new Parser(text);
+        Node root = parser.parseOr();
+        if (parser.peek() != null) {
+            throw parser.error("Operador ou parêntese inesperado: '" + parser.peek().text() + "'");
+        }
+        return new MessageQuery(text, root);
+    }
+    
+    @Override
+    public String toString() {
+        return text;
+    }
+    
+    private enum TokenType { WORD, QUOTED, FIELD, LPAREN, RPAREN, AND, OR, NOT }
+    
+    private record Token(TokenType type, String text, int position) {
+    }
+    
+    /**
+     * Analisador descendente recursivo; OR tem menor precedência que AND, e AND menor que NOT
+     */
+    private static final class Parser {
+        
+        private final String text;
+        private final List<Token> tokens;
+        private int index;
+        
+        Parser(String text) {
+            this.text = text;
+            this.tokens = tokenize(text);
+        }
+        
+        Token peek() {
+            return index < tokens.size() ? tokens.get(index) : null;
+        }
+        
+        Node parseOr() {
+            List<Node> children = new ArrayList<>();
+            children.add(parseAnd());
+            while (peek() != null && peek().type() == TokenType.OR) {
+                index++;
+                children.add(parseAnd());
+            }
+            return children.size() == 1 ? children.get(0) : new Or(children);
+        }
+        
+        Node parseAnd() {
+            List<Node> children = new ArrayList<>();
+            children.add(parseUnary());
+            while (peek() != null && peek().type() != TokenType.OR && peek().type() != TokenType.RPAREN) {
+                if (peek().type() == TokenType.AND) {
+                    index++;
+                }
+                children.add(parseUnary());
+            }
+            return children.size() == 1 ? children.get(0) : new And(children);
+        }
+        
+        Node parseUnary() {
+            Token token = peek();
+            if (token == null) {
+                throw error("Termo esperado no fim da consulta");
+            }
+            index++;
+            
+            return switch (token.type()) {
+                case NOT -> new Not(parseUnary());
+                case LPAREN -> {
+                    Node inner = parseOr();
+                    if (peek() == null || peek().type() != TokenType.RPAREN) {
+                        throw error("Parêntese não fechado");
+                    }
+                    index++;
+                    yield inner;
+                }
+                case WORD -> word(null, token.text());
+                case QUOTED -> new Term(null, token.text(), true, false);
+                case FIELD -> {
+                    Token value = peek();
+                    if (value == null || (value.type() != TokenType.WORD && value.type() != TokenType.QUOTED)) {
+                        throw error("Valor esperado depois de '" + token.text() + ":'");
+                    }
+                    index++;
+                    yield value.type() == TokenType.QUOTED
+                        ? new Term(token.text(), value.text(), true, false)
+                        : word(token.text(), value.text());
+                }
+                default -> throw error("Termo esperado antes de '" + token.text() + "'");
+            };
+        }
+        
+        private static Term word(String field, String value) {
+            boolean prefix = value.endsWith("*");
+            return new Term(field, prefix ? value.substring(0, value.length() - 1) : value, false, prefix);
+        }
+        
+        IllegalArgumentException error(String message) {
+            Token token = peek();
+            int position = token != null ? token.position() : text.length();
+            return new IllegalArgumentException(String.format("%s (posição %d)", message, position + 1));
+        }
+        
+        private static List<Token> tokenize(String text) {
+            List<Token> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (c == '(' || c == ')') {
+                    tokens.add(new Token(c == '(' ? TokenType.LPAREN : TokenType.RPAREN, String.valueOf(c), i));
+                    i++;
+                } else if (c == '"') {
+                    int start = i;
+                    StringBuilder value = new StringBuilder();
+                    i++;
+                    while (i < text.length() && text.charAt(i) != '"') {
+                        if (text.charAt(i) == '\\' && i + 1 < text.length()) {
+                            i++;
+                        }
+                        value.append(text.charAt(i));
+                        i++;
+                    }
+                    if (i >= text.length()) {
+                        throw new IllegalArgumentException(String.format("Aspas não fechadas (posição %d)", start + 1));
+                    }
+                    i++;
+                    tokens.add(new Token(TokenType.QUOTED, value.toString(), start));
+                } else if (c == '-' && (tokens.isEmpty() || i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1)))
+                        && (i == 0 || Character.isWhitespace(text.charAt(i - 1)) || text.charAt(i - 1) == '(')) {
+                    tokens.add(new Token(TokenType.NOT, "-", i));
+                    i++;
+                } else {
+                    int start = i;
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && text.charAt(i) != '(' && text.charAt(i) != ')' && text.charAt(i) != '"') {
+                        // "campo:" termina a palavra; o valor é o token seguinte (palavra ou aspas)
+                        if (text.charAt(i) == ':' && i > start) {
+                            break;
+                        }
+                        i++;
+                    }
+                    String word = text.substring(start, i);
+                    if (i < text.length() && text.charAt(i) == ':') {
+                        tokens.add(new Token(TokenType.FIELD, word, start));
+                        i++;
+                    } else {
+                        tokens.add(new Token(switch (word) {
+                            case "AND", "&&" -> TokenType.AND;
+                            case "OR", "||" -> TokenType.OR;
+                            case "NOT" -> TokenType.NOT;
+                            default -> TokenType.WORD;
+                        }, word, start));
+                    }
+                }
+            }
+            return tokens;
+        }
+    }
+}
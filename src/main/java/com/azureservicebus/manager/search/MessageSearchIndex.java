@@ -0,0 +1,424 @@
+package com.azureservicebus.manager.search;
+
+import com.azureservicebus.manager.model.MessageBody;
+import com.azureservicebus.manager.model.MessageInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Índice invertido incremental sobre as mensagens carregadas numa tabela.
+ *
+ * As páginas são indexadas em segundo plano à medida que chegam: palavras do corpo e dos campos,
+ * e mapas de valor exato para messageId, correlationId, sessionId, subject e propriedades da aplicação.
+ * Todo o estado vive numa única thread, por isso as pesquisas veem sempre as atualizações
+ * submetidas antes delas e não há sincronização no caminho da pesquisa.
+ *
+ * Todas as palavras dos primeiros {@link #MAX_BODY_BYTES} bytes do corpo são indexadas, para que a
+ * avaliação fique sempre nas listas do índice; o resto do corpo não é pesquisável e o resultado
+ * indica quantas mensagens foram cortadas.
+ */
+public class MessageSearchIndex implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MessageSearchIndex.class);
+    
+    /**
+     * Bytes do corpo considerados para palavras e frases
+     */
+    public static final int MAX_BODY_BYTES = 64 * 1024;
+    
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int COMPACT_MIN_REMOVED = 1024;
+    
+    private static final String BODY_FIELD = "body";
+    
+    private final ExecutorService executor;
+    private volatile Runnable onUpdated;
+    
+    // Estado acedido apenas pela thread do índice
+    private final List<MessageInfo> docs = new ArrayList<>();
+    private final Map<MessageInfo, Integer> docIds = new IdentityHashMap<>();
+    private final BitSet live = new BitSet();
+    private final TreeMap<String, IntList> tokens = new TreeMap<>();
+    private final Map<String, TreeMap<String, IntList>> fields = new HashMap<>();
+    // Mensagens com corpo maior que o pesquisável
+    private final BitSet truncated = new BitSet();
+    private int removedCount;
+    
+    public MessageSearchIndex(String name) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Ação executada (na thread do índice) depois de cada atualização
+     */
+    public void setOnUpdated(Runnable onUpdated) {
+        this.onUpdated = onUpdated;
+    }
+    
+    /**
+     * Agenda a indexação das mensagens adicionadas e a remoção das retiradas da tabela
+     */
+    public void update(Collection<? extends MessageInfo> added, Collection<? extends MessageInfo> removed) {
+        List<MessageInfo> toAdd = added.isEmpty() ? List.of() : new ArrayList<>(added);
+        List<MessageInfo> toRemove = removed.isEmpty() ? List.of() : new ArrayList<>(removed);
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            return;
+        }
+        
+        executor.execute(() -> {
+            try {
+                toRemove.forEach(this::removeDoc);
+                toAdd.forEach(this::addDoc);
+                if (removedCount > COMPACT_MIN_REMOVED && removedCount > live.cardinality()) {
+                    compact();
+                }
+            } catch (RuntimeException e) {
+                logger.error("Erro ao atualizar índice de pesquisa", e);
+            }
+            notifyUpdated();
+        });
+    }
+    
+    /**
+     * Agenda a remoção de todas as mensagens do índice
+     */
+    public void clear() {
+        executor.execute(() -> {
+            reset();
+            notifyUpdated();
+        });
+    }
+    
+    /**
+     * Avalia a consulta sobre as mensagens indexadas até ao momento
+     */
+    public CompletableFuture<SearchResult> search(MessageQuery query) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            BitSet matches = evaluate(query.getRoot());
+            
+            Set<MessageInfo> result = Collections.newSetFromMap(new IdentityHashMap<>(matches.cardinality() * 2));
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                result.add(docs.get(id));
+            }
+            BitSet liveTruncated = (BitSet) truncated.clone();
+            liveTruncated.and(live);
+            return new SearchResult(query, Collections.unmodifiableSet(result), 
+                docs.size() - removedCount, liveTruncated.cardinality(), System.nanoTime() - start);
+        }, executor);
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    private void notifyUpdated() {
+        Runnable callback = onUpdated;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+    
+    // ==================== INDEXAÇÃO ====================
+    
+    private void addDoc(MessageInfo message) {
+        if (docIds.containsKey(message)) {
+            return;
+        }
+        int id = docs.size();
+        docs.add(message);
+        docIds.put(message, id);
+        live.set(id);
+        
+        Set<String> docTokens = new HashSet<>();
+        indexField("messageid", message.getMessageId(), id, docTokens);
+        indexField("correlationid", message.getCorrelationId(), id, docTokens);
+        indexField("sessionid", message.getSessionId(), id, docTokens);
+        indexField("subject", message.getSubject(), id, docTokens);
+        for (Map.Entry<String, Object> property : message.getApplicationProperties().entrySet()) {
+            if (property.getValue() != null) {
+                indexField(normalize(property.getKey()), String.valueOf(property.getValue()), id, docTokens);
+            }
+        }
+        
+        MessageBody body = message.getBody();
+        if (body != null && !body.isEmpty()) {
+            tokenize(body.decode(MAX_BODY_BYTES), docTokens);
+            if (body.exceeds(MAX_BODY_BYTES)) {
+                truncated.set(id);
+            }
+        }
+        
+        for (String token : docTokens) {
+            tokens.computeIfAbsent(token, key -> new IntList()).add(id);
+        }
+    }
+    
+    private void indexField(String field, String value, int id, Set<String> docTokens) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(value);
+        IntList postings = fields.computeIfAbsent(field, key -> new TreeMap<>())
+            .computeIfAbsent(normalized, key -> new IntList());
+        if (postings.last() != id) {
+            postings.add(id);
+        }
+        tokenize(value, docTokens);
+    }
+    
+    private void removeDoc(MessageInfo message) {
+        Integer id = docIds.remove(message);
+        if (id != null) {
+            live.clear(id);
+            removedCount++;
+        }
+    }
+    
+    /**
+     * Reconstrói o índice só com as mensagens vivas, libertando as listas das removidas
+     */
+    private void compact() {
+        List<MessageInfo> remaining = new ArrayList<>(live.cardinality());
+        for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+            remaining.add(docs.get(id));
+        }
+        long start = System.nanoTime();
+        reset();
+        remaining.forEach(this::addDoc);
+        logger.debug("Índice de pesquisa compactado: {} mensagens em {} ms", 
+            remaining.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    private void reset() {
+        docs.clear();
+        docIds.clear();
+        live.clear();
+        tokens.clear();
+        fields.clear();
+        truncated.clear();
+        removedCount = 0;
+    }
+    
+    // ==================== AVALIAÇÃO ====================
+    
+    private BitSet evaluate(MessageQuery.Node node) {
+        return switch (node) {
+            case MessageQuery.And and -> {
+                BitSet result = null;
+                // Termos negados são aplicados depois, para não partir do conjunto completo
+                List<MessageQuery.Node> negated = new ArrayList<>();
+                for (MessageQuery.Node child : and.children()) {
+                    if (child instanceof MessageQuery.Not not) {
+                        negated.add(not.child());
+                        continue;
+                    }
+                    BitSet childResult = evaluate(child);
+                    if (result == null) {
+                        result = childResult;
+                    } else {
+                        result.and(childResult);
+                    }
+                    if (result.isEmpty()) {
+                        yield result;
+                    }
+                }
+                if (result == null) {
+                    result = (BitSet) live.clone();
+                }
+                for (MessageQuery.Node child : negated) {
+                    result.andNot(evaluate(child));
+                }
+                yield result;
+            }
+            case MessageQuery.Or or -> {
+                BitSet result = new BitSet();
+                for (MessageQuery.Node child : or.children()) {
+                    result.or(evaluate(child));
+                }
+                yield result;
+            }
+            case MessageQuery.Not not -> {
+                BitSet result = (BitSet) live.clone();
+                result.andNot(evaluate(not.child()));
+                yield result;
+            }
+            case MessageQuery.Term term -> evaluateTerm(term);
+        };
+    }
+    
+    private BitSet evaluateTerm(MessageQuery.Term term) {
+        String field = term.field() != null ? normalize(term.field()) : null;
+        if (field != null && !BODY_FIELD.equals(field)) {
+            return evaluateField(field, term);
+        }
+        
+        List<String> termTokens = new ArrayList<>();
+        tokenize(term.value(), termTokens);
+        if (termTokens.isEmpty()) {
+            return new BitSet();
+        }
+        
+        BitSet result = null;
+        for (int i = 0; i < termTokens.size(); i++) {
+            boolean last = i == termTokens.size() - 1;
+            BitSet tokenResult = term.prefix() && last
+                ? union(tokens.subMap(termTokens.get(i), termTokens.get(i) + Character.MAX_VALUE))
+                : postings(tokens.get(termTokens.get(i)));
+            if (result == null) {
+                result = tokenResult;
+            } else {
+                result.and(tokenResult);
+            }
+        }
+        
+        // Frases e termos com pontuação ("order-123") exigem o texto contíguo
+        String needle = normalize(term.value());
+        boolean contiguous = term.phrase() || termTokens.size() > 1 || !needle.equals(termTokens.get(0));
+        if (contiguous && !term.prefix()) {
+            for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+                if (!containsText(docs.get(id), needle, field == null)) {
+                    result.clear(id);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private BitSet evaluateField(String field, MessageQuery.Term term) {
+        TreeMap<String, IntList> values = fields.get(field);
+        if (values == null) {
+            return new BitSet();
+        }
+        String value = normalize(term.value());
+        if (term.prefix()) {
+            return union(value.isEmpty() ? values : values.subMap(value, value + Character.MAX_VALUE));
+        }
+        return postings(values.get(value));
+    }
+    
+    private boolean containsText(MessageInfo message, String needle, boolean includeFields) {
+        MessageBody body = message.getBody();
+        if (body != null && normalize(body.decode(MAX_BODY_BYTES)).contains(needle)) {
+            return true;
+        }
+        if (!includeFields) {
+            return false;
+        }
+        for (String value : Arrays.asList(message.getMessageId(), message.getCorrelationId(), 
+                message.getSessionId(), message.getSubject())) {
+            if (value != null && normalize(value).contains(needle)) {
+                return true;
+            }
+        }
+        return message.getApplicationProperties().values().stream()
+            .anyMatch(value -> value != null && normalize(String.valueOf(value)).contains(needle));
+    }
+    
+    private BitSet postings(IntList list) {
+        BitSet result = new BitSet();
+        if (list != null) {
+            list.addTo(result);
+            result.and(live);
+        }
+        return result;
+    }
+    
+    private BitSet union(SortedMap<String, IntList> lists) {
+        BitSet result = new BitSet();
+        for (IntList list : lists.values()) {
+            list.addTo(result);
+        }
+        result.and(live);
+        return result;
+    }
+    
+    // ==================== TEXTO ====================
+    
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Divide o texto em palavras (sequências de letras e dígitos) em minúsculas
+     */
+    private static void tokenize(String text, Collection<String> out) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                out.add(normalize(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH))));
+            }
+        }
+    }
+    
+    /**
+     * Resultado de uma pesquisa
+     *
+     * @param matches mensagens encontradas (conjunto por identidade)
+     * @param indexed mensagens no índice no momento da pesquisa
+     * @param truncated mensagens cujo corpo só foi pesquisado nos primeiros {@link #MAX_BODY_BYTES} bytes
+     */
+    public record SearchResult(MessageQuery query, Set<MessageInfo> matches, int indexed, int truncated, 
+                               long elapsedNanos) {
+        
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+    }
+    
+    /**
+     * Lista de ids de mensagem em ordem crescente
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int last() {
+            return size > 0 ? values[size - 1] : -1;
+        }
+        
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(values[i]);
+            }
+        }
+    }
+}
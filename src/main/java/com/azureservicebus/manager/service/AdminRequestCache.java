@@ -0,0 +1,138 @@
+package com.azureservicebus.manager.service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pedidos de leitura à API de administração com coalescência e cache de curta duração.
+ *
+ * Pedidos idênticos (mesma chave) em curso ao mesmo tempo resultam numa única chamada ao Service Bus,
+ * cujo resultado é partilhado por todos; o resultado fica depois em cache durante o TTL.
+ * Erros não ficam em cache. As operações que alteram uma entidade invalidam as suas chaves:
+ * uma leitura ainda em curso no momento da invalidação é entregue a quem já esperava por ela,
+ * mas não fica em cache.
+ *
+ * Os valores em cache são partilhados entre chamadores e não devem ser alterados.
+ */
+public final class AdminRequestCache {
+    
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(3);
+    
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    
+    private static final class Entry {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedNanos;
+    }
+    
+    public AdminRequestCache(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+    
+    /**
+     * Devolve o valor em cache, espera pelo pedido idêntico em curso ou executa o loader.
+     * Bloqueia a thread atual (pensado para as tarefas em virtual threads do serviço).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Callable<T> loader) throws Exception {
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.result.isDone()) {
+                    coalesced.increment();
+                    return (T) await(entry);
+                }
+                if (System.nanoTime() - entry.completedNanos < ttlNanos) {
+                    hits.increment();
+                    return (T) await(entry);
+                }
+                entries.remove(key, entry);
+            }
+            
+            Entry loading = new Entry();
+            if (entries.putIfAbsent(key, loading) != null) {
+                continue;
+            }
+            
+            loads.increment();
+            try {
+                T value = loader.call();
+                loading.completedNanos = System.nanoTime();
+                loading.result.complete(value);
+                return value;
+            } catch (Exception | Error e) {
+                entries.remove(key, loading);
+                loading.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Remove a chave; pedidos seguintes voltam ao Service Bus
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+    
+    /**
+     * Remove todas as chaves com o prefixo (ex.: todas as subscriptions de um tópico)
+     */
+    public void invalidatePrefix(String prefix) {
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * Chamadas efetivamente feitas ao Service Bus
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+    
+    /**
+     * Pedidos servidos pela cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+    
+    /**
+     * Pedidos que esperaram por um pedido idêntico já em curso
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+    
+    /**
+     * Espera pelo resultado partilhado (interrompível, para respeitar o cancelamento do escopo)
+     */
+    private static Object await(Entry entry) throws Exception {
+        try {
+            return entry.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%,d chamadas • %,d da cache • %,d coalescidas", 
+            getLoadCount(), getHitCount(), getCoalescedCount());
+    }
+}
@@ -0,0 +1,192 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import com.azureservicebus.manager.util.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Envio em massa de mensagens usando ServiceBusMessageBatch.
+ *
+ * Cada worker enche um lote até ao tamanho máximo aceite pela entidade e envia-o;
+ * com vários workers há vários lotes em trânsito ao mesmo tempo sobre o mesmo link.
+ * As mensagens são lidas sob demanda da fonte, por isso a memória usada não depende
+ * do número total de mensagens.
+ */
+public class BulkSendEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkSendEngine.class);
+    
+    public static final int DEFAULT_CONCURRENCY = 4;
+    public static final int MAX_CONCURRENCY = 32;
+    
+    private final ServiceBusClientCache clientCache;
+    private final Executor executor;
+    
+    public BulkSendEngine(ServiceBusClientCache clientCache, Executor executor) {
+        this.clientCache = clientCache;
+        this.executor = executor;
+    }
+    
+    /**
+     * Envia todas as mensagens da fonte para a entidade de destino.
+     *
+     * @param target fila ou tópico de destino
+     * @param source mensagens a enviar; consumida por vários workers, com acesso sincronizado
+     * @param expectedTotal total esperado para cálculo de ETA, ou valor negativo se desconhecido
+     * @param concurrency número de lotes em trânsito simultaneamente
+     * @param token cancelamento; os lotes já em envio terminam normalmente
+     * @param onProgress recebe o progresso periodicamente (em threads de trabalho)
+     * @return progresso final da operação
+     */
+    public OperationProgress send(EntityPath target, Iterator<ServiceBusMessage> source, long expectedTotal,
+                                  int concurrency, CancellationToken token, Consumer<OperationProgress> onProgress) {
+        return send(target, source, expectedTotal, concurrency, 0, token, onProgress);
+    }
+    
+    /**
+     * Envia todas as mensagens da fonte respeitando uma taxa alvo.
+     * Com taxa limitada, os lotes são reduzidos para cerca de um décimo de segundo de mensagens,
+     * para que o envio seja uniforme em vez de rajadas de lotes cheios.
+     *
+     * @param targetRatePerSecond taxa alvo em mensagens por segundo (0 ou negativo = sem limite)
+     */
+    public OperationProgress send(EntityPath target, Iterator<ServiceBusMessage> source, long expectedTotal,
+                                  int concurrency, double targetRatePerSecond, CancellationToken token, 
+                                  Consumer<OperationProgress> onProgress) {
+        int workers = Math.max(1, Math.min(concurrency, MAX_CONCURRENCY));
+        ProgressTracker tracker = new ProgressTracker(expectedTotal, onProgress);
+        SharedSource shared = new SharedSource(source);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        RateLimiter rateLimiter = RateLimiter.forRate(targetRatePerSecond);
+        int maxBatchMessages = rateLimiter != null 
+            ? (int) Math.max(1, Math.ceil(targetRatePerSecond / 10)) 
+            : Integer.MAX_VALUE;
+            
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(() -> clientCache.withSender(target, sender -> {
+                runWorker(sender, shared, tracker, token, failure, rateLimiter, maxBatchMessages);
+                return null;
+            }), executor));
+        }
+        
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            failure.compareAndSet(null, e.getCause());
+        }
+        
+        Throwable error = failure.get();
+        if (error != null) {
+            tracker.finish(token.isCancelled());
+            if (error instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(error);
+        }
+        
+        OperationProgress progress = tracker.finish(token.isCancelled());
+        logger.debug("Envio em massa para '{}' concluído: {}", target, progress);
+        return progress;
+    }
+    
+    private void runWorker(ServiceBusSenderClient sender, SharedSource source, ProgressTracker tracker,
+                           CancellationToken token, AtomicReference<Throwable> failure,
+                           RateLimiter rateLimiter, int maxBatchMessages) {
+        ServiceBusMessage carry = null;
+        boolean exhausted = false;
+        
+        try {
+            while (!exhausted && !token.isCancelled() && failure.get() == null) {
+                ServiceBusMessageBatch batch = sender.createMessageBatch();
+                
+                // Mensagem que não coube no lote anterior abre o próximo
+                if (carry != null) {
+                    addOrFail(batch, carry);
+                    carry = null;
+                }
+                
+                while (batch.getCount() < maxBatchMessages) {
+                    ServiceBusMessage next = source.next();
+                    if (next == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    if (batch.getCount() == 0) {
+                        addOrFail(batch, next);
+                    } else if (!batch.tryAddMessage(next)) {
+                        carry = next;
+                        break;
+                    }
+                }
+                
+                if (batch.getCount() == 0) {
+                    return;
+                }
+                
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(batch.getCount());
+                }
+                
+                long start = System.nanoTime();
+                ServiceBusMessageBatch toSend = batch;
+                clientCache.getThrottle().run(MessagingCall.SEND_BATCH, () -> sender.sendMessages(toSend));
+                tracker.recordBatch(batch.getCount(), System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Envio interrompido");
+            failure.compareAndSet(null, cancelled);
+            throw cancelled;
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+    
+    private static void addOrFail(ServiceBusMessageBatch batch, ServiceBusMessage message) {
+        if (!batch.tryAddMessage(message)) {
+            throw new IllegalArgumentException(String.format(
+                "A mensagem excede o tamanho máximo de lote da entidade (%d bytes)", batch.getMaxSizeInBytes()));
+        }
+    }
+    
+    /**
+     * Acesso sincronizado à fonte de mensagens partilhada pelos workers
+     */
+    private static final class SharedSource {
+        private final Iterator<ServiceBusMessage> iterator;
+        private final ReentrantLock lock = new ReentrantLock();
+        
+        SharedSource(Iterator<ServiceBusMessage> iterator) {
+            this.iterator = iterator;
+        }
+        
+        ServiceBusMessage next() {
+            lock.lock();
+            try {
+                return iterator.hasNext() ? iterator.next() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.model.ResubmitOptions;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reenvio de mensagens da dead letter queue para a fila de origem (ou para o tópico,
+ * no caso de subscriptions).
+ *
+ * Cada worker tem um receiver na DLQ e um sender no destino numa conexão própria com transações
+ * entre entidades ({@link ServiceBusClientCache#createTransactionalLink}). As mensagens selecionadas
+ * de cada lote recebido em PEEK_LOCK são enviadas e as originais concluídas na mesma transação,
+ * em grupos de até {@link TransactionalTransfer#MAX_MESSAGES}; se algo falhar a transação é
+ * revertida e as originais voltam à DLQ, por isso nenhuma mensagem fica duplicada nem perdida.
+ */
+public class DeadLetterResubmitEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterResubmitEngine.class);
+    
+    public static final int MAX_CONCURRENCY = 32;
+    
+    /**
+     * Propriedades da aplicação onde o serviço guarda o motivo da dead letter
+     */
+    static final String DEAD_LETTER_REASON = "DeadLetterReason";
+    static final String DEAD_LETTER_ERROR_DESCRIPTION = "DeadLetterErrorDescription";
+    
+    private static final int RECEIVE_BATCH_SIZE = 100;
+    private static final Duration RECEIVE_WAIT = Duration.ofSeconds(3);
+    private static final int MAX_HELD_PER_WORKER = 5000;
+    
+    private final ServiceBusClientCache clientCache;
+    private final Executor executor;
+    private final LongAdder skippedCount = new LongAdder();
+    
+    public DeadLetterResubmitEngine(ServiceBusClientCache clientCache, Executor executor) {
+        this.clientCache = clientCache;
+        this.executor = executor;
+    }
+    
+    /**
+     * Reenvia as mensagens da DLQ da entidade
+     *
+     * @param entity fila ou subscription cuja dead letter queue será processada
+     * @param options limite, filtros, cabeçalhos e paralelismo
+     * @param expectedTotal contagem de runtime usada para o ETA, ou valor negativo se desconhecida
+     * @param token cancelamento; os lotes em curso terminam normalmente
+     * @param onProgress recebe o progresso periodicamente (em threads de trabalho)
+     * @return progresso final (processados = mensagens reenviadas)
+     */
+    public OperationProgress resubmit(EntityPath entity, ResubmitOptions options, long expectedTotal,
+                                      CancellationToken token, Consumer<OperationProgress> onProgress) {
+        EntityPath source = entity.parent().deadLetter();
+        int workers = Math.max(1, Math.min(options.getConcurrency(), MAX_CONCURRENCY));
+        long total = options.getMaxCount() > 0 && (expectedTotal < 0 || options.getMaxCount() < expectedTotal)
+            ? options.getMaxCount() 
+            : expectedTotal;
+            
+        ProgressTracker tracker = new ProgressTracker(total, onProgress);
+        ResubmitRun run = new ResubmitRun(source, entity.parent(), options, tracker, token);
+        
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(run::work, executor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        token.cancel(); // Interrompe os restantes workers
+                    }
+                }));
+        }
+        
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            tracker.finish(true);
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        }
+        
+        OperationProgress progress = tracker.finish(token.isCancelled());
+        logger.debug("Reenvio da DLQ de '{}' concluído: {}", entity, progress);
+        return progress;
+    }
+    
+    /**
+     * Mensagens ignoradas pelo filtro na última execução (permanecem na DLQ)
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+    
+    /**
+     * Cópia da mensagem para reenvio, opcionalmente com o motivo da dead letter.
+     * O construtor de cópia do SDK descarta o motivo e a descrição, por isso, quando os cabeçalhos
+     * são mantidos, são copiados de volta como propriedades da aplicação.
+     */
+    static ServiceBusMessage cloneForResubmit(ServiceBusReceivedMessage message, boolean stripDeadLetterHeaders) {
+        ServiceBusMessage clone = new ServiceBusMessage(message);
+        Map<String, Object> properties = clone.getApplicationProperties();
+        if (stripDeadLetterHeaders) {
+            properties.remove(DEAD_LETTER_REASON);
+            properties.remove(DEAD_LETTER_ERROR_DESCRIPTION);
+        } else {
+            if (message.getDeadLetterReason() != null) {
+                properties.put(DEAD_LETTER_REASON, message.getDeadLetterReason());
+            }
+            if (message.getDeadLetterErrorDescription() != null) {
+                properties.put(DEAD_LETTER_ERROR_DESCRIPTION, message.getDeadLetterErrorDescription());
+            }
+        }
+        return clone;
+    }
+    
+    static Predicate<ServiceBusReceivedMessage> buildFilter(ResubmitOptions options) {
+        Predicate<ServiceBusReceivedMessage> filter = message -> true;
+        
+        if (options.getReasonContains() != null && !options.getReasonContains().isBlank()) {
+            String reason = options.getReasonContains().trim().toLowerCase(Locale.ROOT);
+            filter = filter.and(message -> message.getDeadLetterReason() != null 
+                && message.getDeadLetterReason().toLowerCase(Locale.ROOT).contains(reason));
+        }
+        if (options.getBodyContains() != null && !options.getBodyContains().isBlank()) {
+            String text = options.getBodyContains().trim();
+            filter = filter.and(message -> bodyText(message).contains(text));
+        }
+        
+        return filter;
+    }
+    
+    private static String bodyText(ServiceBusReceivedMessage message) {
+        try {
+            return new String(message.getBody().toBytes(), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            return ""; // Corpo AMQP sem bytes (VALUE/SEQUENCE)
+        }
+    }
+    
+    /**
+     * Estado partilhado pelos workers de uma execução
+     */
+    private final class ResubmitRun {
+        private final EntityPath source;
+        private final EntityPath target;
+        private final ResubmitOptions options;
+        private final Predicate<ServiceBusReceivedMessage> filter;
+        private final ProgressTracker tracker;
+        private final CancellationToken token;
+        private final AtomicLong remaining;
+        
+        ResubmitRun(EntityPath source, EntityPath target, ResubmitOptions options, 
+                    ProgressTracker tracker, CancellationToken token) {
+            this.source = source;
+            this.target = target;
+            this.options = options;
+            this.filter = buildFilter(options);
+            this.tracker = tracker;
+            this.token = token;
+            this.remaining = new AtomicLong(options.getMaxCount() > 0 ? options.getMaxCount() : Long.MAX_VALUE);
+        }
+        
+        void work() {
+            try (ServiceBusClientCache.TransactionalLink link = clientCache.createTransactionalLink(source, target)) {
+                drain(link.receiver(), link.sender());
+            }
+        }
+        
+        private void drain(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender) {
+            HeldMessages held = new HeldMessages(receiver);
+            
+            try {
+                while (!token.isCancelled() && remaining.get() > 0) {
+                    held.renewExpiring();
+                    
+                    List<ServiceBusReceivedMessage> selected = new ArrayList<>();
+                    boolean received = false;
+                    List<ServiceBusReceivedMessage> receivedMessages = clientCache.getThrottle().call(MessagingCall.RECEIVE,
+                        () -> receiver.receiveMessages(RECEIVE_BATCH_SIZE, RECEIVE_WAIT).stream().toList());
+                    for (ServiceBusReceivedMessage message : receivedMessages) {
+                        received = true;
+                        if (!filter.test(message)) {
+                            held.add(message);
+                            skippedCount.increment();
+                        } else if (reserve()) {
+                            selected.add(message);
+                        } else {
+                            HeldMessages.abandonQuietly(receiver, message); // Limite de mensagens atingido
+                        }
+                    }
+                    
+                    if (!selected.isEmpty()) {
+                        sendAndComplete(receiver, sender, selected);
+                    }
+                    
+                    if (!received) {
+                        return; // DLQ esgotada
+                    }
+                    if (held.size() >= MAX_HELD_PER_WORKER) {
+                        // As mensagens seguintes da DLQ ficam por processar: a execução é parcial
+                        logger.warn("Reenvio de '{}' interrompido: {} mensagens ignoradas pelo filtro retidas", 
+                            source, held.size());
+                        tracker.stopEarly(String.format(
+                            "%,d mensagens ignoradas pelo filtro retidas; as restantes ficaram na DLQ por analisar",
+                            held.size()));
+                        return;
+                    }
+                }
+            } finally {
+                held.abandonAll();
+            }
+        }
+        
+        private boolean reserve() {
+            return remaining.getAndUpdate(value -> value > 0 ? value - 1 : 0) > 0;
+        }
+        
+        /**
+         * Reenvia as mensagens em transações de até {@link TransactionalTransfer#MAX_MESSAGES};
+         * se uma falhar, as originais ainda não reenviadas voltam à DLQ
+         */
+        private void sendAndComplete(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender, 
+                                     List<ServiceBusReceivedMessage> messages) {
+            for (int first = 0; first < messages.size(); first += TransactionalTransfer.MAX_MESSAGES) {
+                List<ServiceBusReceivedMessage> group = messages.subList(first, 
+                    Math.min(first + TransactionalTransfer.MAX_MESSAGES, messages.size()));
+                long start = System.nanoTime();
+                try {
+                    TransactionalTransfer.sendAndComplete(receiver, sender, group, 
+                        message -> cloneForResubmit(message, options.isStripDeadLetterHeaders()));
+                } catch (RuntimeException e) {
+                    // O grupo já foi devolvido; os seguintes também voltam para a DLQ
+                    for (ServiceBusReceivedMessage message : messages.subList(first + group.size(), messages.size())) {
+                        HeldMessages.abandonQuietly(receiver, message);
+                    }
+                    throw e;
+                }
+                tracker.recordBatch(group.size(), System.nanoTime() - start);
+            }
+        }
+    }
+}
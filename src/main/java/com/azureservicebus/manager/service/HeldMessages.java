@@ -0,0 +1,89 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Mensagens recebidas em PEEK_LOCK que um worker ignora mas mantém com lock até ao fim da operação.
+ *
+ * Devolver logo a mensagem (abandon) fá-la reaparecer na receção seguinte, à frente das restantes;
+ * retê-la faz as receções seguintes avançarem na entidade. Não é thread-safe: cada worker usa a sua
+ * instância com o seu receiver.
+ */
+class HeldMessages {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HeldMessages.class);
+    
+    private static final Duration LOCK_RENEW_MARGIN = Duration.ofSeconds(15);
+    
+    private final ServiceBusReceiverClient receiver;
+    private final List<Entry> entries = new ArrayList<>();
+    
+    HeldMessages(ServiceBusReceiverClient receiver) {
+        this.receiver = receiver;
+    }
+    
+    void add(ServiceBusReceivedMessage message) {
+        entries.add(new Entry(message));
+    }
+    
+    int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Renova os locks que expiram em breve; mensagens cujo lock se perdeu deixam de ser retidas
+     * (voltaram para a entidade e serão avaliadas de novo)
+     */
+    void renewExpiring() {
+        OffsetDateTime threshold = OffsetDateTime.now().plus(LOCK_RENEW_MARGIN);
+        Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.lockedUntil == null || entry.lockedUntil.isAfter(threshold)) {
+                continue;
+            }
+            try {
+                entry.lockedUntil = receiver.renewMessageLock(entry.message);
+            } catch (RuntimeException e) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Devolve todas as mensagens retidas à entidade
+     */
+    void abandonAll() {
+        for (Entry entry : entries) {
+            abandonQuietly(receiver, entry.message);
+        }
+        entries.clear();
+    }
+    
+    static void abandonQuietly(ServiceBusReceiverClient receiver, ServiceBusReceivedMessage message) {
+        try {
+            receiver.abandon(message);
+        } catch (RuntimeException e) {
+            logger.debug("Não foi possível devolver a mensagem {}", message.getSequenceNumber(), e);
+        }
+    }
+    
+    private static final class Entry {
+        private final ServiceBusReceivedMessage message;
+        private OffsetDateTime lockedUntil;
+        
+        Entry(ServiceBusReceivedMessage message) {
+            this.message = message;
+            this.lockedUntil = message.getLockedUntil();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.MessageInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Acompanhamento ao vivo ("tail -f") de uma fila, subscription ou dead letter queue.
+ *
+ * Um receiver dedicado, aberto durante toda a sessão, espia a entidade a partir do último
+ * sequence number visto. O intervalo entre espiadas acompanha a taxa de chegada: páginas
+ * cheias são seguidas de nova espiada imediata, entidades paradas são consultadas cada vez
+ * menos. As mensagens novas vão para um buffer circular de tamanho fixo que a interface
+ * esvazia quando for notificada; se a interface se atrasar, as mais antigas são descartadas
+ * e a memória usada não cresce.
+ *
+ * A espiada só vê mensagens ativas: mensagens consumidas entre duas espiadas não aparecem.
+ */
+public class LiveTailSession implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LiveTailSession.class);
+    
+    public static final int DEFAULT_CAPACITY = 1000;
+    
+    private static final int PEEK_PAGE_SIZE = 250;
+    private static final long MIN_INTERVAL_MILLIS = 200;
+    private static final long MAX_INTERVAL_MILLIS = 5000;
+    private static final long INITIAL_INTERVAL_MILLIS = 1000;
+    private static final double RATE_SMOOTHING = 0.3;
+    
+    /**
+     * Notificações da sessão (chamadas na thread da sessão)
+     */
+    public interface Listener {
+        /**
+         * Há mensagens novas no buffer; chamado apenas quando o buffer passa de vazio a não vazio
+         */
+        void onArrivals();
+        
+        void onError(String message);
+    }
+    
+    /**
+     * Mensagens retiradas do buffer e estado da sessão no momento da retirada
+     */
+    public record Drain(List<MessageInfo> messages, long dropped, long totalReceived, 
+                        double ratePerSecond, long intervalMillis) {
+    }
+    
+    private final EntityPath entity;
+    private final ServiceBusReceiverClient receiver;
+    private final Function<ServiceBusReceivedMessage, MessageInfo> converter;
+    private final Listener listener;
+    private final int capacity;
+    private final ScheduledExecutorService poller;
+    
+    // Buffer circular das mensagens ainda não entregues à interface (guardado por "buffer")
+    private final ArrayDeque<MessageInfo> buffer;
+    private long dropped;
+    
+    private volatile boolean closed;
+    private long nextSequenceNumber;
+    private long lastPollNanos = System.nanoTime();
+    private volatile long totalReceived;
+    private volatile double ratePerSecond;
+    private volatile long intervalMillis = INITIAL_INTERVAL_MILLIS;
+    
+    LiveTailSession(EntityPath entity, ServiceBusReceiverClient receiver, 
+                    Function<ServiceBusReceivedMessage, MessageInfo> converter,
+                    long fromSequenceNumber, int capacity, Listener listener) {
+        this.entity = entity;
+        this.receiver = receiver;
+        this.converter = converter;
+        this.nextSequenceNumber = fromSequenceNumber;
+        this.capacity = capacity;
+        this.listener = listener;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-tail-" + entity.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.execute(this::poll);
+    }
+    
+    public EntityPath getEntity() {
+        return entity;
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Retira todas as mensagens do buffer, pela ordem de chegada
+     */
+    public Drain drain() {
+        List<MessageInfo> messages;
+        long droppedSinceLastDrain;
+        synchronized (buffer) {
+            messages = new ArrayList<>(buffer);
+            buffer.clear();
+            droppedSinceLastDrain = dropped;
+            dropped = 0;
+        }
+        return new Drain(messages, droppedSinceLastDrain, totalReceived, ratePerSecond, intervalMillis);
+    }
+    
+    /**
+     * Para as espiadas e fecha o receiver
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        poller.shutdownNow();
+        
+        try {
+            receiver.close();
+        } catch (RuntimeException e) {
+            logger.debug("Erro ao fechar receiver do acompanhamento ao vivo de '{}'", entity, e);
+        }
+        
+        // Mensagens que a interface não chegou a retirar libertam os corpos em disco
+        synchronized (buffer) {
+            buffer.forEach(MessageInfo::release);
+            buffer.clear();
+        }
+    }
+    
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        
+        int count = 0;
+        try {
+            List<MessageInfo> page = new ArrayList<>();
+            for (ServiceBusReceivedMessage message : receiver.peekMessages(PEEK_PAGE_SIZE, nextSequenceNumber)) {
+                nextSequenceNumber = Math.max(nextSequenceNumber, message.getSequenceNumber() + 1);
+                page.add(converter.apply(message));
+            }
+            count = page.size();
+            if (count > 0) {
+                publish(page);
+            }
+        } catch (RuntimeException e) {
+            if (closed) {
+                return;
+            }
+            logger.warn("Erro ao espiar '{}' no acompanhamento ao vivo", entity, e);
+            listener.onError(e.getMessage());
+        }
+        
+        long delay = nextDelay(count);
+        if (!closed) {
+            poller.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void publish(List<MessageInfo> page) {
+        boolean wasEmpty;
+        synchronized (buffer) {
+            wasEmpty = buffer.isEmpty();
+            if (closed) {
+                page.forEach(MessageInfo::release);
+                return;
+            }
+            for (MessageInfo message : page) {
+                if (buffer.size() == capacity) {
+                    buffer.removeFirst().release();
+                    dropped++;
+                }
+                buffer.addLast(message);
+            }
+        }
+        totalReceived += page.size();
+        
+        if (wasEmpty) {
+            listener.onArrivals();
+        }
+    }
+    
+    /**
+     * Intervalo até à próxima espiada: o suficiente para encher cerca de meia página à taxa
+     * de chegada atual, entre os limites mínimo e máximo
+     */
+    private long nextDelay(int count) {
+        long now = System.nanoTime();
+        double elapsedSeconds = Math.max(1e-3, (now - lastPollNanos) / 1_000_000_000.0);
+        lastPollNanos = now;
+        ratePerSecond = RATE_SMOOTHING * (count / elapsedSeconds) + (1 - RATE_SMOOTHING) * ratePerSecond;
+        
+        if (count == PEEK_PAGE_SIZE) {
+            intervalMillis = MIN_INTERVAL_MILLIS;
+            return 0; // Há mais mensagens à espera: espiar de novo de imediato
+        }
+        
+        long interval = ratePerSecond >= 1
+            ? (long) (PEEK_PAGE_SIZE / 2.0 / ratePerSecond * 1000)
+            : intervalMillis * 2;
+        intervalMillis = Math.max(MIN_INTERVAL_MILLIS, Math.min(MAX_INTERVAL_MILLIS, interval));
+        return intervalMillis;
+    }
+}
@@ -0,0 +1,251 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.DeadLetterOptions;
+import com.azureservicebus.manager.model.EntityPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Navegação com lock (PEEK_LOCK) numa fila, subscription ou dead letter queue.
+ *
+ * As mensagens recebidas ficam retidas com o lock ativo (renovado automaticamente
+ * até ao tempo máximo de retenção) e são liquidadas diretamente pelo lock token:
+ * concluir, devolver, enviar para a dead letter ou adiar. Remover uma mensagem
+ * deixa de exigir varrer a fila e devolver todas as outras.
+ */
+public class LockedBrowseSession implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LockedBrowseSession.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final Duration DEFAULT_MAX_HOLD = Duration.ofMinutes(30);
+    
+    private static final Duration RECEIVE_WAIT = Duration.ofSeconds(5);
+    private static final Duration RENEW_MARGIN = Duration.ofSeconds(15);
+    private static final long RENEW_CHECK_INTERVAL_SECONDS = 5;
+    
+    /**
+     * Ações de liquidação aplicáveis a uma mensagem com lock
+     */
+    public enum Settlement {
+        COMPLETE("Concluir (remover)"),
+        ABANDON("Devolver à fila"),
+        DEAD_LETTER("Enviar para dead letter"),
+        DEFER("Adiar (defer)");
+        
+        private final String displayName;
+        
+        Settlement(String displayName) {
+            this.displayName = displayName;
+        }
+        
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+    
+    /**
+     * Notificações do renovador de locks (chamadas na thread do renovador)
+     */
+    public interface Listener {
+        void onLockRenewed(long sequenceNumber, OffsetDateTime lockedUntil);
+        
+        void onLockLost(long sequenceNumber, String reason);
+    }
+    
+    /**
+     * Resultado de uma liquidação: sequence numbers liquidados e falhas com o motivo
+     */
+    public record SettlementResult(List<Long> settled, Map<Long, String> failed) {
+    }
+    
+    private final EntityPath entity;
+    private final ServiceBusReceiverClient receiver;
+    private final Listener listener;
+    private final Duration maxHold;
+    private final Map<Long, HeldMessage> held = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer;
+    private volatile boolean closed;
+    
+    LockedBrowseSession(EntityPath entity, ServiceBusReceiverClient receiver, Listener listener, Duration maxHold) {
+        this.entity = entity;
+        this.receiver = receiver;
+        this.listener = listener;
+        this.maxHold = maxHold;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lock-renewer-" + entity.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewer.scheduleWithFixedDelay(this::renewExpiringLocks, 
+            RENEW_CHECK_INTERVAL_SECONDS, RENEW_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    public EntityPath getEntity() {
+        return entity;
+    }
+    
+    public int getHeldCount() {
+        return held.size();
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Recebe a próxima página de mensagens com lock e passa a retê-las.
+     * Cada mensagem recebida tem o delivery count incrementado pelo serviço.
+     */
+    public List<ServiceBusReceivedMessage> receivePage(int maxMessages) {
+        ensureOpen();
+        
+        List<ServiceBusReceivedMessage> page = new ArrayList<>();
+        for (ServiceBusReceivedMessage message : receiver.receiveMessages(maxMessages, RECEIVE_WAIT)) {
+            held.put(message.getSequenceNumber(), new HeldMessage(message));
+            page.add(message);
+        }
+        return page;
+    }
+    
+    /**
+     * Aplica a ação às mensagens retidas indicadas, pelo lock token de cada uma
+     *
+     * @param reason motivo da dead letter (ignorado nas outras ações)
+     * @param description descrição do erro da dead letter (ignorada nas outras ações)
+     */
+    public SettlementResult settle(Collection<Long> sequenceNumbers, Settlement action, String reason, String description) {
+        ensureOpen();
+        
+        List<Long> settled = new ArrayList<>();
+        Map<Long, String> failed = new LinkedHashMap<>();
+        
+        for (Long sequenceNumber : sequenceNumbers) {
+            HeldMessage heldMessage = held.get(sequenceNumber);
+            if (heldMessage == null) {
+                failed.put(sequenceNumber, "Mensagem não está retida nesta sessão (lock expirado ou já liquidada)");
+                continue;
+            }
+            
+            try {
+                switch (action) {
+                    case COMPLETE -> receiver.complete(heldMessage.message);
+                    case ABANDON -> receiver.abandon(heldMessage.message);
+                    case DEAD_LETTER -> receiver.deadLetter(heldMessage.message, new DeadLetterOptions()
+                        .setDeadLetterReason(reason)
+                        .setDeadLetterErrorDescription(description));
+                    case DEFER -> receiver.defer(heldMessage.message);
+                }
+                held.remove(sequenceNumber);
+                settled.add(sequenceNumber);
+            } catch (RuntimeException e) {
+                // Lock perdido: a mensagem já voltou para a fila e não pode ser liquidada aqui
+                held.remove(sequenceNumber);
+                failed.put(sequenceNumber, e.getMessage());
+                logger.warn("Falha ao liquidar mensagem {} de '{}' ({})", sequenceNumber, entity, action, e);
+            }
+        }
+        
+        return new SettlementResult(settled, failed);
+    }
+    
+    /**
+     * Devolve todas as mensagens retidas, fecha o receiver e para a renovação de locks
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        renewer.shutdownNow();
+        
+        for (HeldMessage heldMessage : held.values()) {
+            try {
+                receiver.abandon(heldMessage.message);
+            } catch (RuntimeException e) {
+                logger.debug("Não foi possível devolver a mensagem {} de '{}'", 
+                    heldMessage.message.getSequenceNumber(), entity, e);
+            }
+        }
+        held.clear();
+        
+        try {
+            receiver.close();
+        } catch (RuntimeException e) {
+            logger.debug("Erro ao fechar receiver da sessão com lock de '{}'", entity, e);
+        }
+    }
+    
+    private void renewExpiringLocks() {
+        OffsetDateTime now = OffsetDateTime.now();
+        
+        for (Map.Entry<Long, HeldMessage> entry : held.entrySet()) {
+            if (closed) {
+                return;
+            }
+            
+            HeldMessage heldMessage = entry.getValue();
+            if (heldMessage.lockedUntil == null || heldMessage.lockedUntil.minus(RENEW_MARGIN).isAfter(now)) {
+                continue;
+            }
+            
+            // Depois do tempo máximo de retenção o lock deixa de ser renovado e expira
+            if (Duration.ofNanos(System.nanoTime() - heldMessage.heldSinceNanos).compareTo(maxHold) > 0) {
+                if (heldMessage.lockedUntil.isBefore(now) && held.remove(entry.getKey(), heldMessage)) {
+                    notifyLockLost(entry.getKey(), "Tempo máximo de retenção excedido");
+                }
+                continue;
+            }
+            
+            try {
+                heldMessage.lockedUntil = receiver.renewMessageLock(heldMessage.message);
+                if (listener != null) {
+                    listener.onLockRenewed(entry.getKey(), heldMessage.lockedUntil);
+                }
+            } catch (RuntimeException e) {
+                if (held.remove(entry.getKey(), heldMessage)) {
+                    logger.warn("Lock da mensagem {} de '{}' perdido", entry.getKey(), entity, e);
+                    notifyLockLost(entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void notifyLockLost(long sequenceNumber, String reason) {
+        if (listener != null) {
+            listener.onLockLost(sequenceNumber, reason);
+        }
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Sessão com lock já foi encerrada");
+        }
+    }
+    
+    private static final class HeldMessage {
+        private final ServiceBusReceivedMessage message;
+        private final long heldSinceNanos = System.nanoTime();
+        private volatile OffsetDateTime lockedUntil;
+        
+        HeldMessage(ServiceBusReceivedMessage message) {
+            this.message = message;
+            this.lockedUntil = message.getLockedUntil();
+        }
+    }
+}
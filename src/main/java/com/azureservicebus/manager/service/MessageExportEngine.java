@@ -0,0 +1,118 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de todas as mensagens de uma entidade para um arquivo NDJSON.
+ *
+ * Percorre a entidade com peeks sequenciais a partir do último sequence number lido e
+ * escreve cada página diretamente no arquivo (opcionalmente comprimido com gzip), por isso
+ * a memória usada é a de uma página, independentemente da profundidade da entidade.
+ * As mensagens não são removidas nem bloqueadas.
+ */
+public class MessageExportEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MessageExportEngine.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 250;
+    
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+    
+    private final ServiceBusClientCache clientCache;
+    private final int pageSize;
+    private final Gson gson = new Gson();
+    
+    public MessageExportEngine(ServiceBusClientCache clientCache) {
+        this(clientCache, DEFAULT_PAGE_SIZE);
+    }
+    
+    public MessageExportEngine(ServiceBusClientCache clientCache, int pageSize) {
+        this.clientCache = clientCache;
+        this.pageSize = Math.max(1, pageSize);
+    }
+    
+    /**
+     * Exporta a entidade para o arquivo indicado (substituído se existir)
+     *
+     * @param source fila, subscription ou dead letter queue a exportar
+     * @param target arquivo NDJSON de destino
+     * @param gzip comprimir o arquivo com gzip
+     * @param expectedTotal contagem de runtime usada para o ETA, ou valor negativo se desconhecida
+     * @param token cancelamento; o arquivo fica com as mensagens exportadas até esse momento
+     * @param onProgress recebe o progresso periodicamente (na thread da exportação)
+     * @return progresso final da operação
+     */
+    public OperationProgress export(EntityPath source, Path target, boolean gzip, long expectedTotal,
+                                    CancellationToken token, Consumer<OperationProgress> onProgress) {
+        ProgressTracker tracker = new ProgressTracker(expectedTotal, onProgress);
+        
+        // Receiver próprio: a exportação não compete com os peeks da interface pelo link em cache
+        try (ServiceBusReceiverClient receiver = clientCache.createReceiver(source, ServiceBusReceiveMode.PEEK_LOCK, 0);
+             Writer writer = openWriter(target, gzip)) {
+            
+            long fromSequenceNumber = 0;
+            while (!token.isCancelled()) {
+                long start = System.nanoTime();
+                int count = 0;
+                long lastSequenceNumber = -1;
+                
+                long from = fromSequenceNumber;
+                List<ServiceBusReceivedMessage> page = clientCache.getThrottle().call(MessagingCall.PEEK,
+                    () -> receiver.peekMessages(pageSize, from).stream().toList());
+                for (ServiceBusReceivedMessage message : page) {
+                    gson.toJson(MessageNdjson.toJson(message), writer);
+                    writer.write('\n');
+                    lastSequenceNumber = message.getSequenceNumber();
+                    count++;
+                }
+                
+                if (count == 0) {
+                    break; // Fim da entidade
+                }
+                tracker.recordBatch(count, System.nanoTime() - start);
+                fromSequenceNumber = lastSequenceNumber + 1;
+            }
+        } catch (IOException e) {
+            tracker.finish(token.isCancelled());
+            throw new UncheckedIOException("Erro ao escrever arquivo de exportação", e);
+        } catch (RuntimeException e) {
+            tracker.finish(token.isCancelled());
+            throw e;
+        }
+        
+        OperationProgress progress = tracker.finish(token.isCancelled());
+        logger.debug("Exportação de '{}' para '{}' concluída: {}", source, target, progress);
+        return progress;
+    }
+    
+    private static Writer openWriter(Path target, boolean gzip) throws IOException {
+        OutputStream output = new BufferedOutputStream(Files.newOutputStream(target), OUTPUT_BUFFER_SIZE);
+        if (gzip) {
+            output = new GZIPOutputStream(output, 64 * 1024);
+        }
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}
@@ -0,0 +1,241 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.core.amqp.models.AmqpMessageBody;
+import com.azure.core.amqp.models.AmqpMessageBodyType;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azureservicebus.manager.model.MessageBody;
+import com.azureservicebus.manager.model.MessageInfo;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formato NDJSON (uma mensagem JSON por linha) usado na exportação e no replay de mensagens.
+ *
+ * Cada linha guarda o corpo, as propriedades de sistema e as propriedades da aplicação.
+ * Corpos UTF-8 válidos vão no campo "body"; os restantes em Base64 no campo "bodyBase64".
+ */
+public final class MessageNdjson {
+    
+    public static final String BODY = "body";
+    public static final String BODY_BASE64 = "bodyBase64";
+    public static final String APPLICATION_PROPERTIES = "applicationProperties";
+    
+    private MessageNdjson() {
+    }
+    
+    /**
+     * Converte uma mensagem recebida ou espiada num objeto JSON de uma linha
+     */
+    public static JsonObject toJson(ServiceBusReceivedMessage message) {
+        JsonObject json = new JsonObject();
+        
+        json.addProperty("sequenceNumber", message.getSequenceNumber());
+        addIfPresent(json, "messageId", message.getMessageId());
+        addIfPresent(json, "contentType", message.getContentType());
+        addIfPresent(json, "correlationId", message.getCorrelationId());
+        addIfPresent(json, "sessionId", message.getSessionId());
+        addIfPresent(json, "partitionKey", message.getPartitionKey());
+        addIfPresent(json, "replyTo", message.getReplyTo());
+        addIfPresent(json, "replyToSessionId", message.getReplyToSessionId());
+        addIfPresent(json, "to", message.getTo());
+        addIfPresent(json, "subject", message.getSubject());
+        addIfPresent(json, "timeToLive", message.getTimeToLive());
+        addIfPresent(json, "enqueuedTime", message.getEnqueuedTime());
+        addIfPresent(json, "scheduledEnqueueTime", message.getScheduledEnqueueTime());
+        addIfPresent(json, "expiresAt", message.getExpiresAt());
+        json.addProperty("deliveryCount", message.getDeliveryCount());
+        addIfPresent(json, "state", message.getState());
+        addIfPresent(json, "deadLetterSource", message.getDeadLetterSource());
+        addIfPresent(json, "deadLetterReason", message.getDeadLetterReason());
+        addIfPresent(json, "deadLetterErrorDescription", message.getDeadLetterErrorDescription());
+        
+        JsonObject properties = new JsonObject();
+        for (Map.Entry<String, Object> entry : message.getApplicationProperties().entrySet()) {
+            properties.add(entry.getKey(), toJsonValue(entry.getValue()));
+        }
+        json.add(APPLICATION_PROPERTIES, properties);
+        
+        addBody(json, message);
+        return json;
+    }
+    
+    /**
+     * Reconstrói uma mensagem para envio a partir de uma linha exportada.
+     * Campos atribuídos pelo serviço (sequence number, datas de entrada, delivery count,
+     * dead letter) e o agendamento original são ignorados: a mensagem é enviada de imediato.
+     */
+    public static ServiceBusMessage fromJson(JsonObject json) {
+        ServiceBusMessage message;
+        if (json.has(BODY_BASE64)) {
+            message = new ServiceBusMessage(Base64.getDecoder().decode(getString(json, BODY_BASE64)));
+        } else {
+            String body = getString(json, BODY);
+            message = new ServiceBusMessage(body != null ? body : "");
+        }
+        
+        message.setMessageId(getString(json, "messageId"));
+        message.setContentType(getString(json, "contentType"));
+        message.setCorrelationId(getString(json, "correlationId"));
+        message.setSessionId(getString(json, "sessionId"));
+        message.setReplyTo(getString(json, "replyTo"));
+        message.setReplyToSessionId(getString(json, "replyToSessionId"));
+        message.setTo(getString(json, "to"));
+        message.setSubject(getString(json, "subject"));
+        
+        // Com sessão, o serviço exige partition key igual ao session id
+        String partitionKey = getString(json, "partitionKey");
+        if (partitionKey != null && (message.getSessionId() == null || partitionKey.equals(message.getSessionId()))) {
+            message.setPartitionKey(partitionKey);
+        }
+        
+        String timeToLive = getString(json, "timeToLive");
+        if (timeToLive != null) {
+            message.setTimeToLive(Duration.parse(timeToLive));
+        }
+        
+        if (json.has(APPLICATION_PROPERTIES) && json.get(APPLICATION_PROPERTIES).isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject(APPLICATION_PROPERTIES).entrySet()) {
+                Object value = fromJsonValue(entry.getValue());
+                if (value != null) {
+                    message.getApplicationProperties().put(entry.getKey(), value);
+                }
+            }
+        }
+        
+        return message;
+    }
+    
+    /**
+     * Preenche uma linha da tabela a partir de uma linha exportada, sem passar pelo Service Bus
+     * (ex.: para simular o encaminhamento de mensagens guardadas num arquivo)
+     */
+    public static void fillMessageInfo(JsonObject json, MessageInfo message) {
+        byte[] body = json.has(BODY_BASE64) 
+            ? Base64.getDecoder().decode(getString(json, BODY_BASE64)) 
+            : (getString(json, BODY) != null ? getString(json, BODY) : "").getBytes(StandardCharsets.UTF_8);
+        message.setBody(MessageBody.of(body));
+        message.setSizeInBytes(body.length);
+        
+        JsonElement sequenceNumber = json.get("sequenceNumber");
+        if (sequenceNumber != null && sequenceNumber.isJsonPrimitive()) {
+            message.setSequenceNumber(sequenceNumber.getAsLong());
+        }
+        message.setMessageId(getString(json, "messageId"));
+        message.setContentType(getString(json, "contentType"));
+        message.setCorrelationId(getString(json, "correlationId"));
+        message.setSessionId(getString(json, "sessionId"));
+        message.setReplyTo(getString(json, "replyTo"));
+        message.setSubject(getString(json, "subject"));
+        
+        String enqueuedTime = getString(json, "enqueuedTime");
+        if (enqueuedTime != null) {
+            message.setEnqueuedTime(OffsetDateTime.parse(enqueuedTime).toInstant());
+        }
+        
+        if (json.has(APPLICATION_PROPERTIES) && json.get(APPLICATION_PROPERTIES).isJsonObject()) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject(APPLICATION_PROPERTIES).entrySet()) {
+                Object value = fromJsonValue(entry.getValue());
+                if (value != null) {
+                    properties.put(entry.getKey(), value);
+                }
+            }
+            message.setApplicationProperties(properties);
+        }
+    }
+    
+    private static void addBody(JsonObject json, ServiceBusReceivedMessage message) {
+        AmqpMessageBody body = message.getRawAmqpMessage().getBody();
+        
+        if (body.getBodyType() == AmqpMessageBodyType.DATA) {
+            byte[] bytes = message.getBody().toBytes();
+            String text = decodeUtf8(bytes);
+            if (text != null) {
+                json.addProperty(BODY, text);
+            } else {
+                json.addProperty(BODY_BASE64, Base64.getEncoder().encodeToString(bytes));
+            }
+            return;
+        }
+        
+        // Corpos AMQP VALUE/SEQUENCE não têm bytes: exportados como texto
+        Object value = body.getBodyType() == AmqpMessageBodyType.VALUE ? body.getValue() : body.getSequence();
+        json.addProperty(BODY, String.valueOf(value));
+        json.addProperty("amqpBodyType", body.getBodyType().toString());
+    }
+    
+    private static String decodeUtf8(byte[] bytes) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Números inteiros voltam como Long e os restantes como Double (o JSON não guarda o tipo exato)
+     */
+    private static Object fromJsonValue(JsonElement element) {
+        if (element == null || !element.isJsonPrimitive()) {
+            return element == null || element.isJsonNull() ? null : element.toString();
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            BigDecimal number = primitive.getAsBigDecimal();
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException e) {
+                return number.doubleValue();
+            }
+        }
+        return primitive.getAsString();
+    }
+    
+    private static String getString(JsonObject json, String name) {
+        JsonElement element = json.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+    
+    private static JsonElement toJsonValue(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (value instanceof Number number) {
+            return new JsonPrimitive(number);
+        }
+        if (value instanceof Boolean bool) {
+            return new JsonPrimitive(bool);
+        }
+        return new JsonPrimitive(value.toString());
+    }
+    
+    /**
+     * Datas (OffsetDateTime) e durações (Duration) ficam no formato ISO-8601 do toString()
+     */
+    private static void addIfPresent(JsonObject json, String name, Object value) {
+        if (value != null) {
+            json.addProperty(name, value.toString());
+        }
+    }
+}
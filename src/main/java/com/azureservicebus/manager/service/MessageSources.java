@@ -0,0 +1,162 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Fontes de mensagens geradas sob demanda para o envio em massa
+ */
+public final class MessageSources {
+    
+    /**
+     * Marcador substituído pelo número da mensagem (a partir de 1) no corpo e nas propriedades
+     */
+    public static final String INDEX_PLACEHOLDER = "{{n}}";
+    
+    private MessageSources() {
+    }
+    
+    /**
+     * Gera {@code count} mensagens a partir do mesmo corpo e propriedades
+     */
+    public static Iterator<ServiceBusMessage> repeated(String bodyTemplate, Map<String, Object> properties, long count) {
+        boolean indexed = containsPlaceholder(bodyTemplate, properties);
+        
+        return new Iterator<>() {
+            private long index;
+            
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+            
+            @Override
+            public ServiceBusMessage next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                index++;
+                return indexed
+                    ? createMessage(bodyTemplate.replace(INDEX_PLACEHOLDER, Long.toString(index)), properties, index)
+                    : createMessage(bodyTemplate, properties, -1);
+            }
+        };
+    }
+    
+    /**
+     * Gera uma mensagem por linha não vazia do reader (o reader não é fechado)
+     */
+    public static Iterator<ServiceBusMessage> lines(BufferedReader reader, Map<String, Object> properties) {
+        return new Iterator<>() {
+            private String nextLine;
+            private long index;
+            
+            @Override
+            public boolean hasNext() {
+                if (nextLine != null) {
+                    return true;
+                }
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            nextLine = line;
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Erro ao ler arquivo de mensagens", e);
+                }
+            }
+            
+            @Override
+            public ServiceBusMessage next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String line = nextLine;
+                nextLine = null;
+                index++;
+                return createMessage(line, properties, index);
+            }
+        };
+    }
+    
+    /**
+     * Gera uma mensagem por linha não vazia de um arquivo NDJSON no formato da exportação
+     * (o reader não é fechado). Linhas inválidas interrompem o envio com o número da linha.
+     */
+    public static Iterator<ServiceBusMessage> ndjson(BufferedReader reader) {
+        return new Iterator<>() {
+            private String nextLine;
+            private long lineNumber;
+            
+            @Override
+            public boolean hasNext() {
+                if (nextLine != null) {
+                    return true;
+                }
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        if (!line.isBlank()) {
+                            nextLine = line;
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Erro ao ler arquivo NDJSON", e);
+                }
+            }
+            
+            @Override
+            public ServiceBusMessage next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String line = nextLine;
+                nextLine = null;
+                try {
+                    return MessageNdjson.fromJson(JsonParser.parseString(line).getAsJsonObject());
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(String.format(
+                        "Linha %d do arquivo NDJSON inválida: %s", lineNumber, e.getMessage()), e);
+                }
+            }
+        };
+    }
+    
+    private static ServiceBusMessage createMessage(String body, Map<String, Object> properties, long index) {
+        ServiceBusMessage message = new ServiceBusMessage(body);
+        
+        if (properties != null) {
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                Object value = entry.getValue();
+                if (index > 0 && value instanceof String text) {
+                    value = text.replace(INDEX_PLACEHOLDER, Long.toString(index));
+                }
+                message.getApplicationProperties().put(entry.getKey(), value);
+            }
+        }
+        
+        return message;
+    }
+    
+    private static boolean containsPlaceholder(String body, Map<String, Object> properties) {
+        if (body != null && body.contains(INDEX_PLACEHOLDER)) {
+            return true;
+        }
+        return properties != null && properties.values().stream()
+            .anyMatch(value -> value instanceof String text && text.contains(INDEX_PLACEHOLDER));
+    }
+}
@@ -0,0 +1,327 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.model.TransferOptions;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cópia e movimentação de mensagens entre entidades do mesmo namespace.
+ *
+ * A cópia espia a origem a partir do primeiro sequence number da seleção e envia as cópias
+ * com o BulkSendEngine, sem alterar a origem. A movimentação usa workers com receiver e sender
+ * numa conexão com transações entre entidades: cada lote é enviado e as originais concluídas
+ * na mesma transação, por isso uma falha ou cancelamento nunca deixa a mensagem nos dois lados
+ * nem em nenhum.
+ *
+ * Como a receção começa sempre no início da origem, a movimentação só aceita seleções contíguas
+ * a partir da primeira mensagem: uma mensagem fora da seleção à frente dela seria recebida e
+ * devolvida, aumentando o seu delivery count (e podendo levá-la para a dead letter queue).
+ * Cada worker reserva o número de mensagens que ainda faltam antes de receber, para não receber
+ * mensagens para lá do fim da seleção.
+ */
+public class MessageTransferEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MessageTransferEngine.class);
+    
+    public static final int MAX_CONCURRENCY = 16;
+    
+    private static final int PEEK_PAGE_SIZE = 250;
+    
+    private static final Duration RECEIVE_WAIT = Duration.ofSeconds(3);
+    private static final int MAX_HELD_PER_WORKER = 5000;
+    
+    private final ServiceBusClientCache clientCache;
+    private final Executor executor;
+    
+    public MessageTransferEngine(ServiceBusClientCache clientCache, Executor executor) {
+        this.clientCache = clientCache;
+        this.executor = executor;
+    }
+    
+    /**
+     * Copia ou move as mensagens selecionadas da origem para o destino das opções
+     *
+     * @param source fila, subscription ou dead letter queue de origem
+     * @param options modo, destino, seleção, limite e paralelismo
+     * @param expectedTotal total esperado para o ETA, ou valor negativo se desconhecido
+     * @param token cancelamento; os lotes em curso terminam (ou revertem) normalmente
+     * @param onProgress recebe o progresso periodicamente (em threads de trabalho)
+     * @return progresso final (processados = mensagens copiadas ou movidas)
+     */
+    public OperationProgress transfer(EntityPath source, TransferOptions options, long expectedTotal,
+                                      CancellationToken token, Consumer<OperationProgress> onProgress) {
+        if (options.isMove()) {
+            return move(source, options, expectedTotal, token, onProgress);
+        }
+        
+        Iterator<ServiceBusMessage> messages = new PeekedCopies(source, options, token);
+        OperationProgress progress = new BulkSendEngine(clientCache, executor)
+            .send(options.getTarget(), messages, expectedTotal, options.getConcurrency(), token, onProgress);
+        logger.debug("Cópia de '{}' para '{}' concluída: {}", source, options.getTarget(), progress);
+        return progress;
+    }
+    
+    private OperationProgress move(EntityPath source, TransferOptions options, long expectedTotal,
+                                   CancellationToken token, Consumer<OperationProgress> onProgress) {
+        long count = countMovableFromHead(source, options, token);
+        int workers = Math.max(1, Math.min(options.getConcurrency(), MAX_CONCURRENCY));
+        ProgressTracker tracker = new ProgressTracker(count >= 0 ? count : expectedTotal, onProgress);
+        MoveRun run = new MoveRun(source, options, count, tracker, token);
+        
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(run::work, executor)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        token.cancel(); // Interrompe os restantes workers
+                    }
+                }));
+        }
+        
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            tracker.finish(true);
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        }
+        
+        OperationProgress progress = tracker.finish(token.isCancelled());
+        logger.debug("Movimentação de '{}' para '{}' concluída: {}", source, options.getTarget(), progress);
+        return progress;
+    }
+    
+    /**
+     * Espia a origem desde o início e confirma que as mensagens a mover formam um bloco contíguo
+     * à cabeça da entidade.
+     *
+     * @return número de mensagens a mover, ou -1 quando a seleção vai até ao fim da origem sem limite
+     * @throws IllegalArgumentException se houver uma mensagem fora da seleção antes do fim da seleção
+     */
+    private long countMovableFromHead(EntityPath source, TransferOptions options, CancellationToken token) {
+        long limit = options.getExpectedLimit();
+        long last = options.getLastSequenceNumber();
+        boolean openEnded = !options.hasSelection() && last == Long.MAX_VALUE;
+        long matched = 0;
+        long nextSequenceNumber = 0;
+        
+        while (!token.isCancelled()) {
+            long from = nextSequenceNumber;
+            List<ServiceBusReceivedMessage> page = clientCache.withReceiver(source, receiver -> 
+                receiver.peekMessages(PEEK_PAGE_SIZE, from).stream().toList());
+            if (page.isEmpty()) {
+                return matched;
+            }
+            
+            for (ServiceBusReceivedMessage message : page) {
+                long sequenceNumber = message.getSequenceNumber();
+                nextSequenceNumber = Math.max(nextSequenceNumber, sequenceNumber + 1);
+                if (sequenceNumber > last) {
+                    return matched;
+                }
+                if (!options.matches(sequenceNumber)) {
+                    throw new IllegalArgumentException(String.format(
+                        "Só é possível mover mensagens contíguas a partir do início de '%s': a mensagem %d não "
+                            + "está selecionada e seria recebida e devolvida, aumentando o seu delivery count. "
+                            + "Use a cópia ou selecione a partir da primeira mensagem.", source, sequenceNumber));
+                }
+                matched++;
+                if (limit >= 0 && matched >= limit) {
+                    return matched;
+                }
+                if (openEnded) {
+                    // Intervalo até ao fim: a partir da primeira mensagem tudo faz parte da seleção
+                    return limit;
+                }
+            }
+        }
+        return matched;
+    }
+    
+    /**
+     * Estado partilhado pelos workers de uma movimentação
+     */
+    private final class MoveRun {
+        private final EntityPath source;
+        private final TransferOptions options;
+        private final ProgressTracker tracker;
+        private final CancellationToken token;
+        private final AtomicLong remaining;
+        
+        MoveRun(EntityPath source, TransferOptions options, long count, ProgressTracker tracker, 
+                CancellationToken token) {
+            this.source = source;
+            this.options = options;
+            this.tracker = tracker;
+            this.token = token;
+            this.remaining = new AtomicLong(count >= 0 ? count : Long.MAX_VALUE);
+        }
+        
+        void work() {
+            try (ServiceBusClientCache.TransactionalLink link = clientCache.createTransactionalLink(source, options.getTarget())) {
+                drain(link.receiver(), link.sender());
+            }
+        }
+        
+        private void drain(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender) {
+            // Mensagens fora da seleção só aparecem se a origem mudou depois da verificação inicial
+            // (ex.: mensagens agendadas que ficaram ativas); ficam retidas até ao fim
+            HeldMessages held = new HeldMessages(receiver);
+            
+            try {
+                while (!token.isCancelled()) {
+                    held.renewExpiring();
+                    
+                    int reserved = reserve(TransactionalTransfer.MAX_MESSAGES);
+                    if (reserved == 0) {
+                        return; // Seleção completa
+                    }
+                    
+                    List<ServiceBusReceivedMessage> selected = new ArrayList<>();
+                    boolean received = false;
+                    // O receive fica fora da transação: uma recusa por excesso de carga pode repetir-se com o orçamento
+                    List<ServiceBusReceivedMessage> page = clientCache.getThrottle().call(MessagingCall.RECEIVE,
+                        () -> receiver.receiveMessages(reserved, RECEIVE_WAIT).stream().toList());
+                    for (ServiceBusReceivedMessage message : page) {
+                        received = true;
+                        if (options.matches(message.getSequenceNumber())) {
+                            selected.add(message);
+                        } else {
+                            held.add(message);
+                        }
+                    }
+                    release(reserved - selected.size());
+                    
+                    if (!selected.isEmpty()) {
+                        moveInTransaction(receiver, sender, selected);
+                    }
+                    
+                    if (!received) {
+                        return; // Origem esgotada
+                    }
+                    if (held.size() >= MAX_HELD_PER_WORKER) {
+                        logger.warn("Movimentação de '{}' interrompida: {} mensagens fora da seleção retidas", 
+                            source, held.size());
+                        tracker.stopEarly(String.format(
+                            "%,d mensagens fora da seleção retidas; as restantes ficaram na origem", held.size()));
+                        return;
+                    }
+                }
+            } finally {
+                held.abandonAll();
+            }
+        }
+        
+        /**
+         * Reserva até {@code max} das mensagens que faltam mover e devolve quantas foram reservadas
+         */
+        private int reserve(int max) {
+            long before = remaining.getAndUpdate(value -> value == Long.MAX_VALUE ? value : value - Math.min(value, max));
+            return (int) Math.min(before, max);
+        }
+        
+        private void release(int count) {
+            if (count > 0) {
+                remaining.getAndUpdate(value -> value == Long.MAX_VALUE ? value : value + count);
+            }
+        }
+        
+        /**
+         * Envia as cópias e conclui as originais numa única transação; em caso de falha a transação
+         * é revertida e as originais devolvidas à origem
+         */
+        private void moveInTransaction(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender,
+                                       List<ServiceBusReceivedMessage> messages) {
+            long start = System.nanoTime();
+            TransactionalTransfer.sendAndComplete(receiver, sender, messages, ServiceBusMessage::new);
+            tracker.recordBatch(messages.size(), System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Cópias das mensagens selecionadas, lidas da origem com peek em páginas sob demanda
+     */
+    private final class PeekedCopies implements Iterator<ServiceBusMessage> {
+        private final EntityPath source;
+        private final TransferOptions options;
+        private final CancellationToken token;
+        private final Deque<ServiceBusReceivedMessage> page = new ArrayDeque<>();
+        private long nextSequenceNumber;
+        private long remaining;
+        private boolean exhausted;
+        
+        PeekedCopies(EntityPath source, TransferOptions options, CancellationToken token) {
+            this.source = source;
+            this.options = options;
+            this.token = token;
+            this.nextSequenceNumber = options.getFirstSequenceNumber();
+            long limit = options.getExpectedLimit();
+            this.remaining = limit >= 0 ? limit : Long.MAX_VALUE;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (page.isEmpty()) {
+                if (exhausted || remaining <= 0 || token.isCancelled()) {
+                    return false;
+                }
+                fetchPage();
+            }
+            return true;
+        }
+        
+        @Override
+        public ServiceBusMessage next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return new ServiceBusMessage(page.removeFirst());
+        }
+        
+        private void fetchPage() {
+            List<ServiceBusReceivedMessage> peeked = new ArrayList<>();
+            clientCache.withReceiver(source, receiver -> {
+                receiver.peekMessages(PEEK_PAGE_SIZE, nextSequenceNumber).forEach(peeked::add);
+                return null;
+            });
+            
+            if (peeked.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+            
+            long last = options.getLastSequenceNumber();
+            for (ServiceBusReceivedMessage message : peeked) {
+                long sequenceNumber = message.getSequenceNumber();
+                nextSequenceNumber = Math.max(nextSequenceNumber, sequenceNumber + 1);
+                if (sequenceNumber > last) {
+                    exhausted = true;
+                } else if (options.matches(sequenceNumber) && page.size() < remaining) {
+                    page.addLast(message);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.azureservicebus.manager.service;
+
+/**
+ * Tipo de chamada de mensagens (AMQP) para o {@link ServiceBusThrottle}: cada tipo tem o seu
+ * limite de concorrência e a sua referência de latência, porque a duração de um peek e a de um
+ * lote de 256 KB não são comparáveis
+ */
+public enum MessagingCall {
+    /** Peek de uma página */
+    PEEK(true),
+    /** Envio de uma mensagem */
+    SEND(true),
+    /** Envio de um lote (até 256 KB) */
+    SEND_BATCH(true),
+    /** Receive com tempo de espera: a duração depende das mensagens disponíveis, não da carga */
+    RECEIVE(false);
+    
+    private final boolean measuresLatency;
+    
+    MessagingCall(boolean measuresLatency) {
+        this.measuresLatency = measuresLatency;
+    }
+    
+    /**
+     * Verdadeiro se a latência da chamada reflete a carga do namespace
+     */
+    boolean measuresLatency() {
+        return measuresLatency;
+    }
+}
@@ -0,0 +1,184 @@
+package com.azureservicebus.manager.service;
+
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.NamespaceSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistência do último estado conhecido do namespace, um arquivo por perfil.
+ *
+ * O formato é binário (DataOutputStream) comprimido com gzip: com milhares de entidades o
+ * arquivo fica com dezenas de KB e lê-se em poucos milissegundos. A gravação é feita num
+ * arquivo temporário e movida por cima do anterior, para que uma falha a meio nunca deixe
+ * um cache truncado. Arquivos ilegíveis ou de outra versão são ignorados.
+ */
+public class NamespaceSnapshotStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NamespaceSnapshotStore.class);
+    
+    private static final String SNAPSHOTS_DIR = "snapshots";
+    private static final String FILE_EXTENSION = ".bin.gz";
+    private static final int MAGIC = 0x53424E53; // "SBNS"
+    private static final int VERSION = 1;
+    
+    private final Path directory;
+    private final Map<String, Long> lastSavedAt = new HashMap<>();
+    
+    public NamespaceSnapshotStore(Path configDirectory) {
+        this.directory = configDirectory.resolve(SNAPSHOTS_DIR);
+    }
+    
+    /**
+     * Lê o cache do perfil; vazio se não existe ou não pode ser lido
+     */
+    public Optional<NamespaceSnapshot> load(String profileName) {
+        Path file = fileFor(profileName);
+        
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                logger.warn("Cache do namespace do perfil '{}' ignorado: formato desconhecido", profileName);
+                return Optional.empty();
+            }
+            
+            long savedAt = in.readLong();
+            List<String> queueNames = readNames(in);
+            List<String> topicNames = readNames(in);
+            
+            int entryCount = in.readInt();
+            List<NamespaceSnapshot.Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                entries.add(new NamespaceSnapshot.Entry(
+                    in.readBoolean() ? EntityPath.Type.TOPIC : EntityPath.Type.QUEUE,
+                    in.readUTF(),
+                    in.readUTF(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readDouble(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readLong()));
+            }
+            
+            NamespaceSnapshot snapshot = new NamespaceSnapshot(savedAt, queueNames, topicNames, entries);
+            logger.debug("Cache do namespace do perfil '{}' carregado: {}", profileName, snapshot);
+            return Optional.of(snapshot);
+            
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Erro ao ler cache do namespace do perfil '{}'", profileName, e);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Grava o cache do perfil, substituindo o anterior. Gravações concorrentes são serializadas
+     * e uma fotografia mais antiga do que a última gravada é descartada.
+     */
+    public synchronized void save(String profileName, NamespaceSnapshot snapshot) throws IOException {
+        Long previous = lastSavedAt.get(profileName);
+        if (previous != null && previous > snapshot.getSavedAtMillis()) {
+            return;
+        }
+        
+        Files.createDirectories(directory);
+        Path file = fileFor(profileName);
+        Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+        
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(snapshot.getSavedAtMillis());
+                writeNames(out, snapshot.getQueueNames());
+                writeNames(out, snapshot.getTopicNames());
+                
+                out.writeInt(snapshot.getEntries().size());
+                for (NamespaceSnapshot.Entry entry : snapshot.getEntries()) {
+                    out.writeBoolean(entry.type() == EntityPath.Type.TOPIC);
+                    out.writeUTF(entry.name());
+                    out.writeUTF(entry.status() != null ? entry.status() : "");
+                    out.writeLong(entry.totalMessages());
+                    out.writeLong(entry.activeMessages());
+                    out.writeLong(entry.deadLetterMessages());
+                    out.writeLong(entry.scheduledMessages());
+                    out.writeDouble(entry.sizeInKB());
+                    out.writeLong(entry.maxSizeInMB());
+                    out.writeInt(entry.subscriptionCount());
+                    out.writeLong(entry.updatedAtMillis());
+                }
+            }
+            
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            lastSavedAt.put(profileName, snapshot.getSavedAtMillis());
+            logger.debug("Cache do namespace do perfil '{}' gravado: {}", profileName, snapshot);
+            
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    /**
+     * Remove o cache do perfil (ex.: quando o perfil é apagado)
+     */
+    public void delete(String profileName) {
+        try {
+            Files.deleteIfExists(fileFor(profileName));
+        } catch (IOException e) {
+            logger.warn("Erro ao remover cache do namespace do perfil '{}'", profileName, e);
+        }
+    }
+    
+    /**
+     * Nome de arquivo seguro derivado do nome do perfil; o hash evita colisões entre
+     * nomes que só diferem em caracteres substituídos
+     */
+    private Path fileFor(String profileName) {
+        String safeName = profileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        String hash = Integer.toHexString(profileName.hashCode());
+        return directory.resolve(safeName + "-" + hash + FILE_EXTENSION);
+    }
+    
+    private static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+    
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+}
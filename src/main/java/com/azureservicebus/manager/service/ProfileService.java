@@ -18,6 +18,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -60,12 +61,18 @@ public class ProfileService {
         return instance;
     }
     
+    /**
+     * Diretório de configuração da aplicação (~/.azure-servicebus-manager)
+     */
+    public static Path getConfigDirectory() {
+        return Paths.get(System.getProperty("user.home"), CONFIG_DIR);
+    }
+    
     /**
      * Obtém o caminho do arquivo de perfis
      */
     private Path getProfilesFilePath() {
-        String userHome = System.getProperty("user.home");
-        Path configDir = Paths.get(userHome, CONFIG_DIR);
+        Path configDir = getConfigDirectory();
         
         // Criar diretório se não existir
         try {
@@ -238,6 +245,11 @@ public class ProfileService {
         profiles.add(profile);
         
         saveProfiles();
+        
+        // O cache do namespace deixa de valer se o perfil passa a apontar para outro namespace
+        if (!Objects.equals(existing.get().getConnectionString(), profile.getConnectionString())) {
+            new NamespaceSnapshotStore(getConfigDirectory()).delete(profile.getName());
+        }
         logger.info("Perfil '{}' atualizado", profile.getName());
     }
     
@@ -258,6 +270,7 @@ public class ProfileService {
         }
         
         saveProfiles();
+        new NamespaceSnapshotStore(getConfigDirectory()).delete(profileName);
         logger.info("Perfil '{}' removido", profileName);
     }
     
@@ -316,6 +329,10 @@ public class ProfileService {
      * Remove todos os perfis (útil para reset)
      */
     public void deleteAllProfiles() {
+        NamespaceSnapshotStore snapshotStore = new NamespaceSnapshotStore(getConfigDirectory());
+        for (ConnectionProfile profile : profiles) {
+            snapshotStore.delete(profile.getName());
+        }
         profiles.clear();
         activeProfileName = null;
         
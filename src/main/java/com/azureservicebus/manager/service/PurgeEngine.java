@@ -0,0 +1,108 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.OperationProgress;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Remoção em massa de mensagens.
+ *
+ * Usa receivers em modo RECEIVE_AND_DELETE (a mensagem é removida na entrega, sem
+ * complete por mensagem), vários receivers por entidade e todas as entidades
+ * (ex.: fila ativa e dead letter queue) em paralelo.
+ *
+ * Os receivers não usam prefetch: neste modo, uma mensagem em prefetch já foi removida no
+ * broker, e ao cancelar as que ainda estivessem no buffer perdiam-se sem serem contadas.
+ */
+public class PurgeEngine {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PurgeEngine.class);
+    
+    public static final int DEFAULT_RECEIVERS_PER_ENTITY = 4;
+    
+    private static final int RECEIVE_BATCH_SIZE = 250;
+    private static final Duration RECEIVE_WAIT = Duration.ofSeconds(3);
+    
+    private final ServiceBusClientCache clientCache;
+    private final Executor executor;
+    private final int receiversPerEntity;
+    
+    public PurgeEngine(ServiceBusClientCache clientCache, Executor executor) {
+        this(clientCache, executor, DEFAULT_RECEIVERS_PER_ENTITY);
+    }
+    
+    public PurgeEngine(ServiceBusClientCache clientCache, Executor executor, int receiversPerEntity) {
+        this.clientCache = clientCache;
+        this.executor = executor;
+        this.receiversPerEntity = Math.max(1, receiversPerEntity);
+    }
+    
+    /**
+     * Remove todas as mensagens das entidades indicadas.
+     *
+     * @param targets entidades a esvaziar (filas, subscriptions e/ou as suas dead letter queues)
+     * @param expectedTotal contagem de runtime usada para o ETA, ou valor negativo se desconhecida
+     * @param token cancelamento; cada receiver para após o receive em curso
+     * @param onProgress recebe o progresso periodicamente (em threads de trabalho)
+     * @return progresso final da operação
+     */
+    public OperationProgress purge(List<EntityPath> targets, long expectedTotal,
+                                   CancellationToken token, Consumer<OperationProgress> onProgress) {
+        ProgressTracker tracker = new ProgressTracker(expectedTotal, onProgress);
+        
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (EntityPath target : targets) {
+            for (int i = 0; i < receiversPerEntity; i++) {
+                workers.add(CompletableFuture.runAsync(() -> drain(target, tracker, token), executor)
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            token.cancel(); // Interrompe os restantes receivers
+                        }
+                    }));
+            }
+        }
+        
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            tracker.finish(true);
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        }
+        
+        OperationProgress progress = tracker.finish(token.isCancelled());
+        logger.debug("Limpeza de {} concluída: {}", targets, progress);
+        return progress;
+    }
+    
+    private void drain(EntityPath target, ProgressTracker tracker, CancellationToken token) {
+        try (ServiceBusReceiverClient receiver = clientCache.createReceiver(
+                target, ServiceBusReceiveMode.RECEIVE_AND_DELETE, 0)) {
+            
+            while (!token.isCancelled()) {
+                long start = System.nanoTime();
+                // Tempo de espera do receive não reflete a carga: apenas o throttling ajusta o limite
+                int received = clientCache.getThrottle().call(MessagingCall.RECEIVE,
+                    () -> (int) receiver.receiveMessages(RECEIVE_BATCH_SIZE, RECEIVE_WAIT).stream().count());
+                
+                if (received == 0) {
+                    return; // Nada recebido dentro do tempo de espera: entidade vazia
+                }
+                tracker.recordBatch(received, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.administration.ServiceBusAdministrationClient;
+import com.azure.messaging.servicebus.administration.models.QueueRuntimeProperties;
+import com.azure.messaging.servicebus.administration.models.SubscriptionRuntimeProperties;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.util.BoundedExecutor;
+import com.azureservicebus.manager.util.RuntimeMetricsSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Amostragem periódica, em segundo plano, das contagens de runtime de um conjunto de filas
+ * e subscriptions escolhido pela interface.
+ *
+ * Cada ciclo consulta as entidades observadas em paralelo (com limite) e acrescenta uma amostra
+ * à série de cada uma; a interface lê as séries para mostrar contagens atualizadas e taxas de
+ * crescimento ou escoamento sem fazer chamadas de administração ao clicar. As séries de
+ * entidades que deixam de ser observadas são descartadas.
+ */
+public class RuntimeMetricsPoller implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeMetricsPoller.class);
+    
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(15);
+    public static final int MAX_WATCHED = 200;
+    
+    /**
+     * Janela usada nas taxas mostradas na interface
+     */
+    public static final long RATE_WINDOW_MILLIS = Duration.ofMinutes(5).toMillis();
+    
+    private static final int SAMPLE_CONCURRENCY = 8;
+    
+    private final ServiceBusAdministrationClient adminClient;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<EntityPath, RuntimeMetricsSeries> series = new ConcurrentHashMap<>();
+    private volatile Set<EntityPath> watched = Set.of();
+    private volatile Consumer<Collection<EntityPath>> onSampled;
+    private volatile boolean closed;
+    
+    public RuntimeMetricsPoller(ServiceBusAdministrationClient adminClient, Executor executor, Duration interval) {
+        this.adminClient = adminClient;
+        this.executor = executor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "runtime-metrics-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sampleAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Define as entidades observadas (filas e subscriptions; no máximo {@link #MAX_WATCHED}).
+     * Entidades novas são amostradas de imediato, sem esperar pelo próximo ciclo.
+     */
+    public void setWatched(Collection<EntityPath> entities) {
+        Set<EntityPath> next = Set.copyOf(entities.stream()
+            .filter(entity -> !entity.isTopic())
+            .map(EntityPath::parent)
+            .limit(MAX_WATCHED)
+            .toList());
+        Set<EntityPath> previous = watched;
+        watched = next;
+        series.keySet().retainAll(next);
+        
+        List<EntityPath> added = next.stream().filter(entity -> !previous.contains(entity)).toList();
+        if (!added.isEmpty() && !closed) {
+            scheduler.execute(() -> sample(added));
+        }
+    }
+    
+    /**
+     * Série da entidade, ou null se não é observada ou ainda não tem amostras
+     */
+    public RuntimeMetricsSeries getSeries(EntityPath entity) {
+        return series.get(entity.parent());
+    }
+    
+    /**
+     * Listener chamado no fim de cada ciclo com as entidades amostradas (na thread do poller)
+     */
+    public void setOnSampled(Consumer<Collection<EntityPath>> onSampled) {
+        this.onSampled = onSampled;
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        series.clear();
+    }
+    
+    private void sampleAll() {
+        Set<EntityPath> current = watched;
+        if (!current.isEmpty()) {
+            sample(current);
+        }
+    }
+    
+    private void sample(Collection<EntityPath> entities) {
+        BoundedExecutor fanOut = new BoundedExecutor(executor, SAMPLE_CONCURRENCY, null);
+        try {
+            for (EntityPath entity : entities) {
+                fanOut.submit(() -> sampleOne(entity));
+            }
+            fanOut.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        
+        Consumer<Collection<EntityPath>> listener = onSampled;
+        if (listener != null && !closed) {
+            listener.accept(entities);
+        }
+    }
+    
+    private void sampleOne(EntityPath entity) {
+        if (closed || !watched.contains(entity)) {
+            return;
+        }
+        
+        try {
+            long now = System.currentTimeMillis();
+            if (entity.isQueue()) {
+                QueueRuntimeProperties properties = adminClient.getQueueRuntimeProperties(entity.getName());
+                seriesFor(entity).add(now, properties.getActiveMessageCount(), properties.getDeadLetterMessageCount(),
+                    properties.getScheduledMessageCount(), properties.getSizeInBytes());
+            } else {
+                SubscriptionRuntimeProperties properties = adminClient.getSubscriptionRuntimeProperties(
+                    entity.getName(), entity.getSubscriptionName());
+                // Subscriptions não reportam tamanho em bytes
+                seriesFor(entity).add(now, properties.getActiveMessageCount(), properties.getDeadLetterMessageCount(),
+                    0, -1);
+            }
+        } catch (Exception e) {
+            logger.debug("Falha ao amostrar contagens de runtime de '{}'", entity, e);
+        }
+    }
+    
+    private RuntimeMetricsSeries seriesFor(EntityPath entity) {
+        return series.computeIfAbsent(entity, key -> new RuntimeMetricsSeries());
+    }
+}
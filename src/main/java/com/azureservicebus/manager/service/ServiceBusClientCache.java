@@ -0,0 +1,388 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
+import com.azure.messaging.servicebus.models.SubQueue;
+import com.azureservicebus.manager.model.EntityPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache de clientes AMQP do Service Bus para um perfil conectado.
+ *
+ * Todos os senders e receivers são criados a partir do mesmo ServiceBusClientBuilder,
+ * partilhando uma única conexão AMQP. Os links de cada entidade ficam abertos entre
+ * operações e são fechados após um período sem uso ou quando o limite de links
+ * abertos é atingido (o link ocioso usado há mais tempo é fechado primeiro).
+ * As novas tentativas do SDK são limitadas pelas opções do {@link ServiceBusThrottle}, para que
+ * as repetições por excesso de carga passem pelo orçamento global.
+ */
+public class ServiceBusClientCache implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServiceBusClientCache.class);
+    
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_OPEN_LINKS = 32;
+    
+    private static final long EVICTION_INTERVAL_SECONDS = 30;
+    
+    private enum LinkKind { SENDER, RECEIVER }
+    
+    private record LinkKey(LinkKind kind, EntityPath path) {}
+    
+    /**
+     * Receiver e sender numa conexão própria, com transações entre entidades ativas.
+     * Fechar o par fecha também a conexão.
+     */
+    public record TransactionalLink(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender) implements AutoCloseable {
+        @Override
+        public void close() {
+            try {
+                receiver.close();
+            } finally {
+                sender.close();
+            }
+        }
+    }
+    
+    /**
+     * Link aberto com controlo de uso para decidir quando pode ser fechado
+     */
+    private static final class CachedLink {
+        final AutoCloseable client;
+        // ReentrantLock em vez de synchronized: quem espera pelo receiver não prende a carrier thread
+        final ReentrantLock lock = new ReentrantLock();
+        long lastUsedNanos = System.nanoTime();
+        int leases;
+        volatile boolean discarded;
+        
+        CachedLink(AutoCloseable client) {
+            this.client = client;
+        }
+    }
+    
+    private final String connectionString;
+    private final ServiceBusThrottle throttle;
+    private final ServiceBusClientBuilder sharedBuilder;
+    private final long idleTimeoutNanos;
+    private final int maxOpenLinks;
+    
+    // Ordem de acesso: a primeira entrada é a usada há mais tempo (guardado por "this")
+    private final Map<LinkKey, CachedLink> links = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService evictionScheduler;
+    private boolean closed;
+    
+    public ServiceBusClientCache(String connectionString) {
+        this(connectionString, new ServiceBusThrottle());
+    }
+    
+    public ServiceBusClientCache(String connectionString, ServiceBusThrottle throttle) {
+        this(connectionString, throttle, DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_OPEN_LINKS);
+    }
+    
+    public ServiceBusClientCache(String connectionString, ServiceBusThrottle throttle, 
+                                 Duration idleTimeout, int maxOpenLinks) {
+        if (maxOpenLinks < 1) {
+            throw new IllegalArgumentException("O limite de links abertos deve ser maior que zero");
+        }
+        
+        this.connectionString = connectionString;
+        this.throttle = throttle;
+        this.sharedBuilder = new ServiceBusClientBuilder()
+            .connectionString(connectionString)
+            .retryOptions(throttle.messagingRetryOptions());
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxOpenLinks = maxOpenLinks;
+        
+        this.evictionScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ServiceBus-LinkEviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictionScheduler.scheduleWithFixedDelay(this::evictIdleLinks,
+            EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Executa uma ação com o sender em cache da entidade.
+     * Subscriptions e dead letter queues são resolvidas para a entidade que recebe os envios.
+     */
+    public <T> T withSender(EntityPath path, Function<ServiceBusSenderClient, T> action) {
+        LinkKey key = new LinkKey(LinkKind.SENDER, senderTarget(path));
+        CachedLink link = acquire(key);
+        try {
+            return action.apply((ServiceBusSenderClient) link.client);
+        } catch (RuntimeException e) {
+            link.discarded = true;
+            throw e;
+        } finally {
+            release(key, link);
+        }
+    }
+    
+    /**
+     * Executa uma ação com o receiver (PEEK_LOCK) em cache da entidade.
+     * O uso de cada receiver é serializado, pois as operações de receive e peek não são independentes.
+     */
+    public <T> T withReceiver(EntityPath path, Function<ServiceBusReceiverClient, T> action) {
+        if (path.isTopic()) {
+            throw new IllegalArgumentException("Não é possível receber mensagens diretamente de um tópico");
+        }
+        
+        LinkKey key = new LinkKey(LinkKind.RECEIVER, path);
+        CachedLink link = acquire(key);
+        try {
+            link.lock.lock();
+            try {
+                return action.apply((ServiceBusReceiverClient) link.client);
+            } finally {
+                link.lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            link.discarded = true;
+            throw e;
+        } finally {
+            release(key, link);
+        }
+    }
+    
+    /**
+     * Cria um receiver dedicado na conexão partilhada, fora do cache.
+     * Usado por operações longas que precisam de modo de receção ou prefetch próprios;
+     * o chamador é responsável por fechar o cliente. A renovação automática de locks fica
+     * desligada: quem retém mensagens com lock renova-as explicitamente.
+     */
+    public ServiceBusReceiverClient createReceiver(EntityPath path, ServiceBusReceiveMode receiveMode, int prefetchCount) {
+        if (path.isTopic()) {
+            throw new IllegalArgumentException("Não é possível receber mensagens diretamente de um tópico");
+        }
+        
+        synchronized (this) {
+            ensureOpen();
+            return buildReceiver(sharedBuilder, path, receiveMode, prefetchCount);
+        }
+    }
+    
+    /**
+     * Cria um receiver (PEEK_LOCK) na origem e um sender no destino numa conexão dedicada com
+     * transações entre entidades, para receber, enviar e concluir na mesma transação.
+     * A conexão partilhada não pode ser usada: com transações entre entidades, todos os envios
+     * passam pela primeira entidade usada na conexão. O chamador fecha o par.
+     */
+    public TransactionalLink createTransactionalLink(EntityPath source, EntityPath target) {
+        if (source.isTopic()) {
+            throw new IllegalArgumentException("Não é possível receber mensagens diretamente de um tópico");
+        }
+        
+        synchronized (this) {
+            ensureOpen();
+        }
+        
+        ServiceBusClientBuilder builder = new ServiceBusClientBuilder()
+            .connectionString(connectionString)
+            .retryOptions(throttle.messagingRetryOptions())
+            .enableCrossEntityTransactions();
+        // A origem é a primeira entidade usada na conexão (entidade "via" das transações)
+        ServiceBusReceiverClient receiver = buildReceiver(builder, source, ServiceBusReceiveMode.PEEK_LOCK, 0);
+        try {
+            return new TransactionalLink(receiver, buildSender(builder, senderTarget(target)));
+        } catch (RuntimeException e) {
+            receiver.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Controlo de carga partilhado pelas chamadas de mensagens feitas com os clientes deste cache
+     */
+    public ServiceBusThrottle getThrottle() {
+        return throttle;
+    }
+    
+    /**
+     * Número de links atualmente abertos no cache
+     */
+    public synchronized int getOpenLinkCount() {
+        return links.size();
+    }
+    
+    private CachedLink acquire(LinkKey key) {
+        List<CachedLink> toClose = new ArrayList<>();
+        CachedLink link;
+        
+        synchronized (this) {
+            ensureOpen();
+            
+            link = links.get(key);
+            if (link != null && link.discarded) {
+                // Link com erro: sai do cache e é fechado quando o último uso terminar
+                links.remove(key);
+                if (link.leases == 0) {
+                    toClose.add(link);
+                }
+                link = null;
+            }
+            
+            if (link == null) {
+                collectLeastRecentlyUsed(toClose);
+                link = new CachedLink(key.kind() == LinkKind.SENDER
+                    ? buildSender(sharedBuilder, key.path())
+                    : buildReceiver(sharedBuilder, key.path(), ServiceBusReceiveMode.PEEK_LOCK, 0));
+                links.put(key, link);
+                logger.debug("Link {} aberto para '{}'", key.kind(), key.path());
+            }
+            
+            link.leases++;
+            link.lastUsedNanos = System.nanoTime();
+        }
+        
+        closeAll(toClose);
+        return link;
+    }
+    
+    private void release(LinkKey key, CachedLink link) {
+        boolean closeNow = false;
+        
+        synchronized (this) {
+            link.leases--;
+            link.lastUsedNanos = System.nanoTime();
+            
+            if (link.discarded && link.leases == 0) {
+                links.remove(key, link);
+                closeNow = true;
+            }
+        }
+        
+        if (closeNow) {
+            closeQuietly(link);
+        }
+    }
+    
+    /**
+     * Liberta espaço para um novo link fechando os links ociosos usados há mais tempo
+     */
+    private void collectLeastRecentlyUsed(List<CachedLink> toClose) {
+        Iterator<CachedLink> iterator = links.values().iterator();
+        while (links.size() >= maxOpenLinks && iterator.hasNext()) {
+            CachedLink candidate = iterator.next();
+            if (candidate.leases == 0) {
+                iterator.remove();
+                toClose.add(candidate);
+            }
+        }
+        
+        if (links.size() >= maxOpenLinks) {
+            logger.warn("Limite de {} links abertos atingido; todos os links estão em uso", maxOpenLinks);
+        }
+    }
+    
+    private void evictIdleLinks() {
+        List<CachedLink> toClose = new ArrayList<>();
+        long now = System.nanoTime();
+        
+        synchronized (this) {
+            Iterator<CachedLink> iterator = links.values().iterator();
+            while (iterator.hasNext()) {
+                CachedLink link = iterator.next();
+                if (link.leases == 0 && now - link.lastUsedNanos >= idleTimeoutNanos) {
+                    iterator.remove();
+                    toClose.add(link);
+                }
+            }
+        }
+        
+        if (!toClose.isEmpty()) {
+            logger.debug("Fechando {} links ociosos", toClose.size());
+            closeAll(toClose);
+        }
+    }
+    
+    private static ServiceBusSenderClient buildSender(ServiceBusClientBuilder clientBuilder, EntityPath path) {
+        ServiceBusClientBuilder.ServiceBusSenderClientBuilder builder = clientBuilder.sender();
+        if (path.isQueue()) {
+            builder.queueName(path.getName());
+        } else {
+            builder.topicName(path.getName());
+        }
+        return builder.buildClient();
+    }
+    
+    private static ServiceBusReceiverClient buildReceiver(ServiceBusClientBuilder clientBuilder, EntityPath path,
+                                                         ServiceBusReceiveMode receiveMode, int prefetchCount) {
+        ServiceBusClientBuilder.ServiceBusReceiverClientBuilder builder = clientBuilder.receiver()
+            .receiveMode(receiveMode)
+            .prefetchCount(prefetchCount)
+            .maxAutoLockRenewDuration(Duration.ZERO);
+            
+        if (path.isQueue()) {
+            builder.queueName(path.getName());
+        } else {
+            builder.topicName(path.getName())
+                .subscriptionName(path.getSubscriptionName());
+        }
+        
+        if (path.isDeadLetter()) {
+            builder.subQueue(SubQueue.DEAD_LETTER_QUEUE);
+        }
+        
+        return builder.buildClient();
+    }
+    
+    private static EntityPath senderTarget(EntityPath path) {
+        return path.isSubscription() ? EntityPath.topic(path.getName()) : path.parent();
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Cache de clientes do Service Bus já foi encerrado");
+        }
+    }
+    
+    private void closeAll(List<CachedLink> toClose) {
+        for (CachedLink link : toClose) {
+            closeQuietly(link);
+        }
+    }
+    
+    private void closeQuietly(CachedLink link) {
+        try {
+            link.client.close();
+        } catch (Exception e) {
+            logger.warn("Erro ao fechar link do Service Bus", e);
+        }
+    }
+    
+    /**
+     * Fecha todos os links e a conexão partilhada
+     */
+    @Override
+    public void close() {
+        List<CachedLink> toClose;
+        
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(links.values());
+            links.clear();
+        }
+        
+        evictionScheduler.shutdownNow();
+        closeAll(toClose);
+    }
+}
@@ -1,30 +1,63 @@
 package com.azureservicebus.manager.service;
 
+import com.azure.core.amqp.models.AmqpMessageBody;
 import com.azure.messaging.servicebus.*;
 import com.azure.messaging.servicebus.administration.ServiceBusAdministrationClient;
 import com.azure.messaging.servicebus.administration.ServiceBusAdministrationClientBuilder;
 import com.azure.messaging.servicebus.administration.models.*;
 import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
-import com.azure.messaging.servicebus.models.SubQueue;
+import com.azureservicebus.manager.model.BodySpillStore;
 import com.azureservicebus.manager.model.CreateQueueResult;
+import com.azureservicebus.manager.model.EntityPath;
+import com.azureservicebus.manager.model.MessageBody;
 import com.azureservicebus.manager.model.MessageInfo;
+import com.azureservicebus.manager.model.MessageStore;
+import com.azureservicebus.manager.model.NamespaceEntityInfo;
+import com.azureservicebus.manager.model.OperationProgress;
 import com.azureservicebus.manager.model.QueueInfo;
+import com.azureservicebus.manager.model.ResubmitOptions;
 import com.azureservicebus.manager.model.SubscriptionInfo;
 import com.azureservicebus.manager.model.TopicInfo;
+import com.azureservicebus.manager.model.TransferOptions;
+import com.azureservicebus.manager.rules.CorrelationCriteria;
+import com.azureservicebus.manager.rules.SystemProperty;
+import com.azureservicebus.manager.rules.TopicRoutingTable;
+import com.azureservicebus.manager.util.BoundedExecutor;
+import com.azureservicebus.manager.util.CancellationToken;
+import com.azureservicebus.manager.util.ProgressTracker;
+import com.azureservicebus.manager.util.RuntimeMetricsSeries;
+import com.azureservicebus.manager.util.TaskScope;
+import com.google.gson.JsonParser;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Serviço para operações do Azure Service Bus
@@ -36,19 +69,42 @@ public class ServiceBusService {
     
     private String connectionString;
     private ServiceBusAdministrationClient adminClient;
-    private final ExecutorService executorService;
+    private ServiceBusClientCache clientCache;
+    
+    // Limites de concorrência adaptativos e orçamento de novas tentativas da conexão atual
+    private volatile ServiceBusThrottle throttle;
+    
+    // Operações correm em virtual threads; as da conexão atual ficam num escopo próprio,
+    // cancelado ao desconectar (ex.: ao trocar de perfil)
+    private final TaskScope serviceScope = TaskScope.application().child("servicebus");
+    private volatile TaskScope connectionScope;
+    private final Executor executor = task -> currentScope().execute(task);
+    
+    // Leituras de detalhes e rules: pedidos idênticos em curso são coalescidos e o resultado fica
+    // em cache por alguns segundos (invalidado pelas operações que alteram a entidade)
+    private final AdminRequestCache adminRequests = new AdminRequestCache(AdminRequestCache.DEFAULT_TTL);
+    
+    /**
+     * Propriedades e runtime info de uma entidade, lidas em conjunto
+     */
+    private record EntityDescription<P, R>(P properties, R runtime) {
+    }
+    
+    private final Set<LockedBrowseSession> lockedBrowseSessions = ConcurrentHashMap.newKeySet();
+    private final Set<LiveTailSession> liveTailSessions = ConcurrentHashMap.newKeySet();
+    private volatile RuntimeMetricsPoller runtimeMetricsPoller;
+    
+    // Linhas compactas das mensagens espiadas/recebidas; o bloco em escrita é largado ao desconectar
+    private final MessageStore messageStore = new MessageStore();
+    
+    // Corpos espiados/recebidos vão para segmentos em disco em vez do heap; cada linha
+    // descartada pela interface liberta o seu corpo e os segmentos são apagados ao desconectar
+    private final BodySpillStore bodySpillStore = new BodySpillStore();
     
     // Callbacks para notificações
     private Runnable onConnectionStatusChanged;
     private java.util.function.Consumer<String> onLogMessage;
-    
-    public ServiceBusService() {
-        this.executorService = Executors.newCachedThreadPool(r -> {
-            Thread thread = new Thread(r, "ServiceBus-Worker");
-            thread.setDaemon(true);
-            return thread;
-        });
-    }
+    private java.util.function.Consumer<Collection<EntityPath>> onRuntimeMetricsSampled;
     
     // Configuração de callbacks
     public void setOnConnectionStatusChanged(Runnable callback) {
@@ -59,6 +115,87 @@ public class ServiceBusService {
         this.onLogMessage = callback;
     }
     
+    /**
+     * Callback chamado após cada ciclo de amostragem de métricas de runtime (fora da thread de UI)
+     */
+    public void setOnRuntimeMetricsSampled(java.util.function.Consumer<Collection<EntityPath>> callback) {
+        this.onRuntimeMetricsSampled = callback;
+        RuntimeMetricsPoller poller = runtimeMetricsPoller;
+        if (poller != null) {
+            poller.setOnSampled(callback);
+        }
+    }
+    
+    /**
+     * Rules de uma subscription, com coalescência e cache de curta duração
+     */
+    private List<RuleProperties> listRuleProperties(String topicName, String subscriptionName) throws Exception {
+        return adminRequests.get(rulesKey(topicName, subscriptionName), 
+            () -> List.copyOf(adminClient.listRules(topicName, subscriptionName).stream().toList()));
+    }
+    
+    /**
+     * Invalida a cache de administração quando a operação termina (com sucesso ou erro)
+     */
+    private static <T> CompletableFuture<T> invalidatingAfter(CompletableFuture<T> operation, Runnable invalidation) {
+        return operation.whenComplete((result, error) -> invalidation.run());
+    }
+    
+    // Nomes de entidades no Service Bus não distinguem maiúsculas
+    private static String queueKey(String queueName) {
+        return "queue:" + queueName.toLowerCase(Locale.ROOT);
+    }
+    
+    private static String subscriptionKey(String topicName, String subscriptionName) {
+        return "subscription:" + topicName.toLowerCase(Locale.ROOT) + "/" + subscriptionName.toLowerCase(Locale.ROOT);
+    }
+    
+    private static String rulesKey(String topicName, String subscriptionName) {
+        return "rules:" + topicName.toLowerCase(Locale.ROOT) + "/" + subscriptionName.toLowerCase(Locale.ROOT);
+    }
+    
+    private void invalidateQueue(String queueName) {
+        if (queueName != null) {
+            adminRequests.invalidate(queueKey(queueName));
+        }
+    }
+    
+    private void invalidateSubscription(String topicName, String subscriptionName) {
+        if (topicName != null && subscriptionName != null) {
+            adminRequests.invalidate(subscriptionKey(topicName, subscriptionName));
+            adminRequests.invalidate(rulesKey(topicName, subscriptionName));
+        }
+    }
+    
+    /**
+     * Invalida todas as subscriptions (e rules) de um tópico, ex.: ao publicar ou apagar o tópico
+     */
+    private void invalidateTopic(String topicName) {
+        if (topicName != null) {
+            String topicKey = topicName.toLowerCase(Locale.ROOT) + "/";
+            adminRequests.invalidatePrefix("subscription:" + topicKey);
+            adminRequests.invalidatePrefix("rules:" + topicKey);
+        }
+    }
+    
+    private void invalidateEntity(EntityPath entity) {
+        if (entity == null) {
+            return;
+        }
+        if (entity.isQueue()) {
+            invalidateQueue(entity.getName());
+        } else if (entity.isTopic()) {
+            invalidateTopic(entity.getName());
+        } else {
+            invalidateSubscription(entity.getName(), entity.getSubscriptionName());
+        }
+    }
+    
+    private TaskScope currentScope() {
+        TaskScope scope = connectionScope;
+        return scope != null ? scope : serviceScope;
+    }
+    
     private void logMessage(String message) {
         logger.info(message);
         if (onLogMessage != null) {
@@ -122,13 +259,32 @@ public class ServiceBusService {
                 logMessage("Connection string limpa e validada");
                 
                 // Criar cliente de administração
+                ServiceBusThrottle connectionThrottle = new ServiceBusThrottle();
                 this.adminClient = new ServiceBusAdministrationClientBuilder()
                     .connectionString(cleanedConnectionString)
+                    .addPolicy(connectionThrottle.adminPolicy())
+                    .retryPolicy(connectionThrottle.adminRetryPolicy())
                     .buildClient();
                 
                 // Testar conexão listando filas
                 adminClient.listQueues().stream().findFirst();
                 
+                // Clientes de mensagens partilham uma única conexão AMQP por perfil
+                closeClientCache();
+                this.clientCache = new ServiceBusClientCache(cleanedConnectionString, connectionThrottle);
+                this.throttle = connectionThrottle;
+                adminRequests.clear();
+                TaskScope previousScope = connectionScope;
+                this.connectionScope = serviceScope.child("conexao");
+                if (previousScope != null) {
+                    previousScope.cancel();
+                }
+                
+                RuntimeMetricsPoller poller = new RuntimeMetricsPoller(adminClient, executor, 
+                    RuntimeMetricsPoller.DEFAULT_INTERVAL);
+                poller.setOnSampled(onRuntimeMetricsSampled);
+                this.runtimeMetricsPoller = poller;
+                
                 logMessage("Conectado ao Azure Service Bus com sucesso");
                 
                 if (onConnectionStatusChanged != null) {
@@ -142,7 +298,7 @@ public class ServiceBusService {
                 disconnect();
                 return false;
             }
-        }, executorService);
+        }, serviceScope);
     }
     
     /**
@@ -150,12 +306,26 @@ public class ServiceBusService {
      */
     public void disconnect() {
         try {
+            // Operações ainda em curso da conexão anterior são canceladas antes de fechar os clientes
+            TaskScope scope = connectionScope;
+            connectionScope = null;
+            if (scope != null) {
+                scope.cancel();
+            }
+            adminRequests.clear();
+            
             if (adminClient != null) {
                 adminClient = null;
             }
+            throttle = null;
             
+            closeClientCache();
             connectionString = null;
             
+            // Mensagens da conexão anterior deixam de ser mostradas: os corpos em disco são apagados já
+            bodySpillStore.clear();
+            messageStore.clear();
+            
             logMessage("Desconectado do Azure Service Bus");
             
             if (onConnectionStatusChanged != null) {
@@ -167,6 +337,33 @@ public class ServiceBusService {
         }
     }
     
+    /**
+     * Fecha os links AMQP em cache e a conexão partilhada
+     */
+    private void closeClientCache() {
+        // Sessões com lock devolvem as mensagens retidas antes de a conexão fechar
+        for (LockedBrowseSession session : lockedBrowseSessions) {
+            session.close();
+        }
+        lockedBrowseSessions.clear();
+        
+        for (LiveTailSession session : liveTailSessions) {
+            session.close();
+        }
+        liveTailSessions.clear();
+        
+        RuntimeMetricsPoller poller = runtimeMetricsPoller;
+        if (poller != null) {
+            poller.close();
+            runtimeMetricsPoller = null;
+        }
+        
+        if (clientCache != null) {
+            clientCache.close();
+            clientCache = null;
+        }
+    }
+    
     /**
      * Verifica se está conectado
      */
@@ -174,6 +371,15 @@ public class ServiceBusService {
         return adminClient != null;
     }
     
+    /**
+     * Resumo dos limites de concorrência e dos contadores de throttling da conexão atual,
+     * ou null quando não está conectado
+     */
+    public String getThrottleSummary() {
+        ServiceBusThrottle current = throttle;
+        return current != null && isConnected() ? current.getSummary() : null;
+    }
+    
     /**
      * Extrai o namespace da connection string
      */
@@ -220,7 +426,7 @@ public class ServiceBusService {
                 logError("Erro ao listar nomes das filas", e);
                 throw new RuntimeException("Erro ao listar filas", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
@@ -233,11 +439,12 @@ public class ServiceBusService {
             }
             
             try {
-                // Obter propriedades da fila
-                QueueProperties queueProperties = adminClient.getQueue(queueName);
-                
-                // Obter runtime info para contagem de mensagens
-                QueueRuntimeProperties runtimeProperties = adminClient.getQueueRuntimeProperties(queueName);
+                // Propriedades e runtime info (pedidos repetidos em curso partilham a mesma chamada)
+                EntityDescription<QueueProperties, QueueRuntimeProperties> description = adminRequests.get(
+                    queueKey(queueName), () -> new EntityDescription<>(
+                        adminClient.getQueue(queueName), adminClient.getQueueRuntimeProperties(queueName)));
+                QueueProperties queueProperties = description.properties();
+                QueueRuntimeProperties runtimeProperties = description.runtime();
                 
                 QueueInfo queueInfo = new QueueInfo(queueName);
                 
@@ -282,14 +489,14 @@ public class ServiceBusService {
                 logError(String.format("Erro ao obter detalhes da fila '%s'", queueName), e);
                 throw new RuntimeException("Erro ao obter detalhes da fila", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
      * Cria uma nova fila com configurações padrão
      */
     public CompletableFuture<CreateQueueResult> createQueueAsync(String queueName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -310,14 +517,14 @@ public class ServiceBusService {
                 logError(String.format("Erro ao criar fila '%s'", queueName), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> invalidateQueue(queueName));
     }
     
     /**
      * Cria uma nova fila com configurações customizadas
      */
     public CompletableFuture<CreateQueueResult> createQueueAsync(com.azureservicebus.manager.model.QueueConfiguration config) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -395,14 +602,18 @@ public class ServiceBusService {
                 logError(String.format("Erro ao criar fila '%s' com configurações customizadas", config.getName()), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> {
+            if (config != null) {
+                invalidateQueue(config.getName());
+            }
+        });
     }
     
     /**
      * Remove uma fila
      */
     public CompletableFuture<Boolean> deleteQueueAsync(String queueName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -417,122 +628,249 @@ public class ServiceBusService {
                 logError(String.format("Erro ao remover fila '%s'", queueName), e);
                 throw new RuntimeException("Erro ao remover fila", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateQueue(queueName));
     }
     
     /**
-     * Limpa todas as mensagens de uma fila
+     * Limpa todas as mensagens de uma fila (ativas e dead letter)
      */
     public CompletableFuture<Integer> clearQueueMessagesAsync(String queueName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return purgeMessagesAsync(EntityPath.queue(queueName), true, true, new CancellationToken(), null)
+            .thenApply(progress -> (int) progress.getProcessed());
+    }
+    
+    /**
+     * Remove mensagens de uma fila ou subscription com o PurgeEngine (RECEIVE_AND_DELETE,
+     * vários receivers em paralelo; fila ativa e dead letter ao mesmo tempo).
+     * O total esperado vem das contagens de runtime e serve para o cálculo do ETA.
+     */
+    public CompletableFuture<OperationProgress> purgeMessagesAsync(EntityPath entity,
+                                                                  boolean includeActive,
+                                                                  boolean includeDeadLetter,
+                                                                  CancellationToken cancellationToken,
+                                                                  Consumer<OperationProgress> onProgress) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
             
             try {
-                int messagesDeleted = 0;
-                
-                // Limpar mensagens ativas
-                try (ServiceBusReceiverClient receiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .queueName(queueName)
-                         .buildClient()) {
-                    
-                    // Receber e deletar mensagens em lotes
-                    while (true) {
-                        Iterable<ServiceBusReceivedMessage> receivedMessages = 
-                            receiver.receiveMessages(100, java.time.Duration.ofSeconds(5));
-                        
-                        boolean hasMessages = false;
-                        for (ServiceBusReceivedMessage message : receivedMessages) {
-                            hasMessages = true;
-                            receiver.complete(message);
-                            messagesDeleted++;
-                        }
-                        
-                        if (!hasMessages) {
-                            break; // Não há mais mensagens
-                        }
-                    }
+                EntityPath parent = entity.parent();
+                List<EntityPath> targets = new ArrayList<>();
+                if (includeActive) {
+                    targets.add(parent);
                 }
-                
-                // Limpar mensagens dead letter
-                try (ServiceBusReceiverClient dlqReceiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .queueName(queueName)
-                         .subQueue(SubQueue.DEAD_LETTER_QUEUE)
-                         .buildClient()) {
-                    
-                    // Receber e deletar mensagens dead letter em lotes
-                    while (true) {
-                        Iterable<ServiceBusReceivedMessage> receivedMessages = 
-                            dlqReceiver.receiveMessages(100, java.time.Duration.ofSeconds(5));
-                        
-                        boolean hasMessages = false;
-                        for (ServiceBusReceivedMessage message : receivedMessages) {
-                            hasMessages = true;
-                            dlqReceiver.complete(message);
-                            messagesDeleted++;
-                        }
-                        
-                        if (!hasMessages) {
-                            break; // Não há mais mensagens dead letter
-                        }
-                    }
+                if (includeDeadLetter) {
+                    targets.add(parent.deadLetter());
                 }
                 
-                logMessage(String.format("Limpeza concluída: %d mensagens removidas da fila '%s'", messagesDeleted, queueName));
-                return messagesDeleted;
+                long expectedTotal = countPurgeableMessages(parent, includeActive, includeDeadLetter);
+                logMessage(String.format("Iniciando limpeza de '%s' (%s mensagens)", 
+                    parent, expectedTotal >= 0 ? String.format("%,d", expectedTotal) : "contagem indisponível"));
+                
+                OperationProgress progress = new PurgeEngine(clientCache, executor)
+                    .purge(targets, expectedTotal, cancellationToken, onProgress);
+                
+                logMessage(String.format("Limpeza %s: %d mensagens removidas de '%s' (%s)", 
+                    progress.isCancelled() ? "cancelada" : "concluída", 
+                    progress.getProcessed(), parent, progress.getSummary()));
+                return progress;
                 
             } catch (Exception e) {
-                logError(String.format("Erro ao limpar mensagens da fila '%s'", queueName), e);
+                logError(String.format("Erro ao limpar mensagens de '%s'", entity), e);
                 throw new RuntimeException("Erro ao limpar mensagens", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateEntity(entity));
     }
     
     /**
-     * Envia uma mensagem para uma fila
+     * Reenvia mensagens da dead letter queue para a fila de origem (ou para o tópico, no caso
+     * de subscriptions) com o DeadLetterResubmitEngine: cópias enviadas em lotes, originais
+     * concluídas só depois do envio
      */
-    public CompletableFuture<Boolean> sendMessageAsync(String queueName, String messageBody, 
-                                                      Map<String, Object> properties) {
+    public CompletableFuture<OperationProgress> resubmitDeadLettersAsync(EntityPath entity,
+                                                                        ResubmitOptions options,
+                                                                        CancellationToken cancellationToken,
+                                                                        Consumer<OperationProgress> onProgress) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                EntityPath parent = entity.parent();
+                long expectedTotal = countPurgeableMessages(parent, false, true);
+                logMessage(String.format("Iniciando reenvio da dead letter de '%s' (%s)", parent, options.getSummary()));
+                
+                DeadLetterResubmitEngine engine = new DeadLetterResubmitEngine(clientCache, executor);
+                OperationProgress progress = engine.resubmit(parent, options, expectedTotal, cancellationToken, onProgress);
+                
+                logMessage(String.format("Reenvio %s: %d mensagens reenviadas de '%s', %d ignoradas pelo filtro (%s)", 
+                    progress.isCancelled() ? "cancelado" : progress.isIncomplete() ? "interrompido" : "concluído", 
+                    progress.getProcessed(), parent.deadLetter(), engine.getSkippedCount(), progress.getSummary()));
+                return progress;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao reenviar mensagens da dead letter de '%s'", entity), e);
+                throw new RuntimeException("Erro ao reenviar mensagens da dead letter", e);
+            }
+        }, executor), () -> invalidateEntity(entity));
+    }
+    
+    /**
+     * Copia ou move mensagens de uma fila, subscription ou dead letter queue para outra fila ou tópico
+     * do namespace com o MessageTransferEngine (movimentação em transações de envio + conclusão)
+     */
+    public CompletableFuture<OperationProgress> transferMessagesAsync(EntityPath source, TransferOptions options,
+                                                                     CancellationToken cancellationToken,
+                                                                     Consumer<OperationProgress> onProgress) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            EntityPath target = options.getTarget();
+            if (target == null || target.isSubscription() || target.isDeadLetter()) {
+                throw new IllegalArgumentException("O destino deve ser uma fila ou um tópico");
+            }
+            if (target.getName().equals(source.getName()) && !source.isDeadLetter()) {
+                throw new IllegalArgumentException("O destino não pode ser a própria entidade de origem");
+            }
+            
+            try {
+                long expectedTotal = options.getExpectedLimit();
+                if (expectedTotal < 0) {
+                    expectedTotal = source.isDeadLetter()
+                        ? countPurgeableMessages(source.parent(), false, true)
+                        : countPurgeableMessages(source, true, false);
+                }
+                logMessage(String.format("Iniciando transferência de '%s': %s", source, options.getSummary()));
+                
+                OperationProgress progress = new MessageTransferEngine(clientCache, executor)
+                    .transfer(source, options, expectedTotal, cancellationToken, onProgress);
+                    
+                logMessage(String.format("Transferência %s: %d mensagens %s de '%s' para '%s' (%s)", 
+                    progress.isCancelled() ? "cancelada" : progress.isIncomplete() ? "interrompida" : "concluída", 
+                    progress.getProcessed(), options.isMove() ? "movidas" : "copiadas", source, target, 
+                    progress.getSummary()));
+                return progress;
+                
+            } catch (IllegalArgumentException e) {
+                // Seleção recusada pela movimentação: a mensagem explica o motivo ao utilizador
+                logError(String.format("Transferência de '%s' recusada", source), e);
+                throw e;
+            } catch (Exception e) {
+                logError(String.format("Erro ao transferir mensagens de '%s' para '%s'", source, target), e);
+                throw new RuntimeException("Erro ao transferir mensagens", e);
+            }
+        }, executor), () -> {
+            invalidateEntity(source);
+            invalidateEntity(options.getTarget());
+        });
+    }
+    
+    /**
+     * Exporta todas as mensagens da entidade para um arquivo NDJSON (gzip se o nome terminar em ".gz"),
+     * em streaming e sem remover mensagens
+     */
+    public CompletableFuture<OperationProgress> exportMessagesAsync(EntityPath source, Path target,
+                                                                   CancellationToken cancellationToken,
+                                                                   Consumer<OperationProgress> onProgress) {
         return CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
             
             try {
-                // Criar cliente sender usando try-with-resources
-                try (ServiceBusSenderClient sender = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .sender()
-                         .queueName(queueName)
-                         .buildClient()) {
+                boolean gzip = target.getFileName().toString().toLowerCase().endsWith(".gz");
+                long expectedTotal = source.isDeadLetter()
+                    ? countPurgeableMessages(source.parent(), false, true)
+                    : countPurgeableMessages(source, true, false);
+                logMessage(String.format("Iniciando exportação de '%s' para '%s'%s", 
+                    source, target.getFileName(), gzip ? " (gzip)" : ""));
                     
-                    // Criar mensagem
-                    ServiceBusMessage message = new ServiceBusMessage(messageBody);
+                OperationProgress progress = new MessageExportEngine(clientCache)
+                    .export(source, target, gzip, expectedTotal, cancellationToken, onProgress);
                     
-                    // Adicionar propriedades customizadas se fornecidas
-                    if (properties != null && !properties.isEmpty()) {
-                        for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                            message.getApplicationProperties().put(entry.getKey(), entry.getValue());
-                        }
+                logMessage(String.format("Exportação %s: %d mensagens de '%s' gravadas em '%s' (%s)", 
+                    progress.isCancelled() ? "cancelada" : "concluída", 
+                    progress.getProcessed(), source, target, formatFileSize(target)));
+                return progress;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao exportar mensagens de '%s'", source), e);
+                throw new RuntimeException("Erro ao exportar mensagens", e);
+            }
+        }, executor);
+    }
+    
+    private static String formatFileSize(Path file) {
+        try {
+            return String.format("%.1f MB", Files.size(file) / (1024.0 * 1024.0));
+        } catch (IOException e) {
+            return "tamanho desconhecido";
+        }
+    }
+    
+    /**
+     * Soma as contagens de runtime das sub-filas indicadas; -1 se não for possível obtê-las
+     */
+    private long countPurgeableMessages(EntityPath entity, boolean includeActive, boolean includeDeadLetter) {
+        try {
+            long active;
+            long deadLetter;
+            if (entity.isQueue()) {
+                QueueRuntimeProperties runtimeProperties = adminClient.getQueueRuntimeProperties(entity.getName());
+                active = runtimeProperties.getActiveMessageCount();
+                deadLetter = runtimeProperties.getDeadLetterMessageCount();
+            } else {
+                SubscriptionRuntimeProperties runtimeProperties = adminClient.getSubscriptionRuntimeProperties(
+                    entity.getName(), entity.getSubscriptionName());
+                active = runtimeProperties.getActiveMessageCount();
+                deadLetter = runtimeProperties.getDeadLetterMessageCount();
+            }
+            return (includeActive ? active : 0) + (includeDeadLetter ? deadLetter : 0);
+        } catch (Exception e) {
+            logger.warn("Não foi possível obter a contagem de mensagens de '{}'", entity, e);
+            return -1;
+        }
+    }
+    
+    /**
+     * Envia uma mensagem para uma fila
+     */
+    public CompletableFuture<Boolean> sendMessageAsync(String queueName, String messageBody, 
+                                                      Map<String, Object> properties) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                // Criar mensagem
+                ServiceBusMessage message = new ServiceBusMessage(messageBody);
+                
+                // Adicionar propriedades customizadas se fornecidas
+                if (properties != null && !properties.isEmpty()) {
+                    for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                        message.getApplicationProperties().put(entry.getKey(), entry.getValue());
                     }
-                    
-                    // Enviar mensagem
-                    sender.sendMessage(message);
-                    
-                    logMessage(String.format("Mensagem enviada com sucesso para fila '%s'", queueName));
-                    return true;
                 }
                 
+                // Enviar mensagem pelo sender em cache (link reutilizado entre envios)
+                clientCache.withSender(EntityPath.queue(queueName), sender -> {
+                    clientCache.getThrottle().run(MessagingCall.SEND, () -> sender.sendMessage(message));
+                    return null;
+                });
+                
+                logMessage(String.format("Mensagem enviada com sucesso para fila '%s'", queueName));
+                return true;
+                
             } catch (Exception e) {
                 logError(String.format("Erro ao enviar mensagem para fila '%s'", queueName), e);
                 throw new RuntimeException("Erro ao enviar mensagem", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateQueue(queueName));
     }
     
     /**
@@ -547,42 +885,15 @@ public class ServiceBusService {
             try {
                 List<MessageInfo> messages = new ArrayList<>();
                 
-                // Criar cliente receiver para visualizar mensagens
-                try (ServiceBusReceiverClient receiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .queueName(queueName)
-                         .buildClient()) {
+                // Peek mensagens (visualizar sem remover) a partir do início da fila;
+                // o receiver em cache guarda o último sequence number, por isso o início é explícito
+                List<ServiceBusReceivedMessage> peekedMessages = clientCache.withReceiver(
+                    EntityPath.queue(queueName),
+                    receiver -> clientCache.getThrottle().call(MessagingCall.PEEK,
+                        () -> receiver.peekMessages(maxMessages, 0).stream().toList()));
                     
-                    // Peek mensagens (visualizar sem remover)
-                    Iterable<ServiceBusReceivedMessage> peekedMessages = receiver.peekMessages(maxMessages);
-                    
-                    for (ServiceBusReceivedMessage message : peekedMessages) {
-                        MessageInfo messageInfo = new MessageInfo();
-                        
-                        messageInfo.setSequenceNumber(message.getSequenceNumber());
-                        messageInfo.setMessageId(message.getMessageId());
-                        
-                        // Tratar diferentes tipos de corpo de mensagem
-                        String messageBody = extractMessageBody(message);
-                        messageInfo.setMessageBody(messageBody);
-                        
-                        messageInfo.setContentType(message.getContentType());
-                        
-                        if (message.getEnqueuedTime() != null) {
-                            messageInfo.setEnqueuedTime(LocalDateTime.ofInstant(
-                                message.getEnqueuedTime().toInstant(), 
-                                ZoneId.systemDefault()
-                            ));
-                        }
-                        
-                        // Propriedades da aplicação
-                        if (message.getApplicationProperties() != null && !message.getApplicationProperties().isEmpty()) {
-                            messageInfo.setApplicationProperties(new HashMap<>(message.getApplicationProperties()));
-                        }
-                        
-                        messages.add(messageInfo);
-                    }
+                for (ServiceBusReceivedMessage message : peekedMessages) {
+                    messages.add(createMessageInfo(message));
                 }
                 
                 logMessage(String.format("Carregadas %d mensagens da fila '%s'", messages.size(), queueName));
@@ -592,182 +903,255 @@ public class ServiceBusService {
                 logError(String.format("Erro ao visualizar mensagens da fila '%s'", queueName), e);
                 throw new RuntimeException("Erro ao visualizar mensagens", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
-     * Remove uma mensagem específica de uma fila pelo sequence number
+     * Espia uma página de mensagens a partir de um sequence number (fila, subscription ou dead letter).
+     * Usado pelo navegador paginado; cada chamada é independente do estado do receiver em cache.
      */
-    public CompletableFuture<Boolean> deleteMessageAsync(String queueName, long sequenceNumber) {
+    public CompletableFuture<List<MessageInfo>> peekMessagesFromAsync(EntityPath entity, int maxMessages, 
+                                                                      long fromSequenceNumber) {
         return CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
             
             try {
-                // Criar cliente receiver para receber e deletar a mensagem específica
-                try (ServiceBusReceiverClient receiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .queueName(queueName)
-                         .receiveMode(ServiceBusReceiveMode.PEEK_LOCK)
-                         .buildClient()) {
-                    
-                    // Receber mensagens em lotes e procurar pela mensagem específica
-                    int maxAttempts = 10; // Limitar tentativas para evitar loop infinito
-                    int attempts = 0;
+                List<MessageInfo> messages = new ArrayList<>(maxMessages);
+                List<ServiceBusReceivedMessage> peekedMessages = clientCache.withReceiver(entity,
+                    receiver -> clientCache.getThrottle().call(MessagingCall.PEEK,
+                        () -> receiver.peekMessages(maxMessages, fromSequenceNumber).stream().toList()));
                     
-                    while (attempts < maxAttempts) {
-                        Iterable<ServiceBusReceivedMessage> receivedMessages = 
-                            receiver.receiveMessages(100, java.time.Duration.ofSeconds(5));
-                        
-                        boolean foundMessage = false;
-                        boolean hasMessages = false;
-                        
-                        for (ServiceBusReceivedMessage message : receivedMessages) {
-                            hasMessages = true;
-                            
-                            if (message.getSequenceNumber() == sequenceNumber) {
-                                // Encontrou a mensagem, deletar
-                                receiver.complete(message);
-                                logMessage(String.format("Mensagem com sequence number %d removida da fila '%s'", 
-                                    sequenceNumber, queueName));
-                                foundMessage = true;
-                            } else {
-                                // Não é a mensagem que queremos, abandonar para que volte à fila
-                                receiver.abandon(message);
-                            }
-                        }
-                        
-                        if (foundMessage) {
-                            return true;
-                        }
-                        
-                        if (!hasMessages) {
-                            break; // Não há mais mensagens na fila
-                        }
-                        
-                        attempts++;
-                    }
-                    
-                    logMessage(String.format("Mensagem com sequence number %d não encontrada na fila '%s'", 
-                        sequenceNumber, queueName));
-                    return false;
+                for (ServiceBusReceivedMessage message : peekedMessages) {
+                    messages.add(createMessageInfo(message));
                 }
                 
+                logger.debug("Página de {} mensagens de '{}' a partir do seq {}", messages.size(), entity, fromSequenceNumber);
+                return messages;
+                
             } catch (Exception e) {
-                logError(String.format("Erro ao remover mensagem %d da fila '%s'", sequenceNumber, queueName), e);
-                throw new RuntimeException("Erro ao remover mensagem", e);
+                logError(String.format("Erro ao visualizar mensagens de '%s' a partir do seq %d", entity, fromSequenceNumber), e);
+                throw new RuntimeException("Erro ao visualizar mensagens", e);
             }
-        }, executorService);
+        }, executor);
     }
     
+    // ===========================================================================================
+    // ACOMPANHAMENTO AO VIVO (TAIL)
+    // ===========================================================================================
+    
     /**
-     * Extrai o corpo da mensagem tratando diferentes tipos de dados
+     * Inicia o acompanhamento ao vivo da entidade a partir do sequence number indicado, com um
+     * receiver dedicado. A sessão é encerrada pelo chamador (close) ou ao desconectar.
      */
-    private String extractMessageBody(ServiceBusReceivedMessage message) {
-        try {
-            // Primeiro, tentar acessar através do raw AMQP message
-            if (message.getRawAmqpMessage() != null && message.getRawAmqpMessage().getBody() != null) {
-                Object body = message.getRawAmqpMessage().getBody();
+    public CompletableFuture<LiveTailSession> openLiveTailAsync(EntityPath entity, long fromSequenceNumber,
+                                                                LiveTailSession.Listener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                LiveTailSession session = new LiveTailSession(entity, 
+                    clientCache.createReceiver(entity, ServiceBusReceiveMode.PEEK_LOCK, 0), 
+                    this::createMessageInfo, fromSequenceNumber, LiveTailSession.DEFAULT_CAPACITY, listener);
+                liveTailSessions.add(session);
+                logMessage(String.format("Acompanhamento ao vivo de '%s' iniciado a partir do sequence number %d", 
+                    entity, fromSequenceNumber));
+                return session;
                 
-                // Verificar se é um AmqpMessageBody
-                if (body instanceof com.azure.core.amqp.models.AmqpMessageBody) {
-                    com.azure.core.amqp.models.AmqpMessageBody amqpBody = (com.azure.core.amqp.models.AmqpMessageBody) body;
-                    
-                    // Tentar extrair como DATA (o tipo mais comum para mensagens JSON/String)
-                    try {
-                        byte[] dataBytes = amqpBody.getFirstData();
-                        if (dataBytes != null && dataBytes.length > 0) {
-                            String result = new String(dataBytes, java.nio.charset.StandardCharsets.UTF_8);
-                            logger.debug("Mensagem extraída com sucesso como tipo DATA");
-                            return result;
-                        }
-                    } catch (UnsupportedOperationException e) {
-                        // Não é tipo DATA, tentar outros tipos
-                        logger.debug("Corpo não é tipo DATA, tentando VALUE: " + e.getMessage());
-                    } catch (Exception e) {
-                        logger.debug("Erro ao extrair como DATA: " + e.getMessage());
-                    }
-                    
-                    // Tentar extrair como VALUE
-                    try {
-                        Object value = amqpBody.getValue();
-                        if (value != null) {
-                            // Se o valor for bytes, converter para string
-                            if (value instanceof byte[]) {
-                                byte[] bytes = (byte[]) value;
-                                if (bytes.length > 0) {
-                                    String result = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
-                                    logger.debug("Mensagem extraída com sucesso como tipo VALUE (bytes)");
-                                    return result;
-                                } else {
-                                    return "[Mensagem vazia]";
-                                }
-                            }
-                            // Caso contrário, usar toString()
-                            logger.debug("Mensagem extraída com sucesso como tipo VALUE (object)");
-                            return value.toString();
-                        }
-                    } catch (UnsupportedOperationException ex) {
-                        // Não é tipo VALUE, tentar SEQUENCE
-                        logger.debug("Corpo não é tipo VALUE, tentando SEQUENCE: " + ex.getMessage());
-                    } catch (Exception ex) {
-                        logger.debug("Erro ao extrair como VALUE: " + ex.getMessage());
-                    }
-                    
-                    // Tentar extrair como SEQUENCE
-                    try {
-                        java.util.List<Object> sequence = amqpBody.getSequence();
-                        if (sequence != null && !sequence.isEmpty()) {
-                            // Converter a sequência para uma string legível
-                            StringBuilder sb = new StringBuilder();
-                            for (int i = 0; i < sequence.size(); i++) {
-                                if (i > 0) sb.append(", ");
-                                sb.append(sequence.get(i));
-                            }
-                            logger.debug("Mensagem extraída com sucesso como tipo SEQUENCE");
-                            return sb.toString();
-                        }
-                    } catch (UnsupportedOperationException ex) {
-                        logger.debug("Corpo não é tipo SEQUENCE: " + ex.getMessage());
-                    } catch (Exception e) {
-                        logger.debug("Erro ao extrair como SEQUENCE: " + e.getMessage());
+            } catch (Exception e) {
+                logError(String.format("Erro ao iniciar acompanhamento ao vivo de '%s'", entity), e);
+                throw new RuntimeException("Erro ao iniciar acompanhamento ao vivo", e);
+            }
+        }, executor);
+    }
+    
+    /**
+     * Encerra o acompanhamento ao vivo e fecha o receiver da sessão
+     */
+    public CompletableFuture<Void> closeLiveTailAsync(LiveTailSession session) {
+        return CompletableFuture.runAsync(() -> {
+            session.close();
+            if (liveTailSessions.remove(session)) {
+                logMessage(String.format("Acompanhamento ao vivo de '%s' encerrado", session.getEntity()));
+            }
+        }, executor);
+    }
+    
+    // ===========================================================================================
+    // MÉTRICAS DE RUNTIME EM SEGUNDO PLANO
+    // ===========================================================================================
+    
+    /**
+     * Define as filas e subscriptions cujas contagens são amostradas periodicamente
+     * (substitui o conjunto anterior; tópicos são ignorados)
+     */
+    public void watchRuntimeMetrics(Collection<EntityPath> entities) {
+        RuntimeMetricsPoller poller = runtimeMetricsPoller;
+        if (poller != null) {
+            poller.setWatched(entities);
+        }
+    }
+    
+    /**
+     * Série de contagens amostradas da entidade, ou null se não há amostras
+     */
+    public RuntimeMetricsSeries getRuntimeMetrics(EntityPath entity) {
+        RuntimeMetricsPoller poller = runtimeMetricsPoller;
+        return poller != null ? poller.getSeries(entity) : null;
+    }
+    
+    // ===========================================================================================
+    // NAVEGAÇÃO COM LOCK (PEEK_LOCK)
+    // ===========================================================================================
+    
+    /**
+     * Abre uma sessão de navegação com lock numa fila, subscription ou dead letter queue.
+     * A sessão é encerrada pelo chamador (close) ou ao desconectar.
+     */
+    public CompletableFuture<LockedBrowseSession> openLockedBrowseSessionAsync(EntityPath entity, 
+                                                                            LockedBrowseSession.Listener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                LockedBrowseSession session = new LockedBrowseSession(entity, 
+                    clientCache.createReceiver(entity, ServiceBusReceiveMode.PEEK_LOCK, 0), 
+                    listener, LockedBrowseSession.DEFAULT_MAX_HOLD);
+                lockedBrowseSessions.add(session);
+                logMessage(String.format("Sessão com lock aberta em '%s'", entity));
+                return session;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao abrir sessão com lock em '%s'", entity), e);
+                throw new RuntimeException("Erro ao abrir sessão com lock", e);
+            }
+        }, executor);
+    }
+    
+    /**
+     * Recebe a próxima página de mensagens com lock; as mensagens ficam retidas na sessão
+     */
+    public CompletableFuture<ObservableList<MessageInfo>> receiveLockedPageAsync(LockedBrowseSession session, int maxMessages) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<MessageInfo> messages = new ArrayList<>();
+                for (ServiceBusReceivedMessage message : session.receivePage(maxMessages)) {
+                    MessageInfo messageInfo = createMessageInfo(message);
+                    messageInfo.setLockToken(message.getLockToken());
+                    if (message.getLockedUntil() != null) {
+                        messageInfo.setLockedUntil(message.getLockedUntil().toInstant());
                     }
+                    messageInfo.setDeliveryCount((int) message.getDeliveryCount());
+                    messages.add(messageInfo);
                 }
+                
+                logMessage(String.format("Recebidas %d mensagens com lock de '%s' (%d retidas)", 
+                    messages.size(), session.getEntity(), session.getHeldCount()));
+                return FXCollections.observableArrayList(messages);
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao receber mensagens com lock de '%s'", session.getEntity()), e);
+                throw new RuntimeException("Erro ao receber mensagens com lock", e);
             }
+        }, executor);
+    }
+    
+    /**
+     * Liquida mensagens retidas pelo lock token (concluir, devolver, dead letter ou adiar)
+     */
+    public CompletableFuture<LockedBrowseSession.SettlementResult> settleLockedMessagesAsync(
+            LockedBrowseSession session, List<Long> sequenceNumbers, LockedBrowseSession.Settlement action,
+            String deadLetterReason, String deadLetterDescription) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            try {
+                LockedBrowseSession.SettlementResult result = session.settle(
+                    sequenceNumbers, action, deadLetterReason, deadLetterDescription);
+                    
+                logMessage(String.format("%s: %d mensagens de '%s'%s", action.getDisplayName(), 
+                    result.settled().size(), session.getEntity(), 
+                    result.failed().isEmpty() ? "" : String.format(" (%d falharam)", result.failed().size())));
+                return result;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao liquidar mensagens de '%s'", session.getEntity()), e);
+                throw new RuntimeException("Erro ao liquidar mensagens", e);
+            }
+        }, executor), () -> invalidateEntity(session.getEntity()));
+    }
+    
+    /**
+     * Encerra a sessão devolvendo as mensagens ainda retidas
+     */
+    public CompletableFuture<Void> closeLockedBrowseSessionAsync(LockedBrowseSession session) {
+        return CompletableFuture.runAsync(() -> {
+            int held = session.getHeldCount();
+            session.close();
+            lockedBrowseSessions.remove(session);
+            logMessage(String.format("Sessão com lock em '%s' encerrada (%d mensagens devolvidas)", 
+                session.getEntity(), held));
+        }, executor);
+    }
+    
+    /**
+     * Converte uma mensagem recebida ou espiada no modelo da interface
+     */
+    private MessageInfo createMessageInfo(ServiceBusReceivedMessage message) {
+        MessageInfo messageInfo = messageStore.append();
+        
+        messageInfo.setSequenceNumber(message.getSequenceNumber());
+        messageInfo.setMessageId(message.getMessageId());
+        
+        // Corpo fica em bytes; a interface decodifica só a pré-visualização e a mensagem selecionada
+        MessageBody messageBody = extractMessageBody(message);
+        messageInfo.setBody(messageBody);
+        messageInfo.setSizeInBytes(messageBody.getSize());
+        
+        messageInfo.setContentType(message.getContentType());
+        if (message.getEnqueuedTime() != null) {
+            messageInfo.setEnqueuedTime(message.getEnqueuedTime().toInstant());
+        }
+        
+        // Propriedades da aplicação (copiadas para pares compactos pelo store)
+        messageInfo.setApplicationProperties(message.getApplicationProperties());
+        
+        return messageInfo;
+    }
+    
+    /**
+     * Extrai o corpo da mensagem sem o decodificar: corpos DATA ficam com os bytes recebidos
+     * (no {@link BodySpillStore} quando não são pequenos); corpos AMQP VALUE/SEQUENCE (sem bytes)
+     * são convertidos para texto
+     */
+    private MessageBody extractMessageBody(ServiceBusReceivedMessage message) {
+        try {
+            AmqpMessageBody body = message.getRawAmqpMessage().getBody();
             
-            // Fallback: tentar o método padrão getBody() para STRING e BINARY
-            try {
-                String result = message.getBody().toString();
-                logger.debug("Mensagem extraída com método padrão getBody().toString()");
-                return result;
-            } catch (UnsupportedOperationException e) {
-                logger.debug("getBody().toString() não suportado, tentando toBytes()");
-                // Se ainda falhar, tentar extrair como bytes
-                try {
-                    byte[] bodyBytes = message.getBody().toBytes();
-                    if (bodyBytes != null && bodyBytes.length > 0) {
-                        String result = new String(bodyBytes, java.nio.charset.StandardCharsets.UTF_8);
-                        logger.debug("Mensagem extraída com getBody().toBytes()");
-                        return result;
-                    } else {
-                        return "[Mensagem vazia]";
+            switch (body.getBodyType()) {
+                case DATA:
+                    return bodySpillStore.store(body.getFirstData());
+                case VALUE:
+                    Object value = body.getValue();
+                    return value instanceof byte[] bytes ? bodySpillStore.store(bytes) : MessageBody.of(String.valueOf(value));
+                case SEQUENCE:
+                    StringBuilder sb = new StringBuilder();
+                    List<Object> sequence = body.getSequence();
+                    for (int i = 0; i < sequence.size(); i++) {
+                        if (i > 0) sb.append(", ");
+                        sb.append(sequence.get(i));
                     }
-                } catch (Exception ex) {
-                    logger.warn("Não foi possível extrair corpo da mensagem usando métodos padrão: " + ex.getMessage());
-                }
-            } catch (Exception e) {
-                logger.debug("Erro com getBody(): " + e.getMessage());
+                    return MessageBody.of(sb.toString());
+                default:
+                    return MessageBody.of("[Tipo de corpo não suportado - use ferramentas específicas para visualizar]");
             }
             
-            // Último recurso: mostrar informação sobre o tipo
-            return "[Tipo de corpo não suportado - use ferramentas específicas para visualizar]";
-            
         } catch (Exception e) {
-            // Fallback para qualquer outro erro
             logger.error("Erro ao extrair corpo da mensagem", e);
-            return String.format("[Erro ao ler mensagem: %s]", e.getMessage());
+            return MessageBody.of(String.format("[Erro ao ler mensagem: %s]", e.getMessage()));
         }
     }
     
@@ -800,7 +1184,7 @@ public class ServiceBusService {
                 logError("Erro ao listar nomes dos tópicos", e);
                 throw new RuntimeException("Erro ao listar tópicos", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
@@ -865,14 +1249,14 @@ public class ServiceBusService {
                 logError(String.format("Erro ao obter detalhes do tópico '%s'", topicName), e);
                 throw new RuntimeException("Erro ao obter detalhes do tópico", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
      * Cria um novo tópico
      */
     public CompletableFuture<CreateQueueResult> createTopicAsync(String topicName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -892,14 +1276,14 @@ public class ServiceBusService {
                 logError(String.format("Erro ao criar tópico '%s'", topicName), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> invalidateTopic(topicName));
     }
     
     /**
      * Remove um tópico
      */
     public CompletableFuture<Boolean> deleteTopicAsync(String topicName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -914,7 +1298,7 @@ public class ServiceBusService {
                 logError(String.format("Erro ao remover tópico '%s'", topicName), e);
                 throw new RuntimeException("Erro ao remover tópico", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateTopic(topicName));
     }
     
     /**
@@ -922,41 +1306,158 @@ public class ServiceBusService {
      */
     public CompletableFuture<Boolean> sendMessageToTopicAsync(String topicName, String messageBody, 
                                                              Map<String, Object> properties) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
             
             try {
-                // Criar cliente sender para tópico
-                try (ServiceBusSenderClient sender = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .sender()
-                         .topicName(topicName)
-                         .buildClient()) {
-                    
-                    // Criar mensagem
-                    ServiceBusMessage message = new ServiceBusMessage(messageBody);
-                    
-                    // Adicionar propriedades customizadas se fornecidas
-                    if (properties != null && !properties.isEmpty()) {
-                        for (Map.Entry<String, Object> entry : properties.entrySet()) {
-                            message.getApplicationProperties().put(entry.getKey(), entry.getValue());
-                        }
+                // Criar mensagem
+                ServiceBusMessage message = new ServiceBusMessage(messageBody);
+                
+                // Adicionar propriedades customizadas se fornecidas
+                if (properties != null && !properties.isEmpty()) {
+                    for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                        message.getApplicationProperties().put(entry.getKey(), entry.getValue());
                     }
-                    
-                    // Enviar mensagem
-                    sender.sendMessage(message);
-                    
-                    logMessage(String.format("Mensagem enviada com sucesso para tópico '%s'", topicName));
-                    return true;
                 }
                 
+                // Enviar mensagem pelo sender em cache (link reutilizado entre envios)
+                clientCache.withSender(EntityPath.topic(topicName), sender -> {
+                    clientCache.getThrottle().run(MessagingCall.SEND, () -> sender.sendMessage(message));
+                    return null;
+                });
+                
+                logMessage(String.format("Mensagem enviada com sucesso para tópico '%s'", topicName));
+                return true;
+                
             } catch (Exception e) {
                 logError(String.format("Erro ao enviar mensagem para tópico '%s'", topicName), e);
                 throw new RuntimeException("Erro ao enviar mensagem", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateTopic(topicName));
+    }
+    
+    /**
+     * Envia mensagens em massa para uma fila ou tópico usando lotes (ServiceBusMessageBatch),
+     * mantendo vários lotes em trânsito ao mesmo tempo
+     */
+    public CompletableFuture<OperationProgress> sendMessagesBulkAsync(EntityPath target,
+                                                                     Iterator<ServiceBusMessage> messages,
+                                                                     long expectedTotal,
+                                                                     int concurrency,
+                                                                     CancellationToken cancellationToken,
+                                                                     Consumer<OperationProgress> onProgress) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                logMessage(String.format("Iniciando envio em massa para '%s' (%d lotes simultâneos)", 
+                    target, concurrency));
+                    
+                OperationProgress progress = new BulkSendEngine(clientCache, executor)
+                    .send(target, messages, expectedTotal, concurrency, cancellationToken, onProgress);
+                    
+                logMessage(String.format("Envio em massa para '%s' %s: %s (%s)", 
+                    target, progress.isCancelled() ? "cancelado" : "concluído", 
+                    progress.getSummary(), progress.getBatchSummary()));
+                return progress;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro no envio em massa para '%s'", target), e);
+                throw new RuntimeException("Erro no envio em massa", e);
+            }
+        }, executor), () -> invalidateEntity(target));
+    }
+    
+    /**
+     * Reenvia (replay) um arquivo NDJSON no formato da exportação para uma fila ou tópico.
+     * O arquivo é lido em streaming (gzip se o nome terminar em ".gz"); uma primeira passagem
+     * conta as linhas para o ETA.
+     *
+     * @param targetRatePerSecond taxa alvo em mensagens por segundo (0 = sem limite)
+     */
+    public CompletableFuture<OperationProgress> replayMessagesAsync(EntityPath target, Path file,
+                                                                   double targetRatePerSecond, int concurrency,
+                                                                   CancellationToken cancellationToken,
+                                                                   Consumer<OperationProgress> onProgress) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                long total;
+                try (BufferedReader reader = openTextReader(file)) {
+                    total = reader.lines().filter(line -> !line.isBlank()).count();
+                }
+                logMessage(String.format("Iniciando replay de %,d mensagens de '%s' para '%s' (%s, %d lotes simultâneos)", 
+                    total, file.getFileName(), target, 
+                    targetRatePerSecond > 0 ? String.format("%,.0f msg/s", targetRatePerSecond) : "sem limite de taxa", 
+                    concurrency));
+                    
+                OperationProgress progress;
+                try (BufferedReader reader = openTextReader(file)) {
+                    progress = new BulkSendEngine(clientCache, executor).send(target, 
+                        MessageSources.ndjson(reader), total, concurrency, targetRatePerSecond, 
+                        cancellationToken, onProgress);
+                }
+                
+                logMessage(String.format("Replay para '%s' %s: %s (%s)", 
+                    target, progress.isCancelled() ? "cancelado" : "concluído", 
+                    progress.getSummary(), progress.getBatchSummary()));
+                return progress;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro no replay de '%s' para '%s'", file.getFileName(), target), e);
+                throw new RuntimeException("Erro no replay de mensagens", e);
+            }
+        }, executor), () -> invalidateEntity(target));
+    }
+    
+    /**
+     * Lê até {@code maxMessages} mensagens de um arquivo NDJSON (opcionalmente .gz) para a memória,
+     * sem enviar nada (ex.: amostra para a simulação de encaminhamento)
+     */
+    public CompletableFuture<List<MessageInfo>> readNdjsonMessagesAsync(Path file, int maxMessages) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (BufferedReader reader = openTextReader(file)) {
+                List<MessageInfo> messages = new ArrayList<>();
+                String line;
+                long lineNumber = 0;
+                while (messages.size() < maxMessages && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    MessageInfo messageInfo = messageStore.append();
+                    try {
+                        MessageNdjson.fillMessageInfo(JsonParser.parseString(line).getAsJsonObject(), messageInfo);
+                    } catch (RuntimeException e) {
+                        throw new IllegalArgumentException(String.format(
+                            "Linha %d do arquivo NDJSON inválida: %s", lineNumber, e.getMessage()), e);
+                    }
+                    messages.add(messageInfo);
+                }
+                
+                logMessage(String.format("%,d mensagens lidas de '%s'", messages.size(), file.getFileName()));
+                return messages;
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao ler mensagens de '%s'", file.getFileName()), e);
+                throw new RuntimeException("Erro ao ler arquivo NDJSON", e);
+            }
+        }, executor);
+    }
+    
+    private static BufferedReader openTextReader(Path file) throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        if (file.getFileName().toString().toLowerCase().endsWith(".gz")) {
+            input = new GZIPInputStream(input, 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
     }
     
     // ===========================================================================================
@@ -989,7 +1490,7 @@ public class ServiceBusService {
                 logError(String.format("Erro ao listar subscriptions do tópico '%s'", topicName), e);
                 throw new RuntimeException("Erro ao listar subscriptions", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
@@ -1002,56 +1503,7 @@ public class ServiceBusService {
             }
             
             try {
-                // Obter propriedades da subscription
-                SubscriptionProperties subProperties = adminClient.getSubscription(topicName, subscriptionName);
-                
-                // Obter runtime info
-                SubscriptionRuntimeProperties runtimeProperties = 
-                    adminClient.getSubscriptionRuntimeProperties(topicName, subscriptionName);
-                
-                SubscriptionInfo subscriptionInfo = new SubscriptionInfo(topicName, subscriptionName);
-                
-                // Propriedades básicas
-                subscriptionInfo.setStatus(subProperties.getStatus().toString());
-                subscriptionInfo.setMaxDeliveryCount(subProperties.getMaxDeliveryCount());
-                subscriptionInfo.setLockDuration(subProperties.getLockDuration());
-                subscriptionInfo.setDefaultMessageTimeToLive(subProperties.getDefaultMessageTimeToLive());
-                subscriptionInfo.setAutoDeleteOnIdle(subProperties.getAutoDeleteOnIdle());
-                subscriptionInfo.setSessionRequired(subProperties.isSessionRequired());
-                subscriptionInfo.setDeadLetteringOnMessageExpiration(subProperties.isDeadLetteringOnMessageExpiration());
-                // subscriptionInfo.setDeadLetteringOnFilterEvaluationException(
-                //     subProperties.isDeadLetteringOnFilterEvaluationException()); // Método não disponível nesta versão da SDK
-                subscriptionInfo.setBatchedOperationsEnabled(subProperties.isBatchedOperationsEnabled());
-                
-                // Runtime properties
-                subscriptionInfo.setTotalMessages(runtimeProperties.getTotalMessageCount());
-                subscriptionInfo.setActiveMessages(runtimeProperties.getActiveMessageCount());
-                subscriptionInfo.setDeadLetterMessages(runtimeProperties.getDeadLetterMessageCount());
-                // subscriptionInfo.setScheduledMessages(runtimeProperties.getScheduledMessageCount()); // Método não disponível nesta versão da SDK
-                subscriptionInfo.setTransferMessageCount(runtimeProperties.getTransferMessageCount());
-                subscriptionInfo.setTransferDeadLetterMessageCount(runtimeProperties.getTransferDeadLetterMessageCount());
-                
-                // Timestamps
-                if (runtimeProperties.getCreatedAt() != null) {
-                    subscriptionInfo.setCreatedAt(LocalDateTime.ofInstant(
-                        runtimeProperties.getCreatedAt().toInstant(), 
-                        ZoneId.systemDefault()
-                    ));
-                }
-                
-                if (runtimeProperties.getUpdatedAt() != null) {
-                    subscriptionInfo.setUpdatedAt(LocalDateTime.ofInstant(
-                        runtimeProperties.getUpdatedAt().toInstant(), 
-                        ZoneId.systemDefault()
-                    ));
-                }
-                
-                if (runtimeProperties.getAccessedAt() != null) {
-                    subscriptionInfo.setAccessedAt(LocalDateTime.ofInstant(
-                        runtimeProperties.getAccessedAt().toInstant(), 
-                        ZoneId.systemDefault()
-                    ));
-                }
+                SubscriptionInfo subscriptionInfo = fetchSubscriptionDetails(topicName, subscriptionName);
                 
                 logMessage(String.format("Detalhes carregados para subscription '%s' do tópico '%s'", 
                     subscriptionName, topicName));
@@ -1062,14 +1514,128 @@ public class ServiceBusService {
                     subscriptionName, topicName), e);
                 throw new RuntimeException("Erro ao obter detalhes da subscription", e);
             }
-        }, executorService);
+        }, executor);
+    }
+    
+    /**
+     * Carrega os detalhes de várias subscriptions em paralelo (até {@code concurrency} pedidos
+     * simultâneos), entregando cada subscription ao callback assim que fica pronta.
+     * Falhas individuais são registadas no log e não interrompem as restantes.
+     * 
+     * @return número de subscriptions carregadas com sucesso
+     */
+    public CompletableFuture<Integer> loadSubscriptionDetailsAsync(String topicName, List<String> subscriptionNames,
+                                                                  int concurrency, CancellationToken cancellationToken,
+                                                                  Consumer<SubscriptionInfo> onLoaded) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                BoundedExecutor fanOut = new BoundedExecutor(executor, concurrency, cancellationToken);
+                AtomicInteger loaded = new AtomicInteger();
+                AtomicInteger failed = new AtomicInteger();
+                
+                for (String subscriptionName : subscriptionNames) {
+                    boolean submitted = fanOut.submit(() -> {
+                        if (cancellationToken.isCancelled()) {
+                            return;
+                        }
+                        try {
+                            onLoaded.accept(fetchSubscriptionDetails(topicName, subscriptionName));
+                            loaded.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            logError(String.format("Erro ao obter detalhes da subscription '%s' do tópico '%s'", 
+                                subscriptionName, topicName), e);
+                        }
+                    });
+                    
+                    if (!submitted) {
+                        break; // Cancelado (ex.: outro tópico foi selecionado)
+                    }
+                }
+                
+                fanOut.awaitCompletion();
+                
+                if (failed.get() > 0) {
+                    logMessage(String.format("%d de %d subscriptions do tópico '%s' não puderam ser carregadas", 
+                        failed.get(), subscriptionNames.size(), topicName));
+                }
+                return loaded.get();
+                
+            } catch (Exception e) {
+                logError(String.format("Erro ao carregar detalhes das subscriptions do tópico '%s'", topicName), e);
+                throw new RuntimeException("Erro ao carregar detalhes das subscriptions", e);
+            }
+        }, executor);
+    }
+    
+    /**
+     * Obtém propriedades e contagens de runtime de uma subscription (chamada síncrona)
+     */
+    private SubscriptionInfo fetchSubscriptionDetails(String topicName, String subscriptionName) throws Exception {
+        // Propriedades e runtime info (pedidos repetidos em curso partilham a mesma chamada)
+        EntityDescription<SubscriptionProperties, SubscriptionRuntimeProperties> description = adminRequests.get(
+            subscriptionKey(topicName, subscriptionName), () -> new EntityDescription<>(
+                adminClient.getSubscription(topicName, subscriptionName),
+                adminClient.getSubscriptionRuntimeProperties(topicName, subscriptionName)));
+        SubscriptionProperties subProperties = description.properties();
+        SubscriptionRuntimeProperties runtimeProperties = description.runtime();
+            
+        SubscriptionInfo subscriptionInfo = new SubscriptionInfo(topicName, subscriptionName);
+        
+        // Propriedades básicas
+        subscriptionInfo.setStatus(subProperties.getStatus().toString());
+        subscriptionInfo.setMaxDeliveryCount(subProperties.getMaxDeliveryCount());
+        subscriptionInfo.setLockDuration(subProperties.getLockDuration());
+        subscriptionInfo.setDefaultMessageTimeToLive(subProperties.getDefaultMessageTimeToLive());
+        subscriptionInfo.setAutoDeleteOnIdle(subProperties.getAutoDeleteOnIdle());
+        subscriptionInfo.setSessionRequired(subProperties.isSessionRequired());
+        subscriptionInfo.setDeadLetteringOnMessageExpiration(subProperties.isDeadLetteringOnMessageExpiration());
+        // subscriptionInfo.setDeadLetteringOnFilterEvaluationException(
+        //     subProperties.isDeadLetteringOnFilterEvaluationException()); // Método não disponível nesta versão da SDK
+        subscriptionInfo.setBatchedOperationsEnabled(subProperties.isBatchedOperationsEnabled());
+        
+        // Runtime properties
+        subscriptionInfo.setTotalMessages(runtimeProperties.getTotalMessageCount());
+        subscriptionInfo.setActiveMessages(runtimeProperties.getActiveMessageCount());
+        subscriptionInfo.setDeadLetterMessages(runtimeProperties.getDeadLetterMessageCount());
+        // subscriptionInfo.setScheduledMessages(runtimeProperties.getScheduledMessageCount()); // Método não disponível nesta versão da SDK
+        subscriptionInfo.setTransferMessageCount(runtimeProperties.getTransferMessageCount());
+        subscriptionInfo.setTransferDeadLetterMessageCount(runtimeProperties.getTransferDeadLetterMessageCount());
+        
+        // Timestamps
+        if (runtimeProperties.getCreatedAt() != null) {
+            subscriptionInfo.setCreatedAt(LocalDateTime.ofInstant(
+                runtimeProperties.getCreatedAt().toInstant(), 
+                ZoneId.systemDefault()
+            ));
+        }
+        
+        if (runtimeProperties.getUpdatedAt() != null) {
+            subscriptionInfo.setUpdatedAt(LocalDateTime.ofInstant(
+                runtimeProperties.getUpdatedAt().toInstant(), 
+                ZoneId.systemDefault()
+            ));
+        }
+        
+        if (runtimeProperties.getAccessedAt() != null) {
+            subscriptionInfo.setAccessedAt(LocalDateTime.ofInstant(
+                runtimeProperties.getAccessedAt().toInstant(), 
+                ZoneId.systemDefault()
+            ));
+        }
+        
+        return subscriptionInfo;
     }
     
     /**
      * Cria uma nova subscription em um tópico (com rule $Default automática)
      */
     public CompletableFuture<CreateQueueResult> createSubscriptionAsync(String topicName, String subscriptionName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1092,7 +1658,7 @@ public class ServiceBusService {
                     subscriptionName, topicName), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
     }
     
     /**
@@ -1100,7 +1666,7 @@ public class ServiceBusService {
      */
     public CompletableFuture<CreateQueueResult> createSubscriptionAsync(
             com.azureservicebus.manager.model.SubscriptionConfiguration config) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1219,7 +1785,11 @@ public class ServiceBusService {
                     config.getName(), config.getTopicName()), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> {
+            if (config != null) {
+                invalidateSubscription(config.getTopicName(), config.getName());
+            }
+        });
     }
     
     /**
@@ -1230,7 +1800,7 @@ public class ServiceBusService {
             String filterType, String sqlExpression,
             String correlationId, String messageId, String sessionId,
             String replyTo, String label, String contentType) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1287,14 +1857,14 @@ public class ServiceBusService {
                     subscriptionName, topicName), e);
                 return CreateQueueResult.ERROR;
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
     }
     
     /**
      * Remove uma subscription de um tópico
      */
     public CompletableFuture<Boolean> deleteSubscriptionAsync(String topicName, String subscriptionName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1311,7 +1881,7 @@ public class ServiceBusService {
                     subscriptionName, topicName), e);
                 throw new RuntimeException("Erro ao remover subscription", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
     }
     
     /**
@@ -1327,41 +1897,14 @@ public class ServiceBusService {
             try {
                 List<MessageInfo> messages = new ArrayList<>();
                 
-                // Criar cliente receiver para visualizar mensagens da subscription
-                try (ServiceBusReceiverClient receiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .topicName(topicName)
-                         .subscriptionName(subscriptionName)
-                         .buildClient()) {
+                // Peek mensagens (visualizar sem remover) a partir do início da subscription
+                List<ServiceBusReceivedMessage> peekedMessages = clientCache.withReceiver(
+                    EntityPath.subscription(topicName, subscriptionName),
+                    receiver -> clientCache.getThrottle().call(MessagingCall.PEEK,
+                        () -> receiver.peekMessages(maxMessages, 0).stream().toList()));
                     
-                    // Peek mensagens (visualizar sem remover)
-                    Iterable<ServiceBusReceivedMessage> peekedMessages = receiver.peekMessages(maxMessages);
-                    
-                    for (ServiceBusReceivedMessage message : peekedMessages) {
-                        MessageInfo messageInfo = new MessageInfo();
-                        
-                        messageInfo.setSequenceNumber(message.getSequenceNumber());
-                        messageInfo.setMessageId(message.getMessageId());
-                        
-                        String messageBody = extractMessageBody(message);
-                        messageInfo.setMessageBody(messageBody);
-                        
-                        messageInfo.setContentType(message.getContentType());
-                        
-                        if (message.getEnqueuedTime() != null) {
-                            messageInfo.setEnqueuedTime(LocalDateTime.ofInstant(
-                                message.getEnqueuedTime().toInstant(), 
-                                ZoneId.systemDefault()
-                            ));
-                        }
-                        
-                        if (message.getApplicationProperties() != null && !message.getApplicationProperties().isEmpty()) {
-                            messageInfo.setApplicationProperties(new HashMap<>(message.getApplicationProperties()));
-                        }
-                        
-                        messages.add(messageInfo);
-                    }
+                for (ServiceBusReceivedMessage message : peekedMessages) {
+                    messages.add(createMessageInfo(message));
                 }
                 
                 logMessage(String.format("Carregadas %d mensagens da subscription '%s' do tópico '%s'", 
@@ -1373,82 +1916,16 @@ public class ServiceBusService {
                     subscriptionName, topicName), e);
                 throw new RuntimeException("Erro ao visualizar mensagens", e);
             }
-        }, executorService);
+        }, executor);
     }
     
     /**
-     * Limpa todas as mensagens de uma subscription
+     * Limpa todas as mensagens de uma subscription (ativas e dead letter)
      */
     public CompletableFuture<Integer> clearSubscriptionMessagesAsync(String topicName, String subscriptionName) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (!isConnected()) {
-                throw new IllegalStateException("Não conectado ao Service Bus");
-            }
-            
-            try {
-                int messagesDeleted = 0;
-                
-                // Limpar mensagens ativas
-                try (ServiceBusReceiverClient receiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .topicName(topicName)
-                         .subscriptionName(subscriptionName)
-                         .buildClient()) {
-                    
-                    while (true) {
-                        Iterable<ServiceBusReceivedMessage> receivedMessages = 
-                            receiver.receiveMessages(100, java.time.Duration.ofSeconds(5));
-                        
-                        boolean hasMessages = false;
-                        for (ServiceBusReceivedMessage message : receivedMessages) {
-                            hasMessages = true;
-                            receiver.complete(message);
-                            messagesDeleted++;
-                        }
-                        
-                        if (!hasMessages) {
-                            break;
-                        }
-                    }
-                }
-                
-                // Limpar mensagens dead letter
-                try (ServiceBusReceiverClient dlqReceiver = new ServiceBusClientBuilder()
-                         .connectionString(connectionString)
-                         .receiver()
-                         .topicName(topicName)
-                         .subscriptionName(subscriptionName)
-                         .subQueue(SubQueue.DEAD_LETTER_QUEUE)
-                         .buildClient()) {
-                    
-                    while (true) {
-                        Iterable<ServiceBusReceivedMessage> receivedMessages = 
-                            dlqReceiver.receiveMessages(100, java.time.Duration.ofSeconds(5));
-                        
-                        boolean hasMessages = false;
-                        for (ServiceBusReceivedMessage message : receivedMessages) {
-                            hasMessages = true;
-                            dlqReceiver.complete(message);
-                            messagesDeleted++;
-                        }
-                        
-                        if (!hasMessages) {
-                            break;
-                        }
-                    }
-                }
-                
-                logMessage(String.format("Limpeza concluída: %d mensagens removidas da subscription '%s' do tópico '%s'", 
-                    messagesDeleted, subscriptionName, topicName));
-                return messagesDeleted;
-                
-            } catch (Exception e) {
-                logError(String.format("Erro ao limpar mensagens da subscription '%s' do tópico '%s'", 
-                    subscriptionName, topicName), e);
-                throw new RuntimeException("Erro ao limpar mensagens", e);
-            }
-        }, executorService);
+        return purgeMessagesAsync(EntityPath.subscription(topicName, subscriptionName), true, true, 
+                new CancellationToken(), null)
+            .thenApply(progress -> (int) progress.getProcessed());
     }
     
     // ===========================================================================================
@@ -1468,7 +1945,7 @@ public class ServiceBusService {
             try {
                 List<com.azureservicebus.manager.model.RuleInfo> rules = new ArrayList<>();
                 
-                adminClient.listRules(topicName, subscriptionName).forEach(ruleProperties -> {
+                listRuleProperties(topicName, subscriptionName).forEach(ruleProperties -> {
                     com.azureservicebus.manager.model.RuleInfo ruleInfo = 
                         new com.azureservicebus.manager.model.RuleInfo();
                     
@@ -1570,7 +2047,100 @@ public class ServiceBusService {
                     topicName, subscriptionName), e);
                 throw new RuntimeException("Erro ao listar rules", e);
             }
-        }, executorService);
+        }, executor);
+    }
+    
+    /**
+     * Carrega as rules de todas as subscriptions do tópico em paralelo e monta a tabela de encaminhamento.
+     * Lê as rules diretamente do SDK (e não via {@link #listRulesAsync}) para manter as propriedades
+     * personalizadas dos CorrelationRuleFilter, que a RuleInfo não guarda.
+     */
+    public CompletableFuture<TopicRoutingTable> loadRoutingTableAsync(String topicName, int concurrency,
+                                                                      CancellationToken cancellationToken) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                List<String> subscriptionNames = new ArrayList<>();
+                adminClient.listSubscriptions(topicName).forEach(subscription -> 
+                    subscriptionNames.add(subscription.getSubscriptionName()));
+                subscriptionNames.sort(String::compareToIgnoreCase);
+                
+                Map<String, List<RuleProperties>> rulesBySubscription = new ConcurrentHashMap<>();
+                BoundedExecutor fanOut = new BoundedExecutor(executor, concurrency, cancellationToken);
+                for (String subscriptionName : subscriptionNames) {
+                    if (!fanOut.submit(() -> {
+                        try {
+                            rulesBySubscription.put(subscriptionName, listRuleProperties(topicName, subscriptionName));
+                        } catch (Exception e) {
+                            logError(String.format("Erro ao listar rules da subscription '%s/%s'", 
+                                topicName, subscriptionName), e);
+                        }
+                    })) {
+                        break;
+                    }
+                }
+                fanOut.awaitCompletion();
+                cancellationToken.throwIfCancelled();
+                
+                if (rulesBySubscription.size() < subscriptionNames.size()) {
+                    throw new IllegalStateException(String.format("Rules de %d subscriptions não puderam ser carregadas", 
+                        subscriptionNames.size() - rulesBySubscription.size()));
+                }
+                
+                TopicRoutingTable.Builder builder = TopicRoutingTable.builder(topicName);
+                for (String subscriptionName : subscriptionNames) {
+                    builder.addSubscription(subscriptionName);
+                    for (RuleProperties rule : rulesBySubscription.get(subscriptionName)) {
+                        addRoutingRule(builder, subscriptionName, rule);
+                    }
+                }
+                TopicRoutingTable table = builder.build();
+                
+                logMessage(String.format("Tabela de encaminhamento do tópico '%s': %d subscriptions, %d rules", 
+                    topicName, subscriptionNames.size(), table.getRuleCount()));
+                return table;
+                
+            } catch (CancellationException e) {
+                throw e;
+            } catch (Exception e) {
+                logError(String.format("Erro ao carregar rules do tópico '%s'", topicName), e);
+                throw new RuntimeException("Erro ao carregar rules do tópico", e);
+            }
+        }, executor);
+    }
+    
+    private static void addRoutingRule(TopicRoutingTable.Builder builder, String subscriptionName, RuleProperties rule) {
+        String action = rule.getAction() instanceof SqlRuleAction sqlAction ? sqlAction.getSqlExpression() : null;
+        RuleFilter filter = rule.getFilter();
+        
+        if (filter instanceof TrueRuleFilter) {
+            builder.addTrueRule(subscriptionName, rule.getName(), action);
+        } else if (filter instanceof FalseRuleFilter) {
+            builder.addFalseRule(subscriptionName, rule.getName());
+        } else if (filter instanceof SqlRuleFilter sqlFilter) {
+            builder.addSqlRule(subscriptionName, rule.getName(), sqlFilter.getSqlExpression(), action);
+        } else if (filter instanceof CorrelationRuleFilter correlation) {
+            Map<SystemProperty, String> system = new EnumMap<>(SystemProperty.class);
+            putIfPresent(system, SystemProperty.CORRELATION_ID, correlation.getCorrelationId());
+            putIfPresent(system, SystemProperty.MESSAGE_ID, correlation.getMessageId());
+            putIfPresent(system, SystemProperty.TO, correlation.getTo());
+            putIfPresent(system, SystemProperty.REPLY_TO, correlation.getReplyTo());
+            putIfPresent(system, SystemProperty.LABEL, correlation.getLabel());
+            putIfPresent(system, SystemProperty.SESSION_ID, correlation.getSessionId());
+            putIfPresent(system, SystemProperty.REPLY_TO_SESSION_ID, correlation.getReplyToSessionId());
+            putIfPresent(system, SystemProperty.CONTENT_TYPE, correlation.getContentType());
+            builder.addCorrelationRule(subscriptionName, rule.getName(), 
+                new CorrelationCriteria(system, correlation.getProperties()), action);
+        }
+    }
+    
+    private static void putIfPresent(Map<SystemProperty, String> values, SystemProperty property, String value) {
+        if (value != null && !value.isEmpty()) {
+            values.put(property, value);
+        }
     }
     
     /**
@@ -1578,7 +2148,15 @@ public class ServiceBusService {
      */
     public CompletableFuture<Boolean> createSqlRuleAsync(
             String topicName, String subscriptionName, String ruleName, String sqlExpression) {
-        return CompletableFuture.supplyAsync(() -> {
+        return createSqlRuleAsync(topicName, subscriptionName, ruleName, sqlExpression, null);
+    }
+    
+    /**
+     * Cria uma rule com SQL Filter e, opcionalmente, uma SqlRuleAction
+     */
+    public CompletableFuture<Boolean> createSqlRuleAsync(String topicName, String subscriptionName, 
+                                                         String ruleName, String sqlExpression, String actionExpression) {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1586,6 +2164,9 @@ public class ServiceBusService {
             try {
                 CreateRuleOptions ruleOptions = new CreateRuleOptions();
                 ruleOptions.setFilter(new SqlRuleFilter(sqlExpression));
+                if (actionExpression != null && !actionExpression.isBlank()) {
+                    ruleOptions.setAction(new SqlRuleAction(actionExpression));
+                }
                 
                 adminClient.createRule(topicName, subscriptionName, ruleName, ruleOptions);
                 
@@ -1603,7 +2184,7 @@ public class ServiceBusService {
                     ruleName, topicName, subscriptionName), e);
                 throw new RuntimeException("Erro ao criar rule", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
     }
     
     /**
@@ -1613,7 +2194,7 @@ public class ServiceBusService {
             String topicName, String subscriptionName, String ruleName,
             String correlationId, String messageId, String sessionId,
             String replyTo, String label, String contentType) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1660,14 +2241,14 @@ public class ServiceBusService {
                     ruleName, topicName, subscriptionName), e);
                 throw new RuntimeException("Erro ao criar rule", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
     }
     
     /**
      * Remove uma rule de uma subscription
      */
     public CompletableFuture<Boolean> deleteRuleAsync(String topicName, String subscriptionName, String ruleName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidatingAfter(CompletableFuture.supplyAsync(() -> {
             if (!isConnected()) {
                 throw new IllegalStateException("Não conectado ao Service Bus");
             }
@@ -1684,7 +2265,136 @@ public class ServiceBusService {
                     ruleName, topicName, subscriptionName), e);
                 throw new RuntimeException("Erro ao remover rule", e);
             }
-        }, executorService);
+        }, executor), () -> invalidateSubscription(topicName, subscriptionName));
+    }
+    
+    // ===========================================================================================
+    // INVENTÁRIO DO NAMESPACE
+    // ===========================================================================================
+    
+    /**
+     * Varre todas as filas e tópicos do namespace.
+     * 
+     * As propriedades estáticas vêm das próprias páginas da listagem e cada entidade é emitida
+     * logo que aparece; as propriedades de runtime são obtidas em paralelo (até {@code concurrency}
+     * pedidos simultâneos) e cada entidade é emitida novamente quando a sua contagem chega.
+     * Cada emissão é um objeto novo, que não volta a ser alterado pelo serviço.
+     */
+    public CompletableFuture<OperationProgress> sweepNamespaceInventoryAsync(int concurrency,
+                                                                            CancellationToken cancellationToken,
+                                                                            Consumer<NamespaceEntityInfo> onEntity,
+                                                                            Consumer<OperationProgress> onProgress) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!isConnected()) {
+                throw new IllegalStateException("Não conectado ao Service Bus");
+            }
+            
+            try {
+                logMessage(String.format("Iniciando varredura do namespace (%d pedidos simultâneos)", concurrency));
+                
+                ProgressTracker tracker = new ProgressTracker(-1, onProgress);
+                BoundedExecutor fanOut = new BoundedExecutor(executor, concurrency, cancellationToken);
+                long discovered = 0;
+                
+                // Filas: a listagem já traz as propriedades estáticas de cada página
+                for (QueueProperties queueProperties : adminClient.listQueues()) {
+                    if (cancellationToken.isCancelled()) {
+                        break;
+                    }
+                    
+                    onEntity.accept(createInventoryEntry(queueProperties));
+                    discovered++;
+                    
+                    fanOut.submit(() -> {
+                        NamespaceEntityInfo entry = createInventoryEntry(queueProperties);
+                        try {
+                            applyRuntimeProperties(entry, adminClient.getQueueRuntimeProperties(queueProperties.getName()));
+                        } catch (Exception e) {
+                            markInventoryFailure(entry, e, tracker);
+                        }
+                        tracker.recordProcessed(1);
+                        onEntity.accept(entry);
+                    });
+                }
+                
+                // Tópicos
+                for (TopicProperties topicProperties : adminClient.listTopics()) {
+                    if (cancellationToken.isCancelled()) {
+                        break;
+                    }
+                    
+                    onEntity.accept(createInventoryEntry(topicProperties));
+                    discovered++;
+                    
+                    fanOut.submit(() -> {
+                        NamespaceEntityInfo entry = createInventoryEntry(topicProperties);
+                        try {
+                            applyRuntimeProperties(entry, adminClient.getTopicRuntimeProperties(topicProperties.getName()));
+                        } catch (Exception e) {
+                            markInventoryFailure(entry, e, tracker);
+                        }
+                        tracker.recordProcessed(1);
+                        onEntity.accept(entry);
+                    });
+                }
+                
+                // Total só é conhecido depois de percorrer todas as páginas
+                tracker.setTotal(discovered);
+                fanOut.awaitCompletion();
+                
+                OperationProgress progress = tracker.finish(cancellationToken.isCancelled());
+                logMessage(String.format("Varredura do namespace %s: %s", 
+                    progress.isCancelled() ? "cancelada" : "concluída", progress.getSummary("entidades/s")));
+                return progress;
+                
+            } catch (Exception e) {
+                logError("Erro na varredura do namespace", e);
+                throw new RuntimeException("Erro na varredura do namespace", e);
+            }
+        }, executor);
+    }
+    
+    private NamespaceEntityInfo createInventoryEntry(QueueProperties queueProperties) {
+        NamespaceEntityInfo entry = new NamespaceEntityInfo(EntityPath.Type.QUEUE, queueProperties.getName());
+        entry.setStatus(queueProperties.getStatus().toString());
+        entry.setMaxSizeInMB(queueProperties.getMaxSizeInMegabytes());
+        return entry;
+    }
+    
+    private NamespaceEntityInfo createInventoryEntry(TopicProperties topicProperties) {
+        NamespaceEntityInfo entry = new NamespaceEntityInfo(EntityPath.Type.TOPIC, topicProperties.getName());
+        entry.setStatus(topicProperties.getStatus().toString());
+        entry.setMaxSizeInMB(topicProperties.getMaxSizeInMegabytes());
+        return entry;
+    }
+    
+    private void applyRuntimeProperties(NamespaceEntityInfo entry, QueueRuntimeProperties runtimeProperties) {
+        entry.setTotalMessages(runtimeProperties.getTotalMessageCount());
+        entry.setActiveMessages(runtimeProperties.getActiveMessageCount());
+        entry.setDeadLetterMessages(runtimeProperties.getDeadLetterMessageCount());
+        entry.setScheduledMessages(runtimeProperties.getScheduledMessageCount());
+        entry.setSizeInKB(runtimeProperties.getSizeInBytes() / 1024.0);
+        if (runtimeProperties.getUpdatedAt() != null) {
+            entry.setUpdatedAt(LocalDateTime.ofInstant(runtimeProperties.getUpdatedAt().toInstant(), ZoneId.systemDefault()));
+        }
+        entry.setLoadState(NamespaceEntityInfo.LoadState.LOADED);
+    }
+    
+    private void applyRuntimeProperties(NamespaceEntityInfo entry, TopicRuntimeProperties runtimeProperties) {
+        entry.setScheduledMessages(runtimeProperties.getScheduledMessageCount());
+        entry.setSizeInKB(runtimeProperties.getSizeInBytes() / 1024.0);
+        entry.setSubscriptionCount(runtimeProperties.getSubscriptionCount());
+        if (runtimeProperties.getUpdatedAt() != null) {
+            entry.setUpdatedAt(LocalDateTime.ofInstant(runtimeProperties.getUpdatedAt().toInstant(), ZoneId.systemDefault()));
+        }
+        entry.setLoadState(NamespaceEntityInfo.LoadState.LOADED);
+    }
+    
+    private void markInventoryFailure(NamespaceEntityInfo entry, Exception e, ProgressTracker tracker) {
+        logger.warn("Erro ao obter propriedades de runtime de '{}'", entry.getName(), e);
+        entry.setLoadState(NamespaceEntityInfo.LoadState.FAILED);
+        entry.setErrorMessage(e.getMessage());
+        tracker.recordFailed(1);
     }
     
     /**
@@ -1693,7 +2403,7 @@ public class ServiceBusService {
     public void shutdown() {
         try {
             disconnect();
-            executorService.shutdown();
+            serviceScope.cancel();
             logMessage("Serviço ServiceBus encerrado");
         } catch (Exception e) {
             logger.error("Erro ao encerrar serviço", e);
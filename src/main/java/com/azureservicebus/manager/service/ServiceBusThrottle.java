@@ -0,0 +1,327 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.core.amqp.AmqpRetryMode;
+import com.azure.core.amqp.AmqpRetryOptions;
+import com.azure.core.amqp.exception.AmqpErrorCondition;
+import com.azure.core.amqp.exception.AmqpException;
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.http.policy.RetryPolicy;
+import com.azure.core.http.policy.RetryStrategy;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusFailureReason;
+import com.azureservicebus.manager.util.AdaptiveConcurrencyLimiter;
+import com.azureservicebus.manager.util.RetryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Controlo de carga das chamadas ao namespace de uma conexão.
+ *
+ * As chamadas de administração (HTTP) e de mensagens (AMQP) passam cada uma por um limite de
+ * concorrência adaptativo, que sobe enquanto o namespace responde bem e desce ao primeiro sinal
+ * de throttling (HTTP 429/503, ServerBusy). As novas tentativas de ambos os planos gastam o mesmo
+ * orçamento global e esperam com backoff exponencial com jitter, para que um namespace
+ * sobrecarregado não receba ainda mais pedidos. A concorrência escolhida pelo utilizador nas
+ * operações em massa continua a ser o teto; o limite adaptativo apenas reduz abaixo dele.
+ *
+ * As chamadas de mensagens têm um limite por tipo ({@link MessagingCall}): a latência de um peek
+ * e a de um lote de 256 KB não são comparáveis, e com uma referência única um peek rápido
+ * fazia cada envio em lote parecer degradação e levava o limite até 1 sem haver throttling.
+ *
+ * Os clientes AMQP são criados com {@link #messagingRetryOptions()}: o SDK repete no máximo uma
+ * vez, o que cobre quedas de link, e as recusas por excesso de carga que sobrarem chegam a
+ * {@link #call} e passam pelo orçamento. Com as opções por omissão do SDK (3 tentativas extra
+ * com espera) cada tentativa daqui multiplicava-se por quatro fora do orçamento.
+ */
+public class ServiceBusThrottle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServiceBusThrottle.class);
+    
+    private static final int MAX_RETRIES = 5;
+    private static final Duration ADMIN_RETRY_BASE = Duration.ofMillis(500);
+    private static final Duration ADMIN_RETRY_CAP = Duration.ofSeconds(15);
+    // ServerBusy no AMQP bloqueia a entidade durante cerca de 10 segundos
+    private static final Duration MESSAGING_RETRY_BASE = Duration.ofSeconds(1);
+    private static final Duration MESSAGING_RETRY_CAP = Duration.ofSeconds(16);
+    private static final int MESSAGING_SDK_RETRIES = 1;
+    private static final Duration MESSAGING_SDK_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration MESSAGING_TRY_TIMEOUT = Duration.ofMinutes(1);
+    
+    /**
+     * Classificação de uma falha para efeitos de limite e nova tentativa
+     */
+    enum Outcome {
+        /** O namespace recusou por excesso de carga */
+        THROTTLED,
+        /** Falha transitória sem relação direta com a carga (rede, timeout) */
+        TRANSIENT,
+        /** Falha definitiva (entidade inexistente, permissões, pedido inválido) */
+        FAILED
+    }
+    
+    private final AdaptiveConcurrencyLimiter adminLimiter = new AdaptiveConcurrencyLimiter(1, 64, 16);
+    private final Map<MessagingCall, AdaptiveConcurrencyLimiter> messagingLimiters = new EnumMap<>(MessagingCall.class);
+    private final RetryBudget retryBudget = new RetryBudget(0.2, 5, 100);
+    
+    private final LongAdder adminCalls = new LongAdder();
+    private final LongAdder messagingCalls = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder retriesDenied = new LongAdder();
+    
+    public ServiceBusThrottle() {
+        for (MessagingCall kind : MessagingCall.values()) {
+            messagingLimiters.put(kind, new AdaptiveConcurrencyLimiter(1, 128, 32));
+        }
+    }
+    
+    /**
+     * Política do pipeline HTTP do cliente de administração, executada em cada tentativa:
+     * ocupa uma vaga do limite de administração e ajusta-o conforme o estado da resposta
+     */
+    public HttpPipelinePolicy adminPolicy() {
+        return new HttpPipelinePolicy() {
+            @Override
+            public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+                try {
+                    adminLimiter.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Pedido de administração interrompido");
+                }
+                
+                adminCalls.increment();
+                long start = System.nanoTime();
+                HttpResponse response;
+                try {
+                    response = next.processSync();
+                } catch (RuntimeException e) {
+                    releaseFailure(adminLimiter, classify(e));
+                    throw e;
+                }
+                
+                Outcome outcome = classifyStatus(response.getStatusCode());
+                if (outcome == null) {
+                    releaseSuccess(adminLimiter, System.nanoTime() - start);
+                } else {
+                    releaseFailure(adminLimiter, outcome);
+                }
+                return response;
+            }
+            
+            @Override
+            public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+                // O cliente assíncrono não é usado pela aplicação; apenas contabiliza
+                adminCalls.increment();
+                return next.process().doOnNext(response -> {
+                    if (classifyStatus(response.getStatusCode()) == Outcome.THROTTLED) {
+                        throttled.increment();
+                    } else {
+                        retryBudget.recordSuccess();
+                    }
+                });
+            }
+            
+            @Override
+            public HttpPipelinePosition getPipelinePosition() {
+                return HttpPipelinePosition.PER_RETRY;
+            }
+        };
+    }
+    
+    /**
+     * Política de novas tentativas do cliente de administração: mantém as regras do SDK
+     * (incluindo o cabeçalho Retry-After) mas cada nova tentativa tem de caber no orçamento global
+     */
+    public RetryPolicy adminRetryPolicy() {
+        return new RetryPolicy(new RetryStrategy() {
+            @Override
+            public int getMaxRetries() {
+                return MAX_RETRIES;
+            }
+            
+            @Override
+            public Duration calculateRetryDelay(int retryAttempts) {
+                return RetryBudget.backoff(retryAttempts + 1, ADMIN_RETRY_BASE, ADMIN_RETRY_CAP);
+            }
+            
+            @Override
+            public boolean shouldRetry(HttpResponse httpResponse) {
+                return RetryStrategy.super.shouldRetry(httpResponse) && allowRetry();
+            }
+            
+            @Override
+            public boolean shouldRetryException(Throwable throwable) {
+                return RetryStrategy.super.shouldRetryException(throwable) && allowRetry();
+            }
+        });
+    }
+    
+    /**
+     * Opções de novas tentativas dos clientes AMQP: uma única nova tentativa, para que as
+     * repetições por excesso de carga fiquem a cargo de {@link #call} e do orçamento global
+     */
+    public AmqpRetryOptions messagingRetryOptions() {
+        return new AmqpRetryOptions()
+            .setMode(AmqpRetryMode.FIXED)
+            .setMaxRetries(MESSAGING_SDK_RETRIES)
+            .setDelay(MESSAGING_SDK_RETRY_DELAY)
+            .setMaxDelay(MESSAGING_SDK_RETRY_DELAY)
+            .setTryTimeout(MESSAGING_TRY_TIMEOUT);
+    }
+    
+    /**
+     * Executa uma chamada de mensagens (AMQP) dentro do limite adaptativo.
+     * Só as recusas por excesso de carga são repetidas aqui: o pedido não foi aceite pelo
+     * serviço, pelo que repetir não duplica mensagens. As restantes falhas transitórias são
+     * repetidas uma vez pelo próprio cliente AMQP (ver {@link #messagingRetryOptions()}).
+     *
+     * @param kind tipo da chamada, que escolhe o limite e se a latência é medida
+     */
+    public <T> T call(MessagingCall kind, Supplier<T> action) {
+        AdaptiveConcurrencyLimiter messagingLimiter = messagingLimiters.get(kind);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                messagingLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Operação interrompida");
+            }
+            
+            messagingCalls.increment();
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                Outcome outcome = classify(e);
+                releaseFailure(messagingLimiter, outcome);
+                if (outcome != Outcome.THROTTLED || attempt > MAX_RETRIES || !allowRetry()) {
+                    throw e;
+                }
+                
+                Duration delay = RetryBudget.backoff(attempt, MESSAGING_RETRY_BASE, MESSAGING_RETRY_CAP);
+                logger.warn("Namespace ocupado; nova tentativa {} em {} ms ({}: {})", 
+                    attempt, delay.toMillis(), kind, messagingLimiter);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Operação interrompida");
+                }
+                continue;
+            }
+            releaseSuccess(messagingLimiter, kind.measuresLatency() ? System.nanoTime() - start : -1);
+            return result;
+        }
+    }
+    
+    public void run(MessagingCall kind, Runnable action) {
+        call(kind, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+    
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+    
+    /**
+     * Resumo legível dos limites e contadores para a interface
+     */
+    public String getSummary() {
+        StringBuilder limits = new StringBuilder();
+        messagingLimiters.forEach((kind, limiter) -> limits.append(String.format("%n  %s: %s", kind, limiter)));
+        return String.format(
+            "Administração: %,d pedidos (%s)%nMensagens: %,d pedidos%s%nThrottling: %,d • novas tentativas: %,d • recusadas pelo orçamento: %,d",
+            adminCalls.sum(), adminLimiter, messagingCalls.sum(), limits,
+            throttled.sum(), retried.sum(), retriesDenied.sum());
+    }
+    
+    private void releaseSuccess(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        retryBudget.recordSuccess();
+        limiter.onSuccess(latencyNanos);
+    }
+    
+    private void releaseFailure(AdaptiveConcurrencyLimiter limiter, Outcome outcome) {
+        if (outcome == Outcome.THROTTLED) {
+            throttled.increment();
+            limiter.onThrottled();
+        } else {
+            limiter.onIgnored();
+        }
+    }
+    
+    private boolean allowRetry() {
+        if (retryBudget.tryAcquireRetry()) {
+            retried.increment();
+            return true;
+        }
+        retriesDenied.increment();
+        logger.warn("Orçamento de novas tentativas esgotado; a falha é devolvida sem repetir");
+        return false;
+    }
+    
+    /**
+     * Classifica o estado de uma resposta HTTP; null quando a resposta não indica problema de carga
+     */
+    private static Outcome classifyStatus(int statusCode) {
+        if (statusCode == 429 || statusCode == 503) {
+            return Outcome.THROTTLED;
+        }
+        return statusCode >= 500 || statusCode == 408 ? Outcome.TRANSIENT : null;
+    }
+    
+    /**
+     * Classifica uma falha percorrendo a cadeia de causas
+     */
+    static Outcome classify(Throwable error) {
+        Outcome result = Outcome.FAILED;
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof ServiceBusException serviceBusException) {
+                if (ServiceBusFailureReason.SERVICE_BUSY.equals(serviceBusException.getReason())) {
+                    return Outcome.THROTTLED;
+                }
+                if (serviceBusException.isTransient()) {
+                    result = Outcome.TRANSIENT;
+                }
+            } else if (current instanceof AmqpException amqpException) {
+                if (amqpException.getErrorCondition() == AmqpErrorCondition.SERVER_BUSY_ERROR) {
+                    return Outcome.THROTTLED;
+                }
+                if (amqpException.isTransient()) {
+                    result = Outcome.TRANSIENT;
+                }
+            } else if (current instanceof HttpResponseException httpException 
+                    && httpException.getResponse() != null) {
+                Outcome status = classifyStatus(httpException.getResponse().getStatusCode());
+                if (status != null) {
+                    return status;
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package com.azureservicebus.manager.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import com.azure.messaging.servicebus.ServiceBusTransactionContext;
+import com.azure.messaging.servicebus.models.CompleteOptions;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Envio de cópias e conclusão das originais numa única transação, com o receiver e o sender de um
+ * {@link ServiceBusClientCache.TransactionalLink}. Usado pela movimentação e pelo reenvio da DLQ.
+ */
+final class TransactionalTransfer {
+    
+    // Uma transação aceita no máximo 100 operações: 50 envios + 50 conclusões
+    static final int MAX_MESSAGES = 50;
+    
+    private TransactionalTransfer() {
+    }
+    
+    /**
+     * Envia as cópias em lotes e conclui as originais na mesma transação. Em caso de falha a
+     * transação é revertida, as originais devolvidas à origem e a exceção propagada; nunca fica
+     * uma mensagem nos dois lados nem em nenhum.
+     *
+     * @param messages no máximo {@link #MAX_MESSAGES} mensagens recebidas em PEEK_LOCK pelo receiver
+     * @param copy cópia a enviar para cada original
+     */
+    static void sendAndComplete(ServiceBusReceiverClient receiver, ServiceBusSenderClient sender,
+                                List<ServiceBusReceivedMessage> messages,
+                                Function<ServiceBusReceivedMessage, ServiceBusMessage> copy) {
+        if (messages.size() > MAX_MESSAGES) {
+            throw new IllegalArgumentException("Demasiadas mensagens para uma transação: " + messages.size());
+        }
+        
+        ServiceBusTransactionContext transaction = receiver.createTransaction();
+        try {
+            int index = 0;
+            while (index < messages.size()) {
+                ServiceBusMessageBatch batch = sender.createMessageBatch();
+                while (index < messages.size()) {
+                    if (!batch.tryAddMessage(copy.apply(messages.get(index)))) {
+                        if (batch.getCount() == 0) {
+                            throw new IllegalArgumentException(String.format(
+                                "A mensagem %d excede o tamanho máximo de lote da entidade de destino", 
+                                messages.get(index).getSequenceNumber()));
+                        }
+                        break;
+                    }
+                    index++;
+                }
+                sender.sendMessages(batch, transaction);
+            }
+            
+            CompleteOptions completeOptions = new CompleteOptions().setTransactionContext(transaction);
+            for (ServiceBusReceivedMessage message : messages) {
+                receiver.complete(message, completeOptions);
+            }
+            receiver.commitTransaction(transaction);
+        } catch (RuntimeException e) {
+            try {
+                receiver.rollbackTransaction(transaction);
+            } catch (RuntimeException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            for (ServiceBusReceivedMessage message : messages) {
+                HeldMessages.abandonQuietly(receiver, message);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.azureservicebus.manager.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de pedidos simultâneos ajustado pelo próprio tráfego (AIMD).
+ *
+ * Cada resposta bem-sucedida com o limite em uso aumenta o limite em cerca de um pedido por
+ * "janela" (+1/limite por resposta). Uma resposta de throttling corta o limite para metade e um
+ * aumento sustentado da latência (média móvel acima do dobro da menor latência recente) corta-o
+ * em 10%; cortes consecutivos respeitam um intervalo mínimo, para que uma rajada de erros da
+ * mesma janela conte como um único sinal.
+ *
+ * A menor latência só serve de referência para pedidos de custo semelhante: tipos de pedido
+ * com durações diferentes devem ter cada um o seu limite.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private static final double THROTTLE_BACKOFF_RATIO = 0.5;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double LATENCY_SMOOTHING = 0.1;
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_LATENCY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+    private double smoothedLatencyNanos;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long minLatencySinceNanos = System.nanoTime();
+    
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, int initialLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limites de concorrência inválidos");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    /**
+     * Bloqueia até haver vaga dentro do limite atual. Cada acquire tem de ser seguido de
+     * exatamente uma chamada a {@link #onSuccess}, {@link #onThrottled} ou {@link #onIgnored}.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                available.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Liberta a vaga de um pedido bem-sucedido
+     *
+     * @param latencyNanos latência do pedido, ou valor negativo quando não é representativa
+     *                     (ex.: receive com tempo de espera)
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            
+            if (latencyNanos >= 0 && latencyIncreased(latencyNanos)) {
+                decrease(LATENCY_BACKOFF_RATIO);
+            } else if (saturated && limit < maxLimit) {
+                // Só cresce quando o limite está de facto a ser usado
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Liberta a vaga de um pedido recusado por excesso de carga e reduz o limite
+     */
+    public void onThrottled() {
+        lock.lock();
+        try {
+            inFlight--;
+            decrease(THROTTLE_BACKOFF_RATIO);
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Liberta a vaga sem ajustar o limite (erros sem relação com a carga)
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean latencyIncreased(long latencyNanos) {
+        long now = System.nanoTime();
+        
+        // A menor latência é esquecida periodicamente, para acompanhar mudanças de rede ou de tier
+        if (now - minLatencySinceNanos >= MIN_LATENCY_WINDOW_NANOS) {
+            minLatencyNanos = Math.max(latencyNanos, (long) smoothedLatencyNanos);
+            minLatencySinceNanos = now;
+        }
+        minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        
+        smoothedLatencyNanos = smoothedLatencyNanos == 0 
+            ? latencyNanos 
+            : smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+        return smoothedLatencyNanos > minLatencyNanos * LATENCY_TOLERANCE;
+    }
+    
+    private void decrease(double ratio) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < DECREASE_COOLDOWN_NANOS) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * ratio);
+    }
+    
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("limite %d, %d em curso", (int) limit, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.azureservicebus.manager.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executa tarefas em paralelo com um limite de tarefas simultâneas.
+ *
+ * O envio bloqueia enquanto o limite estiver atingido, o que dá contrapressão natural
+ * a quem produz as tarefas (ex.: quem percorre as páginas de uma listagem).
+ */
+public class BoundedExecutor {
+    
+    private final Executor executor;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final CancellationToken cancellationToken;
+    
+    public BoundedExecutor(Executor executor, int concurrency, CancellationToken cancellationToken) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("O paralelismo deve ser maior que zero");
+        }
+        
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        this.cancellationToken = cancellationToken != null ? cancellationToken : new CancellationToken();
+    }
+    
+    /**
+     * Submete uma tarefa, aguardando vaga se necessário.
+     *
+     * @return false se a operação foi cancelada e a tarefa não foi submetida
+     */
+    public boolean submit(Runnable task) throws InterruptedException {
+        permits.acquire();
+        
+        if (cancellationToken.isCancelled()) {
+            permits.release();
+            return false;
+        }
+        
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Aguarda o fim de todas as tarefas submetidas
+     */
+    public void awaitCompletion() throws InterruptedException {
+        permits.acquire(concurrency);
+        permits.release(concurrency);
+    }
+    
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    /**
+     * Número de tarefas em execução neste momento
+     */
+    public int getInFlightCount() {
+        return concurrency - permits.availablePermits();
+    }
+}
@@ -0,0 +1,53 @@
+package com.azureservicebus.manager.util;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Sinal de cancelamento partilhado entre a interface e operações longas em segundo plano
+ */
+public class CancellationToken {
+    
+    private volatile boolean cancelled;
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Solicita o cancelamento e executa os callbacks registados (apenas na primeira chamada)
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+        }
+        
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Regista uma ação a executar no cancelamento; executa imediatamente se já foi cancelado
+     */
+    public void onCancel(Runnable callback) {
+        callbacks.add(callback);
+        if (cancelled && callbacks.remove(callback)) {
+            callback.run();
+        }
+    }
+    
+    /**
+     * Lança CancellationException se o cancelamento foi solicitado
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Operação cancelada");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.azureservicebus.manager.util;
+
+import com.azureservicebus.manager.model.MessageInfo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Janela limitada de páginas de mensagens espiadas a partir de um sequence number.
+ *
+ * Só as páginas próximas da área visível ficam em memória: ao avançar, as páginas do
+ * topo são descartadas e apenas o sequence number inicial de cada uma é guardado, para
+ * poder voltar a espiá-las ao subir. Não é thread-safe (usada apenas na FX thread).
+ */
+public class MessagePageWindow {
+    
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 10;
+    
+    /**
+     * Resultado de repor uma página no topo da janela
+     */
+    public record PrependResult(int added, int evicted) {
+    }
+    
+    private final int pageSize;
+    private final int maxPages;
+    private final Deque<List<MessageInfo>> pages = new ArrayDeque<>();
+    private final Deque<Long> evictedPageStarts = new ArrayDeque<>();
+    private long startSequenceNumber;
+    private boolean endReached;
+    
+    public MessagePageWindow() {
+        this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+    
+    public MessagePageWindow(int pageSize, int maxPages) {
+        this.pageSize = pageSize;
+        this.maxPages = Math.max(2, maxPages);
+    }
+    
+    public int getPageSize() {
+        return pageSize;
+    }
+    
+    /**
+     * Recomeça a janela a partir do sequence number indicado (0 para o início da entidade)
+     */
+    public void reset(long fromSequenceNumber) {
+        pages.clear();
+        evictedPageStarts.clear();
+        startSequenceNumber = fromSequenceNumber;
+        endReached = false;
+    }
+    
+    /**
+     * Sequence number a partir do qual espiar a próxima página
+     */
+    public long getNextSequenceNumber() {
+        List<MessageInfo> last = pages.peekLast();
+        return last != null ? last.get(last.size() - 1).getSequenceNumber() + 1 : startSequenceNumber;
+    }
+    
+    public boolean isEndReached() {
+        return endReached;
+    }
+    
+    public boolean hasPrevious() {
+        return !evictedPageStarts.isEmpty();
+    }
+    
+    /**
+     * Sequence number inicial da página descartada imediatamente acima da janela
+     */
+    public long getPreviousSequenceNumber() {
+        return evictedPageStarts.isEmpty() ? -1 : evictedPageStarts.peek();
+    }
+    
+    /**
+     * Acrescenta uma página no fim da janela
+     *
+     * @return número de mensagens descartadas no topo para respeitar o limite de páginas
+     */
+    public int append(List<MessageInfo> page) {
+        if (page.isEmpty()) {
+            endReached = true;
+            return 0;
+        }
+        
+        endReached = page.size() < pageSize;
+        pages.addLast(List.copyOf(page));
+        
+        int evicted = 0;
+        while (pages.size() > maxPages) {
+            List<MessageInfo> first = pages.removeFirst();
+            evictedPageStarts.push(first.get(0).getSequenceNumber());
+            evicted += first.size();
+        }
+        return evicted;
+    }
+    
+    /**
+     * Repõe no topo a página descartada mais recente, ignorando mensagens já presentes na janela
+     *
+     * @return mensagens acrescentadas no topo e mensagens descartadas no fim
+     */
+    public PrependResult prepend(List<MessageInfo> page) {
+        evictedPageStarts.poll();
+        
+        List<MessageInfo> first = pages.peekFirst();
+        long limit = first != null ? first.get(0).getSequenceNumber() : Long.MAX_VALUE;
+        List<MessageInfo> filtered = page.stream()
+            .filter(message -> message.getSequenceNumber() < limit)
+            .toList();
+        if (filtered.isEmpty()) {
+            return new PrependResult(0, 0);
+        }
+        pages.addFirst(filtered);
+        
+        int evicted = 0;
+        while (pages.size() > maxPages) {
+            evicted += pages.removeLast().size();
+            endReached = false;
+        }
+        return new PrependResult(filtered.size(), evicted);
+    }
+    
+    /**
+     * Intervalo de sequence numbers em memória, para apresentação
+     */
+    public String getRangeDescription() {
+        if (pages.isEmpty()) {
+            return "Nenhuma mensagem carregada";
+        }
+        long first = pages.peekFirst().get(0).getSequenceNumber();
+        List<MessageInfo> lastPage = pages.peekLast();
+        long last = lastPage.get(lastPage.size() - 1).getSequenceNumber();
+        int count = pages.stream().mapToInt(List::size).sum();
+        return String.format("Seq. %,d – %,d • %,d em memória%s", first, last, count, endReached ? " • fim" : "");
+    }
+}
@@ -0,0 +1,130 @@
+package com.azureservicebus.manager.util;
+
+import com.azureservicebus.manager.model.OperationProgress;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Acumula o progresso de uma operação em massa executada por várias threads
+ * e notifica o listener no máximo a cada intervalo configurado
+ */
+public class ProgressTracker {
+    
+    private static final long DEFAULT_NOTIFY_INTERVAL_NANOS = 200_000_000L;
+    
+    private final long startNanos = System.nanoTime();
+    private final long notifyIntervalNanos;
+    private final Consumer<OperationProgress> listener;
+    
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchLatencyNanos = new LongAdder();
+    private final AtomicLong lastBatchLatency = new AtomicLong();
+    private final AtomicLong lastNotifyNanos = new AtomicLong(startNanos);
+    private final AtomicReference<String> stopReason = new AtomicReference<>();
+    private volatile long total;
+    
+    public ProgressTracker(long total, Consumer<OperationProgress> listener) {
+        this(total, listener, DEFAULT_NOTIFY_INTERVAL_NANOS);
+    }
+    
+    public ProgressTracker(long total, Consumer<OperationProgress> listener, long notifyIntervalNanos) {
+        this.total = total;
+        this.listener = listener;
+        this.notifyIntervalNanos = notifyIntervalNanos;
+    }
+    
+    /**
+     * Regista um lote concluído e a sua latência
+     */
+    public void recordBatch(int count, long latencyNanos) {
+        processed.add(count);
+        batches.increment();
+        batchLatencyNanos.add(latencyNanos);
+        lastBatchLatency.set(latencyNanos);
+        maybeNotify();
+    }
+    
+    /**
+     * Regista itens processados fora de lotes
+     */
+    public void recordProcessed(long count) {
+        processed.add(count);
+        maybeNotify();
+    }
+    
+    public void recordFailed(long count) {
+        failed.add(count);
+        maybeNotify();
+    }
+    
+    /**
+     * Atualiza o total esperado (ex.: quando a contagem só é conhecida depois do início)
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    /**
+     * Regista que a operação parou antes de processar tudo (prevalece o primeiro motivo)
+     */
+    public void stopEarly(String reason) {
+        stopReason.compareAndSet(null, reason);
+    }
+    
+    public boolean isStoppedEarly() {
+        return stopReason.get() != null;
+    }
+    
+    public long getProcessed() {
+        return processed.sum();
+    }
+    
+    public OperationProgress snapshot() {
+        return snapshot(false, false);
+    }
+    
+    /**
+     * Produz a fotografia final e notifica o listener incondicionalmente
+     */
+    public OperationProgress finish(boolean cancelled) {
+        OperationProgress progress = snapshot(true, cancelled);
+        if (listener != null) {
+            listener.accept(progress);
+        }
+        return progress;
+    }
+    
+    private OperationProgress snapshot(boolean finished, boolean cancelled) {
+        long batchCount = batches.sum();
+        double average = batchCount > 0 ? batchLatencyNanos.sum() / (double) batchCount / 1_000_000.0 : 0;
+        return new OperationProgress(
+            processed.sum(),
+            failed.sum(),
+            total,
+            System.nanoTime() - startNanos,
+            batchCount,
+            lastBatchLatency.get() / 1_000_000.0,
+            average,
+            finished,
+            cancelled,
+            stopReason.get()
+        );
+    }
+    
+    private void maybeNotify() {
+        if (listener == null) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        long last = lastNotifyNanos.get();
+        if (now - last >= notifyIntervalNanos && lastNotifyNanos.compareAndSet(last, now)) {
+            listener.accept(snapshot());
+        }
+    }
+}
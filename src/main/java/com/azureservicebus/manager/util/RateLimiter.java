@@ -0,0 +1,59 @@
+package com.azureservicebus.manager.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de taxa partilhado entre threads: distribui as permissões uniformemente
+ * no tempo, reservando para cada pedido o próximo intervalo livre
+ */
+public class RateLimiter {
+    
+    /**
+     * Rajada máxima acumulada quando o limitador fica parado (em segundos de permissões)
+     */
+    private static final double MAX_BURST_SECONDS = 1.0;
+    
+    private final double nanosPerPermit;
+    private long nextFreeNanos = System.nanoTime();
+    
+    /**
+     * @param permitsPerSecond taxa alvo; tem de ser positiva
+     */
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("A taxa deve ser positiva");
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+    
+    /**
+     * Limitador para a taxa indicada, ou null (sem limite) quando a taxa não é positiva
+     */
+    public static RateLimiter forRate(double permitsPerSecond) {
+        return permitsPerSecond > 0 ? new RateLimiter(permitsPerSecond) : null;
+    }
+    
+    /**
+     * Bloqueia até que as permissões pedidas estejam disponíveis
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+    
+    private synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        
+        // Depois de uma pausa, permitir no máximo uma rajada curta em vez de todo o crédito acumulado
+        long earliest = now - (long) (MAX_BURST_SECONDS * TimeUnit.SECONDS.toNanos(1));
+        if (nextFreeNanos < earliest) {
+            nextFreeNanos = earliest;
+        }
+        
+        long start = nextFreeNanos;
+        nextFreeNanos += (long) (permits * nanosPerPermit);
+        return start - now;
+    }
+}
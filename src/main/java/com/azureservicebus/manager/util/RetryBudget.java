@@ -0,0 +1,72 @@
+package com.azureservicebus.manager.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orçamento global de novas tentativas partilhado por todas as operações.
+ *
+ * Cada pedido bem-sucedido deposita uma fração de ficha e cada nova tentativa gasta uma ficha
+ * inteira, pelo que as novas tentativas ficam limitadas a uma percentagem do tráfego útil; um
+ * pequeno mínimo por segundo garante novas tentativas mesmo com pouco tráfego. Quando o serviço
+ * está sobrecarregado, o orçamento esgota-se e os erros passam a chegar a quem chamou em vez de
+ * multiplicarem a carga.
+ */
+public class RetryBudget {
+    
+    private final double depositPerSuccess;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    
+    private double balance;
+    private long lastRefillNanos = System.nanoTime();
+    
+    /**
+     * @param retryRatio novas tentativas permitidas por pedido bem-sucedido (ex.: 0.2 = 20%)
+     * @param minRetriesPerSecond novas tentativas sempre permitidas por segundo
+     * @param maxBalance máximo de fichas acumuladas (rajada de novas tentativas)
+     */
+    public RetryBudget(double retryRatio, double minRetriesPerSecond, double maxBalance) {
+        this.depositPerSuccess = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+    }
+    
+    public synchronized void recordSuccess() {
+        balance = Math.min(maxBalance, balance + depositPerSuccess);
+    }
+    
+    /**
+     * Reserva uma nova tentativa; devolve false quando o orçamento está esgotado
+     */
+    public synchronized boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minRetriesPerSecond);
+        
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+    
+    public synchronized double getBalance() {
+        return balance;
+    }
+    
+    /**
+     * Espera exponencial com jitter para a tentativa indicada (1 = primeira nova tentativa):
+     * metade fixa e metade aleatória de {@code min(cap, base * 2^(attempt - 1))}, para que
+     * clientes limitados ao mesmo tempo não voltem todos no mesmo instante
+     */
+    public static Duration backoff(int attempt, Duration base, Duration cap) {
+        int exponent = Math.max(0, Math.min(attempt - 1, 30));
+        long ceilingNanos = Math.min(cap.toNanos(), base.toNanos() << Math.min(exponent, 20));
+        long half = ceilingNanos / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.azureservicebus.manager.util;
+
+/**
+ * Série temporal das contagens de runtime de uma entidade, em buffers circulares de primitivos.
+ *
+ * Cada amostra ocupa cinco longs (instante e quatro contadores), sem objetos por amostra;
+ * com a capacidade padrão a série inteira ocupa menos de 10 KB. As taxas são derivadas da
+ * diferença entre a amostra mais recente e a amostra mais antiga dentro da janela pedida.
+ */
+public class RuntimeMetricsSeries {
+    
+    public static final int DEFAULT_CAPACITY = 240;
+    
+    /**
+     * Contadores amostrados
+     */
+    public enum Metric {
+        ACTIVE,
+        DEAD_LETTER,
+        SCHEDULED,
+        SIZE_BYTES
+    }
+    
+    private final long[] timestamps;
+    private final long[][] values;
+    private int head;   // posição da próxima escrita
+    private int size;
+    
+    public RuntimeMetricsSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public RuntimeMetricsSeries(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("A capacidade deve ser pelo menos 2");
+        }
+        this.timestamps = new long[capacity];
+        this.values = new long[Metric.values().length][capacity];
+    }
+    
+    /**
+     * Acrescenta uma amostra, substituindo a mais antiga quando a série está cheia
+     */
+    public synchronized void add(long timestampMillis, long active, long deadLetter, long scheduled, long sizeBytes) {
+        timestamps[head] = timestampMillis;
+        values[Metric.ACTIVE.ordinal()][head] = active;
+        values[Metric.DEAD_LETTER.ordinal()][head] = deadLetter;
+        values[Metric.SCHEDULED.ordinal()][head] = scheduled;
+        values[Metric.SIZE_BYTES.ordinal()][head] = sizeBytes;
+        head = (head + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Valor mais recente do contador, ou -1 sem amostras
+     */
+    public synchronized long getLatest(Metric metric) {
+        return size == 0 ? -1 : values[metric.ordinal()][index(size - 1)];
+    }
+    
+    public synchronized long getLatestTimestamp() {
+        return size == 0 ? 0 : timestamps[index(size - 1)];
+    }
+    
+    /**
+     * Variação por minuto do contador na janela indicada (positiva = crescimento,
+     * negativa = escoamento); NaN se não houver duas amostras na janela
+     */
+    public synchronized double getRatePerMinute(Metric metric, long windowMillis) {
+        if (size < 2) {
+            return Double.NaN;
+        }
+        
+        int newest = index(size - 1);
+        long cutoff = timestamps[newest] - windowMillis;
+        
+        // Amostra mais antiga ainda dentro da janela
+        int oldestOffset = size - 2;
+        while (oldestOffset > 0 && timestamps[index(oldestOffset - 1)] >= cutoff) {
+            oldestOffset--;
+        }
+        int oldest = index(oldestOffset);
+        
+        long elapsed = timestamps[newest] - timestamps[oldest];
+        if (elapsed <= 0) {
+            return Double.NaN;
+        }
+        long[] series = values[metric.ordinal()];
+        return (series[newest] - series[oldest]) * 60_000.0 / elapsed;
+    }
+    
+    /**
+     * Resumo de tendência das mensagens ativas e da dead letter, ex.: "Ativas ▲ +120/min • DLQ → 0/min"
+     */
+    public String getTrendSummary(long windowMillis) {
+        double active = getRatePerMinute(Metric.ACTIVE, windowMillis);
+        double deadLetter = getRatePerMinute(Metric.DEAD_LETTER, windowMillis);
+        if (Double.isNaN(active)) {
+            return "⏳ coletando";
+        }
+        return "Ativas " + formatRate(active) + " • DLQ " + formatRate(deadLetter);
+    }
+    
+    /**
+     * Formata uma taxa por minuto com seta de tendência
+     */
+    public static String formatRate(double ratePerMinute) {
+        if (Double.isNaN(ratePerMinute)) {
+            return "-";
+        }
+        if (Math.abs(ratePerMinute) < 0.5) {
+            return "→ 0/min";
+        }
+        return String.format("%s %+,.0f/min", ratePerMinute > 0 ? "▲" : "▼", ratePerMinute);
+    }
+    
+    /**
+     * Posição no buffer da amostra de ordem {@code offset} (0 = mais antiga)
+     */
+    private int index(int offset) {
+        int start = (head - size + timestamps.length) % timestamps.length;
+        return (start + offset) % timestamps.length;
+    }
+}
@@ -0,0 +1,198 @@
+package com.azureservicebus.manager.util;
+
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Diferença entre duas versões de uma lista ordenada, calculada fora da thread de UI e
+ * aplicada depois à ObservableList com o mínimo de alterações.
+ *
+ * Em vez de um setAll, que faz as ListView/ComboBox perderem a seleção e a posição do scroll
+ * e voltarem a desenhar tudo, apenas os trechos que mudaram são removidos ou inseridos.
+ * Quando as mudanças estão muito espalhadas (ex.: troca de perfil) um único setAll sai mais
+ * barato do que dezenas de eventos, e é isso que é feito.
+ */
+public final class SortedListDiff<T> {
+    
+    private static final int MAX_EDIT_RUNS = 64;
+    
+    /**
+     * Trecho contíguo da lista base substituído por novos elementos
+     */
+    private record Edit<T>(int index, int removeCount, List<T> inserted) {
+    }
+    
+    private final List<T> base;
+    private final List<T> updated;
+    private final Comparator<? super T> order;
+    private final BiPredicate<? super T, ? super T> sameContent;
+    private final List<Edit<T>> edits;
+    private final boolean replaceAll;
+    private int added;
+    private int removed;
+    private int changed;
+    
+    private SortedListDiff(List<T> base, List<T> updated, Comparator<? super T> order,
+                           BiPredicate<? super T, ? super T> sameContent) {
+        this.base = base;
+        this.updated = updated;
+        this.order = order;
+        this.sameContent = sameContent;
+        this.edits = new ArrayList<>();
+        if (isSorted(base, order) && isSorted(updated, order)) {
+            computeEdits();
+            this.replaceAll = edits.size() > MAX_EDIT_RUNS;
+        } else {
+            this.removed = base.size();
+            this.added = updated.size();
+            this.replaceAll = true;
+        }
+    }
+    
+    /**
+     * Calcula a diferença entre listas ordenadas pelo mesmo comparador; elementos iguais
+     * segundo o comparador mas diferentes segundo equals contam como alterados
+     */
+    public static <T> SortedListDiff<T> compute(List<T> current, List<T> updated, Comparator<? super T> order) {
+        return compute(current, updated, order, Objects::equals);
+    }
+    
+    /**
+     * Calcula a diferença usando um critério próprio para decidir se o conteúdo mudou
+     */
+    public static <T> SortedListDiff<T> compute(List<T> current, List<T> updated, Comparator<? super T> order,
+                                                BiPredicate<? super T, ? super T> sameContent) {
+        return new SortedListDiff<>(List.copyOf(current), List.copyOf(updated), order, sameContent);
+    }
+    
+    /**
+     * Aplica a diferença à lista (na thread de UI). Se a lista já não corresponde à base usada
+     * no cálculo (alterada entretanto por outro caminho), a diferença é recalculada contra ela.
+     */
+    public void applyTo(ObservableList<T> target) {
+        if (!target.equals(base)) {
+            compute(target, updated, order, sameContent).applyTo(target);
+            return;
+        }
+        
+        if (replaceAll) {
+            target.setAll(updated);
+            return;
+        }
+        
+        // Do fim para o início, para que os índices dos trechos anteriores não mudem
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            Edit<T> edit = edits.get(i);
+            if (edit.removeCount() == 1 && edit.inserted().size() == 1) {
+                target.set(edit.index(), edit.inserted().get(0));
+                continue;
+            }
+            if (edit.removeCount() > 0) {
+                target.remove(edit.index(), edit.index() + edit.removeCount());
+            }
+            if (!edit.inserted().isEmpty()) {
+                target.addAll(edit.index(), edit.inserted());
+            }
+        }
+    }
+    
+    public boolean isEmpty() {
+        return added == 0 && removed == 0 && changed == 0;
+    }
+    
+    public int getAddedCount() { return added; }
+    
+    public int getRemovedCount() { return removed; }
+    
+    public int getChangedCount() { return changed; }
+    
+    /**
+     * Tamanho da lista depois de aplicada a diferença
+     */
+    public int getUpdatedSize() { return updated.size(); }
+    
+    /**
+     * Resumo para o log, ex.: "+3, -1, 2 alteradas"
+     */
+    public String getSummary() {
+        if (isEmpty()) {
+            return "sem alterações";
+        }
+        StringBuilder summary = new StringBuilder(String.format("+%d, -%d", added, removed));
+        if (changed > 0) {
+            summary.append(String.format(", %d alteradas", changed));
+        }
+        return summary.toString();
+    }
+    
+    /**
+     * Percorre as duas listas em paralelo agrupando diferenças consecutivas em trechos
+     */
+    private void computeEdits() {
+        int i = 0;
+        int j = 0;
+        int runStart = -1;
+        int runRemoved = 0;
+        List<T> runInserted = new ArrayList<>();
+        
+        while (i < base.size() || j < updated.size()) {
+            int comparison;
+            if (i >= base.size()) {
+                comparison = 1;
+            } else if (j >= updated.size()) {
+                comparison = -1;
+            } else {
+                comparison = order.compare(base.get(i), updated.get(j));
+            }
+            
+            if (comparison == 0 && sameContent.test(base.get(i), updated.get(j))) {
+                if (runStart >= 0) {
+                    edits.add(new Edit<>(runStart, runRemoved, runInserted));
+                    runStart = -1;
+                    runRemoved = 0;
+                    runInserted = new ArrayList<>();
+                }
+                i++;
+                j++;
+                continue;
+            }
+            
+            if (runStart < 0) {
+                runStart = i;
+            }
+            if (comparison < 0) {
+                runRemoved++;
+                removed++;
+                i++;
+            } else if (comparison > 0) {
+                runInserted.add(updated.get(j));
+                added++;
+                j++;
+            } else {
+                runRemoved++;
+                runInserted.add(updated.get(j));
+                changed++;
+                i++;
+                j++;
+            }
+        }
+        
+        if (runStart >= 0) {
+            edits.add(new Edit<>(runStart, runRemoved, runInserted));
+        }
+    }
+    
+    private static <T> boolean isSorted(List<T> list, Comparator<? super T> order) {
+        for (int i = 1; i < list.size(); i++) {
+            if (order.compare(list.get(i - 1), list.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
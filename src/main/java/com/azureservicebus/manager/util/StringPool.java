@@ -0,0 +1,50 @@
+package com.azureservicebus.manager.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicação de strings curtas e repetidas (content types, nomes e valores de propriedades).
+ *
+ * Ao contrário de {@link String#intern()}, o pool é limitado: quando enche, as strings novas
+ * passam a ser devolvidas sem deduplicação, para que valores únicos não o façam crescer sem fim.
+ */
+public class StringPool {
+    
+    public static final int DEFAULT_MAX_ENTRIES = 8192;
+    public static final int DEFAULT_MAX_LENGTH = 128;
+    
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final int maxLength;
+    
+    public StringPool() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_LENGTH);
+    }
+    
+    public StringPool(int maxEntries, int maxLength) {
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+    }
+    
+    /**
+     * Instância partilhada de uma string igual, ou a própria string se não for elegível
+     */
+    public String dedupe(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        String existing = pool.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (pool.size() >= maxEntries) {
+            return value;
+        }
+        existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+    
+    public int size() {
+        return pool.size();
+    }
+}
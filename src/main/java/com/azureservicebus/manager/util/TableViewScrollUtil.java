@@ -0,0 +1,73 @@
+package com.azureservicebus.manager.util;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+/**
+ * Utilitário para detetar a chegada às extremidades do scroll de uma TableView
+ * (usado para carregar páginas sob demanda)
+ */
+public class TableViewScrollUtil {
+    
+    /**
+     * Fração da barra de scroll a partir da qual se considera que a extremidade foi atingida
+     */
+    private static final double EDGE_THRESHOLD = 0.05;
+    
+    /**
+     * Chama {@code onTop}/{@code onBottom} quando a barra de scroll vertical chega perto do topo/fundo.
+     * A barra só existe depois de a skin ser criada, por isso a ligação é feita quando a skin muda.
+     */
+    public static <T> void addScrollEdgeListener(TableView<T> tableView, Runnable onTop, Runnable onBottom) {
+        tableView.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                Platform.runLater(() -> bindScrollBar(tableView, onTop, onBottom));
+            }
+        });
+        if (tableView.getSkin() != null) {
+            bindScrollBar(tableView, onTop, onBottom);
+        }
+    }
+    
+    /**
+     * Índice da primeira linha visível, ou -1 se a tabela ainda não foi desenhada
+     */
+    public static int getFirstVisibleIndex(TableView<?> tableView) {
+        VirtualFlow<?> flow = findVirtualFlow(tableView);
+        if (flow == null) {
+            return -1;
+        }
+        IndexedCell<?> cell = flow.getFirstVisibleCell();
+        return cell != null ? cell.getIndex() : -1;
+    }
+    
+    private static <T> void bindScrollBar(TableView<T> tableView, Runnable onTop, Runnable onBottom) {
+        for (Node node : tableView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    double range = scrollBar.getMax() - scrollBar.getMin();
+                    if (range <= 0) {
+                        return;
+                    }
+                    double position = (newValue.doubleValue() - scrollBar.getMin()) / range;
+                    if (newValue.doubleValue() > oldValue.doubleValue() && position >= 1.0 - EDGE_THRESHOLD) {
+                        onBottom.run();
+                    } else if (newValue.doubleValue() < oldValue.doubleValue() && position <= EDGE_THRESHOLD) {
+                        onTop.run();
+                    }
+                });
+                return;
+            }
+        }
+    }
+    
+    private static VirtualFlow<?> findVirtualFlow(TableView<?> tableView) {
+        Node node = tableView.lookup(".virtual-flow");
+        return node instanceof VirtualFlow<?> flow ? flow : null;
+    }
+}
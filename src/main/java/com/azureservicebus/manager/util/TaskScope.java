@@ -0,0 +1,188 @@
+package com.azureservicebus.manager.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escopo nomeado de execução em virtual threads.
+ *
+ * Os escopos formam uma árvore a partir do escopo da aplicação (ex.: aplicação → perfil → diálogo).
+ * Cancelar um escopo cancela as tarefas em curso (JavaFX Task e FutureTask são cancelados, as
+ * restantes threads são interrompidas), o seu {@link CancellationToken} e todos os escopos filhos;
+ * tarefas submetidas depois disso são canceladas ou rejeitadas. Cada escopo conta as tarefas em
+ * curso na sua subárvore.
+ *
+ * Tarefas que esperam por I/O ou por um {@code CompletableFuture.get()} ocupam apenas uma virtual
+ * thread, por isso não é preciso limitar o número de tarefas: o paralelismo contra o Service Bus
+ * continua a ser controlado por {@link BoundedExecutor}.
+ */
+public final class TaskScope implements Executor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskScope.class);
+    
+    private static final TaskScope APPLICATION = new TaskScope("app", null);
+    
+    private final String name;
+    private final TaskScope parent;
+    private final ThreadFactory threadFactory;
+    private final CancellationToken cancellationToken = new CancellationToken();
+    private final Set<TaskScope> children = ConcurrentHashMap.newKeySet();
+    private final Map<Thread, Runnable> running = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Runnable> inFlightListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+    
+    private TaskScope(String name, TaskScope parent) {
+        this.name = parent != null ? parent.name + "/" + name : name;
+        this.parent = parent;
+        this.threadFactory = Thread.ofVirtual().name(this.name + "-", 1).factory();
+    }
+    
+    /**
+     * Escopo raiz da aplicação; só é cancelado no encerramento
+     */
+    public static TaskScope application() {
+        return APPLICATION;
+    }
+    
+    /**
+     * Cria um escopo filho; se este escopo já foi cancelado, o filho nasce cancelado
+     */
+    public TaskScope child(String childName) {
+        TaskScope child = new TaskScope(childName, this);
+        children.add(child);
+        if (cancelled) {
+            child.cancel();
+        }
+        return child;
+    }
+    
+    /**
+     * Executa a tarefa numa nova virtual thread do escopo.
+     *
+     * @throws RejectedExecutionException se o escopo foi cancelado e a tarefa não pode ser cancelada
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (cancelled) {
+            rejectOrCancel(task);
+            return;
+        }
+        
+        Thread thread = threadFactory.newThread(() -> {
+            try {
+                task.run();
+            } finally {
+                running.remove(Thread.currentThread());
+                changeInFlight(-1);
+            }
+        });
+        
+        running.put(thread, task);
+        changeInFlight(1);
+        thread.start();
+        
+        // Cancelamento concorrente com a submissão: garantir que a tarefa não fica de fora
+        if (cancelled) {
+            cancelTask(thread, task);
+        }
+    }
+    
+    /**
+     * Cancela as tarefas em curso, o token do escopo e todos os escopos filhos (apenas na primeira chamada)
+     */
+    public void cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+        }
+        
+        int pending = running.size();
+        if (pending > 0) {
+            logger.debug("Cancelando escopo '{}' com {} tarefas em curso", name, pending);
+        }
+        
+        cancellationToken.cancel();
+        for (TaskScope child : children) {
+            child.cancel();
+        }
+        running.forEach(TaskScope::cancelTask);
+        
+        if (parent != null) {
+            parent.children.remove(this);
+        }
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /**
+     * Token cancelado junto com o escopo, para operações que verificam o cancelamento entre passos
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+    
+    /**
+     * Número de tarefas em curso neste escopo e nos escopos filhos
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+    
+    /**
+     * Regista um listener chamado (na thread da tarefa) sempre que o número de tarefas em curso
+     * na subárvore muda
+     */
+    public void addInFlightListener(Runnable listener) {
+        inFlightListeners.add(listener);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    private void changeInFlight(int delta) {
+        for (TaskScope scope = this; scope != null; scope = scope.parent) {
+            scope.inFlight.addAndGet(delta);
+            for (Runnable listener : scope.inFlightListeners) {
+                listener.run();
+            }
+        }
+    }
+    
+    private void rejectOrCancel(Runnable task) {
+        if (task instanceof RunnableFuture<?> future) {
+            future.cancel(false);
+            return;
+        }
+        throw new RejectedExecutionException(String.format("Escopo '%s' cancelado", name));
+    }
+    
+    private static void cancelTask(Thread thread, Runnable task) {
+        if (task instanceof RunnableFuture<?> future) {
+            future.cancel(true);
+        } else {
+            thread.interrupt();
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (%d em curso%s)", name, inFlight.get(), cancelled ? ", cancelado" : "");
+    }
+}